@@ -28,6 +28,7 @@ public class Cqld4CqlReboundStatement extends Cqld4CqlOp {
     public Cqld4CqlReboundStatement(
         CqlSession session,
         int maxPages,
+        boolean streaming,
         boolean retryReplace,
         int maxLwtRetries,
         int lwtRetryCount,
@@ -35,7 +36,7 @@ public class Cqld4CqlReboundStatement extends Cqld4CqlOp {
         RSProcessors processors,
         CqlOpMetrics metrics
     ) {
-        super(session,maxPages,retryReplace,maxLwtRetries,lwtRetryCount, processors, metrics);
+        super(session,maxPages,streaming,retryReplace,maxLwtRetries,lwtRetryCount, processors, metrics);
         this.stmt = rebound;
     }
 
@@ -328,6 +328,7 @@ public class Cqld4Space extends BaseSpace<Cqld4Space> {
             .add(Param.optional("showstmt", Boolean.class, "show the contents of the statement in the log"))
             .add(Param.optional("cloud_proxy_address", String.class, "Cloud Proxy Address"))
             .add(Param.optional("maxpages", Integer.class, "Maximum number of pages allowed per CQL request"))
+            .add(Param.optional("streaming", Boolean.class, "Deliver rows to result processors page by page without keeping them as the op result"))
             .add(Param.optional("maxretryreplace", Integer.class, "Maximum number of retry replaces with LWT for a CQL request"))
             .add(Param.defaultTo("diag", "none").setDescription("What level of diagnostics to report"))
             .add(SSLKsFactory.get().getConfigModel())
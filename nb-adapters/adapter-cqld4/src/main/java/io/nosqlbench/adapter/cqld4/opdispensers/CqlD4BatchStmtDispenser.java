@@ -89,6 +89,7 @@ public class CqlD4BatchStmtDispenser extends Cqld4CqlBaseOpDispenser<Cqld4CqlBat
             sessionF.apply(cycle),
             (BatchStatement) bstmt,
             getMaxPages(),
+            isStreaming(),
             getMaxLwtRetries(),
             isRetryReplace(),
             this
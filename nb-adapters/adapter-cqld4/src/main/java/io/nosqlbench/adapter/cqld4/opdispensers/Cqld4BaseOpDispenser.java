@@ -46,6 +46,7 @@ public abstract class Cqld4BaseOpDispenser<T extends Cqld4BaseOp<?>> extends Bas
     private final static Logger logger = LogManager.getLogger("CQLD4");
 
     private final int maxpages;
+    private final boolean isStreaming;
     private final boolean isRetryReplace;
     private final int maxLwtRetries;
     private final Histogram rowsHistogram;
@@ -58,6 +59,7 @@ public abstract class Cqld4BaseOpDispenser<T extends Cqld4BaseOp<?>> extends Bas
         super((DriverAdapter<? extends T, ? extends Cqld4Space>) adapter, op, adapter.getSpaceFunc(op));
         this.sessionF = l -> adapter.getSpaceFunc(op).apply(l).getSession();
         this.maxpages = op.getStaticConfigOr("maxpages", 1);
+        this.isStreaming = op.getStaticConfigOr("streaming", false);
         this.isRetryReplace = op.getStaticConfigOr("retryreplace", false);
         this.maxLwtRetries = op.getStaticConfigOr("maxlwtretries", 1);
         this.rowsHistogram = create().histogram(
@@ -84,6 +86,10 @@ public abstract class Cqld4BaseOpDispenser<T extends Cqld4BaseOp<?>> extends Bas
         return maxpages;
     }
 
+    public boolean isStreaming() {
+        return isStreaming;
+    }
+
     public boolean isRetryReplace() {
         return isRetryReplace;
     }
@@ -103,6 +103,7 @@ public class Cqld4PreparedStmtDispenser extends Cqld4BaseOpDispenser<Cqld4CqlPre
                 sessionF.apply(cycle),
                 stmt,
                 getMaxPages(),
+                isStreaming(),
                 isRetryReplace(),
                 getMaxLwtRetries(),
                 processors,
@@ -52,6 +52,7 @@ public class Cqld4RawStmtDispenser extends Cqld4CqlBaseOpDispenser<Cqld4CqlSimpl
             sessionF.apply(cycle),
             (SimpleStatement) stmtFunc.apply(cycle),
             getMaxPages(),
+            isStreaming(),
             isRetryReplace(),
             getMaxLwtRetries(),
             this
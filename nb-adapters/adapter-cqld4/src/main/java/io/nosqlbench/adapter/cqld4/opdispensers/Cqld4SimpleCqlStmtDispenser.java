@@ -49,6 +49,7 @@ public class Cqld4SimpleCqlStmtDispenser extends Cqld4CqlBaseOpDispenser<Cqld4Cq
             this.sessionF.apply(cycle),
             (SimpleStatement) stmtFunc.apply(cycle),
             getMaxPages(),
+            isStreaming(),
             isRetryReplace(),
             getMaxLwtRetries(),
             this
@@ -29,8 +29,8 @@ public class Cqld4CqlBatchStatement extends Cqld4CqlOp {
 
     private final BatchStatement stmt;
 
-    public Cqld4CqlBatchStatement(CqlSession session, BatchStatement stmt, int maxPage, int maxLwtRetries, boolean retryReplace, CqlOpMetrics metrics) {
-        super(session,maxPage,retryReplace,maxLwtRetries,new RSProcessors(), metrics);
+    public Cqld4CqlBatchStatement(CqlSession session, BatchStatement stmt, int maxPage, boolean streaming, int maxLwtRetries, boolean retryReplace, CqlOpMetrics metrics) {
+        super(session,maxPage,streaming,retryReplace,maxLwtRetries,new RSProcessors(), metrics);
         this.stmt = stmt;
     }
 
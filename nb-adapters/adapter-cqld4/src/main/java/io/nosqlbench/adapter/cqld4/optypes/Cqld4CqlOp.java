@@ -22,6 +22,7 @@ import com.datastax.oss.driver.api.core.cql.*;
 import io.nosqlbench.adapter.cqld4.Cqld4CqlReboundStatement;
 import io.nosqlbench.adapter.cqld4.LWTRebinder;
 import io.nosqlbench.adapter.cqld4.RSProcessors;
+import io.nosqlbench.adapter.cqld4.ResultSetProcessor;
 import io.nosqlbench.adapter.cqld4.exceptions.ChangeUnappliedCycleException;
 import io.nosqlbench.adapter.cqld4.exceptions.ExceededRetryReplaceException;
 import io.nosqlbench.adapter.cqld4.exceptions.UnexpectedPagingException;
@@ -49,13 +50,28 @@ import java.util.function.Function;
 // TODO: add rows histogram resultSetSizeHisto
 
 
+/// The base op for all CQL statement types. Each page of results is handed to the configured
+/// [ResultSetProcessor]s as it arrives, and the next page is requested before the rows of the
+/// current page are consumed, so that paging overlaps with row processing.
+///
+/// ```
+/// executeAsync ─▶ page 1 ──┬─ fetchNextPage ─▶ page 2 ──┬─ ... ─▶ complete
+///                          └─ processors.buffer(rows)    └─ processors.buffer(rows)
+/// ```
+///
+/// When `streaming` is enabled, rows are only delivered to the processors and the row list is
+/// never built, so the op result is empty and memory use is bounded by one page per op. Row,
+/// page and byte counts are kept as pages arrive in either mode.
+///
+/// This is an [AsyncCycleOp], so with `async=N` the motor does not wait on the driver future.
 public abstract class Cqld4CqlOp
-    implements Cqld4BaseOp<List<Row>>, UniformVariableCapture<List<Row>>, OpGenerator, OpResultSize {
+    implements Cqld4BaseOp<List<Row>>, AsyncCycleOp<List<Row>>, UniformVariableCapture<List<Row>>, OpGenerator, OpResultSize {
 
     private final static Logger logger = LogManager.getLogger(Cqld4CqlOp.class);
 
     private final CqlSession session;
     private final int maxPages;
+    private final boolean streaming;
     private final boolean retryReplace;
     private final int maxLwtRetries;
     private final RSProcessors processors;
@@ -70,6 +86,7 @@ public abstract class Cqld4CqlOp
     public Cqld4CqlOp(
         CqlSession session,
         int maxPages,
+        boolean streaming,
         boolean retryReplace,
         int maxLwtRetries,
         RSProcessors processors,
@@ -77,6 +94,7 @@ public abstract class Cqld4CqlOp
     ) {
         this.session = session;
         this.maxPages = maxPages;
+        this.streaming = streaming;
         this.retryReplace = retryReplace;
         this.maxLwtRetries = maxLwtRetries;
         this.processors = processors;
@@ -86,6 +104,7 @@ public abstract class Cqld4CqlOp
     protected Cqld4CqlOp(
         CqlSession session,
         int maxPages,
+        boolean streaming,
         boolean retryReplace,
         int maxLwtRetries,
         int retryReplaceCount,
@@ -94,6 +113,7 @@ public abstract class Cqld4CqlOp
     ) {
         this.session = session;
         this.maxPages = maxPages;
+        this.streaming = streaming;
         this.retryReplace = retryReplace;
         this.maxLwtRetries = maxLwtRetries;
         this.retryReplaceCount = retryReplaceCount;
@@ -103,25 +123,8 @@ public abstract class Cqld4CqlOp
 
     @Override
     public List<Row> apply(long cycle) {
-
-        Statement<?> statement = getStmt();
-        logger.trace(() -> "apply() invoked, statement obtained, executing async with page size: " + statement.getPageSize() + " thread local rows: ");
-        CompletionStage<AsyncResultSet> statementStage = session.executeAsync(statement);
-
-        CompletionStage<List<Row>> rowsStage = statementStage.thenCompose((rs) -> {
-            processors.start(cycle, rs);
-            ArrayList<Row> completeRowSet = new ArrayList<>();
-            if (!rs.wasApplied()) {
-                handleRebindLWT(rs, statement);
-            }
-            return collect(rs, completeRowSet, cycle);
-        }).exceptionally(throwable -> {
-            if (throwable instanceof RuntimeException tre) throw tre;
-            throw new RuntimeException(throwable);
-        });
-
         try {
-            return new PrintableRowList(rowsStage.toCompletableFuture().get(300, TimeUnit.SECONDS));
+            return applyAsync(cycle).toCompletableFuture().get(300, TimeUnit.SECONDS);
         } catch (ExecutionException exe) {
             Throwable ee = exe.getCause();
             if (ee instanceof RuntimeException re) {
@@ -131,20 +134,43 @@ public abstract class Cqld4CqlOp
             throw new NBInterruptedException(ie);
         } catch (TimeoutException e) {
             throw new NBTimeoutException(e);
-        } finally {
-            processors.flush();
+        }
+    }
+
+    @Override
+    public CompletionStage<List<Row>> applyAsync(long cycle) {
+        fetchedPages = 0;
+        fetchedRows = 0;
+        fetchedBytes = 0;
+
+        Statement<?> statement = getStmt();
+        logger.trace(() -> "applyAsync() invoked, statement obtained, executing async with page size: " + statement.getPageSize());
+        List<ResultSetProcessor> cycleProcessors = processors.get();
+        ArrayList<Row> rowList = streaming ? null : new ArrayList<>();
+
+        return session.executeAsync(statement).thenCompose((rs) -> {
+            for (ResultSetProcessor processor : cycleProcessors) {
+                processor.start(cycle, rs);
+            }
+            if (!rs.wasApplied()) {
+                handleRebindLWT(rs, statement, cycleProcessors);
+            }
+            return consume(rs, rowList, cycleProcessors);
+        }).whenComplete((rows, error) -> {
+            for (ResultSetProcessor processor : cycleProcessors) {
+                processor.flush();
+            }
             metrics.recordFetchedPages(fetchedPages);
             metrics.recordFetchedRows(fetchedRows);
             metrics.recordFetchedBytes(fetchedBytes);
-        }
+        });
     }
 
-//            logger.trace(() -> "\n\n--- Rows collected for cycle: " + cycle + " count: "
-//                + rs.size() + " dt: " + System.nanoTime());
-//
-//            results.set(completeRowSet);
-//            processors.flush();
-
+    /// The number of rows fetched so far by the current or most recent execution.
+    @Override
+    public long getResultSize() {
+        return fetchedRows;
+    }
 
     public static class PrintableRowList extends ArrayList<Row> {
         public PrintableRowList(List<Row> values) {
@@ -203,30 +229,46 @@ public abstract class Cqld4CqlOp
 
     private Cqld4CqlOp rebindLwt(Statement<?> stmt, Row row) {
         BoundStatement rebound = LWTRebinder.rebindUnappliedStatement(stmt, row);
-        return new Cqld4CqlReboundStatement(session, maxPages, retryReplace, maxLwtRetries, retryReplaceCount, rebound, processors, metrics);
+        return new Cqld4CqlReboundStatement(session, maxPages, streaming, retryReplace, maxLwtRetries, retryReplaceCount, rebound, processors, metrics);
     }
 
-    private CompletionStage<List<Row>> collect(AsyncResultSet resultSet, ArrayList<Row> rowList, final long cycle) {
-        fetchedBytes += resultSet.getExecutionInfo().getResponseSizeInBytes();
-        if (++fetchedPages > maxPages) {
-            throw new UnexpectedPagingException(resultSet, getQueryString(), fetchedPages, maxPages, getStmt().getPageSize());
-        }
-        int remaining = resultSet.remaining();
+    /// Consume one page, requesting the next page (if any) before its rows are processed.
+    /// When more pages remain after the last page allowed by `maxpages`, the rows of that page
+    /// are still processed, and then the op fails without fetching further.
+    private CompletionStage<List<Row>> consume(
+        AsyncResultSet page,
+        ArrayList<Row> rowList,
+        List<ResultSetProcessor> cycleProcessors
+    ) {
+        fetchedBytes += page.getExecutionInfo().getResponseSizeInBytes();
+        fetchedPages++;
+        boolean pagingExceeded = page.hasMorePages() && fetchedPages >= maxPages;
+        CompletionStage<AsyncResultSet> nextPage = (page.hasMorePages() && !pagingExceeded) ? page.fetchNextPage() : null;
+
+        int remaining = page.remaining();
         fetchedRows += remaining;
-        rowList.ensureCapacity(rowList.size() + remaining);
-        for (Row row : resultSet.currentPage()) {
-            rowList.add(row);
-            processors.buffer(row);
+        if (rowList != null) {
+            rowList.ensureCapacity(rowList.size() + remaining);
         }
-        if (resultSet.hasMorePages()) {
-            return resultSet.fetchNextPage().thenCompose(rs -> collect(rs, rowList, cycle));
-        } else {
-            processors.start(cycle, resultSet);
-            return CompletableFuture.completedStage(rowList);
+        for (Row row : page.currentPage()) {
+            if (rowList != null) {
+                rowList.add(row);
+            }
+            for (ResultSetProcessor processor : cycleProcessors) {
+                processor.buffer(row);
+            }
         }
+
+        if (pagingExceeded) {
+            throw new UnexpectedPagingException(page, getQueryString(), fetchedPages, maxPages, getStmt().getPageSize());
+        }
+        if (nextPage != null) {
+            return nextPage.thenCompose(rs -> consume(rs, rowList, cycleProcessors));
+        }
+        return CompletableFuture.completedStage(rowList == null ? List.of() : new PrintableRowList(rowList));
     }
 
-    private void handleRebindLWT(AsyncResultSet resultSet, Statement<?> statement) {
+    private void handleRebindLWT(AsyncResultSet resultSet, Statement<?> statement, List<ResultSetProcessor> cycleProcessors) {
         if (++lwtRetries < maxLwtRetries) {
             throw new ExceededRetryReplaceException(resultSet, getQueryString(), lwtRetries);
         }
@@ -238,7 +280,9 @@ public abstract class Cqld4CqlOp
                 throw new ExceededRetryReplaceException(resultSet, getQueryString(), retryReplaceCount);
             }
             Row one = resultSet.one();
-            processors.buffer(one);
+            for (ResultSetProcessor processor : cycleProcessors) {
+                processor.buffer(one);
+            }
             nextOp = this.rebindLwt(statement, one);
         }
     }
@@ -24,8 +24,8 @@ import io.nosqlbench.adapter.cqld4.RSProcessors;
 import io.nosqlbench.adapter.cqld4.instruments.CqlOpMetrics;
 
 public class Cqld4CqlOpImpl extends Cqld4CqlOp {
-    public Cqld4CqlOpImpl(CqlSession session, int maxPages, boolean retryReplace, int maxLwtRetries, RSProcessors processors, CqlOpMetrics metrics) {
-        super(session, maxPages, retryReplace, maxLwtRetries, processors, metrics);
+    public Cqld4CqlOpImpl(CqlSession session, int maxPages, boolean streaming, boolean retryReplace, int maxLwtRetries, RSProcessors processors, CqlOpMetrics metrics) {
+        super(session, maxPages, streaming, retryReplace, maxLwtRetries, processors, metrics);
     }
 
     @Override
@@ -29,12 +29,13 @@ public class Cqld4CqlPreparedStatement extends Cqld4CqlOp {
         CqlSession session,
         BoundStatement stmt,
         int maxPages,
+        boolean streaming,
         boolean retryReplace,
         int maxLwtRetries,
         RSProcessors processors,
         CqlOpMetrics metrics
     ) {
-        super(session, maxPages, retryReplace, maxLwtRetries, processors, metrics);
+        super(session, maxPages, streaming, retryReplace, maxLwtRetries, processors, metrics);
         this.stmt = stmt;
     }
 
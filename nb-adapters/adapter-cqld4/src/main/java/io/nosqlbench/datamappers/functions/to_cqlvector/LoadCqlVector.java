@@ -22,8 +22,8 @@ import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.Example;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 import io.nosqlbench.virtdata.library.basics.core.threadstate.SharedState;
+import io.nosqlbench.virtdata.library.basics.core.threadstate.StateSlots;
 
-import java.util.HashMap;
 import java.util.function.Function;
 
 @Categories(Category.state)
@@ -31,12 +31,14 @@ import java.util.function.Function;
 public class LoadCqlVector implements Function<Object,com.datastax.oss.driver.api.core.data.CqlVector> {
 
     private final String name;
+    private final int slot;
     private final Function<Object,Object> nameFunc;
     private final com.datastax.oss.driver.api.core.data.CqlVector defaultValue;
 
     @Example({"LoadDouble('foo')","for the current thread, load a double value from the named variable."})
     public LoadCqlVector(String name) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
         this.defaultValue=com.datastax.oss.driver.api.core.data.CqlVector.newInstance(0.0f);
     }
@@ -45,6 +47,7 @@ public class LoadCqlVector implements Function<Object,com.datastax.oss.driver.ap
             "or the default value if the named variable is not defined."})
     public LoadCqlVector(String name, int len) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
         Double[] ary = new Double[len];
         for (int i = 0; i < len; i++) {
@@ -55,9 +58,9 @@ public class LoadCqlVector implements Function<Object,com.datastax.oss.driver.ap
 
     @Override
     public com.datastax.oss.driver.api.core.data.CqlVector apply(Object o) {
-        HashMap<String, Object> map = SharedState.tl_ObjectMap.get();
-        String varname=(nameFunc!=null) ? String.valueOf(nameFunc.apply(o)) : name;
-        Object value = map.getOrDefault(varname, defaultValue);
+        StateSlots state = SharedState.state();
+        int slot = (nameFunc!=null) ? state.existingSlot(String.valueOf(nameFunc.apply(o))) : this.slot;
+        Object value = state.getOrDefault(slot, defaultValue);
         if (value instanceof CqlVector<?> cqlvector) {
             return cqlvector;
         } else if (value instanceof float[] fa) {
@@ -21,9 +21,9 @@ import io.nosqlbench.virtdata.api.annotations.Categories;
 import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 import io.nosqlbench.virtdata.library.basics.core.threadstate.SharedState;
+import io.nosqlbench.virtdata.library.basics.core.threadstate.StateSlots;
 
 import java.lang.reflect.Array;
-import java.util.HashMap;
 import java.util.List;
 import java.util.function.Function;
 import java.util.function.LongFunction;
@@ -33,6 +33,7 @@ import java.util.function.LongFunction;
 public class LoadCqlVectorFromArray implements LongFunction<CqlVector> {
 
     private final String name;
+    private final int slot;
     private final Function<Object, Object> nameFunc;
     private final CqlVector[] defaultValue;
     private final int len;
@@ -40,6 +41,7 @@ public class LoadCqlVectorFromArray implements LongFunction<CqlVector> {
 
     public LoadCqlVectorFromArray(String name, int len, int batchsize) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc = null;
         Float[] ary = new Float[len];
         for (int i = 0; i < len; i++) {
@@ -53,9 +55,9 @@ public class LoadCqlVectorFromArray implements LongFunction<CqlVector> {
     @Override
     public CqlVector apply(long cycle) {
         int offset = (int) (cycle % batchsize);
-        HashMap<String, Object> map = SharedState.tl_ObjectMap.get();
-        String varname = (nameFunc != null) ? String.valueOf(nameFunc.apply(cycle)) : name;
-        Object object = map.getOrDefault(varname, defaultValue);
+        StateSlots state = SharedState.state();
+        int slot = (nameFunc!=null) ? state.existingSlot(String.valueOf(nameFunc.apply(cycle))) : this.slot;
+        Object object = state.getOrDefault(slot, defaultValue);
         if (object.getClass().isArray()) {
             object = Array.get(object,offset);
         } else if (object instanceof double[][] dary) {
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.cqld4.optypes;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.ExecutionInfo;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import io.nosqlbench.adapter.cqld4.RSProcessors;
+import io.nosqlbench.adapter.cqld4.ResultSetProcessor;
+import io.nosqlbench.adapter.cqld4.exceptions.UnexpectedPagingException;
+import io.nosqlbench.adapter.cqld4.instruments.CqlOpMetrics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/// Drives the async paging path of [Cqld4CqlOp] against a session whose pages arrive on
+/// other threads, as they do from the driver.
+@Tag("unit")
+public class Cqld4CqlOpPagingTest {
+
+    private static final int ROWS_PER_PAGE = 2;
+    private static final int PAGE_BYTES = 100;
+
+    @Test
+    public void testAllowedPagesAreConsumedAsync() throws Exception {
+        FakeResults results = new FakeResults(3);
+        List<Row> rows = results.op(3, false).applyAsync(1L).toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+        assertThat(rows).hasSize(3 * ROWS_PER_PAGE);
+        assertThat(results.events).doesNotContain("fetch 3");
+        assertThat(results.events.indexOf("fetch 1"))
+            .as("the next page is requested before the rows of the current page are processed")
+            .isLessThan(results.events.indexOf("row 0.0"));
+        assertThat(results.pages.get()).isEqualTo(3);
+        assertThat(results.rows.get()).isEqualTo(3 * ROWS_PER_PAGE);
+        assertThat(results.bytes.get()).isEqualTo(3 * PAGE_BYTES);
+        assertThat(results.events).endsWith("flush");
+    }
+
+    @Test
+    public void testLastAllowedPageIsProcessedBeforePagingFails() {
+        FakeResults results = new FakeResults(3);
+        Cqld4CqlOp op = results.op(2, false);
+
+        assertThatThrownBy(() -> op.applyAsync(1L).toCompletableFuture().get(10, TimeUnit.SECONDS))
+            .isInstanceOf(ExecutionException.class)
+            .cause()
+            .isInstanceOf(UnexpectedPagingException.class)
+            .hasMessageContaining("fetched/allowed: 2/2");
+
+        assertThat(results.events).contains("row 1.0", "row 1.1");
+        assertThat(results.events).as("no page beyond maxpages is fetched").doesNotContain("fetch 2");
+        assertThat(results.pages.get()).isEqualTo(2);
+        assertThat(results.rows.get()).isEqualTo(2 * ROWS_PER_PAGE);
+        assertThat(results.events).endsWith("flush");
+    }
+
+    @Test
+    public void testSinglePageNeedsNoPaging() throws Exception {
+        FakeResults results = new FakeResults(1);
+        List<Row> rows = results.op(1, false).applyAsync(1L).toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+        assertThat(rows).hasSize(ROWS_PER_PAGE);
+        assertThat(results.events).noneMatch(event -> event.startsWith("fetch"));
+        assertThat(results.pages.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testStreamingDeliversRowsWithoutKeepingThem() throws Exception {
+        FakeResults results = new FakeResults(2);
+        Cqld4CqlOp op = results.op(5, true);
+        List<Row> rows = op.applyAsync(1L).toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+        assertThat(rows).isEmpty();
+        assertThat(op.getResultSize()).isEqualTo(2 * ROWS_PER_PAGE);
+        assertThat(results.events).contains("row 0.0", "row 0.1", "row 1.0", "row 1.1");
+    }
+
+    /// A session with the given number of pages for every statement. Pages, rows and result
+    /// processor calls are recorded in order as events, along with the paging metrics.
+    private static final class FakeResults {
+        private final int pageCount;
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private final AtomicInteger pages = new AtomicInteger();
+        private final AtomicInteger rows = new AtomicInteger();
+        private final AtomicInteger bytes = new AtomicInteger();
+
+        private FakeResults(int pageCount) {
+            this.pageCount = pageCount;
+        }
+
+        private Cqld4CqlOp op(int maxPages, boolean streaming) {
+            SimpleStatement statement = SimpleStatement.newInstance("SELECT * FROM paging_test");
+            RSProcessors processors = new RSProcessors().add(() -> new RecordingProcessor(events));
+            CqlOpMetrics metrics = new CqlOpMetrics() {
+                @Override
+                public void recordFetchedPages(int fetchedPages) {
+                    pages.set(fetchedPages);
+                }
+
+                @Override
+                public void recordFetchedRows(int fetchedRows) {
+                    rows.set(fetchedRows);
+                }
+
+                @Override
+                public void recordFetchedBytes(int fetchedBytes) {
+                    bytes.set(fetchedBytes);
+                }
+            };
+            return new Cqld4CqlOp(session(), maxPages, streaming, false, 1, processors, metrics) {
+                @Override
+                public Statement<?> getStmt() {
+                    return statement;
+                }
+
+                @Override
+                public String getQueryString() {
+                    return statement.getQuery();
+                }
+            };
+        }
+
+        private CqlSession session() {
+            return proxy(CqlSession.class, "session", (method, args) -> {
+                if (method.getName().equals("executeAsync") && args.length == 1 && args[0] instanceof Statement<?>) {
+                    events.add("execute");
+                    return CompletableFuture.supplyAsync(() -> page(0));
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+        }
+
+        private AsyncResultSet page(int index) {
+            ExecutionInfo info = proxy(ExecutionInfo.class, "info " + index, (method, args) -> {
+                if (method.getName().equals("getResponseSizeInBytes")) {
+                    return (method.getReturnType() == long.class) ? (Object) (long) PAGE_BYTES : (Object) PAGE_BYTES;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+            List<Row> current = new ArrayList<>();
+            for (int i = 0; i < ROWS_PER_PAGE; i++) {
+                current.add(proxy(Row.class, "row " + index + "." + i, (method, args) -> {
+                    throw new UnsupportedOperationException(method.getName());
+                }));
+            }
+            return proxy(AsyncResultSet.class, "page " + index, (method, args) -> switch (method.getName()) {
+                case "getExecutionInfo" -> info;
+                case "wasApplied" -> true;
+                case "hasMorePages" -> index < pageCount - 1;
+                case "remaining" -> current.size();
+                case "currentPage" -> current;
+                case "fetchNextPage" -> {
+                    events.add("fetch " + (index + 1));
+                    yield CompletableFuture.supplyAsync(() -> page(index + 1));
+                }
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+        }
+    }
+
+    private record RecordingProcessor(List<String> events) implements ResultSetProcessor {
+        @Override
+        public void start(long cycle, AsyncResultSet container) {
+            events.add("start");
+        }
+
+        @Override
+        public void buffer(Row element) {
+            events.add(element.toString());
+        }
+
+        @Override
+        public void flush() {
+            events.add("flush");
+        }
+    }
+
+    private interface Handler {
+        Object invoke(Method method, Object[] args);
+    }
+
+    /// A proxy whose object methods use the given name, and whose other methods are answered
+    /// by the handler.
+    private static <T> T proxy(Class<T> type, String name, Handler handler) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) -> switch (method.getName()) {
+            case "toString" -> name;
+            case "hashCode" -> System.identityHashCode(self);
+            case "equals" -> self == args[0];
+            default -> handler.invoke(method, args == null ? new Object[0] : args);
+        });
+        return type.cast(proxy);
+    }
+}
@@ -25,12 +25,12 @@ import io.nosqlbench.nb.api.config.standard.NBConfiguration;
 import io.nosqlbench.nb.api.config.standard.NBReconfigurable;
 
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.LongFunction;
 
 public class DiagOpMapper implements OpMapper<DiagOp,DiagSpace>, NBReconfigurable {
-    private final Map<String,DiagOpDispenser> dispensers = new LinkedHashMap<>();
+    private final Map<String,DiagOpDispenser> dispensers = new ConcurrentHashMap<>();
     private final DiagDriverAdapter adapter;
 
     public DiagOpMapper(DiagDriverAdapter adapter) {
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.nosqlbench.adapter.diag;
+
+import io.nosqlbench.adapters.api.activityimpl.OpDispenser;
+import io.nosqlbench.adapters.api.activityimpl.uniform.flowtypes.CycleOp;
+import io.nosqlbench.engine.api.activityapi.core.Activity;
+import io.nosqlbench.engine.api.activityapi.planning.OpSequence;
+import io.nosqlbench.nb.api.config.standard.TestComponent;
+import io.nosqlbench.nb.api.engine.activityimpl.ActivityDef;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+public class DiagOpSynthesisTest {
+
+    private static String workload(int templates) {
+        StringBuilder sb = new StringBuilder("ops:\n");
+        for (int i = 0; i < templates; i++) {
+            sb.append(String.format("  op%02d:\n    noop: noop\n    ratio: %d\n", i, 1 + (i % 3)));
+        }
+        return sb.toString();
+    }
+
+    private static OpSequence<OpDispenser<? extends CycleOp<?>>> synthesize(String alias, int threads) {
+        ActivityDef activityDef = ActivityDef.parseActivityDef(
+            "driver=diag;alias=" + alias + ";cycles=10;synthesis_threads=" + threads);
+        activityDef.getParams().set("workload", workload(24));
+        Activity activity = new Activity(new TestComponent("test", alias), activityDef);
+        return activity.getOpSequence();
+    }
+
+    private static List<String> opNames(OpSequence<OpDispenser<? extends CycleOp<?>>> sequence) {
+        return sequence.getOps().stream().map(OpDispenser::getOpName).toList();
+    }
+
+    @Test
+    public void testConcurrentSynthesisKeepsTemplateOrder() {
+        OpSequence<OpDispenser<? extends CycleOp<?>>> sequential = synthesize("synthesis_sequential", 1);
+        OpSequence<OpDispenser<? extends CycleOp<?>>> concurrent = synthesize("synthesis_concurrent", 8);
+
+        assertThat(opNames(sequential)).hasSize(24);
+        assertThat(opNames(concurrent)).containsExactlyElementsOf(opNames(sequential));
+        assertThat(concurrent.getSequence()).containsExactly(sequential.getSequence());
+    }
+}
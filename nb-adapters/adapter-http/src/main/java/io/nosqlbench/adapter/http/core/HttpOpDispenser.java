@@ -19,12 +19,19 @@ package io.nosqlbench.adapter.http.core;
 import io.nosqlbench.adapters.api.activityimpl.BaseOpDispenser;
 import io.nosqlbench.adapters.api.activityimpl.uniform.DriverAdapter;
 import io.nosqlbench.adapters.api.templating.ParsedOp;
+import io.nosqlbench.engine.api.templating.ParsedSpanType;
+import io.nosqlbench.virtdata.core.templates.BindPoint;
+import io.nosqlbench.virtdata.core.templates.RenderBuffer;
+import io.nosqlbench.virtdata.core.templates.StringCompositor;
 
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.LongFunction;
 import java.util.regex.Pattern;
@@ -34,7 +41,9 @@ public class HttpOpDispenser extends BaseOpDispenser<HttpOp, HttpSpace> {
     private final LongFunction<HttpOp> opFunc;
     public static final String DEFAULT_OK_BODY = ".+?";
     public static final String DEFAULT_OK_STATUS = "2..";
-
+    /// The body of each request is rendered into its thread's buffer, which is reused for the
+    /// life of the thread, as a stride slot's buffer is for stdout.
+    private final ThreadLocal<RenderBuffer> bodyBuffer = ThreadLocal.withInitial(() -> new RenderBuffer(1024));
 
     public HttpOpDispenser(DriverAdapter adapter, LongFunction<HttpSpace> ctxF, ParsedOp op) {
         super(adapter, op, adapter.getSpaceFunc(op));
@@ -44,12 +53,7 @@ public class HttpOpDispenser extends BaseOpDispenser<HttpOp, HttpSpace> {
     private LongFunction<HttpOp> getOpFunc(LongFunction<HttpSpace> ctxF, ParsedOp op) {
 
         LongFunction<HttpRequest.Builder> builderF = l -> HttpRequest.newBuilder();
-        LongFunction<String> bodyF = op.getAsFunctionOr("body", null);
-        LongFunction<HttpRequest.BodyPublisher> bodyPublisherF =
-            l -> Optional.ofNullable(bodyF.apply(l))
-                .map(s -> s + "\n")  // the elastic _bulk endpoint requires a newline at the end of the body
-                .map(HttpRequest.BodyPublishers::ofString)
-                .orElse(HttpRequest.BodyPublishers.noBody());
+        LongFunction<HttpRequest.BodyPublisher> bodyPublisherF = getBodyPublisherFunc(op);
 
         LongFunction<String> methodF = op.getAsFunctionOr("method", "GET");
         LongFunction<HttpRequest.Builder> initBuilderF =
@@ -127,6 +131,36 @@ public class HttpOpDispenser extends BaseOpDispenser<HttpOp, HttpSpace> {
         return opFunc;
     }
 
+    /// A body which is a dynamic string template is rendered into the thread's reusable buffer
+    /// and encoded straight to UTF-8 bytes, rather than being built as a String, copied to
+    /// append the newline, and encoded again by the publisher. Only the encoded bytes are copied
+    /// for each request, since the client may read the body after the op has been handed back
+    /// to the stride.
+    private LongFunction<HttpRequest.BodyPublisher> getBodyPublisherFunc(ParsedOp op) {
+        if (op.isDynamic("body") && op.getValueType("body") == String.class) {
+            Optional<StringCompositor> renderer = op.getAsTemplate("body")
+                .filter(t -> t.getType() == ParsedSpanType.concat)
+                .filter(t -> t.getBindPoints().stream().allMatch(
+                    b -> b.getType() == BindPoint.Type.reference || b.getType() == BindPoint.Type.definition))
+                .map(t -> t.renderer(Map.of()));
+            if (renderer.isPresent()) {
+                StringCompositor bodyRenderer = renderer.get();
+                return l -> {
+                    RenderBuffer body = bodyBuffer.get().reset();
+                    bodyRenderer.renderTo(l, body);
+                    body.append("\n"); // the elastic _bulk endpoint requires a newline at the end of the body
+                    ByteBuffer bytes = body.utf8();
+                    return HttpRequest.BodyPublishers.ofByteArray(Arrays.copyOf(bytes.array(), bytes.limit()));
+                };
+            }
+        }
+        LongFunction<String> bodyF = op.getAsFunctionOr("body", null);
+        return l -> Optional.ofNullable(bodyF.apply(l))
+            .map(s -> s + "\n")  // the elastic _bulk endpoint requires a newline at the end of the body
+            .map(HttpRequest.BodyPublishers::ofString)
+            .orElse(HttpRequest.BodyPublishers.noBody());
+    }
+
     @Override
     public HttpOp getOp(long cycle) {
         HttpOp op = this.opFunc.apply(cycle);
@@ -16,21 +16,60 @@
 
 package io.nosqlbench.adapter.stdout;
 
+import io.nosqlbench.adapters.api.activityimpl.flow.FlowContextAwareOp;
+import io.nosqlbench.adapters.api.activityimpl.flow.OpFlowContext;
 import io.nosqlbench.adapters.api.activityimpl.uniform.flowtypes.CycleOp;
+import io.nosqlbench.virtdata.core.bindings.BindingColumns;
+import io.nosqlbench.virtdata.core.templates.RenderBuffer;
+import io.nosqlbench.virtdata.core.templates.StringCompositor;
 
-public class StdoutOp implements CycleOp<String> {
+/// Write one op's text to the space's writer. The text is either given up front, or rendered
+/// from a string template into the [RenderBuffer] of the stride slot running this op and written
+/// from there. Since that buffer is reused by the slot's next cycle, the result of a rendered op
+/// is an immutable copy of its text, which verifiers and captures may keep. Rendered values are
+/// read from the stride's binding columns when they are given.
+public class StdoutOp implements CycleOp<CharSequence>, FlowContextAwareOp {
 
     private final StdoutSpace ctx;
     private final String text;
+    private final StringCompositor renderer;
+    private final BindingColumns columns;
+    private RenderBuffer buffer;
 
     public StdoutOp(StdoutSpace ctx, String text) {
         this.ctx = ctx;
         this.text = text;
+        this.renderer = null;
+        this.columns = null;
+    }
+
+    /// @param columns the binding columns of the current stride, or null to evaluate bindings
+    ///     for each cycle
+    public StdoutOp(StdoutSpace ctx, StringCompositor renderer, BindingColumns columns) {
+        this.ctx = ctx;
+        this.text = null;
+        this.renderer = renderer;
+        this.columns = columns;
+    }
+
+    @Override
+    public void setFlowContext(OpFlowContext context, int spaceIndex) {
+        this.buffer = context.renderBuffer();
     }
 
     @Override
-    public String apply(long cycle) {
-        ctx.writeflush(text);
-        return text;
+    public CharSequence apply(long cycle) {
+        if (renderer == null) {
+            ctx.writeflush(text);
+            return text;
+        }
+        RenderBuffer rendered = (buffer != null ? buffer : new RenderBuffer(1024)).reset();
+        if (columns != null) {
+            renderer.renderTo(cycle, columns, rendered);
+        } else {
+            renderer.renderTo(cycle, rendered);
+        }
+        ctx.writeflush(rendered);
+        return rendered.toString();
     }
 }
@@ -19,6 +19,14 @@ package io.nosqlbench.adapter.stdout;
 import io.nosqlbench.adapters.api.activityimpl.BaseOpDispenser;
 import io.nosqlbench.adapters.api.activityimpl.uniform.DriverAdapter;
 import io.nosqlbench.adapters.api.templating.ParsedOp;
+import io.nosqlbench.engine.api.templating.ParsedSpanType;
+import io.nosqlbench.virtdata.core.bindings.BindingColumns;
+import io.nosqlbench.virtdata.core.templates.BindPoint;
+import io.nosqlbench.virtdata.core.templates.ParsedTemplateString;
+import io.nosqlbench.virtdata.core.templates.StringCompositor;
+
+import java.util.Map;
+import java.util.Optional;
 
 import java.util.function.LongFunction;
 
@@ -26,6 +34,7 @@ public class StdoutOpDispenser extends BaseOpDispenser<StdoutOp,StdoutSpace> {
 
     private final LongFunction<StdoutSpace> ctxfunc;
     private final LongFunction<String> outFunction;
+    private final StringCompositor renderer;
 
     public StdoutOpDispenser(DriverAdapter adapter, ParsedOp cmd, LongFunction<StdoutSpace> ctxfunc) {
         super(adapter,cmd, adapter.getSpaceFunc(cmd));
@@ -34,12 +43,41 @@ public class StdoutOpDispenser extends BaseOpDispenser<StdoutOp,StdoutSpace> {
         LongFunction<String> stringfunc = l -> objectFunction.apply(l).toString();
         cmd.enhanceFuncOptionally(stringfunc,"suffix",String.class,(a, b) -> a+b);
         this.outFunction = stringfunc;
+        this.renderer = renderable(cmd).map(t -> t.renderer(Map.of())).orElse(null);
+    }
+
+    /// A dynamic stmt which is a plain string template, with text around its bind points and no
+    /// references to captured values, can be rendered straight into the stride slot's buffer.
+    private static Optional<ParsedTemplateString> renderable(ParsedOp cmd) {
+        if (cmd.isStatic("stmt") || cmd.getValueType("stmt") != String.class) {
+            return Optional.empty();
+        }
+        return cmd.getAsTemplate("stmt")
+            .filter(t -> t.getType() == ParsedSpanType.concat)
+            .filter(t -> t.getBindPoints().stream().allMatch(
+                b -> b.getType() == BindPoint.Type.reference || b.getType() == BindPoint.Type.definition));
     }
 
     @Override
     public StdoutOp getOp(long cycle) {
         StdoutSpace ctx = ctxfunc.apply(cycle);
+        if (renderer != null) {
+            return new StdoutOp(ctx, renderer, null);
+        }
         String output = outFunction.apply(cycle);
         return new StdoutOp(ctx,output);
     }
+
+    @Override
+    public BindingColumns newStrideColumns(int capacity) {
+        return renderer != null ? renderer.newColumns(capacity) : null;
+    }
+
+    @Override
+    public StdoutOp getOp(long cycle, BindingColumns columns) {
+        if (renderer == null) {
+            return getOp(cycle);
+        }
+        return new StdoutOp(ctxfunc.apply(cycle), renderer, columns);
+    }
 }
@@ -21,6 +21,7 @@ import io.nosqlbench.nb.api.config.standard.ConfigModel;
 import io.nosqlbench.nb.api.config.standard.NBConfigModel;
 import io.nosqlbench.nb.api.config.standard.NBConfiguration;
 import io.nosqlbench.nb.api.config.standard.Param;
+import io.nosqlbench.virtdata.core.templates.RenderBuffer;
 
 import java.io.FileNotFoundException;
 import java.io.PrintWriter;
@@ -46,6 +47,15 @@ public class StdoutSpace extends BaseSpace<StdoutSpace> {
         }
     }
 
+    public void writeflush(RenderBuffer text) {
+        try {
+            text.writeTo(writer);
+            writer.flush();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     protected Writer createPrintWriter(String filename) {
         PrintWriter pw;
         if (filename.equalsIgnoreCase("stdout")) {
@@ -94,11 +94,11 @@ public abstract class BaseOpDispenser<OP extends CycleOp<?>, SPACE extends Space
     private final List<Class<?>> verifierStaticImports = new ArrayList<>();
     /**
      * optional invokable functions which throw exceptions when results are not verifiable.
-     * This variable is kept here for diagnostics and debugging. The actual instance used within
-     * each thread is provided by a {@link ThreadLocal} via {@link #getVerifier()}
+     * One instance is shared by all threads, which call it with
+     * {@link CycleFunction#apply(long, Object)} so that each call has its own variables.
      */
     private final CycleFunction<Boolean> _verifier;
-    private final ThreadLocal<CycleFunction<Boolean>> tlVerifier;
+    private final long verifierCompileNanos;
 
     protected BaseOpDispenser(final NBComponent parentC, final ParsedOp op, LongFunction<? extends SPACE> spaceF) {
         this(parentC, op, spaceF, null);
@@ -133,10 +133,11 @@ public abstract class BaseOpDispenser<OP extends CycleOp<?>, SPACE extends Space
 
         this.configureInstrumentation(op);
         this.configureVerifierImports(op);
+        long verifierStart = System.nanoTime();
         List<CycleFunction<Boolean>> verifiers = new ArrayList<>();
         verifiers = configureVerifiers(op);
+        this.verifierCompileNanos = System.nanoTime() - verifierStart;
         this._verifier = CycleFunctions.of((a, b) -> a && b, verifiers, true);
-        this.tlVerifier = ThreadLocal.withInitial(_verifier::newInstance);
         this.verifierTimer = create().timer(
             "verifier",
             3,
@@ -145,12 +146,14 @@ public abstract class BaseOpDispenser<OP extends CycleOp<?>, SPACE extends Space
         );
     }
 
-    private CycleFunction<Boolean> cloneVerifiers() {
-        return this._verifier.newInstance();
+    public CycleFunction<Boolean> getVerifier() {
+        return this._verifier;
     }
 
-    public CycleFunction<Boolean> getVerifier() {
-        return this.tlVerifier.get();
+    /// @return the time taken to compile the verifier-init, verifier and expected-result
+    ///     scripts of this op template while it was constructed
+    public long getVerifierCompileNanos() {
+        return verifierCompileNanos;
     }
 
     private void configureVerifierImports(ParsedOp op) {
@@ -20,6 +20,7 @@ import io.nosqlbench.adapters.api.activityimpl.uniform.flowtypes.CycleOp;
 import io.nosqlbench.adapters.api.evalctx.CycleFunction;
 import io.nosqlbench.adapters.api.activityconfig.yaml.OpTemplate;
 import io.nosqlbench.adapters.api.templating.ParsedOp;
+import io.nosqlbench.virtdata.core.bindings.BindingColumns;
 
 import java.util.Map;
 import java.util.function.LongFunction;
@@ -69,6 +70,25 @@ public interface OpDispenser<OPTYPE extends CycleOp<?>> extends LongFunction<OPT
     /// @return an executable operation
     OPTYPE getOp(long cycle);
 
+    /// Create columns for evaluating this dispenser's bindings over the cycles of a stride,
+    /// ahead of synthesizing its ops. Each action keeps its own columns and refills them for
+    /// every stride, then passes them to [#getOp(long, BindingColumns)].
+    /// @param capacity the number of cycles which one stride may need
+    /// @return the columns, or null if this dispenser does not read its values from columns
+    default BindingColumns newStrideColumns(int capacity) {
+        return null;
+    }
+
+    /// Synthesize the op for this cycle, reading binding values from columns which were
+    /// created by [#newStrideColumns(int)] and filled for the current stride. Implementations
+    /// must compute any value whose cycle is not in the columns, as [#getOp(long)] would.
+    /// @param cycle The cycle number which seeds any generated fields for binding.
+    /// @param columns binding values for the cycles of the current stride
+    /// @return an executable operation
+    default OPTYPE getOp(long cycle, BindingColumns columns) {
+        return getOp(cycle);
+    }
+
     CycleFunction<Boolean> getVerifier();
 
     String getOpName();
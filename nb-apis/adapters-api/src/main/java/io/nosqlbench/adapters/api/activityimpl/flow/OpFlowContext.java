@@ -16,6 +16,8 @@
 
 package io.nosqlbench.adapters.api.activityimpl.flow;
 
+import io.nosqlbench.virtdata.core.templates.RenderBuffer;
+
 import java.util.Arrays;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -47,6 +49,7 @@ public final class OpFlowContext {
     private final ConcurrentHashMap<String, Integer> valueOrdinals = new ConcurrentHashMap<>();
     private final AtomicInteger nextOrdinal = new AtomicInteger();
     private volatile long lastCycle;
+    private RenderBuffer renderBuffer;
 
     public OpFlowContext(long flowId, int initialCapacity, int initialSpaceCapacity) {
         this.flowId = flowId;
@@ -65,6 +68,18 @@ public final class OpFlowContext {
         return lastCycle;
     }
 
+    /// A text buffer which ops of this stride slot may render their payloads into, created on
+    /// first use. It is not cleared by [#reset(long)], so that its storage is reused across
+    /// cycles; the op using it is responsible for resetting it before rendering.
+    public RenderBuffer renderBuffer() {
+        RenderBuffer buffer = renderBuffer;
+        if (buffer == null) {
+            buffer = new RenderBuffer(1024);
+            renderBuffer = buffer;
+        }
+        return buffer;
+    }
+
     /// Get a value by ordinal within the default space.
     public Object get(int ordinal) {
         return get(ordinal, 0);
@@ -173,10 +173,12 @@ public abstract class BaseDriverAdapter<RESULT
             .add(Param.optional("threads").setRegex("\\d+|\\d+x|auto").setDescription("number of concurrent operations, controlled by threadpool"))
             .add(Param.optional("stride").setRegex("\\d+"))
             .add(Param.optional("striderate", String.class, "rate limit for strides per second"))
+            .add(Param.optional("stride_bindings", Boolean.class, "evaluate bindings for a whole stride before running its cycles, for op templates which support it, such as stdout"))
             .add(Param.optional("cycles").setRegex("\\d+[KMBGTPE]?|\\d+[KMBGTPE]?\\.\\.\\d+[KMBGTPE]?").setDescription("cycle interval to use"))
             .add(Param.optional("recycles").setDescription("allow cycles to be re-used this many times"))
             .add(Param.optional(List.of("cyclerate", "targetrate", "rate"), String.class, "rate limit for cycles per second"))
             .add(Param.optional("seq", String.class, "sequencing algorithm"))
+            .add(Param.optional("synthesis_threads", Integer.class, "number of threads which parse op templates, compiling their bindings, and map them to op dispensers at startup. Defaults to 1, which does both in order on one thread. Only raise it for adapters whose op mappers and spaces are safe to use concurrently"))
             .add(Param.optional("instrument", Boolean.class))
             .add(Param.optional(List.of("workload", "yaml"), String.class, "location of workload yaml file"))
             .add(Param.optional("driver", String.class))
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2024 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapters.api.activityimpl.uniform.flowtypes;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/// An [AsyncCycleOp] is a [CycleOp] which can be dispatched without blocking the calling
+/// thread. When an activity is run with `async=N`, the motor calls [#applyAsync(long)] and keeps
+/// up to `N` such ops in flight per motor, recording timers, results, and retries from the
+/// completion of the returned stage.
+///
+/// When the activity is not in async mode, the motor calls [#apply(long)] instead, which by
+/// default waits for the async result. Implementations which already have a more direct
+/// blocking path may override [#apply(long)].
+///
+/// ```
+/// motor ──applyAsync(cycle)──▶ driver future
+///   ▲                              │
+///   └──── whenComplete(result) ◀───┘   (timers, verifier, retries, result buffer)
+/// ```
+///
+/// As with any [CycleOp], calling [#applyAsync(long)] again must execute the same operation,
+/// since this is how retries are performed.
+public interface AsyncCycleOp<RESULT> extends CycleOp<RESULT> {
+
+    /// Start the operation for the given cycle and return a stage which completes with its
+    /// result, or exceptionally with the error which caused it to fail.
+    CompletionStage<RESULT> applyAsync(long value);
+
+    /// Wait for the async result, surfacing the original runtime error rather than the
+    /// [CompletionException] wrapper so that error handlers see the same types in both modes.
+    @Override
+    default RESULT apply(long value) {
+        try {
+            return applyAsync(value).toCompletableFuture().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw e;
+        }
+    }
+}
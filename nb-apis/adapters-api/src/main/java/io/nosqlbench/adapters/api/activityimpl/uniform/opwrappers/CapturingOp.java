@@ -51,5 +51,8 @@ public class CapturingOp<T> implements CycleOp<Map<String,?>>, FlowContextAwareO
     public void setFlowContext(OpFlowContext context, int spaceIndex) {
         this.flowContext = context;
         this.spaceIndex = spaceIndex;
+        if (op instanceof FlowContextAwareOp aware) {
+            aware.setFlowContext(context, spaceIndex);
+        }
     }
 }
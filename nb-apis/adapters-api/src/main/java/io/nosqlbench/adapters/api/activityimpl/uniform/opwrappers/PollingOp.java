@@ -36,8 +36,7 @@ public class PollingOp<T> implements CycleOp<T>, OpGenerator {
     @Override
     public synchronized T apply(long value) {
         T result = this.innerOp.apply(value);
-        untilCondition.setVariable("result",result);
-        boolean conditionIsMet = untilCondition.apply(value);
+        boolean conditionIsMet = untilCondition.apply(value, result);
         if (conditionIsMet) {
             onConditionMet(result);
             this.nextOp=null;
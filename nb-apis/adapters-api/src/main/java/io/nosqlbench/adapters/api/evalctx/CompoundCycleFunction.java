@@ -43,6 +43,15 @@ public class CompoundCycleFunction<T> implements CycleFunction<T> {
             .get();
     }
 
+    @Override
+    public T apply(long cycle, Object result) {
+        T reduced = functions.getFirst().apply(cycle, result);
+        for (int i = 1; i < functions.size(); i++) {
+            reduced = reducer.apply(reduced, functions.get(i).apply(cycle, result));
+        }
+        return reduced;
+    }
+
     @Override
     public CycleFunction<T> newInstance() {
         ArrayList<CycleFunction<T>> newFunctionList = new ArrayList<>(this.functions.size());
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.nosqlbench.adapters.api.evalctx;
+
+import groovy.lang.Binding;
+import groovy.lang.Script;
+
+/**
+ * The base class of scripts compiled by {@link GroovyCycleFunction}. An instance of the compiled
+ * script is made for each confined call, with a binding of its own, so assignments to undeclared
+ * variables go straight to that binding. This skips the search for a matching setter which
+ * {@link Script#setProperty(String, Object)} makes for each variable not yet in the binding, and
+ * which would otherwise be repeated on every call.
+ */
+public abstract class ConfinedScript extends Script {
+
+    protected ConfinedScript() {
+        super();
+    }
+
+    protected ConfinedScript(Binding binding) {
+        super(binding);
+    }
+
+    @Override
+    public void setProperty(String property, Object newValue) {
+        if ("binding".equals(property) || "metaClass".equals(property)) {
+            super.setProperty(property, newValue);
+        } else {
+            getBinding().setVariable(property, newValue);
+        }
+    }
+}
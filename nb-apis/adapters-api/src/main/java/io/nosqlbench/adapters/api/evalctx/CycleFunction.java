@@ -29,6 +29,21 @@ public interface CycleFunction<T> extends LongFunction<T>, VariableInjectable, E
     @Override
     T apply(long value);
 
+    /**
+     * Produce a result from a cycle and the result of the operation for that cycle. The cycle and
+     * the result are visible to the function as the {@code cycle} and {@code result} variables of
+     * this call only, so implementations which override this may be shared by concurrent callers.
+     * The default implementation sets them with {@link #setVariable(String, Object)}, and so is
+     * only safe for callers which have an instance of their own.
+     * @param cycle the cycle of the operation
+     * @param result the result of the operation
+     */
+    default T apply(long cycle, Object result) {
+        setVariable("result", result);
+        setVariable("cycle", cycle);
+        return apply(cycle);
+    }
+
     /**
      * Get a new instance of a CycleFunction, based on the current one, but with its own instance of any
      * non-threadsafe elements.
@@ -42,6 +42,11 @@ public class CycleFunctions {
             return defaultResult;
         }
 
+        @Override
+        public V apply(long cycle, Object result) {
+            return defaultResult;
+        }
+
         @Override
         public CycleFunction<V> newInstance() {
             return new NOOPVerifier<>(defaultResult);
@@ -31,6 +31,8 @@ import org.apache.logging.log4j.Logger;
 import org.codehaus.groovy.control.CompilerConfiguration;
 import org.codehaus.groovy.control.customizers.ImportCustomizer;
 
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -44,6 +46,7 @@ public class GroovyCycleFunction<T> implements CycleFunction<T> {
 
     protected String scriptText; // Groovy script as provided
     protected final Script script; // Groovy Script as compiled
+    private final Constructor<? extends Script> scriptConstructor; // for an instance per confined call
     protected final Binding variableBindings; // Groovy binding layer
     protected final Bindings bindingFunctions; // NB bindings
     private final List<Class<?>> staticImports;
@@ -70,7 +73,8 @@ public class GroovyCycleFunction<T> implements CycleFunction<T> {
         // virtdata bindings to be evaluated at cycle time
         this.bindingFunctions = new BindingsTemplate().addFieldBindings(bindingSpecs).resolveBindings();
 
-        this.script = compileScript(this.scriptText, imports, staticImports, binding);
+        this.script = compileScript(this.scriptText, imports, staticImports, this.variableBindings);
+        this.scriptConstructor = scriptConstructor(script);
         addServices();
     }
 
@@ -115,14 +119,23 @@ public class GroovyCycleFunction<T> implements CycleFunction<T> {
 
         CompilerConfiguration compilerConfiguration = new CompilerConfiguration();
         compilerConfiguration.setTargetBytecode(CompilerConfiguration.JDK23);
+        compilerConfiguration.setScriptBaseClass(ConfinedScript.class.getName());
         ImportCustomizer importer = new ImportCustomizer().addImports(verifiedClasses);
         importer.addStaticStars(verifiedStaticImports);
         compilerConfiguration.addCompilationCustomizers(importer);
 
-        GroovyShell gshell = new GroovyShell(binding!=null? binding:new Binding(), compilerConfiguration);
+        GroovyShell gshell = new GroovyShell(ConfinedScript.class.getClassLoader(), binding!=null? binding:new Binding(), compilerConfiguration);
         return gshell.parse(scriptText);
     }
 
+    private static Constructor<? extends Script> scriptConstructor(Script script) {
+        try {
+            return script.getClass().getConstructor(Binding.class);
+        } catch (NoSuchMethodException e) {
+            throw new RuntimeException("Compiled script " + script.getClass() + " has no binding constructor", e);
+        }
+    }
+
     private String[] expandStaticImports(List<Class<?>> staticImports) {
         return staticImports.stream().map(Class::getCanonicalName).toArray(String[]::new);
     }
@@ -170,6 +183,62 @@ public class GroovyCycleFunction<T> implements CycleFunction<T> {
         return result;
     }
 
+    /**
+     * Run the compiled script for one cycle and result without touching the shared variables,
+     * so that one instance of this function may be used by any number of threads at once.
+     */
+    @Override
+    public T apply(long cycle, Object result) {
+        Map<String, Object> locals = bindingFunctions.getAllMap(cycle);
+        locals.put("result", result);
+        locals.put("cycle", cycle);
+        return (T) runConfined(locals);
+    }
+
+    /**
+     * Run a new instance of the compiled script, which sees the given variables first and then
+     * the shared variables of this function. Variables which the script assigns are kept in the
+     * given map, and are discarded with it after the call.
+     */
+    protected Object runConfined(Map<String, Object> locals) {
+        Script confined;
+        try {
+            confined = scriptConstructor.newInstance(new ConfinedBinding(locals, variableBindings));
+        } catch (InvocationTargetException e) {
+            throw new RuntimeException("Unable to instance script '" + name + "': " + e.getCause(), e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Unable to instance script '" + name + "': " + e, e);
+        }
+        return confined.run();
+    }
+
+    /**
+     * The variables of one confined call, backed by the shared variables for reads only.
+     */
+    private static final class ConfinedBinding extends Binding {
+        private final Binding shared;
+
+        private ConfinedBinding(Map<String, Object> locals, Binding shared) {
+            super(locals);
+            this.shared = shared;
+        }
+
+        @Override
+        public Object getVariable(String name) {
+            Map<?, ?> locals = getVariables();
+            Object value = locals.get(name);
+            if (value == null && !locals.containsKey(name)) {
+                value = shared.getVariable(name);
+            }
+            return value;
+        }
+
+        @Override
+        public boolean hasVariable(String name) {
+            return getVariables().containsKey(name) || shared.hasVariable(name);
+        }
+    }
+
     /**
      * Create an instance of an executable function which is based on the current one, with all of
      * the per-cycle bindings as well as the variable bindings duplicated (shared).
@@ -188,6 +257,7 @@ public class GroovyCycleFunction<T> implements CycleFunction<T> {
         this.staticImports = staticImports;
 
         this.script = compileScript(scriptText, imports, staticImports, new Binding());
+        this.scriptConstructor = scriptConstructor(script);
         this.variableBindings = script.getBinding();
         originalBinding.forEach((k,v) -> variableBindings.setVariable(k.toString(),v));
     }
@@ -45,6 +45,18 @@ public class GroovyObjectEqualityFunction extends GroovyCycleFunction<Boolean> {
         return scriptResult.equals(result);
     }
 
+    /**
+     * Compare the given result to the value constructed by the script, which is run with the
+     * cycle and the values of the cycle bindings visible to this call only.
+     */
+    @Override
+    public Boolean apply(long cycle, Object result) {
+        Map<String, Object> locals = bindingFunctions.getAllMap(cycle);
+        locals.put("cycle", cycle);
+        Object scriptResult = runConfined(locals);
+        return scriptResult.equals(result);
+    }
+
     /**
      * Intercept and reserve the value of the result injected variable for comparison to the evaluated script result later.
      */
@@ -27,6 +27,7 @@ import org.apache.logging.log4j.Logger;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Auxiliary thread-local metrics for an activity which are tracked by name.
@@ -36,7 +37,7 @@ public class ThreadLocalNamedTimers {
     private static final Logger logger = LogManager.getLogger(ThreadLocalNamedTimers.class);
 
     public final static ThreadLocal<ThreadLocalNamedTimers> TL_INSTANCE = ThreadLocal.withInitial(ThreadLocalNamedTimers::new);
-    private static final Map<String, Timer> timers = new HashMap<>();
+    private static final Map<String, Timer> timers = new ConcurrentHashMap<>();
     private final Map<String, Context> contexts = new HashMap<>();
 
     public static void addTimer(final ParsedOp pop, final String name) {
@@ -398,6 +398,7 @@ public class ParsedOp extends NBBaseComponent implements LongFunction<Map<String
     private final OpTemplate _opTemplate;
     private final NBConfiguration activityCfg;
     private final ParsedTemplateMap tmap;
+    private final long templateMapNanos;
     private final NBLabels labels;
     private final List<Function<Map<String, Object>, Map<String, Object>>> preprocessors;
 
@@ -436,11 +437,13 @@ public class ParsedOp extends NBBaseComponent implements LongFunction<Map<String
             map = preprocessor.apply(map);
         }
 
+        long templateMapStart = System.nanoTime();
         this.tmap = new ParsedTemplateMap(
             getName(), map, opTemplate.getBindings(),
             List.of(opTemplate.getParams(), activityCfg.getMap()),
             RESERVED_FIELDS
         );
+        this.templateMapNanos = System.nanoTime() - templateMapStart;
 
         NBLabels opLabels = parent.getLabels().andPairs(
             (parent instanceof ParsedOp) ? "subop" : "op", this.getName());
@@ -480,6 +483,14 @@ public class ParsedOp extends NBBaseComponent implements LongFunction<Map<String
         return tmap;
     }
 
+    /**
+     @return the time taken to build the template map of this op, which is where its bind
+     points are parsed and its binding recipes are resolved into functions
+     */
+    public long getTemplateMapNanos() {
+        return templateMapNanos;
+    }
+
     @Override
     public Map<String, Object> apply(long value) {
         return tmap.apply(value);
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.nosqlbench.adapters.api.evalcontext;
+
+import groovy.lang.Binding;
+import groovy.lang.MissingPropertyException;
+import io.nosqlbench.adapters.api.evalctx.GroovyBooleanCycleFunction;
+import io.nosqlbench.adapters.api.evalctx.GroovyObjectEqualityFunction;
+import io.nosqlbench.virtdata.core.templates.ParsedTemplateString;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Tag("unit")
+public class GroovyConfinedVerifierTest {
+
+    @Test
+    public void testResultAndCycleAreVisible() {
+        ParsedTemplateString template = new ParsedTemplateString("""
+            result == cycle * 2 && name == numbername
+            """,
+            Map.of("numbername", "NumberNameToString()")
+        );
+        Binding shared = new Binding();
+        shared.setVariable("name", "three");
+        GroovyBooleanCycleFunction function = new GroovyBooleanCycleFunction("confined1", template, List.of(), List.of(), shared);
+        assertThat(function.apply(3L, 6L)).isTrue();
+        assertThat(function.apply(3L, 7L)).isFalse();
+    }
+
+    @Test
+    public void testSharedBindingIsNotModified() {
+        ParsedTemplateString template = new ParsedTemplateString("""
+            scratch = result + 1
+            scratch > cycle
+            """,
+            Map.of()
+        );
+        Binding shared = new Binding();
+        GroovyBooleanCycleFunction function = new GroovyBooleanCycleFunction("confined2", template, List.of(), List.of(), shared);
+        assertThat(function.apply(5L, 5L)).isTrue();
+        assertThat(shared.hasVariable("scratch")).isFalse();
+        assertThat(shared.hasVariable("result")).isFalse();
+        assertThat(shared.hasVariable("cycle")).isFalse();
+    }
+
+    @Test
+    public void testMissingVariableStillFails() {
+        ParsedTemplateString template = new ParsedTemplateString("""
+            not_a_variable == result
+            """,
+            Map.of()
+        );
+        GroovyBooleanCycleFunction function = new GroovyBooleanCycleFunction("confined3", template, List.of(), List.of(), null);
+        assertThatThrownBy(() -> function.apply(1L, 1L)).isInstanceOf(MissingPropertyException.class);
+    }
+
+    @Test
+    public void testEqualityAgainstResult() {
+        ParsedTemplateString template = new ParsedTemplateString("""
+            "cycle-" + cycle
+            """,
+            Map.of()
+        );
+        GroovyObjectEqualityFunction function = new GroovyObjectEqualityFunction("confined4", template, List.of(), List.of(), null);
+        assertThat(function.apply(4L, "cycle-4")).isTrue();
+        assertThat(function.apply(4L, "cycle-5")).isFalse();
+    }
+
+    @Test
+    public void testConcurrentCallsAreIsolated() throws Exception {
+        ParsedTemplateString template = new ParsedTemplateString("""
+            seen = result
+            seen == cycle
+            """,
+            Map.of()
+        );
+        GroovyBooleanCycleFunction function = new GroovyBooleanCycleFunction("confined5", template, List.of(), List.of(), null);
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            List<Future<Boolean>> checks = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int offset = t * 10_000;
+                checks.add(executor.submit(() -> {
+                    for (long cycle = offset; cycle < offset + 2_000; cycle++) {
+                        if (!function.apply(cycle, cycle)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> check : checks) {
+                assertThat(check.get()).isTrue();
+            }
+        }
+    }
+}
@@ -24,6 +24,7 @@ import com.codahale.metrics.Meter;
 import io.nosqlbench.nb.api.engine.metrics.*;
 import io.nosqlbench.nb.api.engine.metrics.instruments.*;
 import io.nosqlbench.nb.api.engine.metrics.reporters.*;
+import io.nosqlbench.nb.api.engine.metrics.reporters.columnar.ColumnarSnapshotReporter;
 import io.nosqlbench.nb.api.histo.HdrHistoLog;
 import io.nosqlbench.nb.api.histo.HistoStats;
 import io.nosqlbench.nb.api.http.HttpPlugin;
@@ -235,6 +236,15 @@ public class NBCreators {
         return new SqliteSnapshotReporter(component, url, millis, filter, includeHistograms);
     }
 
+    public ColumnarSnapshotReporter columnarSnapshotReporter(NBComponent component,
+                                                             Path path,
+                                                             long millis,
+                                                             MetricInstanceFilter filter,
+                                                             boolean includeHistograms,
+                                                             int snapshotsPerSegment) {
+        return new ColumnarSnapshotReporter(component, path, millis, filter, null, includeHistograms, snapshotsPerSegment);
+    }
+
     public static class Log4jReporterBuilder {
         private final NBComponent component;
         private Logger logger = LogManager.getLogger(Log4JMetricsReporter.class);
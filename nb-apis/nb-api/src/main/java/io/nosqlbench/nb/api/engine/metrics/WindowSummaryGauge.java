@@ -19,19 +19,20 @@ package io.nosqlbench.nb.api.engine.metrics;
 import io.nosqlbench.nb.api.engine.metrics.instruments.MetricCategory;
 import io.nosqlbench.nb.api.engine.metrics.instruments.NBMetricGauge;
 import io.nosqlbench.nb.api.labels.NBLabels;
-import io.nosqlbench.nb.api.stats.StatBucket;
+import io.nosqlbench.nb.api.stats.StripedStatBucket;
 
-import java.util.DoubleSummaryStatistics;
 import java.util.function.DoubleConsumer;
 
 
 /**
- * Create a discrete stat reservoir as a gauge.
+ * Create a discrete stat reservoir as a gauge. Values are kept in a {@link StripedStatBucket},
+ * so that many threads may accept values at once without waiting on each other, and the
+ * stripes are merged when the gauge is read.
  */
 public class WindowSummaryGauge implements NBMetricGauge, DoubleConsumer {
     private final NBLabels labels;
     private final Stat stat;
-    private final StatBucket stats;
+    private final StripedStatBucket stats;
     private final String description;
     private final String unit;
     private final MetricCategory[] categories;
@@ -74,21 +75,22 @@ public class WindowSummaryGauge implements NBMetricGauge, DoubleConsumer {
         this.unit = unit;
         this.categories = categories;
         this.window = window;
-        this.stats = new StatBucket(window);
+        this.stats = new StripedStatBucket(window, StripedStatBucket.DEFAULT_STRIPES);
     }
 
-    public synchronized void accept(double value) {
+    public void accept(double value) {
         stats.apply(value);
     }
 
     @Override
-public synchronized Double getValue() {
+    public Double getValue() {
+        StripedStatBucket.Summary summary = stats.summary();
         return switch(stat) {
-            case Min -> stats.getMin();
-            case Max -> stats.getMax();
-            case Average -> stats.getAverage();
-            case Count -> (double) stats.getCount();
-            case Sum -> stats.getSum();
+            case Min -> summary.min();
+            case Max -> summary.max();
+            case Average -> summary.average();
+            case Count -> (double) summary.count();
+            case Sum -> summary.sum();
         };
     }
 
@@ -38,6 +38,8 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -55,6 +57,9 @@ import java.util.concurrent.TimeUnit;
  *     reference tables (metric_names, sample_names, label_sets, label_values).</li>
  *     <li>Stores samples in a compact form that allows efficient selection of time-series data using
  *     simple joins keyed by metric or label identifiers.</li>
+ *     <li>Writes each snapshot as one transaction of batched inserts. Sample row ids are assigned
+ *     by the reporter so that quantile, rate and statistics rows can be batched alongside them,
+ *     and the database runs in WAL mode so readers do not block the writer.</li>
  * </ul>
  */
 public class SqliteSnapshotReporter extends MetricsSnapshotReporterBase {
@@ -85,7 +90,7 @@ public class SqliteSnapshotReporter extends MetricsSnapshotReporterBase {
     private final PreparedStatement selectLabelSetByHash;
     private final PreparedStatement selectLabelKeyByName;
     private final PreparedStatement selectLabelValueByValue;
-    private final PreparedStatement selectSampleValueByNaturalKey;
+    private final PreparedStatement selectMaxSampleValueId;
 
     private final Map<String, Integer> metricFamilyCache = new LinkedHashMap<>();
     private final Map<String, Integer> sampleNameCache = new LinkedHashMap<>();
@@ -93,6 +98,13 @@ public class SqliteSnapshotReporter extends MetricsSnapshotReporterBase {
     private final Map<String, Integer> labelValueCache = new LinkedHashMap<>();
     private final Map<Map<String, String>, Integer> labelSetCache = new LinkedHashMap<>();
     private final Map<String, Integer> metricInstanceCache = new LinkedHashMap<>();
+    /// Fast path from a sample's labels instance and sample name to its metric instance id, or
+    /// [#FILTERED] when the filter rejected it. Instruments keep their labels instance for life,
+    /// so steady-state snapshots resolve every sample with one identity lookup and no string
+    /// building. The filter is assumed not to change once snapshots are flowing.
+    private final Map<NBLabels, Map<String, Integer>> instanceIdsByLabels = new IdentityHashMap<>();
+    private static final int FILTERED = -1;
+    private static final int IDENTITY_CACHE_LIMIT = 1 << 16;
 
     public SqliteSnapshotReporter(NBComponent parent,
                                   String jdbcUrl,
@@ -114,6 +126,7 @@ public class SqliteSnapshotReporter extends MetricsSnapshotReporterBase {
         this.includeHistograms = includeHistograms;
         try {
             this.connection = DriverManager.getConnection(jdbcUrl);
+            applyPragmas();
             this.connection.setAutoCommit(false);
             initialiseSchema();
             this.insertMetricFamily = connection.prepareStatement("""
@@ -129,8 +142,8 @@ public class SqliteSnapshotReporter extends MetricsSnapshotReporterBase {
                 VALUES (?, ?, ?, ?)
             """, Statement.RETURN_GENERATED_KEYS);
             this.insertSample = connection.prepareStatement("""
-                INSERT INTO sample_value(metric_instance_id, timestamp_ms, value)
-                VALUES (?, ?, ?)
+                INSERT INTO sample_value(id, metric_instance_id, timestamp_ms, value)
+                VALUES (?, ?, ?, ?)
             """);
             this.insertSampleQuantile = connection.prepareStatement("""
                 INSERT INTO sample_quantile(sample_value_id, quantile, quantile_value)
@@ -191,8 +204,8 @@ public class SqliteSnapshotReporter extends MetricsSnapshotReporterBase {
             this.selectLabelValueByValue = connection.prepareStatement("""
                 SELECT id FROM label_value WHERE value=?
             """);
-            this.selectSampleValueByNaturalKey = connection.prepareStatement("""
-                SELECT id FROM sample_value WHERE metric_instance_id=? AND timestamp_ms=?
+            this.selectMaxSampleValueId = connection.prepareStatement("""
+                SELECT COALESCE(MAX(id), 0) FROM sample_value
             """);
         } catch (SQLException e) {
             throw new RuntimeException("Unable to initialise SQLite snapshot reporter.", e);
@@ -235,6 +248,16 @@ public class SqliteSnapshotReporter extends MetricsSnapshotReporterBase {
         this(parent, jdbcUrl, intervalMillis, null, extraLabels, includeHistograms);
     }
 
+    /// WAL lets readers such as nb-metricsql query the database while the session is writing it,
+    /// and with WAL, `synchronous=NORMAL` only syncs at checkpoints rather than on every commit.
+    /// Both must be set before the first transaction is opened.
+    private void applyPragmas() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA journal_mode=WAL");
+            stmt.execute("PRAGMA synchronous=NORMAL");
+        }
+    }
+
     private void initialiseSchema() throws SQLException {
         try (Statement stmt = connection.createStatement()) {
             stmt.execute("""
@@ -385,17 +408,15 @@ public class SqliteSnapshotReporter extends MetricsSnapshotReporterBase {
         }
         long epochMillis = view.capturedAtEpochMillis();
         try {
+            long sampleId = lastSampleValueId();
             for (MetricFamily family : view.families()) {
-                int familyId = resolveMetricFamilyId(family);
                 for (Sample sample : family.samples()) {
-                    String handle = sample.labels().linearizeAsMetrics();
-                    if (!filter.matches(handle, sample.labels())) {
+                    int metricInstanceId = resolveSampleInstanceId(family, sample);
+                    if (metricInstanceId == FILTERED) {
                         continue;
                     }
-                    int sampleNameId = resolveSampleNameId(familyId, sample.sampleName());
-                    int labelSetId = resolveLabelSetId(sample.labels());
-                    int metricInstanceId = resolveMetricInstanceId(sampleNameId, sample.sampleName(), labelSetId, family.familyName(), sample.labels());
-                    long sampleId = insertSampleRow(metricInstanceId, epochMillis, sample);
+                    sampleId++;
+                    addSampleRow(sampleId, metricInstanceId, epochMillis, sample);
                     if (sample instanceof SummarySample summarySample) {
                         writeSummaryDetails(sampleId, summarySample);
                     } else if (sample instanceof MeterSample meterSample) {
@@ -403,10 +424,18 @@ public class SqliteSnapshotReporter extends MetricsSnapshotReporterBase {
                     }
                 }
             }
+            insertSample.executeBatch();
+            insertSampleQuantile.executeBatch();
+            insertSampleRate.executeBatch();
+            insertSampleStatistics.executeBatch();
+            if (insertSampleHistogram != null) {
+                insertSampleHistogram.executeBatch();
+            }
             connection.commit();
-        } catch (SQLException e) {
+        } catch (SQLException | RuntimeException e) {
             try {
                 if (!connection.isClosed()) {
+                    clearBatches();
                     connection.rollback();
                 }
             } catch (SQLException rollback) {
@@ -440,6 +469,45 @@ public class SqliteSnapshotReporter extends MetricsSnapshotReporterBase {
         }
     }
 
+    /// Resolve the metric instance id for a sample, or [#FILTERED] if the filter rejects it. Only
+    /// the first sighting of a labels instance and sample name pays for the filter and id lookups.
+    private int resolveSampleInstanceId(MetricFamily family, Sample sample) throws SQLException {
+        Map<String, Integer> bySampleName = instanceIdsByLabels.get(sample.labels());
+        Integer cached = (bySampleName != null) ? bySampleName.get(sample.sampleName()) : null;
+        if (cached != null) {
+            return cached;
+        }
+        int metricInstanceId = FILTERED;
+        if (filter.matches(sample.labels().linearizeAsMetrics(), sample.labels())) {
+            int familyId = resolveMetricFamilyId(family);
+            int sampleNameId = resolveSampleNameId(familyId, sample.sampleName());
+            int labelSetId = resolveLabelSetId(sample.labels());
+            metricInstanceId = resolveMetricInstanceId(sampleNameId, sample.sampleName(), labelSetId, family.familyName(), sample.labels());
+        }
+        if (instanceIdsByLabels.size() >= IDENTITY_CACHE_LIMIT) {
+            instanceIdsByLabels.clear();
+        }
+        instanceIdsByLabels.computeIfAbsent(sample.labels(), labels -> new HashMap<>())
+            .put(sample.sampleName(), metricInstanceId);
+        return metricInstanceId;
+    }
+
+    private long lastSampleValueId() throws SQLException {
+        try (ResultSet rs = selectMaxSampleValueId.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0L;
+        }
+    }
+
+    private void clearBatches() throws SQLException {
+        insertSample.clearBatch();
+        insertSampleQuantile.clearBatch();
+        insertSampleRate.clearBatch();
+        insertSampleStatistics.clearBatch();
+        if (insertSampleHistogram != null) {
+            insertSampleHistogram.clearBatch();
+        }
+    }
+
     private int resolveMetricFamilyId(MetricFamily family) throws SQLException {
         return metricFamilyCache.computeIfAbsent(family.familyName(), key -> {
             try {
@@ -637,33 +705,15 @@ public class SqliteSnapshotReporter extends MetricsSnapshotReporterBase {
         });
     }
 
-    private long insertSampleRow(int metricInstanceId,
-                                 long epochMillis,
-                                 Sample sample) throws SQLException {
-        Double primaryValue = primaryValue(sample);
-
-        insertSample.setInt(1, metricInstanceId);
-        insertSample.setLong(2, epochMillis);
-        insertSample.setObject(3, primaryValue);
-        insertSample.executeUpdate();
-
-        long id;
-        try (ResultSet rs = insertSample.getGeneratedKeys()) {
-            if (rs.next()) {
-                id = rs.getLong(1);
-            } else {
-                selectSampleValueByNaturalKey.setInt(1, metricInstanceId);
-                selectSampleValueByNaturalKey.setLong(2, epochMillis);
-                try (ResultSet data = selectSampleValueByNaturalKey.executeQuery()) {
-                    if (data.next()) {
-                        id = data.getLong(1);
-                    } else {
-                        throw new RuntimeException("Unable to resolve sample_value id.");
-                    }
-                }
-            }
-        }
-        return id;
+    private void addSampleRow(long sampleId,
+                              int metricInstanceId,
+                              long epochMillis,
+                              Sample sample) throws SQLException {
+        insertSample.setLong(1, sampleId);
+        insertSample.setInt(2, metricInstanceId);
+        insertSample.setLong(3, epochMillis);
+        insertSample.setObject(4, primaryValue(sample));
+        insertSample.addBatch();
     }
 
     private void writeSummaryDetails(long sampleId, SummarySample sample)	throws SQLException {
@@ -673,29 +723,29 @@ public class SqliteSnapshotReporter extends MetricsSnapshotReporterBase {
             insertSampleQuantile.setLong(1, sampleId);
             insertSampleQuantile.setDouble(2, entry.getKey());
             insertSampleQuantile.setDouble(3, entry.getValue());
-            insertSampleQuantile.executeUpdate();
+            insertSampleQuantile.addBatch();
         }
         RateStatistics rates = sample.rates();
         if (rates != null) {
             insertSampleRate.setLong(1, sampleId);
             insertSampleRate.setString(2, "mean");
             insertSampleRate.setDouble(3, rates.mean());
-            insertSampleRate.executeUpdate();
+            insertSampleRate.addBatch();
 
             insertSampleRate.setLong(1, sampleId);
             insertSampleRate.setString(2, "m1");
             insertSampleRate.setDouble(3, rates.oneMinute());
-            insertSampleRate.executeUpdate();
+            insertSampleRate.addBatch();
 
             insertSampleRate.setLong(1, sampleId);
             insertSampleRate.setString(2, "m5");
             insertSampleRate.setDouble(3, rates.fiveMinute());
-            insertSampleRate.executeUpdate();
+            insertSampleRate.addBatch();
 
             insertSampleRate.setLong(1, sampleId);
             insertSampleRate.setString(2, "m15");
             insertSampleRate.setDouble(3, rates.fifteenMinute());
-            insertSampleRate.executeUpdate();
+            insertSampleRate.addBatch();
         }
     }
 
@@ -709,7 +759,7 @@ public class SqliteSnapshotReporter extends MetricsSnapshotReporterBase {
         insertSampleStatistics.setDouble(3, stats.max());
         insertSampleStatistics.setDouble(4, stats.mean());
         insertSampleStatistics.setDouble(5, stats.stddev());
-        insertSampleStatistics.executeUpdate();
+        insertSampleStatistics.addBatch();
     }
 
     private void writeHistogramEncoding(long sampleId, SummarySample sample) throws SQLException {
@@ -726,7 +776,7 @@ public class SqliteSnapshotReporter extends MetricsSnapshotReporterBase {
         insertSampleHistogram.setDouble(3, encoded.intervalSeconds());
         insertSampleHistogram.setDouble(4, encoded.maxValue());
         insertSampleHistogram.setString(5, encoded.base64());
-        insertSampleHistogram.executeUpdate();
+        insertSampleHistogram.addBatch();
     }
 
     private EncodedHistogram encodeHistogram(EncodableHistogram histogram) {
@@ -748,22 +798,22 @@ public class SqliteSnapshotReporter extends MetricsSnapshotReporterBase {
         insertSampleRate.setLong(1, sampleId);
         insertSampleRate.setString(2, "mean");
         insertSampleRate.setDouble(3, meterSample.meanRate());
-        insertSampleRate.executeUpdate();
+        insertSampleRate.addBatch();
 
         insertSampleRate.setLong(1, sampleId);
         insertSampleRate.setString(2, "m1");
         insertSampleRate.setDouble(3, meterSample.oneMinuteRate());
-        insertSampleRate.executeUpdate();
+        insertSampleRate.addBatch();
 
         insertSampleRate.setLong(1, sampleId);
         insertSampleRate.setString(2, "m5");
         insertSampleRate.setDouble(3, meterSample.fiveMinuteRate());
-        insertSampleRate.executeUpdate();
+        insertSampleRate.addBatch();
 
         insertSampleRate.setLong(1, sampleId);
         insertSampleRate.setString(2, "m15");
         insertSampleRate.setDouble(3, meterSample.fifteenMinuteRate());
-        insertSampleRate.executeUpdate();
+        insertSampleRate.addBatch();
     }
 
     private Double primaryValue(Sample sample) {
@@ -815,7 +865,7 @@ public class SqliteSnapshotReporter extends MetricsSnapshotReporterBase {
             selectLabelSetByHash.close();
             selectLabelKeyByName.close();
             selectLabelValueByValue.close();
-            selectSampleValueByNaturalKey.close();
+            selectMaxSampleValueId.close();
             insertLabel.close();
             insertLabelValue.close();
             insertLabelSet.close();
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.nb.api.engine.metrics.reporters;
+
+import io.nosqlbench.nb.api.components.core.NBBaseComponent;
+import io.nosqlbench.nb.api.engine.metrics.DeltaHdrHistogramReservoir;
+import io.nosqlbench.nb.api.engine.metrics.MetricsSnapshotScheduler;
+import io.nosqlbench.nb.api.engine.metrics.instruments.MetricCategory;
+import io.nosqlbench.nb.api.engine.metrics.instruments.NBMetric;
+import io.nosqlbench.nb.api.engine.metrics.instruments.NBMetricCounter;
+import io.nosqlbench.nb.api.engine.metrics.instruments.NBMetricTimer;
+import io.nosqlbench.nb.api.engine.metrics.view.MetricsView;
+import io.nosqlbench.nb.api.labels.NBLabels;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/// Time to write one snapshot to SQLite, as a function of the number of instruments in it.
+/// Every tenth instrument is a timer, which adds statistics, seven quantile rows and four rate
+/// rows per sample; the rest are counters. The view is captured once, so only the write is
+/// measured, and each iteration appends to the same growing database as a long session would.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Threads(1)
+public class SqliteSnapshotReporterJmhBench {
+
+    @State(Scope.Thread)
+    public static class BenchState {
+        @Param({"1000", "10000"})
+        public int instruments;
+
+        public NBBaseComponent root;
+        public SqliteSnapshotReporter reporter;
+        public MetricsView view;
+        public Path dir;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            this.dir = Files.createTempDirectory("nb-sqlite-bench");
+            this.root = new NBBaseComponent(null);
+            this.reporter = new SqliteSnapshotReporter(
+                root, "jdbc:sqlite:" + dir.resolve("bench.db"), 1000L, new MetricInstanceFilter(), null, false);
+            List<NBMetric> metrics = new ArrayList<>(instruments);
+            for (int i = 0; i < instruments; i++) {
+                NBLabels labels = NBLabels.forKV("name", "metric_" + (i % 100), "activity", "activity_" + (i / 100));
+                if (i % 10 == 0) {
+                    NBMetricTimer timer = new NBMetricTimer(
+                        labels, new DeltaHdrHistogramReservoir(labels, 3), "timer", "nanoseconds", MetricCategory.Core);
+                    for (int v = 1; v <= 100; v++) {
+                        timer.update(v * 1000L, TimeUnit.NANOSECONDS);
+                    }
+                    metrics.add(timer);
+                } else {
+                    NBMetricCounter counter = new NBMetricCounter(labels, "counter", "operations", MetricCategory.Core);
+                    counter.inc(i);
+                    metrics.add(counter);
+                }
+            }
+            this.view = MetricsView.capture(metrics, 1000L, false);
+        }
+
+        @TearDown(Level.Trial)
+        public void teardown() throws IOException {
+            reporter.close();
+            MetricsSnapshotScheduler.lookup(root).teardown();
+            try (var files = Files.list(dir)) {
+                for (Path file : files.toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    @Benchmark
+    public void writeSnapshot(BenchState s) {
+        s.reporter.onMetricsSnapshot(s.view);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.nb.api.engine.metrics.reporters.columnar;
+
+import java.nio.charset.StandardCharsets;
+
+/// Reads a bit stream written by [BitOutput].
+final class BitInput {
+    private final byte[] bytes;
+    private long position;
+
+    BitInput(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    long readBits(int count) {
+        if (position + count > ((long) bytes.length << 3)) {
+            throw new IllegalStateException("read past the end of a " + bytes.length + " byte segment body");
+        }
+        long value = 0L;
+        for (int remaining = count; remaining > 0; ) {
+            int byteIndex = (int) (position >>> 3);
+            int bitOffset = (int) (position & 7);
+            int available = 8 - bitOffset;
+            int take = Math.min(available, remaining);
+            int chunk = ((bytes[byteIndex] & 0xFF) >>> (available - take)) & ((1 << take) - 1);
+            value = (value << take) | chunk;
+            position += take;
+            remaining -= take;
+        }
+        return value;
+    }
+
+    boolean readBit() {
+        return readBits(1) == 1L;
+    }
+
+    long readVarLong() {
+        long value = 0L;
+        int shift = 0;
+        long group;
+        do {
+            group = readBits(8);
+            value |= (group & 0x7FL) << shift;
+            shift += 7;
+        } while ((group & 0x80L) != 0L);
+        return value;
+    }
+
+    int readVarInt() {
+        return (int) readVarLong();
+    }
+
+    double readDouble() {
+        return Double.longBitsToDouble(readBits(64));
+    }
+
+    byte[] readBytes() {
+        byte[] data = new byte[readVarInt()];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) readBits(8);
+        }
+        return data;
+    }
+
+    String readString() {
+        return new String(readBytes(), StandardCharsets.UTF_8);
+    }
+}
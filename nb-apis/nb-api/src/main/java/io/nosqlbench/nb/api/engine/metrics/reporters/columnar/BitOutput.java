@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.nb.api.engine.metrics.reporters.columnar;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/// A growable, most-significant-bit-first bit stream. Everything in a segment body is written
+/// through this, including byte-sized fields, so that bit-packed columns need no padding.
+final class BitOutput {
+    private byte[] bytes;
+    private long bitLength;
+
+    BitOutput(int initialBytes) {
+        this.bytes = new byte[Math.max(16, initialBytes)];
+    }
+
+    /// Write the low `count` bits of `value`, most significant first. `count` may be 0 to 64.
+    void writeBits(long value, int count) {
+        ensureCapacity(bitLength + count);
+        for (int remaining = count; remaining > 0; ) {
+            int byteIndex = (int) (bitLength >>> 3);
+            int bitOffset = (int) (bitLength & 7);
+            int free = 8 - bitOffset;
+            int take = Math.min(free, remaining);
+            int chunk = (int) ((value >>> (remaining - take)) & ((1 << take) - 1));
+            bytes[byteIndex] |= (byte) (chunk << (free - take));
+            bitLength += take;
+            remaining -= take;
+        }
+    }
+
+    void writeBit(boolean bit) {
+        writeBits(bit ? 1L : 0L, 1);
+    }
+
+    /// Write an unsigned value in 7-bit groups, low group first, with a continuation bit.
+    void writeVarLong(long value) {
+        long v = value;
+        while ((v & ~0x7FL) != 0L) {
+            writeBits((v & 0x7FL) | 0x80L, 8);
+            v >>>= 7;
+        }
+        writeBits(v, 8);
+    }
+
+    void writeVarInt(int value) {
+        writeVarLong(value & 0xFFFFFFFFL);
+    }
+
+    void writeDouble(double value) {
+        writeBits(Double.doubleToRawLongBits(value), 64);
+    }
+
+    void writeBytes(byte[] data) {
+        writeVarInt(data.length);
+        for (byte b : data) {
+            writeBits(b & 0xFF, 8);
+        }
+    }
+
+    void writeString(String value) {
+        writeBytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /// The bytes written so far, with the final byte zero-padded.
+    byte[] toByteArray() {
+        return Arrays.copyOf(bytes, (int) ((bitLength + 7) >>> 3));
+    }
+
+    private void ensureCapacity(long bits) {
+        int needed = (int) ((bits + 7) >>> 3);
+        if (needed > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(needed, bytes.length << 1));
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.nb.api.engine.metrics.reporters.columnar;
+
+/// Column encodings in the style of Gorilla (Pelkonen et al., VLDB 2015).
+///
+/// ## Long columns: delta-of-delta
+///
+/// Timestamps, intervals and counts change by nearly the same amount at each snapshot, so the
+/// difference between consecutive deltas is usually zero or small. The first value is written
+/// in full, and each following value as its zigzag-encoded delta-of-delta:
+///
+/// ```
+/// '0'                       dod == 0
+/// '10'   +  7 bits          zigzag(dod) < 2^7
+/// '110'  +  9 bits          zigzag(dod) < 2^9
+/// '1110' + 12 bits          zigzag(dod) < 2^12
+/// '1111' + 64 bits          otherwise
+/// ```
+///
+/// ## Double columns: XOR
+///
+/// Each value is XORed with the previous one. Unchanged values cost one bit. Otherwise only the
+/// meaningful bits between the leading and trailing zeros are written, reusing the previous
+/// window when they fit inside it:
+///
+/// ```
+/// '0'                                        xor == 0
+/// '10' + meaningful bits                     fits the previous window
+/// '11' + 5 bits leading + 6 bits length + meaningful bits
+/// ```
+final class ColumnCodecs {
+
+    private ColumnCodecs() {
+    }
+
+    static void writeLongs(BitOutput out, long[] values, int count) {
+        if (count == 0) {
+            return;
+        }
+        out.writeBits(values[0], 64);
+        long previous = values[0];
+        long previousDelta = 0L;
+        for (int i = 1; i < count; i++) {
+            long delta = values[i] - previous;
+            long zigzag = zigzag(delta - previousDelta);
+            if (zigzag == 0L) {
+                out.writeBits(0b0, 1);
+            } else if ((zigzag >>> 7) == 0L) {
+                out.writeBits(0b10, 2);
+                out.writeBits(zigzag, 7);
+            } else if ((zigzag >>> 9) == 0L) {
+                out.writeBits(0b110, 3);
+                out.writeBits(zigzag, 9);
+            } else if ((zigzag >>> 12) == 0L) {
+                out.writeBits(0b1110, 4);
+                out.writeBits(zigzag, 12);
+            } else {
+                out.writeBits(0b1111, 4);
+                out.writeBits(zigzag, 64);
+            }
+            previous = values[i];
+            previousDelta = delta;
+        }
+    }
+
+    static long[] readLongs(BitInput in, int count) {
+        long[] values = new long[count];
+        if (count == 0) {
+            return values;
+        }
+        values[0] = in.readBits(64);
+        long previousDelta = 0L;
+        for (int i = 1; i < count; i++) {
+            long zigzag;
+            if (!in.readBit()) {
+                zigzag = 0L;
+            } else if (!in.readBit()) {
+                zigzag = in.readBits(7);
+            } else if (!in.readBit()) {
+                zigzag = in.readBits(9);
+            } else if (!in.readBit()) {
+                zigzag = in.readBits(12);
+            } else {
+                zigzag = in.readBits(64);
+            }
+            long delta = previousDelta + unzigzag(zigzag);
+            values[i] = values[i - 1] + delta;
+            previousDelta = delta;
+        }
+        return values;
+    }
+
+    static void writeDoubles(BitOutput out, double[] values, int count) {
+        if (count == 0) {
+            return;
+        }
+        long previous = Double.doubleToRawLongBits(values[0]);
+        out.writeBits(previous, 64);
+        int windowLeading = Integer.MAX_VALUE;
+        int windowTrailing = 0;
+        for (int i = 1; i < count; i++) {
+            long bits = Double.doubleToRawLongBits(values[i]);
+            long xor = bits ^ previous;
+            if (xor == 0L) {
+                out.writeBits(0b0, 1);
+            } else {
+                int leading = Math.min(31, Long.numberOfLeadingZeros(xor));
+                int trailing = Long.numberOfTrailingZeros(xor);
+                if (leading >= windowLeading && trailing >= windowTrailing) {
+                    out.writeBits(0b10, 2);
+                    out.writeBits(xor >>> windowTrailing, 64 - windowLeading - windowTrailing);
+                } else {
+                    int length = 64 - leading - trailing;
+                    out.writeBits(0b11, 2);
+                    out.writeBits(leading, 5);
+                    out.writeBits(length & 0x3F, 6);
+                    out.writeBits(xor >>> trailing, length);
+                    windowLeading = leading;
+                    windowTrailing = trailing;
+                }
+            }
+            previous = bits;
+        }
+    }
+
+    static double[] readDoubles(BitInput in, int count) {
+        double[] values = new double[count];
+        if (count == 0) {
+            return values;
+        }
+        long previous = in.readBits(64);
+        values[0] = Double.longBitsToDouble(previous);
+        int windowLeading = 0;
+        int windowTrailing = 0;
+        for (int i = 1; i < count; i++) {
+            if (in.readBit()) {
+                if (in.readBit()) {
+                    windowLeading = (int) in.readBits(5);
+                    int length = (int) in.readBits(6);
+                    if (length == 0) {
+                        length = 64;
+                    }
+                    windowTrailing = 64 - windowLeading - length;
+                }
+                long meaningful = in.readBits(64 - windowLeading - windowTrailing);
+                previous ^= meaningful << windowTrailing;
+            }
+            values[i] = Double.longBitsToDouble(previous);
+        }
+        return values;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1L);
+    }
+}
@@ -0,0 +1,318 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.nb.api.engine.metrics.reporters.columnar;
+
+import io.nosqlbench.nb.api.engine.metrics.ConvenientSnapshot;
+import io.nosqlbench.nb.api.engine.metrics.DeltaHistogramSnapshot;
+import io.nosqlbench.nb.api.engine.metrics.MetricsSnapshotScheduler.MetricsSnapshotConsumer;
+import io.nosqlbench.nb.api.engine.metrics.instruments.MetricCategory;
+import io.nosqlbench.nb.api.engine.metrics.view.MetricsView;
+import io.nosqlbench.nb.api.engine.metrics.view.MetricsView.MeterSample;
+import io.nosqlbench.nb.api.engine.metrics.view.MetricsView.MetricFamily;
+import io.nosqlbench.nb.api.engine.metrics.view.MetricsView.MetricType;
+import io.nosqlbench.nb.api.engine.metrics.view.MetricsView.PointSample;
+import io.nosqlbench.nb.api.engine.metrics.view.MetricsView.RateStatistics;
+import io.nosqlbench.nb.api.engine.metrics.view.MetricsView.Sample;
+import io.nosqlbench.nb.api.engine.metrics.view.MetricsView.SummarySample;
+import io.nosqlbench.nb.api.engine.metrics.view.MetricsView.SummaryStatistics;
+import io.nosqlbench.nb.api.labels.NBLabels;
+import org.HdrHistogram.EncodableHistogram;
+import org.HdrHistogram.Histogram;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/// Replays a file written by [ColumnarSnapshotReporter] into any
+/// [MetricsSnapshotConsumer], one [MetricsView] per recorded snapshot, in capture order.
+///
+/// A segment which is cut short or fails its checksum ends the replay with a warning, since that
+/// is what a session which did not shut down cleanly leaves behind.
+public class ColumnarSegmentReader {
+
+    private static final Logger logger = LogManager.getLogger(ColumnarSegmentReader.class);
+
+    private static final MetricType[] TYPES = MetricType.values();
+    private static final MetricCategory[] CATEGORIES = MetricCategory.values();
+    private static final SegmentWriter.SeriesKind[] KINDS = SegmentWriter.SeriesKind.values();
+
+    private final Path path;
+
+    private final List<String> strings = new ArrayList<>();
+    private final List<FamilyDef> families = new ArrayList<>();
+    private final List<NBLabels> labelSets = new ArrayList<>();
+    private final List<SeriesDef> series = new ArrayList<>();
+
+    public ColumnarSegmentReader(Path path) {
+        this.path = path;
+    }
+
+    /// Decode every complete segment and hand the snapshots to the consumer.
+    /// @return the number of snapshots replayed
+    public int replay(MetricsSnapshotConsumer consumer) {
+        strings.clear();
+        families.clear();
+        labelSets.clear();
+        series.clear();
+        int replayed = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            int magic = in.readInt();
+            int version = in.readInt();
+            if (magic != ColumnarSnapshotFormat.MAGIC || version != ColumnarSnapshotFormat.VERSION) {
+                throw new IllegalArgumentException("Not a version " + ColumnarSnapshotFormat.VERSION
+                    + " columnar metrics file: " + path);
+            }
+            byte[] body;
+            while ((body = readFrame(in)) != null) {
+                replayed += replaySegment(new BitInput(body), consumer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read columnar metrics file " + path, e);
+        }
+        return replayed;
+    }
+
+    private byte[] readFrame(DataInputStream in) throws IOException {
+        byte[] body = null;
+        int first = in.read();
+        if (first >= 0) {
+            try {
+                int marker = (first << 24) | (in.readUnsignedByte() << 16) | in.readUnsignedShort();
+                int rawLength = in.readInt();
+                int packedLength = in.readInt();
+                int crc = in.readInt();
+                byte[] packed = new byte[packedLength];
+                in.readFully(packed);
+                CRC32 check = new CRC32();
+                check.update(packed);
+                if (marker != ColumnarSnapshotFormat.SEGMENT_MARKER || (int) check.getValue() != crc) {
+                    logger.warn("Stopping at a corrupt segment in " + path + ".");
+                } else {
+                    body = inflate(packed, rawLength);
+                }
+            } catch (EOFException e) {
+                logger.warn("Stopping at a truncated segment in " + path + ".");
+            }
+        }
+        return body;
+    }
+
+    private byte[] inflate(byte[] packed, int rawLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(packed);
+            byte[] raw = new byte[rawLength];
+            int length = 0;
+            while (length < rawLength && !inflater.finished()) {
+                int n = inflater.inflate(raw, length, rawLength - length);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += n;
+            }
+            if (length != rawLength) {
+                throw new IOException("Segment in " + path + " inflated to " + length + " bytes, expected " + rawLength);
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException("Unable to inflate segment in " + path, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private int replaySegment(BitInput in, MetricsSnapshotConsumer consumer) {
+        int snapshotCount = in.readVarInt();
+        long[] timestamps = ColumnCodecs.readLongs(in, snapshotCount);
+        long[] intervals = ColumnCodecs.readLongs(in, snapshotCount);
+
+        for (int i = in.readVarInt(); i > 0; i--) {
+            strings.add(in.readString());
+        }
+        for (int i = in.readVarInt(); i > 0; i--) {
+            String familyName = strings.get(in.readVarInt());
+            String originalName = nullableString(in.readVarInt());
+            MetricType type = TYPES[in.readVarInt()];
+            String unit = nullableString(in.readVarInt());
+            String help = nullableString(in.readVarInt());
+            List<MetricCategory> categories = new ArrayList<>();
+            for (int c = in.readVarInt(); c > 0; c--) {
+                categories.add(CATEGORIES[in.readVarInt()]);
+            }
+            families.add(new FamilyDef(familyName, originalName, type, unit, help, List.copyOf(categories)));
+        }
+        for (int i = in.readVarInt(); i > 0; i--) {
+            Map<String, String> labels = new LinkedHashMap<>();
+            for (int p = in.readVarInt(); p > 0; p--) {
+                String key = strings.get(in.readVarInt());
+                labels.put(key, strings.get(in.readVarInt()));
+            }
+            labelSets.add(NBLabels.forMap(labels));
+        }
+        for (int i = in.readVarInt(); i > 0; i--) {
+            int familyId = in.readVarInt();
+            String sampleName = strings.get(in.readVarInt());
+            int labelSetId = in.readVarInt();
+            SegmentWriter.SeriesKind kind = KINDS[in.readVarInt()];
+            double[] quantiles = new double[in.readVarInt()];
+            for (int q = 0; q < quantiles.length; q++) {
+                quantiles[q] = in.readDouble();
+            }
+            boolean hasRates = in.readBit();
+            series.add(new SeriesDef(familyId, sampleName, labelSets.get(labelSetId), kind, quantiles, hasRates));
+        }
+
+        Map<NBLabels, Map<String, String>> metadata = new LinkedHashMap<>();
+        for (int i = in.readVarInt(); i > 0; i--) {
+            NBLabels labels = labelSets.get(in.readVarInt());
+            String key = strings.get(in.readVarInt());
+            metadata.computeIfAbsent(labels, l -> new LinkedHashMap<>()).put(key, strings.get(in.readVarInt()));
+        }
+        metadata.forEach(consumer::onSessionMetadata);
+
+        List<List<Row>> snapshots = new ArrayList<>(snapshotCount);
+        for (int s = 0; s < snapshotCount; s++) {
+            snapshots.add(new ArrayList<>());
+        }
+        for (int i = in.readVarInt(); i > 0; i--) {
+            SeriesDef def = series.get(in.readVarInt());
+            int[] present = new int[snapshotCount];
+            int size = 0;
+            for (int s = 0; s < snapshotCount; s++) {
+                if (in.readBit()) {
+                    present[size++] = s;
+                }
+            }
+            long[] positions = ColumnCodecs.readLongs(in, size);
+            long[][] longs = new long[def.kind().longColumns][];
+            for (int c = 0; c < longs.length; c++) {
+                longs[c] = ColumnCodecs.readLongs(in, size);
+            }
+            double[][] doubles = new double[def.doubleColumns()][];
+            for (int c = 0; c < doubles.length; c++) {
+                doubles[c] = ColumnCodecs.readDoubles(in, size);
+            }
+            for (int row = 0; row < size; row++) {
+                Sample sample = switch (def.kind()) {
+                    case POINT -> new PointSample(def.sampleName(), def.labels(), doubles[0][row]);
+                    case METER -> new MeterSample(def.sampleName(), def.labels(), longs[0][row],
+                        doubles[0][row], doubles[1][row], doubles[2][row], doubles[3][row]);
+                    case SUMMARY -> summarySample(def, longs, doubles, row, in);
+                };
+                snapshots.get(present[row]).add(new Row(positions[row], def.familyId(), sample));
+            }
+        }
+
+        for (int s = 0; s < snapshotCount; s++) {
+            List<Row> rows = snapshots.get(s);
+            rows.sort(Comparator.comparingLong(Row::position));
+            Map<Integer, List<Sample>> samplesByFamily = new LinkedHashMap<>();
+            for (Row row : rows) {
+                samplesByFamily.computeIfAbsent(row.familyId(), f -> new ArrayList<>()).add(row.sample());
+            }
+            List<MetricFamily> viewFamilies = new ArrayList<>(samplesByFamily.size());
+            for (Map.Entry<Integer, List<Sample>> entry : samplesByFamily.entrySet()) {
+                FamilyDef family = families.get(entry.getKey());
+                viewFamilies.add(new MetricFamily(family.familyName(), family.originalName(), family.type(),
+                    family.unit(), family.help(), family.categories(), entry.getValue()));
+            }
+            consumer.onMetricsSnapshot(MetricsView.of(Instant.ofEpochMilli(timestamps[s]), intervals[s], viewFamilies));
+        }
+        return snapshotCount;
+    }
+
+    private SummarySample summarySample(SeriesDef def, long[][] longs, double[][] doubles, int row, BitInput in) {
+        SummaryStatistics stats = new SummaryStatistics(longs[0][row],
+            doubles[1][row], doubles[2][row], doubles[3][row], doubles[4][row]);
+        Map<Double, Double> quantiles = new HashMap<>();
+        int column = 5;
+        for (double quantile : def.quantiles()) {
+            quantiles.put(quantile, doubles[column++][row]);
+        }
+        RateStatistics rates = def.hasRates()
+            ? new RateStatistics(doubles[column][row], doubles[column + 1][row],
+                doubles[column + 2][row], doubles[column + 3][row])
+            : null;
+        ConvenientSnapshot snapshot = in.readBit()
+            ? histogramSnapshot(in.readVarLong(), in.readVarLong(), in.readBytes())
+            : null;
+        return new SummarySample(def.sampleName(), def.labels(), doubles[0][row], stats, quantiles, rates,
+            (snapshot != null) ? snapshot : MetricsView.aggregatedSnapshot(stats, quantiles));
+    }
+
+    private ConvenientSnapshot histogramSnapshot(long startMillis, long endMillis, byte[] encoded) {
+        try {
+            EncodableHistogram decoded = EncodableHistogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(encoded), 0L);
+            if (decoded instanceof Histogram histogram) {
+                histogram.setStartTimeStamp(startMillis);
+                histogram.setEndTimeStamp(endMillis);
+                return new ConvenientSnapshot(new DeltaHistogramSnapshot(histogram));
+            }
+            return null;
+        } catch (DataFormatException e) {
+            logger.warn("Dropping an undecodable histogram payload in " + path + ".", e);
+            return null;
+        }
+    }
+
+    private String nullableString(int id) {
+        return (id == 0) ? null : strings.get(id - 1);
+    }
+
+    private record FamilyDef(
+        String familyName,
+        String originalName,
+        MetricType type,
+        String unit,
+        String help,
+        List<MetricCategory> categories
+    ) {
+    }
+
+    private record Row(long position, int familyId, Sample sample) {
+    }
+
+    private record SeriesDef(
+        int familyId,
+        String sampleName,
+        NBLabels labels,
+        SegmentWriter.SeriesKind kind,
+        double[] quantiles,
+        boolean hasRates
+    ) {
+        int doubleColumns() {
+            return kind.doubleColumns + quantiles.length + (hasRates ? 4 : 0);
+        }
+    }
+}
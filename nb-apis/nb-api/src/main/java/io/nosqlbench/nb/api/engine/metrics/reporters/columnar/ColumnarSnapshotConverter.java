@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.nb.api.engine.metrics.reporters.columnar;
+
+import io.nosqlbench.nb.api.components.core.NBBaseComponent;
+import io.nosqlbench.nb.api.engine.metrics.MetricsSnapshotScheduler;
+import io.nosqlbench.nb.api.engine.metrics.reporters.SqliteSnapshotReporter;
+import io.nosqlbench.nb.api.labels.NBLabels;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/// Loads a columnar metrics file into the SQLite schema written by [SqliteSnapshotReporter],
+/// by replaying it through an ordinary SQLite reporter. The result is the same database the
+/// SQLite reporter would have produced had it been attached to the session directly.
+public final class ColumnarSnapshotConverter {
+
+    /// Snapshots are pushed by the replay rather than pulled on a schedule, so the scheduler the
+    /// SQLite reporter registers with is given an interval which never elapses during a convert.
+    private static final long REPLAY_INTERVAL_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private ColumnarSnapshotConverter() {
+    }
+
+    /// @return the number of snapshots written to the database
+    public static int convert(Path columnarFile, String jdbcUrl, boolean includeHistograms) {
+        NBBaseComponent root = new NBBaseComponent(null, NBLabels.forKV("converter", "columnar"));
+        SqliteSnapshotReporter sqlite = new SqliteSnapshotReporter(root, jdbcUrl, REPLAY_INTERVAL_MILLIS, null, null, includeHistograms);
+        try {
+            return new ColumnarSegmentReader(columnarFile).replay(sqlite);
+        } finally {
+            sqlite.close();
+            MetricsSnapshotScheduler.lookup(root).teardown();
+        }
+    }
+}
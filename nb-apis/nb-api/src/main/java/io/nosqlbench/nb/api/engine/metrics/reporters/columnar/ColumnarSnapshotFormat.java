@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.nb.api.engine.metrics.reporters.columnar;
+
+/// Layout of a columnar metrics snapshot file.
+///
+/// A file is a short header followed by independently compressed segments, each holding a run of
+/// consecutive snapshots. Segments are only ever appended, so a file left behind by a crashed
+/// session is readable up to its last complete segment.
+///
+/// ```
+/// ┌────────────┬─────────┬───────────┬───────────┬─────┐
+/// │ magic:int  │ ver:int │ segment 0 │ segment 1 │ ... │
+/// └────────────┴─────────┴───────────┴───────────┴─────┘
+///
+/// segment ┌──────────┬─────────────┬──────────────┬───────────┬──────────────────┐
+///         │ mark:int │ rawLen:int  │ packedLen:int│ crc32:int │ deflated body    │
+///         └──────────┴─────────────┴──────────────┴───────────┴──────────────────┘
+/// ```
+///
+/// The body is a bit stream (see [ColumnCodecs]) which carries, in order:
+///
+/// 1. the snapshot count, then the capture timestamps and intervals as delta-of-delta columns
+/// 2. dictionary entries first used in this segment: strings, metric families, label sets (as
+///    pairs of string ids) and series, where a series is a family, sample name and label set
+/// 3. session metadata recorded since the previous segment
+/// 4. for each series present in the segment, a presence bitmap over the snapshots, the position
+///    of each sample within its snapshot, its count column (delta-of-delta), its value columns
+///    (XOR) and any HDR histogram payloads
+///
+/// Dictionary ids are assigned in order of first use and stay valid for the rest of the file, so
+/// segments must be decoded in order.
+public final class ColumnarSnapshotFormat {
+
+    public static final int MAGIC = 0x4E42434D;
+    public static final int VERSION = 1;
+    static final int SEGMENT_MARKER = 0x53454731;
+
+    private ColumnarSnapshotFormat() {
+    }
+}
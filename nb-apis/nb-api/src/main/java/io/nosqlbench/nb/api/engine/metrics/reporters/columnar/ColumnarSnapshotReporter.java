@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.nb.api.engine.metrics.reporters.columnar;
+
+import io.nosqlbench.nb.api.components.core.NBComponent;
+import io.nosqlbench.nb.api.engine.metrics.reporters.MetricInstanceFilter;
+import io.nosqlbench.nb.api.engine.metrics.reporters.MetricsSnapshotReporterBase;
+import io.nosqlbench.nb.api.engine.metrics.view.MetricsView;
+import io.nosqlbench.nb.api.engine.metrics.view.MetricsView.MetricFamily;
+import io.nosqlbench.nb.api.engine.metrics.view.MetricsView.Sample;
+import io.nosqlbench.nb.api.labels.NBLabels;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Objects;
+
+/// A snapshot reporter which appends metrics to a compact columnar file instead of issuing
+/// row-at-a-time SQL. Snapshots are buffered in memory per series and written out as one
+/// compressed segment every `snapshotsPerSegment` snapshots, and once more at teardown.
+///
+/// The file layout is described in [ColumnarSnapshotFormat]. Use [ColumnarSnapshotConverter] to
+/// load a file into the SQLite schema written by
+/// [io.nosqlbench.nb.api.engine.metrics.reporters.SqliteSnapshotReporter], so that existing
+/// MetricsQL tooling can query it.
+public class ColumnarSnapshotReporter extends MetricsSnapshotReporterBase {
+
+    private static final Logger logger = LogManager.getLogger(ColumnarSnapshotReporter.class);
+
+    public static final int DEFAULT_SNAPSHOTS_PER_SEGMENT = 60;
+
+    private final Path path;
+    private final MetricInstanceFilter filter;
+    private final boolean includeHistograms;
+    private final int snapshotsPerSegment;
+    private final SegmentWriter segment;
+    private final DataOutputStream out;
+    private boolean closed;
+
+    public ColumnarSnapshotReporter(NBComponent parent,
+                                    Path path,
+                                    long intervalMillis,
+                                    MetricInstanceFilter filter,
+                                    NBLabels extraLabels,
+                                    boolean includeHistograms,
+                                    int snapshotsPerSegment) {
+        super(parent, extraLabels, intervalMillis);
+        if (snapshotsPerSegment < 1) {
+            throw new IllegalArgumentException("snapshotsPerSegment must be at least 1, but was " + snapshotsPerSegment);
+        }
+        this.path = Objects.requireNonNull(path);
+        this.filter = (filter != null) ? filter : new MetricInstanceFilter();
+        this.includeHistograms = includeHistograms;
+        this.snapshotsPerSegment = snapshotsPerSegment;
+        this.segment = new SegmentWriter(includeHistograms);
+        try {
+            Path dir = path.toAbsolutePath().getParent();
+            if (dir != null) {
+                Files.createDirectories(dir);
+            }
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16));
+            out.writeInt(ColumnarSnapshotFormat.MAGIC);
+            out.writeInt(ColumnarSnapshotFormat.VERSION);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open columnar metrics file " + path, e);
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public boolean requiresHdrPayload() {
+        return includeHistograms;
+    }
+
+    @Override
+    public synchronized void onMetricsSnapshot(MetricsView view) {
+        if (closed) {
+            return;
+        }
+        segment.beginSnapshot(view.capturedAtEpochMillis(), view.intervalMillis());
+        for (MetricFamily family : view.families()) {
+            for (Sample sample : family.samples()) {
+                if (filter.matches(sample.labels().linearizeAsMetrics(), sample.labels())) {
+                    segment.addSample(family, sample);
+                }
+            }
+        }
+        if (segment.snapshotCount() >= snapshotsPerSegment) {
+            flushSegment();
+        }
+    }
+
+    @Override
+    public synchronized void onSessionMetadata(NBLabels labels, Map<String, String> metadata) {
+        if (closed || metadata == null || metadata.isEmpty()) {
+            return;
+        }
+        segment.addMetadata(labels, metadata);
+    }
+
+    private void flushSegment() {
+        try {
+            segment.flush(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write metrics segment to " + path, e);
+        }
+    }
+
+    @Override
+    protected void teardown() {
+        synchronized (this) {
+            if (!closed) {
+                closed = true;
+                try {
+                    if (!segment.isEmpty()) {
+                        segment.flush(out);
+                    }
+                    out.close();
+                } catch (IOException e) {
+                    logger.warn("Error closing columnar metrics file " + path + ".", e);
+                }
+            }
+        }
+        super.teardown();
+    }
+}
@@ -0,0 +1,417 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.nb.api.engine.metrics.reporters.columnar;
+
+import io.nosqlbench.nb.api.engine.metrics.instruments.MetricCategory;
+import io.nosqlbench.nb.api.engine.metrics.view.MetricsView.MeterSample;
+import io.nosqlbench.nb.api.engine.metrics.view.MetricsView.MetricFamily;
+import io.nosqlbench.nb.api.engine.metrics.view.MetricsView.MetricType;
+import io.nosqlbench.nb.api.engine.metrics.view.MetricsView.PointSample;
+import io.nosqlbench.nb.api.engine.metrics.view.MetricsView.RateStatistics;
+import io.nosqlbench.nb.api.engine.metrics.view.MetricsView.Sample;
+import io.nosqlbench.nb.api.engine.metrics.view.MetricsView.SummarySample;
+import io.nosqlbench.nb.api.engine.metrics.view.MetricsView.SummaryStatistics;
+import io.nosqlbench.nb.api.labels.NBLabels;
+import org.HdrHistogram.EncodableHistogram;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/// Buffers samples column by column and writes them out as one compressed segment at a time.
+/// The dictionaries of strings, families, label sets and series live for the whole file, and
+/// each segment carries only the entries which were first used within it.
+final class SegmentWriter {
+
+    private final boolean includeHistograms;
+
+    private final Map<String, Integer> strings = new HashMap<>();
+    private final List<String> newStrings = new ArrayList<>();
+    private final Map<FamilyKey, Integer> families = new HashMap<>();
+    private final List<FamilyKey> newFamilies = new ArrayList<>();
+    private final Map<Map<String, String>, Integer> labelSets = new HashMap<>();
+    private final List<int[]> newLabelSets = new ArrayList<>();
+    private final Map<SeriesKey, SeriesBuffer> series = new LinkedHashMap<>();
+    private final List<SeriesBuffer> newSeries = new ArrayList<>();
+    private final List<int[]> metadata = new ArrayList<>();
+
+    private long[] timestamps = new long[16];
+    private long[] intervals = new long[16];
+    private int snapshotCount;
+    private int position;
+
+    SegmentWriter(boolean includeHistograms) {
+        this.includeHistograms = includeHistograms;
+    }
+
+    int snapshotCount() {
+        return snapshotCount;
+    }
+
+    boolean isEmpty() {
+        return snapshotCount == 0 && metadata.isEmpty();
+    }
+
+    void beginSnapshot(long epochMillis, long intervalMillis) {
+        if (snapshotCount == timestamps.length) {
+            timestamps = Arrays.copyOf(timestamps, snapshotCount << 1);
+            intervals = Arrays.copyOf(intervals, snapshotCount << 1);
+        }
+        timestamps[snapshotCount] = epochMillis;
+        intervals[snapshotCount] = intervalMillis;
+        snapshotCount++;
+        position = 0;
+    }
+
+    void addSample(MetricFamily family, Sample sample) {
+        int familyId = familyId(family);
+        int labelSetId = labelSetId(sample.labels());
+        SeriesKey key = switch (sample) {
+            case PointSample p -> new SeriesKey(familyId, p.sampleName(), labelSetId, SeriesKind.POINT, List.of(), false);
+            case MeterSample m -> new SeriesKey(familyId, m.sampleName(), labelSetId, SeriesKind.METER, List.of(), false);
+            case SummarySample s -> new SeriesKey(familyId, s.sampleName(), labelSetId, SeriesKind.SUMMARY,
+                s.quantiles().keySet().stream().sorted().toList(), s.rates() != null);
+        };
+        SeriesBuffer buffer = series.get(key);
+        if (buffer == null) {
+            stringId(key.sampleName());
+            buffer = new SeriesBuffer(series.size(), key);
+            series.put(key, buffer);
+            newSeries.add(buffer);
+        }
+        buffer.append(snapshotCount - 1, position++, sample, includeHistograms);
+    }
+
+    void addMetadata(NBLabels labels, Map<String, String> entries) {
+        int labelSetId = labelSetId(labels);
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            metadata.add(new int[]{labelSetId, stringId(entry.getKey()), stringId(entry.getValue())});
+        }
+    }
+
+    /// Encode, compress and write the buffered segment, then reset for the next one.
+    void flush(DataOutputStream out) throws IOException {
+        BitOutput body = new BitOutput(4096);
+        body.writeVarInt(snapshotCount);
+        ColumnCodecs.writeLongs(body, timestamps, snapshotCount);
+        ColumnCodecs.writeLongs(body, intervals, snapshotCount);
+
+        body.writeVarInt(newStrings.size());
+        for (String string : newStrings) {
+            body.writeString(string);
+        }
+        body.writeVarInt(newFamilies.size());
+        for (FamilyKey family : newFamilies) {
+            body.writeVarInt(strings.get(family.familyName()));
+            body.writeVarInt(nullableId(family.originalName()));
+            body.writeVarInt(family.type().ordinal());
+            body.writeVarInt(nullableId(family.unit()));
+            body.writeVarInt(nullableId(family.help()));
+            body.writeVarInt(family.categories().size());
+            for (MetricCategory category : family.categories()) {
+                body.writeVarInt(category.ordinal());
+            }
+        }
+        body.writeVarInt(newLabelSets.size());
+        for (int[] pairs : newLabelSets) {
+            body.writeVarInt(pairs.length >> 1);
+            for (int id : pairs) {
+                body.writeVarInt(id);
+            }
+        }
+        body.writeVarInt(newSeries.size());
+        for (SeriesBuffer buffer : newSeries) {
+            SeriesKey key = buffer.key;
+            body.writeVarInt(key.familyId());
+            body.writeVarInt(strings.get(key.sampleName()));
+            body.writeVarInt(key.labelSetId());
+            body.writeVarInt(key.kind().ordinal());
+            body.writeVarInt(key.quantiles().size());
+            for (double quantile : key.quantiles()) {
+                body.writeDouble(quantile);
+            }
+            body.writeBit(key.hasRates());
+        }
+        body.writeVarInt(metadata.size());
+        for (int[] entry : metadata) {
+            body.writeVarInt(entry[0]);
+            body.writeVarInt(entry[1]);
+            body.writeVarInt(entry[2]);
+        }
+
+        int present = 0;
+        for (SeriesBuffer buffer : series.values()) {
+            present += (buffer.size > 0) ? 1 : 0;
+        }
+        body.writeVarInt(present);
+        for (SeriesBuffer buffer : series.values()) {
+            if (buffer.size > 0) {
+                buffer.write(body, snapshotCount);
+            }
+        }
+
+        writeFrame(out, body.toByteArray());
+
+        newStrings.clear();
+        newFamilies.clear();
+        newLabelSets.clear();
+        newSeries.clear();
+        metadata.clear();
+        for (SeriesBuffer buffer : series.values()) {
+            buffer.reset();
+        }
+        snapshotCount = 0;
+    }
+
+    private void writeFrame(DataOutputStream out, byte[] raw) throws IOException {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            byte[] compressed = new byte[Math.max(64, raw.length + (raw.length >> 3) + 64)];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == compressed.length) {
+                    compressed = Arrays.copyOf(compressed, compressed.length << 1);
+                }
+                length += deflater.deflate(compressed, length, compressed.length - length);
+            }
+            CRC32 crc = new CRC32();
+            crc.update(compressed, 0, length);
+            out.writeInt(ColumnarSnapshotFormat.SEGMENT_MARKER);
+            out.writeInt(raw.length);
+            out.writeInt(length);
+            out.writeInt((int) crc.getValue());
+            out.write(compressed, 0, length);
+            out.flush();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private int familyId(MetricFamily family) {
+        FamilyKey key = new FamilyKey(family.familyName(), family.originalName(), family.type(),
+            family.unit(), family.help(), family.categories());
+        Integer id = families.get(key);
+        if (id == null) {
+            stringId(key.familyName());
+            nullableId(key.originalName());
+            nullableId(key.unit());
+            nullableId(key.help());
+            id = families.size();
+            families.put(key, id);
+            newFamilies.add(key);
+        }
+        return id;
+    }
+
+    private int labelSetId(NBLabels labels) {
+        Map<String, String> map = labels.asMap();
+        Integer id = labelSets.get(map);
+        if (id == null) {
+            int[] pairs = new int[map.size() << 1];
+            int i = 0;
+            for (Map.Entry<String, String> entry : map.entrySet()) {
+                pairs[i++] = stringId(entry.getKey());
+                pairs[i++] = stringId(entry.getValue() == null ? "" : entry.getValue());
+            }
+            id = labelSets.size();
+            labelSets.put(new LinkedHashMap<>(map), id);
+            newLabelSets.add(pairs);
+        }
+        return id;
+    }
+
+    private int stringId(String value) {
+        Integer id = strings.get(value);
+        if (id == null) {
+            id = strings.size();
+            strings.put(value, id);
+            newStrings.add(value);
+        }
+        return id;
+    }
+
+    /// String ids shifted by one, so that 0 can stand for null.
+    private int nullableId(String value) {
+        return (value == null) ? 0 : stringId(value) + 1;
+    }
+
+    enum SeriesKind {
+        POINT(0, 1),
+        METER(1, 4),
+        SUMMARY(1, 5);
+
+        final int longColumns;
+        final int doubleColumns;
+
+        SeriesKind(int longColumns, int doubleColumns) {
+            this.longColumns = longColumns;
+            this.doubleColumns = doubleColumns;
+        }
+    }
+
+    private record FamilyKey(
+        String familyName,
+        String originalName,
+        MetricType type,
+        String unit,
+        String help,
+        List<MetricCategory> categories
+    ) {
+    }
+
+    private record SeriesKey(
+        int familyId,
+        String sampleName,
+        int labelSetId,
+        SeriesKind kind,
+        List<Double> quantiles,
+        boolean hasRates
+    ) {
+        int doubleColumns() {
+            return kind.doubleColumns + quantiles.size() + (hasRates ? 4 : 0);
+        }
+    }
+
+    /// The columns of one series within the current segment. Only snapshots in which the series
+    /// appeared take a slot, and the presence bitmap records which snapshots those were. Each slot
+    /// also records where the sample sat within its view, so replay keeps the original order.
+    private static final class SeriesBuffer {
+        private final int id;
+        private final SeriesKey key;
+        private int[] snapshots = new int[16];
+        private long[] positions = new long[16];
+        private final long[][] longs;
+        private final double[][] doubles;
+        private final List<byte[]> histograms = new ArrayList<>();
+        private long[] histogramTimes = new long[32];
+        private int size;
+
+        private SeriesBuffer(int id, SeriesKey key) {
+            this.id = id;
+            this.key = key;
+            this.longs = new long[key.kind().longColumns][16];
+            this.doubles = new double[key.doubleColumns()][16];
+        }
+
+        private void append(int snapshot, int position, Sample sample, boolean includeHistograms) {
+            if (size == snapshots.length) {
+                int capacity = size << 1;
+                snapshots = Arrays.copyOf(snapshots, capacity);
+                positions = Arrays.copyOf(positions, capacity);
+                for (int i = 0; i < longs.length; i++) {
+                    longs[i] = Arrays.copyOf(longs[i], capacity);
+                }
+                for (int i = 0; i < doubles.length; i++) {
+                    doubles[i] = Arrays.copyOf(doubles[i], capacity);
+                }
+                histogramTimes = Arrays.copyOf(histogramTimes, capacity << 1);
+            }
+            snapshots[size] = snapshot;
+            positions[size] = position;
+            switch (sample) {
+                case PointSample p -> doubles[0][size] = p.value();
+                case MeterSample m -> {
+                    longs[0][size] = m.count();
+                    doubles[0][size] = m.meanRate();
+                    doubles[1][size] = m.oneMinuteRate();
+                    doubles[2][size] = m.fiveMinuteRate();
+                    doubles[3][size] = m.fifteenMinuteRate();
+                }
+                case SummarySample s -> appendSummary(s, includeHistograms);
+            }
+            size++;
+        }
+
+        private void appendSummary(SummarySample s, boolean includeHistograms) {
+            SummaryStatistics stats = s.statistics();
+            longs[0][size] = stats.count();
+            doubles[0][size] = s.sum();
+            doubles[1][size] = stats.min();
+            doubles[2][size] = stats.max();
+            doubles[3][size] = stats.mean();
+            doubles[4][size] = stats.stddev();
+            int column = 5;
+            for (double quantile : key.quantiles()) {
+                Double value = s.quantiles().get(quantile);
+                doubles[column++][size] = (value == null) ? Double.NaN : value;
+            }
+            if (key.hasRates()) {
+                RateStatistics rates = s.rates();
+                doubles[column++][size] = rates.mean();
+                doubles[column++][size] = rates.oneMinute();
+                doubles[column++][size] = rates.fiveMinute();
+                doubles[column][size] = rates.fifteenMinute();
+            }
+            Optional<EncodableHistogram> histogram = includeHistograms
+                ? s.snapshot().asEncodableHistogram() : Optional.empty();
+            if (histogram.isPresent()) {
+                EncodableHistogram encodable = histogram.get();
+                ByteBuffer buffer = ByteBuffer.allocate(encodable.getNeededByteBufferCapacity());
+                int length = encodable.encodeIntoCompressedByteBuffer(buffer, Deflater.DEFAULT_COMPRESSION);
+                histograms.add(Arrays.copyOf(buffer.array(), length));
+                histogramTimes[size << 1] = encodable.getStartTimeStamp();
+                histogramTimes[(size << 1) + 1] = encodable.getEndTimeStamp();
+            } else {
+                histograms.add(null);
+            }
+        }
+
+        private void write(BitOutput out, int snapshotCount) {
+            out.writeVarInt(id);
+            int next = 0;
+            for (int snapshot = 0; snapshot < snapshotCount; snapshot++) {
+                boolean isPresent = next < size && snapshots[next] == snapshot;
+                out.writeBit(isPresent);
+                next += isPresent ? 1 : 0;
+            }
+            ColumnCodecs.writeLongs(out, positions, size);
+            for (long[] column : longs) {
+                ColumnCodecs.writeLongs(out, column, size);
+            }
+            for (double[] column : doubles) {
+                ColumnCodecs.writeDoubles(out, column, size);
+            }
+            if (key.kind() == SeriesKind.SUMMARY) {
+                for (int i = 0; i < size; i++) {
+                    byte[] histogram = histograms.get(i);
+                    out.writeBit(histogram != null);
+                    if (histogram != null) {
+                        out.writeVarLong(histogramTimes[i << 1]);
+                        out.writeVarLong(histogramTimes[(i << 1) + 1]);
+                        out.writeBytes(histogram);
+                    }
+                }
+            }
+        }
+
+        private void reset() {
+            size = 0;
+            histograms.clear();
+        }
+    }
+}
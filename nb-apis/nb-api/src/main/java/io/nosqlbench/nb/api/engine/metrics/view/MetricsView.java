@@ -109,6 +109,22 @@ public final class MetricsView {
         return new MetricsView(capturedAt, intervalMillis, families);
     }
 
+    /**
+     * Rebuild a view from families which were captured earlier, such as when replaying a stored
+     * metrics file into another reporter.
+     */
+    public static MetricsView of(Instant capturedAt, long intervalMillis, List<MetricFamily> families) {
+        return new MetricsView(capturedAt, intervalMillis, families);
+    }
+
+    /**
+     * A snapshot which answers from summary statistics and quantiles alone, for summaries whose
+     * HDR payload was not retained.
+     */
+    public static ConvenientSnapshot aggregatedSnapshot(SummaryStatistics stats, Map<Double, Double> quantiles) {
+        return new ConvenientSnapshot(new AggregatedSnapshot(stats, quantiles));
+    }
+
     public Instant capturedAt() {
         return capturedAt;
     }
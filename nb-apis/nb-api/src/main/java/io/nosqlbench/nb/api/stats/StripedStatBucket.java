@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.nosqlbench.nb.api.stats;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/// A set of [StatBucket]s which many threads can write to at once, merged when read, in the
+/// manner of [java.util.concurrent.atomic.LongAdder].
+///
+/// A writer starts at the stripe chosen by a hash of its thread id. If another writer holds
+/// that stripe, it tries the following stripes before waiting, so concurrent writers rarely
+/// wait for each other. Stripes are allocated on first use, so only as many rings are made as
+/// there are concurrent writers.
+///
+/// ```
+///  writer ─► stripe[hash(thread) & mask] ─► StatBucket(window) ─┐
+///  writer ─► stripe[...]                 ─► StatBucket(window) ─┼─► summary()
+///  writer ─► stripe[...]                 ─► StatBucket(window) ─┘
+/// ```
+///
+/// Each stripe keeps the same moving window as a single [StatBucket] of the same size. The
+/// summary covers the window of each stripe, so with one writer it is the same as that of a
+/// single bucket, and with several it covers up to `window` recent samples per stripe.
+public final class StripedStatBucket {
+
+    /// The next power of two at or above the number of available processors
+    public static final int DEFAULT_STRIPES =
+        Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+
+    /// The merged aggregates of every stripe at the time of reading
+    public record Summary(long count, double average, double min, double max, double sum) {
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final StatBucket bucket;
+
+        private Stripe(int window) {
+            this.bucket = new StatBucket(window);
+        }
+    }
+
+    private final int window;
+    private final int mask;
+    private final AtomicReferenceArray<Stripe> stripes;
+
+    /// @param window the number of recent samples kept by each stripe
+    /// @param stripes the number of stripes, which is rounded up to a power of two
+    public StripedStatBucket(int window, int stripes) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("The window must be positive, but was " + window);
+        }
+        int size = Integer.highestOneBit(Math.max(1, stripes) * 2 - 1);
+        this.window = window;
+        this.mask = size - 1;
+        this.stripes = new AtomicReferenceArray<>(size);
+    }
+
+    public void apply(double value) {
+        int start = indexOf(Thread.currentThread().threadId());
+        boolean applied = false;
+        for (int probe = 0; probe <= mask && !applied; probe++) {
+            Stripe stripe = stripe((start + probe) & mask);
+            if (stripe.lock.tryLock()) {
+                try {
+                    stripe.bucket.apply(value);
+                } finally {
+                    stripe.lock.unlock();
+                }
+                applied = true;
+            }
+        }
+        if (!applied) {
+            Stripe stripe = stripe(start);
+            stripe.lock.lock();
+            try {
+                stripe.bucket.apply(value);
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    /// Merge the stripes. Each stripe is read under its own lock, so the summary is consistent
+    /// within each stripe, but writes to other stripes may land while it is being made.
+    public Summary summary() {
+        long count = 0;
+        double sum = 0.0d;
+        double min = Double.MAX_VALUE;
+        double max = Double.MIN_VALUE;
+        for (int i = 0; i < stripes.length(); i++) {
+            Stripe stripe = stripes.get(i);
+            if (stripe != null) {
+                stripe.lock.lock();
+                try {
+                    StatBucket bucket = stripe.bucket;
+                    if (bucket.count() > 0) {
+                        count += bucket.count();
+                        sum += bucket.getSum();
+                        min = Math.min(min, bucket.getMin());
+                        max = Math.max(max, bucket.getMax());
+                    }
+                } finally {
+                    stripe.lock.unlock();
+                }
+            }
+        }
+        double average = (count == 0) ? 0.0d : sum / count;
+        return new Summary(count, average, min, max, sum);
+    }
+
+    public int window() {
+        return window;
+    }
+
+    private Stripe stripe(int index) {
+        Stripe stripe = stripes.get(index);
+        if (stripe == null) {
+            stripes.compareAndSet(index, null, new Stripe(window));
+            stripe = stripes.get(index);
+        }
+        return stripe;
+    }
+
+    private int indexOf(long threadId) {
+        long mixed = threadId * 0x9E3779B97F4A7C15L;
+        return (int) (mixed >>> 32) & mask;
+    }
+
+    @Override
+    public String toString() {
+        Summary summary = summary();
+        return "StripedStatBucket[" +
+            "count=" + summary.count() + ", " +
+            "mean=" + summary.average() + ", " +
+            "min=" + summary.min() + ", " +
+            "max=" + summary.max() + ']';
+    }
+}
@@ -42,6 +42,7 @@ import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.time.Clock;
 import java.time.ZoneId;
 import java.util.Base64;
@@ -281,6 +282,58 @@ public class MetricsReporterIntegrationTest {
         }
     }
 
+    @Test
+    public void testSqliteSnapshotReporterBatchesLinkedRowsInWalMode(@TempDir Path tempDir) throws SQLException {
+        NBComponent root = new NBBaseComponent(null);
+        String url = "jdbc:sqlite:" + tempDir.resolve("batched.db");
+        SqliteSnapshotReporter reporter = new SqliteSnapshotReporter(
+            root,
+            url,
+            100L,
+            new MetricInstanceFilter(),
+            true
+        );
+        MetricsSnapshotScheduler scheduler = MetricsSnapshotScheduler.lookup(root);
+
+        try {
+            for (int i = 1; i <= 3; i++) {
+                reporter.onMetricsSnapshot(counterView(i, 100L));
+                reporter.onMetricsSnapshot(timerView(100L, 4L * i, 9L * i, 33L * i));
+            }
+        } finally {
+            reporter.close();
+            if (scheduler != null) {
+                scheduler.teardown();
+            }
+        }
+
+        try (Connection connection = DriverManager.getConnection(url);
+             Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery("PRAGMA journal_mode")) {
+                assertThat(rs.next()).isTrue();
+                assertThat(rs.getString(1)).isEqualToIgnoringCase("wal");
+            }
+            assertThat(readSqliteValues(connection)).containsExactly(1.0d, 2.0d, 3.0d);
+            try (ResultSet rs = statement.executeQuery("""
+                SELECT COUNT(*), COUNT(DISTINCT sv.id)
+                FROM sample_quantile sq
+                INNER JOIN sample_value sv ON sv.id = sq.sample_value_id
+            """)) {
+                assertThat(rs.next()).isTrue();
+                assertThat(rs.getInt(1)).isEqualTo(3 * 7);
+                assertThat(rs.getInt(2)).isEqualTo(3);
+            }
+            try (ResultSet rs = statement.executeQuery("""
+                SELECT COUNT(*) FROM sample_statistics st
+                INNER JOIN sample_value sv ON sv.id = st.sample_value_id
+            """)) {
+                assertThat(rs.next()).isTrue();
+                assertThat(rs.getInt(1)).isEqualTo(3);
+            }
+            assertThat(readHistogramBase64(connection)).hasSize(3);
+        }
+    }
+
     private void emitSnapshots(MetricsSnapshotScheduler scheduler, long... values) {
         for (long value : values) {
             scheduler.injectSnapshotForTesting(counterView(value, 100L));
@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.nb.api.engine.metrics.reporters.columnar;
+
+import io.nosqlbench.nb.api.components.core.NBBaseComponent;
+import io.nosqlbench.nb.api.components.core.NBComponent;
+import io.nosqlbench.nb.api.engine.metrics.DeltaHdrHistogramReservoir;
+import io.nosqlbench.nb.api.engine.metrics.MetricsSnapshotScheduler;
+import io.nosqlbench.nb.api.engine.metrics.instruments.MetricCategory;
+import io.nosqlbench.nb.api.engine.metrics.instruments.NBMetricCounter;
+import io.nosqlbench.nb.api.engine.metrics.instruments.NBMetricTimer;
+import io.nosqlbench.nb.api.engine.metrics.reporters.MetricInstanceFilter;
+import io.nosqlbench.nb.api.engine.metrics.reporters.SqliteSnapshotReporter;
+import io.nosqlbench.nb.api.engine.metrics.view.MetricsView;
+import io.nosqlbench.nb.api.labels.NBLabels;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("accuracy")
+@Tag("metrics")
+public class ColumnarSnapshotReporterTest {
+
+    @Test
+    public void testLongColumnsRoundTrip() {
+        Random random = new Random(42L);
+        long[] values = new long[1000];
+        long timestamp = 1_700_000_000_000L;
+        for (int i = 0; i < values.length; i++) {
+            timestamp += 1000L + (random.nextInt(7) == 0 ? random.nextInt(5000) - 2500 : 0);
+            values[i] = timestamp;
+        }
+        values[500] = Long.MIN_VALUE;
+        values[501] = Long.MAX_VALUE;
+
+        BitOutput out = new BitOutput(64);
+        ColumnCodecs.writeLongs(out, values, values.length);
+        long[] decoded = ColumnCodecs.readLongs(new BitInput(out.toByteArray()), values.length);
+
+        assertThat(decoded).containsExactly(values);
+    }
+
+    @Test
+    public void testDoubleColumnsRoundTrip() {
+        Random random = new Random(7L);
+        double[] values = new double[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = switch (i % 5) {
+                case 0 -> 0.0d;
+                case 1 -> values[i - 1];
+                case 2 -> random.nextDouble() * 1e6;
+                case 3 -> Double.NaN;
+                default -> -random.nextGaussian();
+            };
+        }
+
+        BitOutput out = new BitOutput(64);
+        ColumnCodecs.writeDoubles(out, values, values.length);
+        out.writeVarLong(123456789L);
+        BitInput in = new BitInput(out.toByteArray());
+        double[] decoded = ColumnCodecs.readDoubles(in, values.length);
+
+        assertThat(decoded).containsExactly(values);
+        assertThat(in.readVarLong()).isEqualTo(123456789L);
+    }
+
+    @Test
+    public void testConvertedFileMatchesDirectSqlite(@TempDir Path tempDir) throws SQLException {
+        NBComponent root = new NBBaseComponent(null);
+        String directUrl = "jdbc:sqlite:" + tempDir.resolve("direct.db");
+        String convertedUrl = "jdbc:sqlite:" + tempDir.resolve("converted.db");
+        Path columnarFile = tempDir.resolve("metrics.nbcm");
+
+        SqliteSnapshotReporter direct = new SqliteSnapshotReporter(
+            root, directUrl, 100L, new MetricInstanceFilter(), null, false);
+        ColumnarSnapshotReporter columnar = new ColumnarSnapshotReporter(
+            root, columnarFile, 100L, new MetricInstanceFilter(), null, false, 3);
+
+        try {
+            NBLabels sessionLabels = NBLabels.forKV("session", "columnar");
+            Map<String, String> metadata = Map.of("nb.version", "5.25.0", "nb.commandline", "nb5 run test.yaml");
+            direct.onSessionMetadata(sessionLabels, metadata);
+            columnar.onSessionMetadata(sessionLabels, metadata);
+
+            for (int i = 1; i <= 8; i++) {
+                MetricsView view = view(i * 10L, 3L * i, 5L * i, 11L * i);
+                direct.onMetricsSnapshot(view);
+                columnar.onMetricsSnapshot(view);
+            }
+        } finally {
+            direct.close();
+            columnar.close();
+            MetricsSnapshotScheduler.lookup(root).teardown();
+        }
+
+        int snapshots = ColumnarSnapshotConverter.convert(columnarFile, convertedUrl, false);
+        assertThat(snapshots).isEqualTo(8);
+
+        try (Connection expected = DriverManager.getConnection(directUrl);
+             Connection actual = DriverManager.getConnection(convertedUrl)) {
+            for (String query : List.of(SAMPLE_VALUES, SAMPLE_QUANTILES, SAMPLE_RATES, SAMPLE_STATISTICS, METADATA)) {
+                List<String> expectedRows = rows(expected, query);
+                assertThat(expectedRows).isNotEmpty();
+                assertThat(rows(actual, query)).containsExactlyElementsOf(expectedRows);
+            }
+        }
+    }
+
+    @Test
+    public void testTruncatedTailSegmentIsSkipped(@TempDir Path tempDir) throws IOException {
+        NBComponent root = new NBBaseComponent(null);
+        Path columnarFile = tempDir.resolve("metrics.nbcm");
+        ColumnarSnapshotReporter columnar = new ColumnarSnapshotReporter(
+            root, columnarFile, 100L, new MetricInstanceFilter(), null, false, 2);
+        try {
+            for (int i = 1; i <= 4; i++) {
+                columnar.onMetricsSnapshot(view(i, 1L));
+            }
+        } finally {
+            columnar.close();
+            MetricsSnapshotScheduler.lookup(root).teardown();
+        }
+        byte[] bytes = Files.readAllBytes(columnarFile);
+        Files.write(columnarFile, Arrays.copyOf(bytes, bytes.length - 5));
+
+        List<MetricsView> replayed = new ArrayList<>();
+        int snapshots = new ColumnarSegmentReader(columnarFile).replay(replayed::add);
+
+        assertThat(snapshots).isEqualTo(2);
+        assertThat(replayed).hasSize(2);
+    }
+
+    private static final String SAMPLE_VALUES = """
+        SELECT mi.spec, sv.timestamp_ms, sv.value
+        FROM sample_value sv JOIN metric_instance mi ON mi.id = sv.metric_instance_id
+        ORDER BY sv.id
+        """;
+    private static final String SAMPLE_QUANTILES = """
+        SELECT mi.spec, sv.timestamp_ms, sq.quantile, sq.quantile_value
+        FROM sample_quantile sq
+        JOIN sample_value sv ON sv.id = sq.sample_value_id
+        JOIN metric_instance mi ON mi.id = sv.metric_instance_id
+        ORDER BY sv.id, sq.quantile
+        """;
+    private static final String SAMPLE_RATES = """
+        SELECT mi.spec, sv.timestamp_ms, sr.rate_type, sr.rate_value
+        FROM sample_rate sr
+        JOIN sample_value sv ON sv.id = sr.sample_value_id
+        JOIN metric_instance mi ON mi.id = sv.metric_instance_id
+        ORDER BY sv.id, sr.rate_type
+        """;
+    private static final String SAMPLE_STATISTICS = """
+        SELECT mi.spec, sv.timestamp_ms, st.min_value, st.max_value, st.mean_value, st.stddev_value
+        FROM sample_statistics st
+        JOIN sample_value sv ON sv.id = st.sample_value_id
+        JOIN metric_instance mi ON mi.id = sv.metric_instance_id
+        ORDER BY sv.id
+        """;
+    private static final String METADATA = """
+        SELECT metadata_key, metadata_value FROM label_metadata ORDER BY metadata_key
+        """;
+
+    private List<String> rows(Connection connection, String query) throws SQLException {
+        List<String> rows = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(query)) {
+            int columns = rs.getMetaData().getColumnCount();
+            while (rs.next()) {
+                StringBuilder row = new StringBuilder();
+                for (int c = 1; c <= columns; c++) {
+                    row.append(rs.getString(c)).append('|');
+                }
+                rows.add(row.toString());
+            }
+        }
+        return rows;
+    }
+
+    private MetricsView view(long count, long... durationsMillis) {
+        NBMetricCounter counter = new NBMetricCounter(
+            NBLabels.forKV("name", "counter_metric", "activity", "activity"), "counter", "operations", MetricCategory.Core);
+        counter.inc(count);
+        NBLabels timerLabels = NBLabels.forKV("name", "timer_metric", "activity", "activity");
+        NBMetricTimer timer = new NBMetricTimer(
+            timerLabels,
+            new DeltaHdrHistogramReservoir(timerLabels, 3),
+            "timer",
+            "nanoseconds",
+            MetricCategory.Core
+        );
+        for (long duration : durationsMillis) {
+            timer.update(duration, TimeUnit.MILLISECONDS);
+        }
+        return MetricsView.capture(List.of(counter, timer), 100L);
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.nosqlbench.nb.api.stats;
+
+import org.assertj.core.data.Offset;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+class StripedStatBucketTest {
+
+    @Test
+    public void testSingleWriterMatchesStatBucket() {
+        StatBucket plain = new StatBucket(5);
+        StripedStatBucket striped = new StripedStatBucket(5, 8);
+        for (int i = 1; i <= 12; i++) {
+            plain.apply(i);
+            striped.apply(i);
+        }
+        StripedStatBucket.Summary summary = striped.summary();
+        assertThat(summary.count()).isEqualTo(5);
+        assertThat(summary.average()).isCloseTo(plain.getAverage(), Offset.offset(0.001d));
+        assertThat(summary.min()).isEqualTo(plain.getMin());
+        assertThat(summary.max()).isEqualTo(plain.getMax());
+        assertThat(summary.sum()).isCloseTo(plain.getSum(), Offset.offset(0.001d));
+    }
+
+    @Test
+    public void testEmptySummary() {
+        StripedStatBucket.Summary summary = new StripedStatBucket(10, 4).summary();
+        assertThat(summary.count()).isZero();
+        assertThat(summary.average()).isZero();
+        assertThat(summary.sum()).isZero();
+    }
+
+    @Test
+    public void testConcurrentWritersAreMerged() throws Exception {
+        int threads = 16;
+        int perThread = 1000;
+        StripedStatBucket striped = new StripedStatBucket(perThread * threads, 4);
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            double value = t;
+            writers.add(Thread.ofVirtual().start(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    striped.apply(value);
+                }
+            }));
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        StripedStatBucket.Summary summary = striped.summary();
+        assertThat(summary.count()).isEqualTo((long) threads * perThread);
+        assertThat(summary.average()).isCloseTo((threads - 1) / 2.0d, Offset.offset(0.001d));
+        assertThat(summary.min()).isEqualTo(0.0d);
+        assertThat(summary.max()).isEqualTo(threads - 1.0d);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.nb.mql.cli;
+
+import io.nosqlbench.nb.api.engine.metrics.reporters.columnar.ColumnarSnapshotConverter;
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+
+/**
+ * CLI for the convert command.
+ * Loads a columnar metrics file into a SQLite metrics database so the other commands can query it.
+ */
+@Command(
+    name = "convert",
+    description = "Convert a columnar metrics file into a SQLite metrics database",
+    mixinStandardHelpOptions = true
+)
+public class ConvertCLI implements Callable<Integer> {
+
+    @Parameters(
+        index = "0",
+        description = "Path to the columnar metrics file"
+    )
+    private Path inputPath;
+
+    @Option(
+        names = {"-d", "--db"},
+        description = "Path to the metrics database to write (default: logs/metrics.db)",
+        defaultValue = "logs/metrics.db"
+    )
+    private Path databasePath;
+
+    @Option(
+        names = {"--histograms"},
+        description = "Also store HDR histogram payloads recorded in the columnar file"
+    )
+    private boolean includeHistograms;
+
+    @Override
+    public Integer call() throws Exception {
+        try {
+            int snapshots = ColumnarSnapshotConverter.convert(
+                inputPath, "jdbc:sqlite:" + databasePath.toAbsolutePath(), includeHistograms);
+            System.out.println("Converted " + snapshots + " snapshots from " + inputPath + " into " + databasePath);
+            return 0;
+        } catch (Exception e) {
+            System.err.println("Error: " + e.getMessage());
+            if (System.getenv("DEBUG") != null) {
+                e.printStackTrace();
+            }
+            return 1;
+        }
+    }
+
+    /**
+     * Main method for standalone execution.
+     */
+    public static void main(String[] args) {
+        int exitCode = new CommandLine(new ConvertCLI()).execute(args);
+        System.exit(exitCode);
+    }
+}
@@ -27,6 +27,7 @@ import picocli.CommandLine.Command;
  *   nb-metricsql instant --metric ops_total
  *   nb-metricsql range --metric ops_total --window 5m
  *   nb-metricsql rate --metric ops_total --window 5m
+ *   nb-metricsql convert logs/session_metrics.nbcm --db logs/metrics.db
  *   ...
  */
 @Command(
@@ -48,7 +49,8 @@ import picocli.CommandLine.Command;
         AggregateCLI.class,
         RatioCLI.class,
         TopKCLI.class,
-        SqlCLI.class
+        SqlCLI.class,
+        ConvertCLI.class
     }
 )
 public class MetricsQLCLI implements Runnable {
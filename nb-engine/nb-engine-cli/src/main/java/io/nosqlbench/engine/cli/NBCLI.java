@@ -527,6 +527,13 @@ public class NBCLI implements Function<String[], Integer>, NBLabeledElement {
                 session.create().sqliteSnapshotReporter(session, cfg.url, cfg.millis, filter, cfg.includeHistograms);
             });
 
+            options.wantsReportColumnarTo().ifPresent(cfg -> {
+                MetricInstanceFilter filter = new MetricInstanceFilter();
+                filter.addPattern(cfg.pattern);
+                session.create().columnarSnapshotReporter(
+                    session, Path.of(cfg.file), cfg.millis, filter, cfg.includeHistograms, cfg.snapshotsPerSegment);
+            });
+
             options.wantsReportPromPushTo().ifPresent(cfg -> {
                 String[] words = cfg.split(",");
                 String uri;
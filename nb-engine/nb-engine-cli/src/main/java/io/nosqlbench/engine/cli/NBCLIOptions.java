@@ -155,6 +155,7 @@ public class NBCLIOptions {
     private final static String NBIO_CACHE_DIR = "--nbio-cache-dir";
     private final static String NBIO_CACHE_MAX_RETRIES = "--nbio-cache-max-retries";
     private static final String REPORT_SQLITE_TO = "--report-sqlite-to";
+    private static final String REPORT_COLUMNAR_TO = "--report-columnar-to";
 
     //    private static final String DEFAULT_CONSOLE_LOGGING_PATTERN = "%d{HH:mm:ss.SSS} [%thread] %-5level %logger{36} - %msg%n";
 
@@ -178,6 +179,7 @@ public class NBCLIOptions {
     private String prompushApikeyfile;
     private String reportCsvTo;
     private String reportSqliteTo;
+    private String reportColumnarTo;
     private int reportInterval = 10;
     private String metricsPrefix = "nosqlbench";
     private String wantsMetricsForActivity;
@@ -675,6 +677,10 @@ public class NBCLIOptions {
                     arglist.removeFirst();
                     this.reportSqliteTo = arglist.removeFirst();
                     break;
+                case NBCLIOptions.REPORT_COLUMNAR_TO:
+                    arglist.removeFirst();
+                    this.reportColumnarTo = arglist.removeFirst();
+                    break;
                 case NBCLIOptions.SUMMARY:
                     arglist.removeFirst();
                     this.reportSummaryTo = "stdout:0";
@@ -1013,6 +1019,10 @@ public class NBCLIOptions {
         return Optional.ofNullable(this.reportSqliteTo).map(SqliteConfigData::new);
     }
 
+    public Optional<ColumnarConfigData> wantsReportColumnarTo() {
+        return Optional.ofNullable(this.reportColumnarTo).map(ColumnarConfigData::new);
+    }
+
     public Path getLogsDirectory() {
         return Path.of(this.logsDirectory);
     }
@@ -1158,6 +1168,59 @@ public class NBCLIOptions {
         }
     }
 
+    public static class ColumnarConfigData {
+        public String file;
+        public String pattern = ".*";
+        public long millis = 30000L;
+        public boolean includeHistograms = false;
+        public int snapshotsPerSegment = 60;
+
+        public ColumnarConfigData(final String columnarReporterSpec) {
+            final String[] words = columnarReporterSpec.split(",", -1);
+            if (words.length < 1 || words.length > 4) {
+                throw new RuntimeException(
+                    NBCLIOptions.REPORT_COLUMNAR_TO +
+                        " options must be in 'file[,filter[,interval[,options]]]' form."
+                );
+            }
+            this.file = words[0];
+            if (this.file == null || this.file.isEmpty()) {
+                throw new RuntimeException("You must specify a file here for recording columnar metrics data.");
+            }
+            if (words.length > 1 && !words[1].isEmpty()) {
+                this.pattern = words[1];
+            }
+            if (words.length > 2 && !words[2].isEmpty()) {
+                this.millis = Unit.msFor(words[2]).orElseThrow(() ->
+                    new RuntimeException("Unable to parse interval spec:" + words[2] + '\''));
+            }
+            if (words.length > 3) {
+                parseOptions(words[3]);
+            }
+        }
+
+        private void parseOptions(String optionSpec) {
+            if (optionSpec == null || optionSpec.isBlank()) {
+                return;
+            }
+            for (String raw : optionSpec.split("[;|]")) {
+                String option = raw.trim().toLowerCase(Locale.ROOT);
+                if (option.isEmpty()) {
+                    continue;
+                }
+                if (option.equals("hist")) {
+                    includeHistograms = true;
+                } else if (option.equals("nohist")) {
+                    includeHistograms = false;
+                } else if (option.startsWith("segment=")) {
+                    snapshotsPerSegment = Integer.parseInt(option.substring("segment=".length()));
+                } else {
+                    throw new RuntimeException("Unknown columnar reporter option '" + raw.trim() + "'");
+                }
+            }
+        }
+    }
+
 
     public static class LoggerConfigData {
         public String file;
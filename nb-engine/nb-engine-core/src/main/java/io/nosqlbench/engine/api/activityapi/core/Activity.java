@@ -21,6 +21,7 @@ import io.nosqlbench.adapters.api.activityconfig.OpsLoader;
 import io.nosqlbench.adapters.api.activityconfig.yaml.OpTemplate;
 import io.nosqlbench.adapters.api.activityconfig.yaml.OpTemplateFormat;
 import io.nosqlbench.adapters.api.activityconfig.yaml.OpsDocList;
+import io.nosqlbench.adapters.api.activityimpl.BaseOpDispenser;
 import io.nosqlbench.adapters.api.activityimpl.OpDispenser;
 import io.nosqlbench.adapters.api.activityimpl.OpMapper;
 import io.nosqlbench.adapters.api.activityimpl.uniform.DriverAdapter;
@@ -42,6 +43,7 @@ import io.nosqlbench.engine.api.activityapi.planning.OpSequence;
 import io.nosqlbench.engine.api.activityapi.planning.SequencePlanner;
 import io.nosqlbench.engine.api.activityapi.planning.SequencerType;
 import io.nosqlbench.engine.api.activityapi.simrate.*;
+import io.nosqlbench.engine.api.activityimpl.motor.OpenLoopSchedule;
 import io.nosqlbench.engine.api.activityimpl.motor.RunStateTally;
 import io.nosqlbench.engine.api.activityimpl.OpFunctionComposition;
 import io.nosqlbench.adapters.api.activityimpl.Dryrun;
@@ -70,7 +72,12 @@ import java.io.InputStream;
 import java.io.PrintWriter;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
 import java.util.function.LongFunction;
 import java.util.function.Supplier;
 
@@ -91,6 +98,7 @@ public class Activity extends NBStatusComponent
     private RunState runState = RunState.Uninitialized;
     private ThreadLocal<RateLimiter> strideLimiterSource;
     private ThreadLocal<RateLimiter> cycleLimiterSource;
+    private volatile OpenLoopSchedule openLoopSchedule;
     private ActivityInstrumentation activityInstrumentation;
     private PrintWriter console;
     private long startedAtMillis;
@@ -104,6 +112,7 @@ public class Activity extends NBStatusComponent
     // Fields from StandardActivity
     private OpSequence<OpDispenser<? extends CycleOp<?>>> sequence;
     private final ConcurrentHashMap<String, DriverAdapter<CycleOp<?>, Space>> adapters = new ConcurrentHashMap<>();
+    private final OpSynthesisTimings synthesisTimings = new OpSynthesisTimings();
 
     /**
      * Create a new Activity with the specified parent component and activity definition.
@@ -150,6 +159,7 @@ public class Activity extends NBStatusComponent
 
         List<DriverAdapter<CycleOp<?>, Space>> adapterlist = new ArrayList<>();
         List<ParsedOp> pops = new ArrayList<>();
+        List<Callable<ParsedOp>> parses = new ArrayList<>();
         ConcurrentHashMap<String, OpMapper<? extends CycleOp<?>, ? extends Space>> mappers = new ConcurrentHashMap<>();
 
         NBConfigModel activityModel = activityDef.getConfigModel();
@@ -173,7 +183,9 @@ public class Activity extends NBStatusComponent
         NBConfigModel supersetConfig = ConfigModel.of(Activity.class).add(yamlmodel);
 
         // Load the op templates
+        long synthesisStart = System.nanoTime();
         List<OpTemplate> opTemplates = loadOpTemplates(defaultAdapter);
+        synthesisTimings.addParse(System.nanoTime() - synthesisStart);
         NBConfigModel combinedAdapterModel = ConfigModel.of(Activity.class);
 
         for (OpTemplate ot : opTemplates) {
@@ -206,15 +218,20 @@ public class Activity extends NBStatusComponent
             paramsAdvisor.validateAll(ot.getTags().keySet());
             paramsAdvisor.validateAll(ot.getBindings().keySet());
             adapterlist.add(adapter);
-
-            ParsedOp pop = new ParsedOp(ot, adapter.getConfiguration(), List.of(adapter.getPreprocessor()), this);
-            logger.debug("Activity.pop=" + pop);
-            Optional<String> discard = pop.takeOptionalStaticValue("driver", String.class);
-            pops.add(pop);
+            DriverAdapter<CycleOp<?>, Space> templateAdapter = adapter;
+            parses.add(() -> parseOp(ot, templateAdapter));
         }
 
         logger.debug(() -> "Activity.opTemplate loop complete");
 
+        try {
+            pops.addAll(synthesize(parses));
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new OpConfigError("Error parsing op templates: " + e.getMessage(), workloadSource, e);
+        }
+
         paramsAdvisor.setName("Workload", "Check parameters, template, and binding names")
             .logName().evaluate();
 
@@ -239,8 +256,11 @@ public class Activity extends NBStatusComponent
             }
             throw new OpConfigError("Error mapping workload template to operations: " + e.getMessage(), null, e);
         }
+        synthesisTimings.setWall(System.nanoTime() - synthesisStart);
+        logger.info(() -> "synthesized " + pops.size() + " op templates for activity '" + getAlias() + "': " + synthesisTimings);
 
         // Create metrics
+        synthesisTimings.register(this);
         create().gauge(
             "ops_pending",
             () -> this.getProgressMeter().getSummary().pending(),
@@ -261,6 +281,21 @@ public class Activity extends NBStatusComponent
         );
     }
 
+    /**
+     * Parse one op template for its adapter, including the compilation of its bindings.
+     * This runs on the synthesis pool, so it must not touch state shared between templates
+     * other than the thread-safe timings.
+     */
+    private ParsedOp parseOp(OpTemplate ot, DriverAdapter<CycleOp<?>, Space> adapter) {
+        long parseStart = System.nanoTime();
+        ParsedOp pop = new ParsedOp(ot, adapter.getConfiguration(), List.of(adapter.getPreprocessor()), this);
+        synthesisTimings.addBindings(pop.getTemplateMapNanos());
+        synthesisTimings.addParse(System.nanoTime() - parseStart - pop.getTemplateMapNanos());
+        logger.debug("Activity.pop=" + pop);
+        Optional<String> discard = pop.takeOptionalStaticValue("driver", String.class);
+        return pop;
+    }
+
     private DriverAdapter<CycleOp<?>, Space> getDriverAdapter(String driverName) {
         DriverAdapter<CycleOp<?>, Space> adapter = Optional.of(driverName)
             .flatMap(name -> ServiceSelector.of(name, ServiceLoader.load(DriverAdapterLoader.class)).get())
@@ -410,6 +445,38 @@ public class Activity extends NBStatusComponent
         }
     }
 
+    /// The open-loop schedule which gives each cycle an intended start time, or null unless the
+    /// activity runs with `scheduling=open` and a cycle rate. The first schedule is anchored at
+    /// the first cycle of the activity when it is first asked for, which is when the first motor
+    /// starts running, so that activity setup time is not counted as schedule delay.
+    public OpenLoopSchedule getOpenLoopSchedule() {
+        OpenLoopSchedule schedule = openLoopSchedule;
+        return (schedule != null) ? schedule : anchorOpenLoopSchedule();
+    }
+
+    private synchronized OpenLoopSchedule anchorOpenLoopSchedule() {
+        RateLimiter cycleLimiter = getCycleLimiter();
+        if (openLoopSchedule == null && cycleLimiter != null && isOpenLoop()) {
+            openLoopSchedule = new OpenLoopSchedule(
+                System.nanoTime(),
+                activityDef.getStartCycle(),
+                1_000_000_000d / cycleLimiter.getSpec().getRate()
+            );
+        }
+        return openLoopSchedule;
+    }
+
+    /// Whether motors dispatch cycles at their intended start times rather than waiting for
+    /// prior completions, as set by `scheduling=open`. The default is `closed`.
+    public boolean isOpenLoop() {
+        String scheduling = this.activityDef.getParams().getOptionalString("scheduling").orElse("closed");
+        return switch (scheduling) {
+            case "open" -> true;
+            case "closed" -> false;
+            default -> throw new BasicError("scheduling must be 'open' or 'closed', but was '" + scheduling + "'");
+        };
+    }
+
     public synchronized RateLimiter getStrideLimiter() {
         if (strideLimiterSource != null) {
             return strideLimiterSource.get();
@@ -451,6 +518,12 @@ public class Activity extends NBStatusComponent
         return this.activityDef.getParams().getOptionalInteger("maxtries").orElse(10);
     }
 
+    /// The number of cycles each motor may keep in flight at once, as set by `async=N`.
+    /// A value of 0, the default, means that each motor runs one cycle at a time.
+    public int getAsyncDepth() {
+        return Math.max(0, this.activityDef.getParams().getOptionalInteger("async").orElse(0));
+    }
+
     public int getHdrDigits() {
         return this.getParams().getOptionalInteger("hdr_digits").orElse(4);
     }
@@ -537,7 +610,10 @@ public class Activity extends NBStatusComponent
             .map(CycleRateSpec::new)
             .ifPresentOrElse(
                 sr -> this.onEvent(new ParamChange<>(sr)),
-                () -> cycleLimiterSource = null
+                () -> {
+                    cycleLimiterSource = null;
+                    openLoopSchedule = null;
+                }
             );
     }
 
@@ -547,6 +623,19 @@ public class Activity extends NBStatusComponent
 
     public void createOrUpdateCycleLimiter(SimRateSpec spec) {
         cycleLimiterSource = ThreadLocalRateLimiters.createOrUpdate(this, cycleLimiterSource, spec);
+        updateOpenLoopSchedule(spec);
+    }
+
+    /// Re-anchor a running open-loop schedule for a changed cycle rate, continuing from the cycle
+    /// which the previous schedule has reached now.
+    private synchronized void updateOpenLoopSchedule(SimRateSpec spec) {
+        OpenLoopSchedule previous = openLoopSchedule;
+        if (previous != null && isOpenLoop()) {
+            long now = System.nanoTime();
+            openLoopSchedule = new OpenLoopSchedule(now, previous.cycleAt(now), 1_000_000_000d / spec.getRate());
+        } else {
+            openLoopSchedule = null;
+        }
     }
 
     public synchronized void setDefaultsFromOpSequence(OpSequence<?> seq) {
@@ -646,26 +735,28 @@ public class Activity extends NBStatusComponent
                 .orElse(SequencerType.bucket);
             SequencePlanner<OpDispenser<? extends CycleOp<?>>> planner = new SequencePlanner<>(sequencerType);
 
+            List<Callable<OpDispenser<? extends CycleOp<?>>>> mappings = new ArrayList<>(pops.size());
             for (int i = 0; i < pops.size(); i++) {
-                long ratio = ratios.get(i);
                 ParsedOp pop = pops.get(i);
-
-                try {
-                    if (0 == ratio) {
-                        logger.info(() -> "skipped mapping op '" + pop.getName() + '\'');
-                        continue;
+                if (0 == ratios.get(i)) {
+                    logger.info(() -> "skipped mapping op '" + pop.getName() + '\'');
+                    mappings.add(null);
+                } else {
+                    try {
+                        DriverAdapter<CycleOp<?>, Space> adapter = adapters.get(i);
+                        OpMapper<CycleOp<?>, Space> opMapper = adapter.getOpMapper();
+                        LongFunction<Space> spaceFunc = adapter.getSpaceFunc(pop);
+                        mappings.add(() -> mapOp(adapter, opMapper, pop, spaceFunc));
+                    } catch (Exception e) {
+                        throw new OpConfigError("Error while mapping op from template named '" + pop.getName() + "': " + e.getMessage(), e);
                     }
+                }
+            }
 
-                    DriverAdapter<CycleOp<?>, Space> adapter = adapters.get(i);
-                    OpMapper<CycleOp<?>, Space> opMapper = adapter.getOpMapper();
-                    LongFunction<Space> spaceFunc = adapter.getSpaceFunc(pop);
-                    OpDispenser<? extends CycleOp<?>> dispenser = opMapper.apply(this, pop, spaceFunc);
-                    Dryrun dryrun = pop.takeEnumFromFieldOr(Dryrun.class, Dryrun.none, "dryrun");
-                    dispenser = OpFunctionComposition.wrapOptionally(adapter, dispenser, pop, dryrun);
-
-                    planner.addOp((OpDispenser<? extends CycleOp<?>>) dispenser, ratio);
-                } catch (Exception e) {
-                    throw new OpConfigError("Error while mapping op from template named '" + pop.getName() + "': " + e.getMessage(), e);
+            List<OpDispenser<? extends CycleOp<?>>> dispensers = synthesize(mappings);
+            for (int i = 0; i < pops.size(); i++) {
+                if (dispensers.get(i) != null) {
+                    planner.addOp(dispensers.get(i), ratios.get(i));
                 }
             }
 
@@ -680,6 +771,90 @@ public class Activity extends NBStatusComponent
         }
     }
 
+    private OpDispenser<? extends CycleOp<?>> mapOp(
+        DriverAdapter<CycleOp<?>, Space> adapter,
+        OpMapper<CycleOp<?>, Space> opMapper,
+        ParsedOp pop,
+        LongFunction<Space> spaceFunc
+    ) {
+        try {
+            long mappingStart = System.nanoTime();
+            OpDispenser<? extends CycleOp<?>> dispenser = opMapper.apply(this, pop, spaceFunc);
+            long verifierNanos = (dispenser instanceof BaseOpDispenser<?, ?> base) ? base.getVerifierCompileNanos() : 0L;
+            Dryrun dryrun = pop.takeEnumFromFieldOr(Dryrun.class, Dryrun.none, "dryrun");
+            dispenser = OpFunctionComposition.wrapOptionally(adapter, dispenser, pop, dryrun);
+            synthesisTimings.addVerifiers(verifierNanos);
+            synthesisTimings.addDispenser(System.nanoTime() - mappingStart - verifierNanos);
+            return dispenser;
+        } catch (Exception e) {
+            throw new OpConfigError("Error while mapping op from template named '" + pop.getName() + "': " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Run the startup work for each op template, concurrently on a fork/join pool of up to
+     * {@code synthesis_threads} workers. This is used both to parse the op templates, which
+     * compiles their bindings, and to map them to dispensers. The results are returned in the
+     * order of the tasks, with null for a null task, so that the op sequence does not depend on
+     * which task finishes first. If any task fails, the error of the first one in order is
+     * thrown.
+     *
+     * <p>Concurrent synthesis is opt-in, and {@code synthesis_threads} defaults to 1. Adapters
+     * create their spaces and prepare statements from their op mappers, and not all of them
+     * guard that work against concurrent callers, so it stays in order on one thread unless a
+     * user asks for more.</p>
+     */
+    private <T> List<T> synthesize(List<Callable<T>> work) throws Exception {
+        List<Callable<T>> tasks = work.stream().filter(Objects::nonNull).toList();
+        int threads = Math.min(
+            tasks.size(),
+            getParams().getOptionalInteger("synthesis_threads").orElse(1));
+
+        List<T> results = new ArrayList<>(work.size());
+        if (threads <= 1) {
+            for (Callable<T> task : work) {
+                results.add(task == null ? null : task.call());
+            }
+        } else {
+            synthesizeConcurrently(work, tasks, threads, results);
+        }
+        return results;
+    }
+
+    private <T> void synthesizeConcurrently(
+        List<Callable<T>> work,
+        List<Callable<T>> tasks,
+        int threads,
+        List<T> results
+    ) throws Exception {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        String prefix = getAlias() + "-synthesis-";
+        ForkJoinPool.ForkJoinWorkerThreadFactory factory = pool -> {
+            ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            worker.setName(prefix + worker.getPoolIndex());
+            worker.setContextClassLoader(loader);
+            return worker;
+        };
+        logger.debug(() -> "running startup work for " + tasks.size() + " op templates on " + threads + " threads");
+        try (ForkJoinPool pool = new ForkJoinPool(threads, factory, null, false)) {
+            Iterator<Future<T>> futures = pool.invokeAll(tasks).iterator();
+            for (Callable<T> task : work) {
+                if (task == null) {
+                    results.add(null);
+                } else {
+                    try {
+                        results.add(futures.next().get());
+                    } catch (ExecutionException e) {
+                        if (e.getCause() instanceof Exception cause) {
+                            throw cause;
+                        }
+                        throw e;
+                    }
+                }
+            }
+        }
+    }
+
     protected List<OpTemplate> loadOpTemplates(DriverAdapter<?, ?> defaultDriverAdapter) {
         String tagfilter = activityDef.getParams().getOptionalString("tags").orElse("");
 
@@ -98,6 +98,14 @@ public interface ActivityInstrumentation {
      */
     Timer getOrCreateBindTimer();
 
+    /**
+     * The stride bind timer keeps track of how long it takes to evaluate the bindings of a whole
+     * stride up front, once per stride. Stride bindings are only evaluated when
+     * {@code stride_bindings} is enabled, so this method should return null otherwise.
+     * @return a new or existing {@link Timer} if appropriate, else null
+     */
+    Timer getStrideBindTimerOrNull();
+
     /**
      * The execute timer keeps track of how long it takes to submit an operation to be executed
      * to an underlying native driver. For asynchronous APIs, such as those which return a
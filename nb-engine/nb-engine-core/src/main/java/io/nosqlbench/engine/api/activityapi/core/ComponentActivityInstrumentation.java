@@ -40,6 +40,7 @@ public class ComponentActivityInstrumentation implements ActivityInstrumentation
     private NBMetricTimer cyclesResponseTimer;
     private NBMetricCounter pendingOpsCounter;
     private NBMetricTimer bindTimer;
+    private NBMetricTimer strideBindTimer;
     private NBMetricTimer executeTimer;
     private NBMetricTimer resultTimer;
     private NBMetricTimer resultSuccessTimer;
@@ -111,6 +112,14 @@ public class ComponentActivityInstrumentation implements ActivityInstrumentation
             MetricCategory.Core,
             "Time the step within a cycle which binds generated data to an op template to synthesize an executable operation."
         );
+        if (params.getOptionalBoolean("stride_bindings").orElse(false)) {
+            this.strideBindTimer = activity.create().timer(
+                "bind_stride",
+                hdrdigits,
+                MetricCategory.Core,
+                "Time the step at the start of a stride which evaluates the bindings of all of its cycles at once, when stride_bindings is enabled."
+            );
+        }
 
         this.executeTimer = activity.create().timer(
             "execute",
@@ -263,6 +272,11 @@ public class ComponentActivityInstrumentation implements ActivityInstrumentation
         return bindTimer;
     }
 
+    @Override
+    public Timer getStrideBindTimerOrNull() {
+        return strideBindTimer;
+    }
+
     @Override
     public Timer getOrCreateExecuteTimer() {
         return executeTimer;
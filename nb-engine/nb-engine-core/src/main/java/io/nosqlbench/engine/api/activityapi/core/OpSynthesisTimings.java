@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.nosqlbench.engine.api.activityapi.core;
+
+import io.nosqlbench.nb.api.components.core.NBComponent;
+import io.nosqlbench.nb.api.engine.metrics.instruments.MetricCategory;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/// The time an activity spends turning its op templates into op dispensers at startup, by
+/// phase, exported as the `startup_*` gauges of the activity.
+///
+/// ```
+///  op template ─► ParsedOp ─────────────────────────► OpMapper ──────────────► OpDispenser
+///                 ├ parse                              ├ dispensers
+///                 └ bindings (bind points, recipes)    └ verifiers (compiled scripts)
+/// ```
+///
+/// Dispensers are constructed concurrently, so every phase except the wall time is the sum of
+/// the time spent in it by all threads, and the phases together may exceed the wall time.
+/// The dispenser phase does not include the verifier phase, and the parse phase does not
+/// include the bindings phase.
+final class OpSynthesisTimings {
+    private final LongAdder parseNanos = new LongAdder();
+    private final LongAdder bindingNanos = new LongAdder();
+    private final LongAdder dispenserNanos = new LongAdder();
+    private final LongAdder verifierNanos = new LongAdder();
+    private volatile long wallNanos;
+
+    void addParse(long nanos) {
+        parseNanos.add(nanos);
+    }
+
+    void addBindings(long nanos) {
+        bindingNanos.add(nanos);
+    }
+
+    void addDispenser(long nanos) {
+        dispenserNanos.add(nanos);
+    }
+
+    void addVerifiers(long nanos) {
+        verifierNanos.add(nanos);
+    }
+
+    void setWall(long nanos) {
+        this.wallNanos = nanos;
+    }
+
+    void register(NBComponent component) {
+        component.create().gauge(
+            "startup_parse_ms",
+            () -> parseNanos.sum() / 1_000_000.0d,
+            MetricCategory.Internals,
+            "Time spent parsing op templates into parsed ops, excluding binding resolution."
+        );
+        component.create().gauge(
+            "startup_bindings_ms",
+            () -> bindingNanos.sum() / 1_000_000.0d,
+            MetricCategory.Internals,
+            "Time spent parsing bind points and resolving binding recipes of op templates."
+        );
+        component.create().gauge(
+            "startup_dispensers_ms",
+            () -> dispenserNanos.sum() / 1_000_000.0d,
+            MetricCategory.Internals,
+            "Time spent by all threads constructing op dispensers, excluding verifier compilation."
+        );
+        component.create().gauge(
+            "startup_verifiers_ms",
+            () -> verifierNanos.sum() / 1_000_000.0d,
+            MetricCategory.Internals,
+            "Time spent by all threads compiling verifier scripts of op templates."
+        );
+        component.create().gauge(
+            "startup_wall_ms",
+            () -> wallNanos / 1_000_000.0d,
+            MetricCategory.Internals,
+            "Elapsed time from loading op templates to a resolved op sequence."
+        );
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "parse=%.1fms bindings=%.1fms dispensers=%.1fms verifiers=%.1fms wall=%.1fms",
+            parseNanos.sum() / 1_000_000.0d,
+            bindingNanos.sum() / 1_000_000.0d,
+            dispenserNanos.sum() / 1_000_000.0d,
+            verifierNanos.sum() / 1_000_000.0d,
+            wallNanos / 1_000_000.0d);
+    }
+}
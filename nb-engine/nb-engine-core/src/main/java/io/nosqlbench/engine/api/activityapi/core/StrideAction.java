@@ -31,22 +31,45 @@ public interface StrideAction extends Action {
     /// Implementations should treat the segment as single-threaded and may reuse stride-local
     /// state across cycles.
     default int runStride(CycleSegment segment) {
-        return runStride(segment, () -> {}, (c, r) -> {});
+        return runStride(segment, CycleListener.NONE);
     }
 
-    /// Execute all cycles in the provided segment, invoking hooks before each cycle and after each
-    /// cycle. The last status code is returned.
-    default int runStride(CycleSegment segment, Runnable beforeCycle, java.util.function.BiConsumer<Long,Integer> afterCycle) {
+    /// Execute all cycles in the provided segment, invoking the listener before each cycle and
+    /// after each cycle. The last status code is returned.
+    default int runStride(CycleSegment segment, CycleListener listener) {
         int code = 0;
         while (!segment.isExhausted()) {
             long cycle = segment.nextCycle();
             if (cycle < 0) {
                 break;
             }
-            beforeCycle.run();
+            listener.beforeCycle();
             code = runCycle(cycle);
-            afterCycle.accept(cycle, code);
+            listener.afterCycle(cycle, code);
         }
         return code;
     }
+
+    /// Per-cycle hooks for {@link #runStride(CycleSegment, CycleListener)}. The callbacks take
+    /// primitive arguments so that a caller can supply one long-lived listener without boxing
+    /// or allocating anything per cycle.
+    interface CycleListener {
+
+        /// A listener which does nothing.
+        CycleListener NONE = new CycleListener() {
+            @Override
+            public void beforeCycle() {
+            }
+
+            @Override
+            public void afterCycle(long cycle, int result) {
+            }
+        };
+
+        /// Called before each cycle is run.
+        void beforeCycle();
+
+        /// Called after each cycle is run with the cycle and its status code.
+        void afterCycle(long cycle, int result);
+    }
 }
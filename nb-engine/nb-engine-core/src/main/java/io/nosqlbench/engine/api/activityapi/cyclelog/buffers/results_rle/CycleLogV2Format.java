@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2022-2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results_rle;
+
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.ResultReadable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Predicate;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/// The layout of a version 2 cyclelog file, which stores the same RLE spans as version 1 in
+/// independently compressed blocks, followed by a sparse index of the blocks.
+///
+/// ```
+/// ┌────────┬─────────┬─────────┬─────┬──────────────────────────┬──────────────────────┐
+/// │ MAGIC  │ block 0 │ block 1 │ ... │ index: count, entries... │ index offset, MAGIC  │
+/// └────────┴─────────┴─────────┴─────┴──────────────────────────┴──────────────────────┘
+///  block: deflated (start:long, end:long, result:byte) spans, as in version 1
+///  entry: first cycle, end cycle, file offset, compressed bytes, spans, result mask
+/// ```
+///
+/// Each index entry covers the cycles of its block and which results appear in it, so that a
+/// reader can split the file among threads by block, and can skip a block whose results are all
+/// filtered out without inflating it. Version 1 files have no header, and start with the first
+/// cycle of their first span instead.
+public final class CycleLogV2Format {
+
+    /// "NBCYLG" followed by the format version
+    public static final long MAGIC = 0x4E42_4359_4C47_0002L;
+    public static final int SPAN_BYTES = CycleResultsRLEBufferReadable.BYTES;
+    public static final int INDEX_ENTRY_BYTES = 5 * Long.BYTES + 2 * Integer.BYTES;
+    public static final int FOOTER_BYTES = 2 * Long.BYTES;
+
+    private CycleLogV2Format() {
+    }
+
+    /// The index entry of one block.
+    /// @param firstCycle the lowest cycle in the block
+    /// @param endCycle one past the highest cycle in the block
+    /// @param resultsLow bit `r` is set if result `r` in `[0,64)` appears in the block
+    /// @param resultsHigh bit `r-64` is set if result `r` in `[64,128)` appears in the block.
+    ///     Negative results set every bit of both masks, which marks the block as one that always
+    ///     has to be read.
+    public record Block(long firstCycle, long endCycle, long offset, int compressedBytes, int spans,
+                        long resultsLow, long resultsHigh) {
+
+        /// @return false only if no result which appears in the block passes the filter
+        public boolean mayPass(Predicate<ResultReadable> filter) {
+            if (filter == null || (resultsLow == -1L && resultsHigh == -1L)) {
+                return true;
+            }
+            for (int result = 0; result < 128; result++) {
+                long mask = result < 64 ? resultsLow : resultsHigh;
+                if ((mask & (1L << (result & 63))) != 0) {
+                    int value = result;
+                    if (filter.test(() -> value)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        public void writeTo(ByteBuffer index) {
+            index.putLong(firstCycle).putLong(endCycle).putLong(offset)
+                .putInt(compressedBytes).putInt(spans).putLong(resultsLow).putLong(resultsHigh);
+        }
+
+        public static Block readFrom(ByteBuffer index) {
+            long firstCycle = index.getLong();
+            long endCycle = index.getLong();
+            long offset = index.getLong();
+            int compressedBytes = index.getInt();
+            int spans = index.getInt();
+            long resultsLow = index.getLong();
+            long resultsHigh = index.getLong();
+            return new Block(firstCycle, endCycle, offset, compressedBytes, spans, resultsLow, resultsHigh);
+        }
+    }
+
+    /// @return true if the file at the path starts with the version 2 header
+    public static boolean isV2(Path path) {
+        if (!Files.isRegularFile(path)) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(Long.BYTES);
+            return readFully(channel, header, 0L) && header.getLong(0) == MAGIC;
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to read cyclelog header of " + path + ": " + e, e);
+        }
+    }
+
+    /// Read the index from the end of a version 2 file.
+    public static Block[] readIndex(FileChannel channel) throws IOException {
+        long size = channel.size();
+        ByteBuffer footer = ByteBuffer.allocate(FOOTER_BYTES);
+        if (size < Long.BYTES + FOOTER_BYTES || !readFully(channel, footer, size - FOOTER_BYTES)) {
+            throw new IOException("Cyclelog file is too short to hold a version 2 index: " + size + " bytes");
+        }
+        long indexOffset = footer.getLong(0);
+        if (footer.getLong(Long.BYTES) != MAGIC) {
+            throw new IOException("Cyclelog file has no version 2 footer. It may not have been closed.");
+        }
+        ByteBuffer index = ByteBuffer.allocate((int) (size - FOOTER_BYTES - indexOffset));
+        if (!readFully(channel, index, indexOffset)) {
+            throw new IOException("Unable to read cyclelog index at offset " + indexOffset);
+        }
+        index.flip();
+        Block[] blocks = new Block[index.getInt()];
+        for (int i = 0; i < blocks.length; i++) {
+            blocks[i] = Block.readFrom(index);
+        }
+        return blocks;
+    }
+
+    /// Read and inflate the spans of one block. This uses positional reads only, so any number
+    /// of threads may read blocks of the same channel at once.
+    /// @return a buffer holding the spans in the version 1 layout, ready to read
+    public static ByteBuffer readBlock(FileChannel channel, Block block) throws IOException {
+        ByteBuffer compressed = ByteBuffer.allocate(block.compressedBytes());
+        if (!readFully(channel, compressed, block.offset())) {
+            throw new IOException("Unable to read cyclelog block at offset " + block.offset());
+        }
+        byte[] spans = new byte[block.spans() * SPAN_BYTES];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed.array(), 0, block.compressedBytes());
+            int inflated = 0;
+            while (inflated < spans.length && !inflater.finished()) {
+                int read = inflater.inflate(spans, inflated, spans.length - inflated);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                inflated += read;
+            }
+            if (inflated != spans.length) {
+                throw new IOException("Cyclelog block at offset " + block.offset() + " inflated to "
+                    + inflated + " bytes, but " + spans.length + " were expected");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt cyclelog block at offset " + block.offset() + ": " + e, e);
+        } finally {
+            inflater.end();
+        }
+        return ByteBuffer.wrap(spans);
+    }
+
+    private static boolean readFully(FileChannel channel, ByteBuffer into, long position) throws IOException {
+        long at = position;
+        while (into.hasRemaining()) {
+            int read = channel.read(into, at);
+            if (read < 0) {
+                return false;
+            }
+            at += read;
+        }
+        return true;
+    }
+}
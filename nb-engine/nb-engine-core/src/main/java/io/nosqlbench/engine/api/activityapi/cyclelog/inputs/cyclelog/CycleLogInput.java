@@ -150,7 +150,7 @@ public class CycleLogInput implements Input, AutoCloseable, Iterable<CycleResult
 
     @Override
     public Iterator<CycleResultsSegment> iterator() {
-        CycleResultsRLEBufferReadable cycleResultsSegments = new CycleResultsRLEBufferReadable(mbb.duplicate());
+        CycleResultsRLEBufferReadable cycleResultsSegments = new CycleResultsRLEBufferReadable(mbb.duplicate().rewind());
         if (cycleResultsSegments instanceof CanFilterResultValue) {
             ((CanFilterResultValue)cycleResultsSegments).setFilter(filter);
         }
@@ -17,11 +17,15 @@
 package io.nosqlbench.engine.api.activityapi.cyclelog.inputs.cyclelog;
 
 import io.nosqlbench.engine.api.activityapi.core.Activity;
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results_rle.CycleLogV2Format;
 import io.nosqlbench.engine.api.activityapi.input.Input;
 import io.nosqlbench.engine.api.activityapi.input.InputDispenser;
 import io.nosqlbench.engine.api.activityapi.input.InputType;
+import io.nosqlbench.engine.api.util.SimpleConfig;
 import io.nosqlbench.nb.annotations.Service;
 
+import java.nio.file.Path;
+
 @Service(value = InputType.class, selector = "cyclelog")
 public class CycleLogInputType implements InputType {
 
@@ -37,7 +41,12 @@ public class CycleLogInputType implements InputType {
 
         public Dispenser(Activity activity) {
             this.activity = activity;
-            this.input = new CycleLogInput(activity);
+            String filename = new SimpleConfig(activity, "input").getString("file").orElse(activity.getAlias()) + ".cyclelog";
+            if (CycleLogV2Format.isV2(Path.of(filename))) {
+                this.input = new CycleLogV2Input(activity);
+            } else {
+                this.input = new CycleLogInput(activity);
+            }
         }
 
         @Override
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2022-2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityapi.cyclelog.inputs.cyclelog;
+
+import io.nosqlbench.engine.api.activityapi.core.Activity;
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.CycleResultsSegment;
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.CycleSegment;
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.CycleSegmentBuffer;
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.ResultReadable;
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results_rle.CycleLogV2Format;
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results_rle.CycleResultsRLEBufferReadable;
+import io.nosqlbench.engine.api.activityapi.input.Input;
+import io.nosqlbench.engine.api.util.SimpleConfig;
+import io.nosqlbench.nb.api.labels.NBLabeledElement;
+import io.nosqlbench.nb.api.labels.NBLabels;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+
+/// An [Input] which reads the cycles of a [version 2][CycleLogV2Format] cyclelog file.
+///
+/// Motors take their segments without locking: the read position is one immutable value,
+/// advanced with compare-and-set, and each segment comes from a single block, so a motor
+/// whose stride covers a block takes the whole block at once. Each block is inflated by the
+/// first motor to reach it and then shared with the others until it has been handed out.
+/// Blocks whose results are all filtered out are skipped by their index entry, without being
+/// read.
+///
+/// ```
+///  position (block, span, offset) ──CAS──► next position
+///                │
+///  blocks [ 0 | 1 | 2 | ... ]  ◄── inflated on first use, released when passed
+/// ```
+public class CycleLogV2Input implements Input, AutoCloseable, Iterable<CycleResultsSegment>, CanFilterResultValue, NBLabeledElement {
+    private final static Logger logger = LogManager.getLogger(CycleLogV2Input.class);
+
+    /// The spans of one block which pass the filter.
+    private record Spans(long[] starts, long[] ends) {
+    }
+
+    private record Position(int block, int span, long offset) {
+    }
+
+    private static final Spans NONE = new Spans(new long[0], new long[0]);
+
+    private final NBLabeledElement parent;
+    private final Path path;
+    private final FileChannel channel;
+    private final CycleLogV2Format.Block[] blocks;
+    private final AtomicReferenceArray<Spans> inflated;
+    private final AtomicReference<Position> position = new AtomicReference<>(new Position(0, 0, 0L));
+    private volatile Predicate<ResultReadable> filter;
+
+    public CycleLogV2Input(Activity activity) {
+        this(
+            Path.of(new SimpleConfig(activity, "input").getString("file").orElse(activity.getAlias()) + ".cyclelog"),
+            activity
+        );
+    }
+
+    public CycleLogV2Input(Path path, NBLabeledElement parent) {
+        this.parent = parent;
+        this.path = path;
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            this.blocks = CycleLogV2Format.readIndex(channel);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to open cyclelog file '" + path + "': " + e, e);
+        }
+        this.inflated = new AtomicReferenceArray<>(blocks.length);
+        logger.debug(() -> "opened cyclelog '" + path + "' with " + blocks.length + " blocks");
+    }
+
+    @Override
+    public void setFilter(Predicate<ResultReadable> filter) {
+        this.filter = filter;
+    }
+
+    @Override
+    public CycleSegment getInputSegment(int segmentLength) {
+        while (true) {
+            Position current = position.get();
+            if (current.block() >= blocks.length) {
+                return null;
+            }
+            Spans spans = spans(current.block());
+            CycleSegmentBuffer csb = new CycleSegmentBuffer(segmentLength, 0L);
+            int span = current.span();
+            long offset = current.offset();
+            while (csb.remaining() > 0 && span < spans.starts().length) {
+                long cycle = spans.starts()[span] + offset;
+                csb.append(cycle);
+                offset++;
+                if (cycle + 1 >= spans.ends()[span]) {
+                    span++;
+                    offset = 0L;
+                }
+            }
+            boolean blockDone = span >= spans.starts().length;
+            Position next = blockDone ? new Position(current.block() + 1, 0, 0L) : new Position(current.block(), span, offset);
+            if (position.compareAndSet(current, next)) {
+                if (blockDone) {
+                    inflated.set(current.block(), null);
+                }
+                if (csb.remaining() < segmentLength) {
+                    return csb.toReadable();
+                }
+            }
+            // in all other cases, there was a CAS race condition or an empty block, and we want to retry
+        }
+    }
+
+    /// Return the spans of the block which pass the filter, inflating the block if no other
+    /// reader has yet.
+    private Spans spans(int block) {
+        Spans spans = inflated.get(block);
+        if (spans != null) {
+            return spans;
+        }
+        Predicate<ResultReadable> passing = filter;
+        if (!blocks[block].mayPass(passing)) {
+            return NONE;
+        }
+        ByteBuffer raw = read(block);
+        int count = blocks[block].spans();
+        long[] starts = new long[count];
+        long[] ends = new long[count];
+        int kept = 0;
+        Iterator<CycleResultsSegment> iterator = new CycleResultsRLEBufferReadable(raw).iterator(passing);
+        while (iterator.hasNext()) {
+            CycleResultsSegment segment = iterator.next();
+            starts[kept] = segment.getMinCycle();
+            ends[kept] = segment.getMinCycle() + segment.getCount();
+            kept++;
+        }
+        spans = kept == count ? new Spans(starts, ends) : new Spans(Arrays.copyOf(starts, kept), Arrays.copyOf(ends, kept));
+        if (position.get().block() <= block) {
+            inflated.compareAndSet(block, null, spans);
+        }
+        return spans;
+    }
+
+    private ByteBuffer read(int block) {
+        try {
+            return CycleLogV2Format.readBlock(channel, blocks[block]);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to read block " + block + " of cyclelog '" + path + "': " + e, e);
+        }
+    }
+
+    /// @return the number of compressed blocks in the file
+    public int getBlockCount() {
+        return blocks.length;
+    }
+
+    /// Iterate the spans of every block in file order, independently of [#getInputSegment].
+    /// This is meant for one reader, such as a utility which converts or dumps the file.
+    @Override
+    public Iterator<CycleResultsSegment> iterator() {
+        Predicate<ResultReadable> passing = filter;
+        return new Iterator<>() {
+            private int block;
+            private Iterator<CycleResultsSegment> spans = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!spans.hasNext() && block < blocks.length) {
+                    if (blocks[block].mayPass(passing)) {
+                        spans = new CycleResultsRLEBufferReadable(read(block)).iterator(passing);
+                    }
+                    block++;
+                }
+                return spans.hasNext();
+            }
+
+            @Override
+            public CycleResultsSegment next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("No more spans in cyclelog '" + path + "'");
+                }
+                return spans.next();
+            }
+        };
+    }
+
+    @Override
+    public void close() throws Exception {
+        channel.close();
+    }
+
+    @Override
+    public NBLabels getLabels() {
+        return parent.getLabels();
+    }
+}
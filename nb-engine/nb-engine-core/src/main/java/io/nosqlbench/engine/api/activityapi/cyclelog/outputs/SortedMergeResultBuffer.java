@@ -0,0 +1,354 @@
+/*
+ * Copyright (c) 2022-2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityapi.cyclelog.outputs;
+
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.CycleResult;
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.CycleResultsSegment;
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.ResultReadable;
+import io.nosqlbench.engine.api.activityapi.cyclelog.inputs.cyclelog.CanFilterResultValue;
+import io.nosqlbench.engine.api.activityapi.output.Output;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+
+/// Puts the cycle results of many motors back into cycle order before passing them to one
+/// downstream [Output], without making the motors contend with each other.
+///
+/// Each motor slot writes to a [lane][#lane(long)] of its own, a bounded single-producer,
+/// single-consumer ring of sorted runs, so a motor only ever touches its own lane. One drain
+/// thread merges the heads of all lanes through a heap keyed by their lowest cycle, and passes
+/// the lowest run downstream whenever every lane has a run waiting, so that no lane can still
+/// deliver a lower one.
+///
+/// ```
+///  motor 0 ─► lane 0 [run|run|   ] ─┐
+///  motor 1 ─► lane 1 [run|   |   ] ─┼─► heap merge ─► downstream
+///  motor 2 ─► lane 2 [run|run|run] ─┘   (drain thread)
+/// ```
+///
+/// Memory is bounded by the capacity of the lanes. A motor whose lane is full waits for the
+/// drain thread, which then passes runs downstream even while another lane is empty, so the
+/// order is only best effort when motors run at very different rates, or when a motor stops
+/// before the others. Runs are ordered by their first cycle, which keeps whole strides in order
+/// when each motor takes contiguous ranges of cycles from a shared input.
+///
+/// Each lane has a single writer, the thread of its motor. Motors with `async=N` keep to this as
+/// well, since op completions only record their results, and the motor thread hands each
+/// finished stride to its lane. A lane which is written by two threads at once rejects the
+/// second write with an [IllegalStateException] rather than corrupting its ring.
+///
+/// Each run is copied out of the segment it is given, since motors reuse their result buffers
+/// for the next stride. [#close()] must only be called after the motors have stopped. It passes
+/// every remaining run downstream in order and then closes the downstream output.
+public final class SortedMergeResultBuffer implements AutoCloseable {
+    private final static Logger logger = LogManager.getLogger(SortedMergeResultBuffer.class);
+
+    public static final int DEFAULT_LANE_CAPACITY = 16;
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final Output downstream;
+    private final int laneCapacity;
+    /// guarded by itself, and only used to register lanes
+    private final Map<Long, Lane> lanesBySlot = new HashMap<>();
+    private volatile Lane[] lanes = new Lane[0];
+    private volatile Predicate<ResultReadable> resultFilter;
+    private volatile boolean closing;
+    private volatile Throwable failure;
+    private final Thread drainer;
+
+    /// @param laneCapacity the number of runs each lane holds before its motor waits
+    public SortedMergeResultBuffer(Output downstream, int laneCapacity) {
+        if (laneCapacity < 1) {
+            throw new IllegalArgumentException("Lane capacity must be at least 1, but was " + laneCapacity);
+        }
+        this.downstream = downstream;
+        this.laneCapacity = laneCapacity;
+        this.drainer = Thread.ofVirtual().name("cyclelog-merge").unstarted(this::drain);
+        this.drainer.start();
+    }
+
+    /// Return the output for the motor of the given slot, creating its lane the first time.
+    /// Only the motor's thread may write to the lane.
+    public Output lane(long slot) {
+        synchronized (lanesBySlot) {
+            Lane lane = lanesBySlot.get(slot);
+            if (lane == null) {
+                lane = new Lane(slot, laneCapacity);
+                lanesBySlot.put(slot, lane);
+                Lane[] registered = Arrays.copyOf(lanes, lanes.length + 1);
+                registered[registered.length - 1] = lane;
+                lanes = registered;
+            }
+            return lane;
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        closing = true;
+        LockSupport.unpark(drainer);
+        drainer.join();
+        Throwable failed = failure;
+        if (failed != null) {
+            throw new RuntimeException("Unable to pass reordered cycle results downstream: " + failed, failed);
+        }
+        downstream.close();
+    }
+
+    private void drain() {
+        PriorityQueue<Lane> heads = new PriorityQueue<>(Comparator.comparingLong(Lane::headCycle));
+        try {
+            while (true) {
+                boolean finishing = closing;
+                Lane[] current = lanes;
+                heads.clear();
+                int empty = 0;
+                for (Lane lane : current) {
+                    if (lane.peek() != null) {
+                        heads.add(lane);
+                    } else {
+                        empty++;
+                    }
+                }
+                int passed = 0;
+                while (!heads.isEmpty() && (finishing || empty == 0 || anyFull(current))) {
+                    Lane lane = heads.poll();
+                    downstream.onCycleResultSegment(lane.poll());
+                    passed++;
+                    if (lane.peek() != null) {
+                        heads.add(lane);
+                    } else {
+                        empty++;
+                    }
+                }
+                if (finishing && heads.isEmpty()) {
+                    return;
+                }
+                if (passed == 0) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+            }
+        } catch (Throwable t) {
+            logger.error(() -> "Stopped merging cycle results after error: " + t, t);
+            failure = t;
+        }
+    }
+
+    private static boolean anyFull(Lane[] current) {
+        for (Lane lane : current) {
+            if (lane.isFull()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /// A bounded ring of sorted runs with one producer, the motor, and one consumer, the drain
+    /// thread. Each index is only written by one side, and the volatile writes of the indices
+    /// publish the ring slots between them. The writing flag only guards the single-producer
+    /// contract, so that a second writer fails instead of racing on the tail.
+    private final class Lane implements Output, CanFilterResultValue {
+        private final long slot;
+        private final SortedRun[] ring;
+        private final AtomicBoolean writing = new AtomicBoolean();
+        private volatile long head;
+        private volatile long tail;
+
+        private Lane(long slot, int capacity) {
+            this.slot = slot;
+            this.ring = new SortedRun[capacity];
+        }
+
+        @Override
+        public boolean onCycleResult(long completedCycle, int result) {
+            offer(new SortedRun(new long[]{completedCycle}, new int[]{result}, 1));
+            return true;
+        }
+
+        @Override
+        public void onCycleResultSegment(CycleResultsSegment segment) {
+            SortedRun run = SortedRun.copyOf(segment, resultFilter);
+            if (run.count > 0) {
+                offer(run);
+            }
+        }
+
+        @Override
+        public void setFilter(Predicate<ResultReadable> filter) {
+            resultFilter = filter;
+        }
+
+        private void offer(SortedRun run) {
+            if (!writing.compareAndSet(false, true)) {
+                throw new IllegalStateException("Cycle results for slot " + slot + " were written by more than one"
+                    + " thread at once, but each lane only accepts results from its own motor thread.");
+            }
+            try {
+                append(run);
+            } finally {
+                writing.set(false);
+            }
+        }
+
+        private void append(SortedRun run) {
+            long position = tail;
+            while (position - head == ring.length) {
+                if (closing || failure != null) {
+                    throw new IllegalStateException("Unable to accept cycle results for slot " + slot
+                        + " after the merge buffer was closed or failed.");
+                }
+                LockSupport.unpark(drainer);
+                LockSupport.parkNanos(this, FULL_PARK_NANOS);
+            }
+            ring[(int) (position % ring.length)] = run;
+            tail = position + 1;
+            LockSupport.unpark(drainer);
+        }
+
+        private SortedRun peek() {
+            long position = head;
+            return position == tail ? null : ring[(int) (position % ring.length)];
+        }
+
+        private SortedRun poll() {
+            long position = head;
+            int index = (int) (position % ring.length);
+            SortedRun run = ring[index];
+            ring[index] = null;
+            head = position + 1;
+            return run;
+        }
+
+        private long headCycle() {
+            return ring[(int) (head % ring.length)].getMinCycle();
+        }
+
+        private boolean isFull() {
+            return tail - head == ring.length;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public String toString() {
+            return "lane " + slot + " of " + SortedMergeResultBuffer.this;
+        }
+    }
+
+    /// The results of one segment in cycle order, held in primitive arrays.
+    private static final class SortedRun implements CycleResultsSegment {
+        private final long[] cycles;
+        private final int[] results;
+        private final int count;
+
+        private SortedRun(long[] cycles, int[] results, int count) {
+            this.cycles = cycles;
+            this.results = results;
+            this.count = count;
+        }
+
+        /// Copy the results which pass the filter, if there is one, and sort them by cycle.
+        /// Segments arrive nearly or fully sorted, as only concurrent completions within a
+        /// stride can reorder them, so an insertion sort does little more than one pass.
+        private static SortedRun copyOf(CycleResultsSegment segment, Predicate<ResultReadable> filter) {
+            int capacity = (int) segment.getCount();
+            long[] cycles = new long[capacity];
+            int[] results = new int[capacity];
+            int count = 0;
+            for (CycleResult result : segment) {
+                if (filter != null && !filter.test(result)) {
+                    continue;
+                }
+                if (count == cycles.length) {
+                    cycles = Arrays.copyOf(cycles, Math.max(8, count * 2));
+                    results = Arrays.copyOf(results, cycles.length);
+                }
+                long cycle = result.getCycle();
+                int value = result.getResult();
+                int at = count;
+                while (at > 0 && cycles[at - 1] > cycle) {
+                    cycles[at] = cycles[at - 1];
+                    results[at] = results[at - 1];
+                    at--;
+                }
+                cycles[at] = cycle;
+                results[at] = value;
+                count++;
+            }
+            return new SortedRun(cycles, results, count);
+        }
+
+        @Override
+        public long getCount() {
+            return count;
+        }
+
+        @Override
+        public long getMinCycle() {
+            return count > 0 ? cycles[0] : Long.MAX_VALUE;
+        }
+
+        @Override
+        public Iterator<CycleResult> iterator() {
+            return new Iterator<>() {
+                private int index;
+
+                @Override
+                public boolean hasNext() {
+                    return index < count;
+                }
+
+                @Override
+                public CycleResult next() {
+                    if (index >= count) {
+                        throw new NoSuchElementException("Unable to read run past last value");
+                    }
+                    CycleResult result = new Entry(cycles[index], results[index]);
+                    index++;
+                    return result;
+                }
+            };
+        }
+    }
+
+    private record Entry(long cycle, int result) implements CycleResult {
+        @Override
+        public long getCycle() {
+            return cycle;
+        }
+
+        @Override
+        public int getResult() {
+            return result;
+        }
+    }
+}
@@ -17,8 +17,11 @@
 package io.nosqlbench.engine.api.activityapi.cyclelog.outputs.cyclelog;
 
 import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.CycleResultsSegment;
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results_rle.CycleLogV2Format;
 import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results_rle.CycleResultsRLEBufferReadable;
 import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.CycleResult;
+import io.nosqlbench.engine.api.activityapi.cyclelog.inputs.cyclelog.CycleLogV2Input;
+import io.nosqlbench.nb.api.labels.NBLabeledElement;
 
 import java.io.File;
 import java.io.RandomAccessFile;
@@ -42,7 +45,6 @@ public class CycleLogDumperUtility {
 
     private void dumpData(String filename, DisplayType displayType) {
         File filepath = new File(filename);
-        MappedByteBuffer mbb = null;
         if (!filepath.exists()) {
             if (!filepath.getPath().endsWith(".cyclelog")) {
                 filepath = new File(filename+".cyclelog");
@@ -51,6 +53,21 @@ public class CycleLogDumperUtility {
                 }
             }
         }
+        if (CycleLogV2Format.isV2(filepath.toPath())) {
+            try (CycleLogV2Input input = new CycleLogV2Input(filepath.toPath(), NBLabeledElement.EMPTY)) {
+                for (CycleResultsSegment segment : input) {
+                    display(segment, displayType);
+                }
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        } else {
+            dumpV1Data(filepath, displayType);
+        }
+    }
+
+    private void dumpV1Data(File filepath, DisplayType displayType) {
+        MappedByteBuffer mbb = null;
         try {
             RandomAccessFile raf = new RandomAccessFile(filepath, "rw");
             mbb = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
@@ -66,18 +83,7 @@ public class CycleLogDumperUtility {
                 readable = new CycleResultsRLEBufferReadable(readsize, mbb);
 
                 for (CycleResultsSegment segment : readable) {
-                    switch (displayType) {
-                        case cycles:
-                            for (CycleResult cycleResult : segment) {
-                                System.out.println(cycleResult);
-                            }
-                            break;
-                        case spans:
-                            System.out.println(segment.toString());
-                            break;
-
-                    }
-
+                    display(segment, displayType);
                 }
             }
 
@@ -85,6 +91,20 @@ public class CycleLogDumperUtility {
 
     }
 
+    private void display(CycleResultsSegment segment, DisplayType displayType) {
+        switch (displayType) {
+            case cycles:
+                for (CycleResult cycleResult : segment) {
+                    System.out.println(cycleResult);
+                }
+                break;
+            case spans:
+                System.out.println(segment.toString());
+                break;
+
+        }
+    }
+
     enum DisplayType {
         cycles,
         spans
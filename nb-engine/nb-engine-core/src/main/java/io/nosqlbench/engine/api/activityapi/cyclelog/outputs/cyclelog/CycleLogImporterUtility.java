@@ -16,11 +16,18 @@
 
 package io.nosqlbench.engine.api.activityapi.cyclelog.outputs.cyclelog;
 
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.CycleResultsSegment;
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results_rle.CycleLogV2Format;
 import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results_rle.CycleSpanResults;
+import io.nosqlbench.engine.api.activityapi.cyclelog.inputs.cyclelog.CycleLogInput;
+import io.nosqlbench.engine.api.activityapi.cyclelog.inputs.cyclelog.CycleLogV2Input;
+import io.nosqlbench.engine.api.activityapi.output.Output;
+import io.nosqlbench.nb.api.labels.NBLabeledElement;
 
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
+import java.nio.file.Path;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -30,19 +37,43 @@ public class CycleLogImporterUtility {
 
     public static void main(String[] args) {
         if (args.length == 0) {
-            System.out.println("USAGE: CyclesCLI <input-textfile>, <output-cyclelog>");
+            System.out.println("USAGE: CyclesCLI <input-textfile|input-cyclelog>, <output-cyclelog> [v1|v2]");
         }
         String infile = args[0];
         String outfile = args[1];
+        String format = args.length >= 3 ? args[2] : "v1";
         try {
-            new CycleLogImporterUtility().convert(infile, outfile);
+            new CycleLogImporterUtility().convert(infile, outfile, format);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
     }
 
-    private void convert(String infile, String outfile) throws Exception {
-        CycleLogOutput output = new CycleLogOutput(new File(outfile), 1024);
+    private void convert(String infile, String outfile, String format) throws Exception {
+        Output output = switch (format) {
+            case "v1" -> new CycleLogOutput(new File(outfile), 1024);
+            case "v2" -> new CycleLogV2Output(new File(outfile), 1024);
+            default -> throw new RuntimeException("Unknown cyclelog format '" + format + "', expected v1 or v2");
+        };
+        if (CycleLogV2Format.isV2(Path.of(infile))) {
+            try (CycleLogV2Input input = new CycleLogV2Input(Path.of(infile), NBLabeledElement.EMPTY)) {
+                for (CycleResultsSegment segment : input) {
+                    output.onCycleResultSegment(segment);
+                }
+            }
+        } else if (infile.endsWith(".cyclelog")) {
+            try (CycleLogInput input = new CycleLogInput(infile)) {
+                for (CycleResultsSegment segment : input) {
+                    output.onCycleResultSegment(segment);
+                }
+            }
+        } else {
+            importText(infile, output);
+        }
+        output.close();
+    }
+
+    private void importText(String infile, Output output) throws Exception {
         BufferedReader reader = new BufferedReader(new FileReader(infile));
         String line = reader.readLine();
         while (line != null) {
@@ -62,7 +93,6 @@ public class CycleLogImporterUtility {
             }
             line = reader.readLine();
         }
-        output.close();
     }
 
 }
@@ -17,11 +17,12 @@
 package io.nosqlbench.engine.api.activityapi.cyclelog.outputs.cyclelog;
 
 import io.nosqlbench.engine.api.activityapi.core.Activity;
-import io.nosqlbench.engine.api.activityapi.cyclelog.outputs.ReorderingConcurrentResultBuffer;
+import io.nosqlbench.engine.api.activityapi.cyclelog.outputs.SortedMergeResultBuffer;
 import io.nosqlbench.engine.api.activityapi.input.Input;
 import io.nosqlbench.engine.api.activityapi.output.Output;
 import io.nosqlbench.engine.api.activityapi.output.OutputDispenser;
 import io.nosqlbench.engine.api.activityapi.output.OutputType;
+import io.nosqlbench.engine.api.util.SimpleConfig;
 import io.nosqlbench.nb.annotations.Service;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -37,13 +38,18 @@ public class CycleLogOutputType implements OutputType {
     public static class Dispenser implements OutputDispenser {
         private final static Logger logger = LogManager.getLogger(OutputDispenser.class);
 
-        private final Output output;
+        private final SortedMergeResultBuffer output;
         private final Activity activity;
 
         public Dispenser(Activity activity) {
             this.activity = activity;
             Input input = activity.getInputDispenser().getInput(0);
-            CycleLogOutput rleFileWriter = new CycleLogOutput(activity);
+            String format = new SimpleConfig(activity, "output").getString("format").orElse("v1");
+            Output rleFileWriter = switch (format) {
+                case "v1" -> new CycleLogOutput(activity);
+                case "v2" -> new CycleLogV2Output(activity);
+                default -> throw new RuntimeException("Unknown cyclelog format '" + format + "', expected v1 or v2");
+            };
 
             // TODO: Rework this so that the contiguous marking chunker can onAfterOpStop filtering
 //            if (input.isContiguous()) {
@@ -53,17 +59,17 @@ public class CycleLogOutputType implements OutputType {
 //                this.output = contiguousOutputChunker;
 //            }
 //            else {
-                logger.debug("pre-buffering output extents with best-effort before RLE buffering");
-                ReorderingConcurrentResultBuffer prebuffer =
-                        new ReorderingConcurrentResultBuffer(rleFileWriter);
-                this.output=prebuffer;
+                logger.debug("merging output extents of each motor with best-effort ordering before RLE buffering");
+                this.output = new SortedMergeResultBuffer(rleFileWriter, SortedMergeResultBuffer.DEFAULT_LANE_CAPACITY);
 //            }
             activity.registerAutoCloseable(output);
         }
 
+        /// The merge lane of the motor in this slot. Each lane has a single writer, so only
+        /// that motor's thread may write to the returned output.
         @Override
         public Output getOutput(long slot) {
-            return output;
+            return output.lane(slot);
         }
     }
 }
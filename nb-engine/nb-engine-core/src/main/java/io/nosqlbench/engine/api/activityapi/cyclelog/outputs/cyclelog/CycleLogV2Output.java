@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2022-2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityapi.cyclelog.outputs.cyclelog;
+
+import io.nosqlbench.engine.api.activityapi.core.Activity;
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.CycleResult;
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.CycleResultsSegment;
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.ResultReadable;
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results_rle.CycleLogV2Format;
+import io.nosqlbench.engine.api.activityapi.cyclelog.inputs.cyclelog.CanFilterResultValue;
+import io.nosqlbench.engine.api.activityapi.output.Output;
+import io.nosqlbench.engine.api.util.SimpleConfig;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.zip.Deflater;
+
+/// An [Output] that writes cycles and results to the [version 2][CycleLogV2Format] cyclelog
+/// format.
+///
+/// Results are run-length encoded into spans as with [CycleLogOutput], and each time a block of
+/// `extentSize` spans is full it is compressed and appended to the file with one write, so the
+/// file is never remapped as it grows. The index of the blocks is written when the output is
+/// closed, and a file which was not closed can not be read.
+///
+/// Like [CycleLogOutput], this expects one caller at a time, which is the case behind a
+/// [io.nosqlbench.engine.api.activityapi.cyclelog.outputs.SortedMergeResultBuffer].
+public class CycleLogV2Output implements Output, CanFilterResultValue {
+    private final static Logger logger = LogManager.getLogger(CycleLogV2Output.class);
+
+    private final File outputFile;
+    private final FileChannel channel;
+    private final ByteBuffer spans;
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final List<CycleLogV2Format.Block> blocks = new ArrayList<>();
+    private byte[] compressed = new byte[4096];
+    private long position;
+    private Predicate<ResultReadable> filter;
+
+    private long runStart = Long.MIN_VALUE;
+    private long runEnd;
+    private int runResult;
+
+    private long blockFirst = Long.MAX_VALUE;
+    private long blockEnd = Long.MIN_VALUE;
+    private long resultsLow;
+    private long resultsHigh;
+    private boolean closed;
+
+    public CycleLogV2Output(Activity activity) {
+        this(
+            new File(new SimpleConfig(activity, "output").getString("file").orElse(activity.getAlias()) + ".cyclelog"),
+            new SimpleConfig(activity, "output").getInteger("extentSize").orElse(1000)
+        );
+    }
+
+    public CycleLogV2Output(File outputFile, int extentSizeInSpans) {
+        if (extentSizeInSpans < 1) {
+            throw new IllegalArgumentException("extentSize must be at least 1 span, but was " + extentSizeInSpans);
+        }
+        this.outputFile = outputFile;
+        this.spans = ByteBuffer.allocate(extentSizeInSpans * CycleLogV2Format.SPAN_BYTES);
+        try {
+            if (Files.deleteIfExists(outputFile.toPath())) {
+                logger.warn("removed extant file '" + outputFile + "'");
+            }
+            this.channel = FileChannel.open(outputFile.toPath(),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            ByteBuffer header = ByteBuffer.allocate(Long.BYTES).putLong(0, CycleLogV2Format.MAGIC);
+            write(header);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to create cyclelog file '" + outputFile + "': " + e, e);
+        }
+    }
+
+    @Override
+    public boolean onCycleResult(long completedCycle, int result) {
+        if (filter == null || filter.test(() -> result)) {
+            append(completedCycle, result);
+        }
+        return true;
+    }
+
+    @Override
+    public void onCycleResultSegment(CycleResultsSegment segment) {
+        for (CycleResult cycleResult : segment) {
+            if (filter == null || filter.test(cycleResult)) {
+                append(cycleResult.getCycle(), cycleResult.getResult());
+            }
+        }
+    }
+
+    private void append(long cycle, int result) {
+        if (cycle < 0) {
+            throw new RuntimeException("Unable to encode cycle values less than 0");
+        }
+        if (result > Byte.MAX_VALUE) {
+            throw new RuntimeException("Unable to encode result values greater than Byte.MAX_VALUE.");
+        }
+        if (result < Byte.MIN_VALUE) {
+            throw new RuntimeException("Unable to encode result values less than Byte.MIN_VALUE.");
+        }
+        if (runStart != Long.MIN_VALUE && cycle == runEnd && result == runResult) {
+            runEnd++;
+            return;
+        }
+        endRun();
+        runStart = cycle;
+        runEnd = cycle + 1;
+        runResult = result;
+    }
+
+    private void endRun() {
+        if (runStart == Long.MIN_VALUE) {
+            return;
+        }
+        spans.putLong(runStart).putLong(runEnd).put((byte) runResult);
+        blockFirst = Math.min(blockFirst, runStart);
+        blockEnd = Math.max(blockEnd, runEnd);
+        if (runResult < 0) {
+            resultsLow = -1L;
+            resultsHigh = -1L;
+        } else if (runResult < 64) {
+            resultsLow |= 1L << runResult;
+        } else {
+            resultsHigh |= 1L << (runResult - 64);
+        }
+        runStart = Long.MIN_VALUE;
+        if (!spans.hasRemaining()) {
+            writeBlock();
+        }
+    }
+
+    private void writeBlock() {
+        int spanCount = spans.position() / CycleLogV2Format.SPAN_BYTES;
+        if (spanCount == 0) {
+            return;
+        }
+        deflater.reset();
+        deflater.setInput(spans.array(), 0, spans.position());
+        deflater.finish();
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == compressed.length) {
+                compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            }
+            length += deflater.deflate(compressed, length, compressed.length - length);
+        }
+        CycleLogV2Format.Block block = new CycleLogV2Format.Block(
+            blockFirst, blockEnd, position, length, spanCount, resultsLow, resultsHigh);
+        try {
+            write(ByteBuffer.wrap(compressed, 0, length));
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to write cyclelog block to '" + outputFile + "': " + e, e);
+        }
+        logger.trace(() -> "wrote cyclelog block " + block);
+        blocks.add(block);
+        spans.clear();
+        blockFirst = Long.MAX_VALUE;
+        blockEnd = Long.MIN_VALUE;
+        resultsLow = 0L;
+        resultsHigh = 0L;
+    }
+
+    private void write(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws Exception {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            endRun();
+            writeBlock();
+            ByteBuffer index = ByteBuffer.allocate(
+                Integer.BYTES + blocks.size() * CycleLogV2Format.INDEX_ENTRY_BYTES + CycleLogV2Format.FOOTER_BYTES);
+            long indexOffset = position;
+            index.putInt(blocks.size());
+            for (CycleLogV2Format.Block block : blocks) {
+                block.writeTo(index);
+            }
+            index.putLong(indexOffset).putLong(CycleLogV2Format.MAGIC);
+            index.flip();
+            write(index);
+            channel.force(true);
+            logger.debug(() -> "wrote " + blocks.size() + " cyclelog blocks, " + position + " bytes, to '" + outputFile + "'");
+        } catch (Throwable t) {
+            logger.error("Error while closing CycleLogV2Output: " + t, t);
+            throw t;
+        } finally {
+            channel.close();
+            deflater.end();
+        }
+    }
+
+    @Override
+    public void setFilter(Predicate<ResultReadable> filter) {
+        this.filter = filter;
+    }
+
+    @Override
+    public String toString() {
+        return "CycleLogV2Output{file=" + outputFile + ", blocks=" + blocks.size() + ", bytes=" + position + '}';
+    }
+}
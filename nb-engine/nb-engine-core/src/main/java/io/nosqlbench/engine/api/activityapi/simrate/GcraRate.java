@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2024 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityapi.simrate;
+
+import io.nosqlbench.nb.api.components.core.NBBaseComponent;
+import io.nosqlbench.nb.api.components.core.NBComponent;
+import io.nosqlbench.nb.api.engine.metrics.instruments.MetricCategory;
+import io.nosqlbench.nb.api.labels.NBLabels;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/// A lock-free rate limiter based on a virtual schedule, in the style of GCRA (the generic cell
+/// rate algorithm). Select it with the `gcra` word in a rate spec, as in `cyclerate=50000,1.1,gcra`.
+///
+/// Every op is given a ticket `k` from a shared counter, and ticket `k` is due at
+/// `start + k * interval`. A caller blocks only until its own ticket is due. There is no filler
+/// thread, no shared semaphore and no lock, so callers only ever meet on atomic counters.
+///
+/// ## Per-motor striped credit
+///
+/// Each calling thread (one per motor) claims tickets from the shared counter in batches and
+/// spends them locally, so the shared counter is touched once per batch rather than once per op.
+/// The batch size adapts per thread: it doubles while the thread spends its batches quickly and
+/// shrinks back to one for threads which are slower than the schedule, so that no slow motor
+/// holds on to schedule slots which other motors could use. A batch never spans more than
+/// [#MAX_BATCH_SPAN_NANOS] of schedule time.
+///
+/// ```
+///               shared ticket counter (fetch-add per batch)
+///   ┌───────────────┬───────────────┬──────────────┬──────
+///   │ motor 0: k..k+7 │ motor 3: k+8..k+11 │ motor 1: k+12 │ ...
+///   └───────────────┴───────────────┴──────────────┴──────
+///   ticket k is due at start + k * interval; each motor parks until its own ticket is due
+/// ```
+///
+/// ## Burst ratio
+///
+/// When the schedule falls behind the clock, tickets are already due, and without further limits
+/// all backlog would be released at once. As with [SimRate], catching up is instead limited to
+/// `rate * burstRatio`. A shared burst gate is advanced by `batch * interval / burstRatio` each
+/// time a batch is claimed, and the `j`th ticket of a batch may not start before
+/// `gate + j * interval / burstRatio`.
+///
+/// ## Wait time
+///
+/// As with [SimRate], the `waittime` gauge is cumulative: it is the sum of how late every op
+/// started compared to its ticket. Each thread adds up its own ops' delays and adds them to the
+/// shared total when it claims its next batch, so keeping it costs no shared write per op, and a
+/// thread's last batch is counted once it claims again. How far the schedule is behind the clock
+/// right now, which is what [#getWaitTimeDuration()] returns, is published separately as the
+/// `lag` gauge. It is computed when read from the shared counter.
+public class GcraRate extends NBBaseComponent implements RateLimiter {
+    private final static Logger logger = LogManager.getLogger(GcraRate.class);
+
+    /// The longest span of schedule time which a single thread may claim in one batch.
+    public static final long MAX_BATCH_SPAN_NANOS = 100_000L;
+    /// The most tickets which a single thread may claim in one batch.
+    public static final int MAX_BATCH_SIZE = 256;
+
+    private final AtomicReference<Schedule> schedule = new AtomicReference<>();
+    private final ThreadLocal<Credit> credit = ThreadLocal.withInitial(Credit::new);
+    private final AtomicLong accumulatedWaitNanos = new AtomicLong(0L);
+    private final LongAdder startDelayNanos = new LongAdder();
+    private volatile SimRateSpec spec;
+
+    public GcraRate(NBComponent parent, SimRateSpec spec, NBLabels extraLabels) {
+        super(parent, extraLabels.andPairs("rateType",
+            (spec instanceof CycleRateSpec ? "cycle" : "stride")));
+        this.spec = spec;
+        this.schedule.set(new Schedule(spec, System.nanoTime()));
+        initMetrics();
+    }
+
+    private void initMetrics() {
+        String rateType = getLabels().valueOf("rateType");
+        create().gauge(
+            rateType + "s_waittime",
+            () -> (double) startDelayNanos.sum(),
+            MetricCategory.Core,
+            "The cumulative scheduling delay which accrues when" +
+                " an activity is not able to execute operations as fast as requested."
+        );
+        create().gauge(
+            rateType + "s_lag",
+            () -> (double) getWaitTimeDuration().toNanos(),
+            MetricCategory.Core,
+            "How far behind its schedule the rate limiter is now, in nanoseconds, which shrinks again" +
+                " as operations catch up within the burst ratio."
+        );
+        create().gauge(
+            "config_" + rateType + "rate",
+            () -> spec.opsPerSec,
+            MetricCategory.Config,
+            "The configured cycle rate in ops/s"
+        );
+        create().gauge(
+            rateType + "_config_burstrate",
+            () -> spec.burstRatio,
+            MetricCategory.Config,
+            "the configured burst rate as a multiplier to the configured cycle rate. ex: 1.05 means 5% faster is allowed."
+        );
+    }
+
+    @Override
+    public long block() {
+        Credit local = credit.get();
+        Schedule current = schedule.get();
+        if (local.schedule != current || local.next >= local.end) {
+            startDelayNanos.add(local.delayNanos);
+            local.delayNanos = 0L;
+            local.claim(current);
+        }
+        long ticket = local.next++;
+        long due = Math.max(
+            current.dueAt(ticket),
+            local.gate + (long) ((ticket - local.begin) * current.burstIntervalNanos)
+        );
+        long now = System.nanoTime();
+        while (due > now) {
+            LockSupport.parkNanos(due - now);
+            now = System.nanoTime();
+        }
+        long delay = Math.max(0L, now - current.dueAt(ticket));
+        local.delayNanos += delay;
+        return delay;
+    }
+
+    @Override
+    public void applyRateSpec(SimRateSpec updatingSimRateSpec) {
+        if (null == updatingSimRateSpec) throw new RuntimeException("RateSpec must be defined");
+        logger.info("rate spec:\n" + updatingSimRateSpec);
+        if (updatingSimRateSpec.getRate() == 0d) {
+            logger.warn("setting a rate of 0 will yield undefined results");
+        }
+        Schedule previous = schedule.getAndSet(new Schedule(updatingSimRateSpec, System.nanoTime()));
+        accumulatedWaitNanos.addAndGet(previous.lagNanos(System.nanoTime()));
+        this.spec = updatingSimRateSpec;
+    }
+
+    @Override
+    public Duration getWaitTimeDuration() {
+        return Duration.ofNanos(schedule.get().lagNanos(System.nanoTime()));
+    }
+
+    @Override
+    public double getWaitTimeSeconds() {
+        Duration wait = getWaitTimeDuration();
+        return (double) wait.getSeconds() + (wait.getNano() / 1_000_000_000d);
+    }
+
+    @Override
+    public Duration getTotalWaitTimeDuration() {
+        return Duration.ofNanos(accumulatedWaitNanos.get()).plus(getWaitTimeDuration());
+    }
+
+    @Override
+    public long getStartTime() {
+        return schedule.get().startNanos;
+    }
+
+    @Override
+    public SimRateSpec getSpec() {
+        return spec;
+    }
+
+    @Override
+    public String toString() {
+        Schedule current = schedule.get();
+        return String.format(
+            "{ rate:%f, burstRatio:%.3f, interval_ns:%.1f, tickets:%,d, wait_ns:%,d, algorithm:gcra }",
+            spec.getRate(), spec.getBurstRatio(), current.intervalNanos, current.tickets.get(),
+            current.lagNanos(System.nanoTime())
+        );
+    }
+
+    /// The shared virtual schedule for one rate spec. Applying a new rate spec starts a new
+    /// schedule, which threads notice on their next call and claim fresh credit from.
+    private static final class Schedule {
+        private final long startNanos;
+        private final double intervalNanos;
+        private final double burstIntervalNanos;
+        private final int maxBatch;
+        private final AtomicLong tickets = new AtomicLong(0L);
+        private final AtomicLong burstGate;
+
+        private Schedule(SimRateSpec spec, long startNanos) {
+            this.startNanos = startNanos;
+            this.intervalNanos = 1_000_000_000d / spec.getRate();
+            this.burstIntervalNanos = intervalNanos / Math.max(1.0d, spec.getBurstRatio());
+            this.maxBatch = (int) Math.max(1L, Math.min(MAX_BATCH_SIZE, (long) (MAX_BATCH_SPAN_NANOS / intervalNanos)));
+            this.burstGate = new AtomicLong(startNanos);
+        }
+
+        private long dueAt(long ticket) {
+            return startNanos + (long) (ticket * intervalNanos);
+        }
+
+        private long lagNanos(long now) {
+            return Math.max(0L, now - dueAt(tickets.get()));
+        }
+
+        /// Advance the burst gate past a batch of the given size, returning the earliest start
+        /// time for the first ticket of the batch.
+        private long passGate(int batch, long now) {
+            long span = (long) (batch * burstIntervalNanos);
+            long prior;
+            long begin;
+            do {
+                prior = burstGate.get();
+                begin = Math.max(prior, now);
+            } while (!burstGate.compareAndSet(prior, begin + span));
+            return begin;
+        }
+    }
+
+    /// Thread-confined ticket credit. None of these fields are shared, so no synchronization is
+    /// needed to spend credit; only [#claim(Schedule)] touches the shared schedule.
+    private static final class Credit {
+        private Schedule schedule;
+        private long begin;
+        private long next;
+        private long end;
+        private long gate;
+        private int batch = 1;
+        /// start delays of this thread's ops which are not yet in the shared total
+        private long delayNanos;
+
+        private void claim(Schedule current) {
+            long now = System.nanoTime();
+            if (schedule == current) {
+                // spent the whole batch before its last ticket was due: this thread keeps up
+                boolean keepingUp = now < current.dueAt(end);
+                batch = keepingUp ? Math.min(batch << 1, current.maxBatch) : Math.max(batch >> 1, 1);
+            } else {
+                schedule = current;
+                batch = 1;
+            }
+            begin = current.tickets.getAndAdd(batch);
+            next = begin;
+            end = begin + batch;
+            gate = current.passGate(batch, now);
+        }
+    }
+}
@@ -68,6 +68,8 @@ import java.util.stream.Stream;
  * <LI>1000,1.05,restart - Allow up to 1000 ops per second on average, but allow 1050 ops per second
  * if the workload gets behind. If the rate limiter was already running, restart it, clearing any
  * previous backlog (wait time) and resource pools.</LI>
+ * <LI>50000,1.1,gcra - Allow up to 50000 ops per second, using the lock-free {@link GcraRate} limiter
+ * instead of the default {@link SimRate}.</LI>
  * </UL>
  *
  * <H2>Rate Limiter Life Cycle</H2>
@@ -138,8 +140,21 @@ public class SimRateSpec {
         activity
     }
 
+    /**
+     * The rate limiter implementation to use. This is fixed when a rate limiter is first created.
+     * <UL>
+     * <LI>simrate - the default token pool limiter, {@link SimRate}, refilled by a background thread</LI>
+     * <LI>gcra - a lock-free virtual schedule limiter, {@link GcraRate}, with per-thread credit</LI>
+     * </UL>
+     */
+    public enum Algorithm {
+        simrate,
+        gcra
+    }
+
     public ChronoUnit unit;
     private Scope scope = Scope.activity;
+    private Algorithm algorithm = Algorithm.simrate;
 
     /**
      * Target rate in Operations Per Second
@@ -224,24 +239,29 @@ public class SimRateSpec {
     }
 
     public SimRateSpec(double opsPerSec, double burstRatio, Verb verb) {
-        apply(opsPerSec, burstRatio, verb, Scope.activity);
+        apply(opsPerSec, burstRatio, verb, Scope.activity, Algorithm.simrate);
     }
 
     public SimRateSpec(double opsPerSec, double burstRatio, Scope scope) {
-        apply(opsPerSec, burstRatio, DEFAULT_VERB, scope);
+        apply(opsPerSec, burstRatio, DEFAULT_VERB, scope, Algorithm.simrate);
     }
 
     public SimRateSpec(double opsPerSec, double burstRatio, Verb verb, Scope scope) {
-        apply(opsPerSec, burstRatio, verb, scope);
+        apply(opsPerSec, burstRatio, verb, scope, Algorithm.simrate);
+    }
+
+    public SimRateSpec(double opsPerSec, double burstRatio, Verb verb, Scope scope, Algorithm algorithm) {
+        apply(opsPerSec, burstRatio, verb, scope, algorithm);
     }
 
 
-    private void apply(double opsPerSec, double burstRatio, Verb verb, Scope scope) {
+    private void apply(double opsPerSec, double burstRatio, Verb verb, Scope scope, Algorithm algorithm) {
         this.opsPerSec = opsPerSec;
         this.burstRatio = burstRatio;
         this.verb = verb;
         this.unit = chronoUnitFor(opsPerSec);
         this.scope = scope;
+        this.algorithm = algorithm;
 
         // TODO: include burst into ticks calculation
     }
@@ -270,6 +290,7 @@ public class SimRateSpec {
         double burstRatio = DEFAULT_BURST_RATIO;
         Verb verb = Verb.start;
         Scope scope = Scope.activity;
+        Algorithm algorithm = Algorithm.simrate;
         String oprateSpec = specs[offset++];
         opsPerSec = Unit.doubleCountFor(oprateSpec).orElseThrow(() -> new RuntimeException("Unparsable:" + oprateSpec));
         if (specs.length >= 2) {
@@ -291,6 +312,14 @@ public class SimRateSpec {
             } catch (IllegalArgumentException ignored) {
             }
 
+            try {
+                algorithm = Algorithm.valueOf(specword);
+                specword = null;
+                logger.debug("selected rate limiter algorithm: " + algorithm);
+                continue;
+            } catch (IllegalArgumentException ignored) {
+            }
+
             try {
                 verb = Verb.valueOf(specword);
                 specword = null;
@@ -302,14 +331,15 @@ public class SimRateSpec {
             if (specword != null) {
                 String msg = """
                     Spec format 'SPECFORMAT' was not recognized for FORTYPE.
-                    Use the format <ops/s>[,<burst ratio][,<verb>][,<scope>]
+                    Use the format <ops/s>[,<burst ratio][,<verb>][,<scope>][,<algorithm>]
                     Examples:
                      100 (100 ops per second)
                      100,1.1 (with a burst ratio of 10% over)
                      100,start (start the rate limiter automatically)
                      100,thread (scope the rate limiter to each thread in an activity)
+                     100,gcra (use the lock-free gcra rate limiter)
                      100,1.1,start,thread (all of the above)
-                    Defaults: burst_ratio=1.1 verb=start scope=activity
+                    Defaults: burst_ratio=1.1 verb=start scope=activity algorithm=simrate
                     """
                     .replaceAll("SPECFORMAT", spec)
                     .replaceAll("FORTYPE", this.getClass().getSimpleName());
@@ -317,7 +347,7 @@ public class SimRateSpec {
             }
 
         }
-        apply(opsPerSec, burstRatio, verb, scope);
+        apply(opsPerSec, burstRatio, verb, scope, algorithm);
     }
 
     public String toString() {
@@ -328,7 +358,7 @@ public class SimRateSpec {
         double burstPortion = Math.abs(br - ((long) br));
         String burstfmt = (burstPortion > 0.001D) ? String.format("%,.3f", br) : String.format("%,d", (long) br);
 
-        return String.format("{ rate:'%s', burstRatio:'%.3f', SOPSS:'%s', BOPSS:'%s', verb:'%s' }", ratefmt, burstRatio, ratefmt, burstfmt, verb);
+        return String.format("{ rate:'%s', burstRatio:'%.3f', SOPSS:'%s', BOPSS:'%s', verb:'%s', algorithm:'%s' }", ratefmt, burstRatio, ratefmt, burstfmt, verb, algorithm);
     }
 
     public double getRate() {
@@ -349,6 +379,7 @@ public class SimRateSpec {
         if (Double.compare(simRateSpec.opsPerSec, opsPerSec) != 0) return false;
         if (verb!=simRateSpec.verb) return false;
         if (scope!=simRateSpec.scope) return false;
+        if (algorithm!=simRateSpec.algorithm) return false;
         return Double.compare(simRateSpec.burstRatio, burstRatio) == 0;
     }
 
@@ -379,5 +410,9 @@ public class SimRateSpec {
         return this.scope;
     }
 
+    public Algorithm getAlgorithm() {
+        return this.algorithm;
+    }
+
 
 }
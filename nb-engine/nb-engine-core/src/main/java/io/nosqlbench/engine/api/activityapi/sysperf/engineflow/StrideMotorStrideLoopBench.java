@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2024 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityapi.sysperf.engineflow;
+
+import io.nosqlbench.engine.api.activityapi.core.Activity;
+import io.nosqlbench.engine.api.activityapi.core.StrideAction;
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.CycleSegment;
+import io.nosqlbench.engine.api.activityapi.input.Input;
+import io.nosqlbench.engine.api.activityimpl.motor.StrideMotor;
+import io.nosqlbench.nb.api.engine.activityimpl.ActivityDef;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/// Measures the steady-state cost of one stride through the {@link StrideMotor} loop.
+///
+/// Unlike {@link StrideMotorSingleSegmentBench}, which builds a motor for every stride, each
+/// invocation here runs one motor over {@link #STRIDES} strides from an input that reuses a
+/// single segment. Motor construction is amortized across the strides, so the per-operation
+/// allocation reported by `-prof gc` is the allocation of the stride loop itself.
+///
+/// Running {@link #main(String[])} executes this benchmark with the GC profiler and fails if
+/// `gc.alloc.rate.norm` exceeds {@link #MAX_BYTES_PER_STRIDE} for any parameter combination.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Threads(1)
+public class StrideMotorStrideLoopBench {
+
+    /// Strides run per benchmark invocation.
+    public static final int STRIDES = 1 << 16;
+
+    /// Per-stride allocation tolerated by {@link #main(String[])}. This is well below the size of
+    /// any single object, so anything above it means the loop allocates on every stride.
+    public static final double MAX_BYTES_PER_STRIDE = 1.0d;
+
+    @State(Scope.Thread)
+    public static class BenchState {
+        @Param({"1", "8", "64"})
+        public int strideLength;
+
+        public Activity activity;
+        public RepeatingSegmentInput input;
+        public StrideAction action;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            ActivityDef def = ActivityDef.parseActivityDef("alias=jmh_stride_loop type=stdout stride=" + strideLength);
+            this.activity = new Activity(null, def);
+            this.input = new RepeatingSegmentInput();
+            this.action = new NoopStrideAction();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STRIDES)
+    public void runStrides(BenchState s, Blackhole bh) {
+        s.input.reset(STRIDES);
+        StrideMotor<?> motor = new StrideMotor<>(s.activity, 0L, s.input, s.action, null);
+        motor.run();
+        bh.consume(s.input.segment.peekNextCycle());
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+            .include(StrideMotorStrideLoopBench.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .shouldFailOnError(true)
+            .build();
+        Collection<RunResult> results = new Runner(options).run();
+        for (RunResult result : results) {
+            String label = result.getParams().getBenchmark() + " " + result.getParams().getParam("strideLength");
+            double bytesPerStride = allocNorm(result.getSecondaryResults());
+            if (Double.isNaN(bytesPerStride)) {
+                throw new IllegalStateException("no gc.alloc.rate.norm result for " + label);
+            }
+            if (bytesPerStride > MAX_BYTES_PER_STRIDE) {
+                throw new IllegalStateException(
+                    "stride loop allocates " + bytesPerStride + " B/stride for " + label
+                        + " (limit " + MAX_BYTES_PER_STRIDE + ")");
+            }
+            System.out.println(label + ": " + bytesPerStride + " B/stride");
+        }
+    }
+
+    /// The GC profiler result key has had a `·` prefix in some JMH versions, so match by suffix.
+    private static double allocNorm(Map<String, Result> secondary) {
+        double value = Double.NaN;
+        for (Map.Entry<String, Result> entry : secondary.entrySet()) {
+            if (entry.getKey().endsWith("gc.alloc.rate.norm")) {
+                value = entry.getValue().getScore();
+            }
+        }
+        return value;
+    }
+
+    private static final class NoopStrideAction implements StrideAction {
+        @Override
+        public int runCycle(long cycle) {
+            return 0;
+        }
+    }
+
+    /// Hands out the same segment, reset to the next range of cycles, until the stride budget
+    /// for the invocation is spent.
+    private static final class RepeatingSegmentInput implements Input {
+        private final ResettableRangeSegment segment = new ResettableRangeSegment();
+        private long nextCycle;
+        private int remaining;
+
+        private synchronized void reset(int strides) {
+            this.remaining = strides;
+        }
+
+        @Override
+        public synchronized CycleSegment getInputSegment(int segmentLength) {
+            if (remaining <= 0) {
+                return null;
+            }
+            remaining--;
+            segment.reset(nextCycle, segmentLength);
+            nextCycle += segmentLength;
+            return segment;
+        }
+    }
+
+    private static final class ResettableRangeSegment implements CycleSegment {
+        private long next;
+        private long endExclusive;
+
+        private void reset(long startInclusive, int length) {
+            this.next = startInclusive;
+            this.endExclusive = startInclusive + Math.max(0, length);
+        }
+
+        @Override
+        public long nextCycle() {
+            return (next < endExclusive) ? next++ : -1L;
+        }
+
+        @Override
+        public long nextRecycle() {
+            return nextCycle();
+        }
+
+        @Override
+        public boolean isExhausted() {
+            return next >= endExclusive;
+        }
+
+        @Override
+        public long peekNextCycle() {
+            return (next < endExclusive) ? next : -1L;
+        }
+    }
+}
@@ -0,0 +1,445 @@
+/*
+ * Copyright (c) 2024 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityimpl.input;
+
+import io.nosqlbench.engine.api.activityapi.core.ActivityDefObserver;
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.CycleSegment;
+import io.nosqlbench.engine.api.activityapi.input.Input;
+import io.nosqlbench.nb.api.components.core.NBBaseComponent;
+import io.nosqlbench.nb.api.components.core.NBComponent;
+import io.nosqlbench.nb.api.engine.activityimpl.ActivityDef;
+import io.nosqlbench.nb.api.engine.activityimpl.CyclesSpec;
+import io.nosqlbench.nb.api.engine.metrics.instruments.MetricCategory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/// An input which provides the same cycles and recycles as [AtomicInput], but which hands them
+/// out to motors in large chunks, so that the shared counter is touched once per chunk rather
+/// than once per stride. Select it with `input=type:chunkedseq`, and optionally set the chunk
+/// size in strides with `input=type:chunkedseq,chunk:1024`.
+///
+/// ## Layout
+///
+/// All cycles of all recycles are laid out in one linear sequence of full strides, in the
+/// same order that [AtomicInput] dispenses them. As with [AtomicInput], only full strides
+/// are executed, so any cycles at the end of a recycle which do not fill a stride are skipped.
+///
+/// ```
+///   recycle 0              recycle 1              recycle 2
+///   ├──────────────────────┼──────────────────────┼──────────────────────┤
+///   │ chunk │ chunk │ chunk │ chunk │ chunk │ ...
+///   └───┬───┴───┬───┴───────┴───────┴───────┘
+///    motor 3  motor 0          (one fetch-add on the shared counter per chunk)
+/// ```
+///
+/// ## Lanes and work stealing
+///
+/// Each calling thread (one per motor) owns a lane, which holds its current chunk and a
+/// segment which is reused for every stride taken from it. Strides are taken from the front
+/// of the chunk with a compare-and-set on state which only the owning lane normally touches.
+///
+/// Once the shared counter is exhausted, a lane which has run out of work steals the back half
+/// of the largest chunk held by another lane. This keeps every motor busy until the last
+/// stride is taken, even when chunks are large relative to the remaining cycles. It also means
+/// that a chunk left behind by a motor which was stopped is still run by the others.
+///
+/// ## Updates
+///
+/// When the cycles, recycles, or stride change, the current layout is closed at the position
+/// it had reached, and a new layout is started from there, with the same reset rules as
+/// [AtomicInput]. Chunks already claimed from the old layout are still run to completion, in
+/// segments no longer than the requested stride.
+public class ChunkedInput extends NBBaseComponent implements Input, ActivityDefObserver {
+    private final static Logger logger = LogManager.getLogger(ChunkedInput.class);
+
+    /// The default number of strides claimed from the shared counter at once.
+    public static final int DEFAULT_CHUNK_STRIDES = 256;
+
+    private final ActivityDef activityDef;
+    private final int chunkStrides;
+    private final List<Lane> laneList = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<Lane> lanes = ThreadLocal.withInitial(this::addLane);
+    private volatile Bounds bounds;
+    private volatile Layout layout;
+
+    public ChunkedInput(NBComponent parent, ActivityDef activityDef, int chunkStrides) {
+        super(parent);
+        if (chunkStrides < 1) {
+            throw new RuntimeException("chunk size must be at least 1 stride, but was " + chunkStrides);
+        }
+        this.activityDef = activityDef;
+        this.chunkStrides = chunkStrides;
+        onActivityDefUpdate(activityDef);
+        create().gauge(
+            "input_cycles_first",
+            () -> (double) this.bounds.cyclesMin(),
+            MetricCategory.Config,
+            "The first cycle of the cycle interval, inclusive"
+        );
+        create().gauge(
+            "input_cycles_last",
+            () -> (double) this.bounds.cyclesMax(),
+            MetricCategory.Config,
+            "The last cycle of the cycle interval, exclusive"
+        );
+        create().gauge(
+            "input_cycle",
+            () -> (double) this.getPosition().cycle(),
+            MetricCategory.Core,
+            "The next input cycle that will be claimed by a thread"
+        );
+        create().gauge(
+            "input_recycles_first",
+            () -> (double) this.bounds.recyclesMin(),
+            MetricCategory.Config,
+            "The first recycle value, inclusive"
+        );
+        create().gauge(
+            "input_recycles_last",
+            () -> (double) this.bounds.recyclesMax(),
+            MetricCategory.Config,
+            "The last recycle value, exclusive"
+        );
+        create().gauge(
+            "input_recycle",
+            () -> (double) this.getPosition().recycle(),
+            MetricCategory.Core,
+            "The next recycle value that will be claimed by a thread"
+        );
+    }
+
+    @Override
+    public CycleSegment getInputSegment(int stride) {
+        Lane lane = lanes.get();
+        Layout current = layout;
+        if (current == null || current.stride != stride) {
+            current = reanchor(bounds, stride);
+        }
+        Chunk chunk = lane.chunk;
+        while (true) {
+            if (chunk != null && chunk.take(stride, lane.segment)) {
+                return lane.segment;
+            }
+            chunk = current.claim(chunkStrides);
+            if (chunk == null) {
+                Layout latest = layout;
+                if (latest != current) {
+                    current = (latest.stride == stride) ? latest : reanchor(bounds, stride);
+                    continue;
+                }
+                chunk = steal(lane);
+                if (chunk == null) {
+                    lane.chunk = null;
+                    logger.trace(() -> "Exhausted input for " + activityDef.getAlias());
+                    return null;
+                }
+            }
+            lane.chunk = chunk;
+        }
+    }
+
+    /// Take the back half of the largest chunk held by any other lane, or return null if no
+    /// lane holds at least one full stride which has not been started.
+    private Chunk steal(Lane thief) {
+        while (true) {
+            Chunk victim = null;
+            long most = 0L;
+            for (Lane lane : laneList) {
+                Chunk candidate = lane.chunk;
+                if (lane != thief && candidate != null) {
+                    long remaining = candidate.remaining();
+                    if (remaining >= candidate.layout.stride && remaining > most) {
+                        most = remaining;
+                        victim = candidate;
+                    }
+                }
+            }
+            if (victim == null) {
+                return null;
+            }
+            Chunk stolen = victim.split();
+            if (stolen != null) {
+                return stolen;
+            }
+        }
+    }
+
+    private Lane addLane() {
+        Lane lane = new Lane();
+        laneList.add(lane);
+        return lane;
+    }
+
+    private synchronized Layout reanchor(Bounds next, int stride) {
+        Layout current = layout;
+        if (current != null && current.stride == stride && current.bounds.equals(next)) {
+            return current;
+        }
+        long recycle = next.recyclesMin();
+        long cycle = next.cyclesMin();
+        if (current != null) {
+            Position reached = current.close();
+            if (current.bounds.recyclesMin() == next.recyclesMin()) {
+                recycle = reached.recycle();
+            }
+            if (current.bounds.cyclesMin() == next.cyclesMin()) {
+                cycle = reached.cycle();
+            }
+        }
+        Layout anchored = new Layout(next, stride, recycle, cycle);
+        this.layout = anchored;
+        return anchored;
+    }
+
+    private Position getPosition() {
+        Layout current = layout;
+        return (current == null) ? new Position(bounds.recyclesMin(), bounds.cyclesMin()) : current.position();
+    }
+
+    @Override
+    public synchronized void onActivityDefUpdate(ActivityDef activityDef) {
+        CyclesSpec cyclesSpec = activityDef.getCyclesSpec();
+        CyclesSpec recyclesSpec = activityDef.getRecyclesSpec();
+        Bounds next = new Bounds(
+            cyclesSpec.first_inclusive(), cyclesSpec.last_exclusive(),
+            recyclesSpec.first_inclusive(), recyclesSpec.last_exclusive()
+        );
+        if (!next.equals(this.bounds)) {
+            logger.info(() -> "applying input bounds " + next + " to " + activityDef.getAlias());
+            this.bounds = next;
+            if (layout != null) {
+                reanchor(next, layout.stride);
+            }
+        }
+    }
+
+    @Override
+    public boolean isContiguous() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "ChunkedInput{" +
+            "bounds=" + bounds +
+            ", position=" + getPosition() +
+            ", chunk=" + chunkStrides +
+            ", lanes=" + laneList.size() +
+            ", activity=" + activityDef.getAlias() +
+            '}';
+    }
+
+    private record Bounds(long cyclesMin, long cyclesMax, long recyclesMin, long recyclesMax) {
+    }
+
+    private record Position(long recycle, long cycle) {
+    }
+
+    /// A linear numbering of every cycle which will be run with one stride length, starting at
+    /// `(firstRecycle, firstCycle)`. Offset `g` maps to a recycle and cycle as:
+    ///
+    /// ```
+    /// g <  firstSpan : (firstRecycle, firstCycle + g)
+    /// g >= firstSpan : (firstRecycle + 1 + (g - firstSpan) / span, cyclesMin + (g - firstSpan) % span)
+    /// ```
+    ///
+    /// Both spans are whole multiples of the stride, which is what skips partial strides.
+    private static final class Layout {
+        private final Bounds bounds;
+        private final int stride;
+        private final long firstRecycle;
+        private final long firstCycle;
+        private final long firstSpan;
+        private final long span;
+        private final long total;
+        private final AtomicLong claimed = new AtomicLong(0L);
+
+        private Layout(Bounds bounds, int stride, long firstRecycle, long firstCycle) {
+            this.bounds = bounds;
+            this.stride = stride;
+            this.firstRecycle = firstRecycle;
+            this.firstCycle = firstCycle;
+            this.firstSpan = (Math.max(0L, bounds.cyclesMax() - firstCycle) / stride) * stride;
+            this.span = (Math.max(0L, bounds.cyclesMax() - bounds.cyclesMin()) / stride) * stride;
+            long laterRecycles = bounds.recyclesMax() - firstRecycle - 1;
+            if (firstRecycle >= bounds.recyclesMax()) {
+                this.total = 0L;
+            } else if (span != 0L && laterRecycles > (Long.MAX_VALUE - firstSpan) / span) {
+                this.total = Long.MAX_VALUE;
+            } else {
+                this.total = firstSpan + span * laterRecycles;
+            }
+        }
+
+        private Chunk claim(long strides) {
+            long length = Math.min(strides * stride, (Integer.MAX_VALUE / stride) * (long) stride);
+            long begin = claimed.getAndAdd(length);
+            if (begin >= total) {
+                return null;
+            }
+            return new Chunk(this, begin, (int) Math.min(length, total - begin));
+        }
+
+        /// Stop claims from this layout and return the position it had reached.
+        private Position close() {
+            return positionOf(Math.min(claimed.getAndSet(total), total));
+        }
+
+        private Position position() {
+            return positionOf(Math.min(claimed.get(), total));
+        }
+
+        private Position positionOf(long g) {
+            if (g == 0L || g < firstSpan) {
+                return new Position(firstRecycle, firstCycle + g);
+            }
+            if (span == 0L) {
+                return new Position(Math.max(firstRecycle + 1, bounds.recyclesMax()), bounds.cyclesMin());
+            }
+            return new Position(recycleOf(g), cycleOf(g));
+        }
+
+        private long recycleOf(long g) {
+            return (g < firstSpan) ? firstRecycle : firstRecycle + 1 + (g - firstSpan) / span;
+        }
+
+        private long cycleOf(long g) {
+            return (g < firstSpan) ? firstCycle + g : bounds.cyclesMin() + (g - firstSpan) % span;
+        }
+
+        /// The number of cycles from `g` to the end of its recycle.
+        private long untilRecycleEnd(long g) {
+            return (g < firstSpan) ? firstSpan - g : span - (g - firstSpan) % span;
+        }
+    }
+
+    /// A range of a layout claimed by one lane. The state packs the offset of the next cycle to
+    /// take in the high 32 bits and the offset of the end in the low 32 bits, so that the owner
+    /// taking from the front and a thief splitting off the back agree through a single
+    /// compare-and-set. The next offset only grows and the end only shrinks.
+    private static final class Chunk {
+        private final Layout layout;
+        private final long base;
+        private final AtomicLong state;
+
+        private Chunk(Layout layout, long base, int length) {
+            this.layout = layout;
+            this.base = base;
+            this.state = new AtomicLong(length & 0xFFFFFFFFL);
+        }
+
+        private long remaining() {
+            long s = state.get();
+            return (s & 0xFFFFFFFFL) - (s >>> 32);
+        }
+
+        /// Take up to one stride from the front of this chunk into the given segment, returning
+        /// false if nothing is left.
+        private boolean take(int stride, ReusableSegment segment) {
+            while (true) {
+                long s = state.get();
+                long next = s >>> 32;
+                long end = s & 0xFFFFFFFFL;
+                if (next >= end) {
+                    return false;
+                }
+                long g = base + next;
+                long length = Math.min(Math.min(stride, end - next), layout.untilRecycleEnd(g));
+                if (state.compareAndSet(s, s + (length << 32))) {
+                    long start = layout.cycleOf(g);
+                    segment.reset(layout.recycleOf(g), start, start + length);
+                    return true;
+                }
+            }
+        }
+
+        /// Split off the back half of the remaining whole strides as a new chunk, or return null
+        /// if less than one stride remains.
+        private Chunk split() {
+            while (true) {
+                long s = state.get();
+                long next = s >>> 32;
+                long end = s & 0xFFFFFFFFL;
+                long strides = (end - next) / layout.stride;
+                if (strides < 1L) {
+                    return null;
+                }
+                long taken = ((strides + 1L) / 2L) * layout.stride;
+                long newEnd = end - taken;
+                if (state.compareAndSet(s, (next << 32) | newEnd)) {
+                    return new Chunk(layout, base + newEnd, (int) taken);
+                }
+            }
+        }
+    }
+
+    /// The per-thread chunk and reusable segment. Only the owning thread writes these fields;
+    /// other lanes read the chunk when stealing.
+    private static final class Lane {
+        private final ReusableSegment segment = new ReusableSegment();
+        private volatile Chunk chunk;
+    }
+
+    /// A segment which is reset for each stride rather than allocated. A motor consumes each
+    /// segment before asking for the next, so the lane can hand back the same instance.
+    private static final class ReusableSegment implements CycleSegment {
+        private long recycle;
+        private long next;
+        private long afterEnd;
+
+        private void reset(long recycle, long start, long afterEnd) {
+            this.recycle = recycle;
+            this.next = start;
+            this.afterEnd = afterEnd;
+        }
+
+        @Override
+        public long nextCycle() {
+            if (next < afterEnd) {
+                return next++;
+            }
+            return -100;
+        }
+
+        @Override
+        public long nextRecycle() {
+            return recycle;
+        }
+
+        @Override
+        public long peekNextCycle() {
+            if (next < afterEnd) {
+                return next;
+            }
+            return -100;
+        }
+
+        @Override
+        public boolean isExhausted() {
+            return next >= afterEnd;
+        }
+
+        @Override
+        public String toString() {
+            return "ChunkedInput.Segment(" + next + "," + afterEnd + "]: recycle=" + recycle;
+        }
+    }
+}
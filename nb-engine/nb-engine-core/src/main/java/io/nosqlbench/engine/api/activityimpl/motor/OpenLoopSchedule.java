@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2024 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityimpl.motor;
+
+import java.util.concurrent.locks.LockSupport;
+
+/// The intended start time of every cycle in an open-loop activity, derived only from the cycle
+/// number and the target cycle rate:
+///
+/// ```
+/// intended(cycle) = startNanos + (cycle - baseCycle) * intervalNanos
+/// ```
+///
+/// Because the schedule is a pure function of the cycle, every motor can compute it without
+/// coordination, and a cycle's intended start never depends on when earlier cycles completed.
+/// Latency measured from the intended start therefore includes any time the op spent waiting
+/// to be dispatched, which is what makes it free of coordinated omission.
+///
+/// When the target rate changes, a new schedule is anchored at the cycle which the old schedule
+/// had reached at that moment, so intended times stay continuous across the change.
+///
+/// @param startNanos
+///     The {@link System#nanoTime()} at which `baseCycle` is intended to start
+/// @param baseCycle
+///     The cycle at which this schedule is anchored
+/// @param intervalNanos
+///     The time between consecutive cycles, the inverse of the target rate
+public record OpenLoopSchedule(long startNanos, long baseCycle, double intervalNanos) {
+
+    /// The {@link System#nanoTime()} at which the given cycle is intended to start.
+    public long intendedStart(long cycle) {
+        return startNanos + (long) ((cycle - baseCycle) * intervalNanos);
+    }
+
+    /// The cycle which is intended to start at the given time.
+    public long cycleAt(long nanoTime) {
+        return baseCycle + (long) ((nanoTime - startNanos) / intervalNanos);
+    }
+
+    /// Wait until the intended start of the given cycle, returning that intended start time.
+    /// If the cycle is already due, this returns immediately.
+    public long awaitIntendedStart(long cycle) {
+        long intended = intendedStart(cycle);
+        long now = System.nanoTime();
+        while (intended > now) {
+            LockSupport.parkNanos(intended - now);
+            now = System.nanoTime();
+        }
+        return intended;
+    }
+}
@@ -16,6 +16,7 @@
 
 package io.nosqlbench.engine.api.activityimpl.motor;
 
+import com.codahale.metrics.Counter;
 import com.codahale.metrics.Timer;
 import io.nosqlbench.engine.api.activityapi.core.*;
 import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.CycleResultSegmentBuffer;
@@ -25,21 +26,52 @@ import io.nosqlbench.engine.api.activityapi.input.Input;
 import io.nosqlbench.engine.api.activityapi.output.Output;
 import io.nosqlbench.engine.api.activityapi.simrate.RateLimiter;
 import io.nosqlbench.engine.api.activityimpl.MotorState;
+import io.nosqlbench.engine.api.activityimpl.uniform.actions.StandardAction;
 import io.nosqlbench.nb.api.errors.BasicError;
 import io.nosqlbench.nb.api.engine.activityimpl.ActivityDef;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.Arrays;
 import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 /// Virtual-thread-friendly stride runner that replaces CoreMotor for sync actions.
 /// Pulls cycle segments from input and delegates execution to {@link StrideAction#runStride},
 /// applying stride/cycle rate limiting and buffering results.
+///
+/// When the activity sets `async=N` and the action is a {@link StandardAction}, each stride is
+/// instead dispatched through {@link StandardAction#runCycleAsync}, keeping up to `N` cycles
+/// in flight for this motor. Result timers and retries are driven by op completion, and each
+/// completion only records the result code of its cycle. The window is drained before the
+/// stride's results are appended to its buffer in cycle order and handed to the output, so the
+/// output sees one segment per stride from the motor thread, as it does for sync strides:
+///
+/// ```
+/// stride ─┬─ acquire ─▶ runCycleAsync(c0) ─ ─ ─ ─ ─ ─▶ complete ─▶ record code, release
+///         ├─ acquire ─▶ runCycleAsync(c1) ─ ─ ─▶ complete ─▶ record code, release
+///         ├─ ...  (at most N acquired at once)
+///         └─ drain all N permits ─▶ append in cycle order ─▶ output.onCycleResultSegment(...)
+/// ```
+///
+/// When the activity sets `scheduling=open` with a cycle rate, the same path is used in open-loop
+/// mode: each cycle is dispatched at its intended start time from the {@link OpenLoopSchedule}
+/// regardless of whether earlier cycles have completed, sync ops run on virtual threads, and
+/// `cycles_responsetime` is measured from the intended start rather than from dispatch. This
+/// keeps latency honest under saturation, since time an op spends waiting to be sent is counted.
 public class StrideMotor<D> implements Motor<D>, ActivityDefObserver {
 
     private static final Logger logger = LogManager.getLogger(StrideMotor.class);
 
+    /// Open-loop in-flight bound per motor when `async` is not set.
+    private static final int OPEN_LOOP_DEFAULT_MAX_IN_FLIGHT = 10_000;
+    private static final Executor INLINE = Runnable::run;
+
     /// Diagnostic timing knob — see {@link #requestStop()}. Read once at class load; the env
     /// var is normally unset and the field is 0 (no-op). When set to a positive integer, an
     /// uncoordinated sleep is injected inside `requestStop()` between the state read and the
@@ -74,6 +106,33 @@ public class StrideMotor<D> implements Motor<D>, ActivityDefObserver {
     private Timer inputTimer;
     private Timer strideServiceTimer;
     private Timer cycleServiceTimer;
+    private Timer cycleResponseTimer;
+    private Counter pendingOpsCounter;
+    /// Maximum in-flight cycles for this motor when dispatching asynchronously; 0 means sync.
+    private int asyncDepth;
+    /// Whether cycles are dispatched at their intended start times, as set by `scheduling=open`.
+    private boolean openLoop;
+    /// Runs op completions, and sync ops for open-loop dispatch, on virtual threads owned by
+    /// this motor rather than on driver IO threads; created on first use.
+    private ExecutorService asyncExecutor;
+    /// In-flight window for async dispatch, created on first use and drained at the end of
+    /// every stride.
+    private Semaphore inFlight;
+    private int inFlightLimit;
+    /// The cycles of the current async stride, and the result codes recorded by their
+    /// completions, reused across strides.
+    private long[] asyncCycles = new long[0];
+    private int[] asyncCodes = new int[0];
+    /// The first error which escaped the action's error handling in an async cycle.
+    private final AtomicReference<Throwable> asyncFailure = new AtomicReference<>();
+    /// Stride length, cached from the activity params and refreshed by {@link #onActivityDefUpdate}.
+    private volatile int stride;
+    /// Result buffer reused across strides for actions which do not provide their own.
+    private CycleResultSegmentBuffer ownResultBuffer;
+    private int ownResultBufferLength;
+    /// Motor-owned per-cycle hooks, reused for every stride so that the sync loop does not
+    /// allocate per stride or box per cycle.
+    private final CycleHooks cycleHooks = new CycleHooks();
 
     public StrideMotor(Activity activity, long slotId, Input input, StrideAction action, Output output) {
         this.activity = activity;
@@ -85,13 +144,25 @@ public class StrideMotor<D> implements Motor<D>, ActivityDefObserver {
         onActivityDefUpdate(activity.getActivityDef());
     }
 
+    /// Run the motor loop. A [StandardAction] has its binding state bound once here, for the
+    /// whole loop, rather than once per stride or cycle.
     @Override
     public void run() {
+        if (action instanceof StandardAction standardAction) {
+            standardAction.bindingScope().run(this::runLoop);
+        } else {
+            runLoop();
+        }
+    }
+
+    private void runLoop() {
         motorState.enterState(RunState.Starting);
         try {
             inputTimer = activity.getInstrumentation().getOrCreateInputTimer();
             strideServiceTimer = activity.getInstrumentation().getOrCreateStridesServiceTimer();
             cycleServiceTimer = activity.getInstrumentation().getOrCreateCyclesServiceTimer();
+            cycleResponseTimer = activity.getInstrumentation().getCyclesResponseTimerOrNull();
+            pendingOpsCounter = activity.getInstrumentation().getOrCreatePendingOpCounter();
 
             if (motorState.get() == RunState.Finished) {
                 logger.warn(() -> "Input was already exhausted for slot " + slotId + ", remaining in finished state.");
@@ -110,18 +181,24 @@ public class StrideMotor<D> implements Motor<D>, ActivityDefObserver {
 
             motorState.enterState(RunState.Running);
             while (motorState.get() == RunState.Running) {
+                int strideLength = this.stride;
                 CycleSegment cycleSegment;
                 CycleResultSegmentBuffer segBuffer;
-                if (action instanceof io.nosqlbench.engine.api.activityimpl.uniform.actions.StandardAction std) {
+                if (action instanceof StandardAction std) {
                     std.resetStrideBuffers();
                     segBuffer = std.resultBuffer();
                 } else {
-                    segBuffer = new CycleResultSegmentBuffer(activity.getActivityDef().getParams().getOptionalInteger("stride").orElse(1));
+                    if (ownResultBuffer == null || ownResultBufferLength != strideLength) {
+                        ownResultBuffer = new CycleResultSegmentBuffer(strideLength);
+                        ownResultBufferLength = strideLength;
+                    }
+                    ownResultBuffer.reset();
+                    segBuffer = ownResultBuffer;
                 }
 
-                try (Timer.Context ignored = inputTimer.time()) {
-                    cycleSegment = input.getInputSegment(activity.getParams().getOptionalInteger("stride").orElse(1));
-                }
+                long inputStart = System.nanoTime();
+                cycleSegment = input.getInputSegment(strideLength);
+                inputTimer.update(System.nanoTime() - inputStart, TimeUnit.NANOSECONDS);
 
                 if (cycleSegment == null) {
                     logger.trace(() -> "input exhausted via null segment, stopping motor thread " + slotId);
@@ -135,22 +212,14 @@ public class StrideMotor<D> implements Motor<D>, ActivityDefObserver {
 
                 long strideStart = System.nanoTime();
                 try {
-                    long[] cycleDelayHolder = new long[1];
-                    long[] cycleStartHolder = new long[1];
-                    Runnable beforeCycle = () -> {
-                        cycleStartHolder[0] = System.nanoTime();
-                        if (cycleRateLimiter != null) {
-                            cycleDelayHolder[0] = cycleRateLimiter.block();
-                        } else {
-                            cycleDelayHolder[0] = 0L;
-                        }
-                    };
-                    java.util.function.BiConsumer<Long, Integer> afterCycle = (cyclenum, result) -> {
-                        long cycleEnd = System.nanoTime();
-                        cycleServiceTimer.update((cycleEnd - cycleStartHolder[0]) + cycleDelayHolder[0], TimeUnit.NANOSECONDS);
-                        segBuffer.append(cyclenum, result);
-                    };
-                    action.runStride(cycleSegment, beforeCycle, afterCycle);
+                    if (openLoop && action instanceof StandardAction standardAction) {
+                        runStrideAsync(standardAction, cycleSegment, segBuffer, requireOpenLoopSchedule());
+                    } else if (asyncDepth > 0 && action instanceof StandardAction standardAction) {
+                        runStrideAsync(standardAction, cycleSegment, segBuffer, null);
+                    } else {
+                        cycleHooks.resultBuffer = segBuffer;
+                        action.runStride(cycleSegment, cycleHooks);
+                    }
                 } catch (Exception e) {
                     motorState.enterState(RunState.Errored);
                     throw e;
@@ -183,7 +252,183 @@ public class StrideMotor<D> implements Motor<D>, ActivityDefObserver {
             logger.error(() -> "Error in stride motor loop:" + t, t);
             motorState.enterState(RunState.Errored);
             throw t;
+        } finally {
+            try {
+                awaitInFlight();
+            } catch (RuntimeException e) {
+                logger.warn(() -> "motor " + slotId + " closed with async cycles still in flight: " + e);
+            }
+            inFlight = null;
+            if (asyncExecutor != null) {
+                asyncExecutor.close();
+                asyncExecutor = null;
+            }
+        }
+    }
+
+    private OpenLoopSchedule requireOpenLoopSchedule() {
+        OpenLoopSchedule schedule = activity.getOpenLoopSchedule();
+        if (schedule == null) {
+            throw new BasicError("scheduling=open requires a cyclerate, which gives each cycle its intended start time.");
+        }
+        return schedule;
+    }
+
+    /// Per-cycle timing and result capture for the sync stride path. State lives in fields
+    /// rather than in captured holders, since only the motor thread touches it.
+    private final class CycleHooks implements StrideAction.CycleListener {
+        private long cycleStart;
+        private long cycleDelay;
+        private CycleResultSegmentBuffer resultBuffer;
+
+        @Override
+        public void beforeCycle() {
+            cycleStart = System.nanoTime();
+            cycleDelay = (cycleRateLimiter != null) ? cycleRateLimiter.block() : 0L;
+        }
+
+        @Override
+        public void afterCycle(long cycle, int result) {
+            long cycleEnd = System.nanoTime();
+            cycleServiceTimer.update((cycleEnd - cycleStart) + cycleDelay, TimeUnit.NANOSECONDS);
+            resultBuffer.append(cycle, result);
+        }
+    }
+
+    /// Dispatch every cycle of the segment without waiting for completion, holding at most
+    /// the motor's in-flight limit. Returns only once all cycles of the stride have completed,
+    /// so that stride-scoped action state may be reused, after appending their results to the
+    /// stride buffer in cycle order. Completions only store the result code of their own cycle,
+    /// and the drain of the window publishes those codes to the motor thread. The first error
+    /// which escapes the action's error handling is rethrown here, as it would have been from
+    /// the synchronous path.
+    ///
+    /// With an open-loop schedule, each cycle is dispatched at its intended start time instead
+    /// of after the cycle rate limiter, sync ops run on virtual threads, and the cycle response
+    /// timer records the time from the intended start to completion.
+    private void runStrideAsync(
+        StandardAction standardAction,
+        CycleSegment cycleSegment,
+        CycleResultSegmentBuffer segBuffer,
+        OpenLoopSchedule schedule
+    ) {
+        Semaphore window = inFlightWindow((schedule != null) ? openLoopDepth() : asyncDepth);
+        Executor completionExecutor = asyncExecutor();
+        Executor syncOpExecutor = (schedule != null) ? completionExecutor : INLINE;
+        int count = collectAsyncCycles(cycleSegment);
+        long[] cycles = asyncCycles;
+        int[] codes = asyncCodes;
+        try {
+            for (int i = 0; i < count && asyncFailure.get() == null; i++) {
+                long cycle = cycles[i];
+                int index = i;
+                window.acquire();
+                long intendedStart;
+                long cycleDelay;
+                if (schedule != null) {
+                    intendedStart = schedule.awaitIntendedStart(cycle);
+                    cycleDelay = 0L;
+                } else {
+                    intendedStart = 0L;
+                    cycleDelay = (cycleRateLimiter != null) ? cycleRateLimiter.block() : 0L;
+                }
+                long cycleStart = System.nanoTime();
+                pendingOpsCounter.inc();
+                standardAction.runCycleAsync(cycle, syncOpExecutor, completionExecutor).whenComplete((code, error) -> {
+                    try {
+                        long cycleEnd = System.nanoTime();
+                        if (error != null) {
+                            asyncFailure.compareAndSet(null, error);
+                        } else {
+                            codes[index] = code;
+                            cycleServiceTimer.update((cycleEnd - cycleStart) + cycleDelay, TimeUnit.NANOSECONDS);
+                            if (schedule != null && cycleResponseTimer != null) {
+                                cycleResponseTimer.update(cycleEnd - intendedStart, TimeUnit.NANOSECONDS);
+                            }
+                        }
+                    } finally {
+                        pendingOpsCounter.dec();
+                        window.release();
+                    }
+                });
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("interrupted while dispatching async cycles in motor " + slotId, e);
+        }
+        awaitInFlight();
+        rethrowAsyncFailure();
+        for (int i = 0; i < count; i++) {
+            segBuffer.append(cycles[i], codes[i]);
+        }
+    }
+
+    /// Take every remaining cycle of the segment into the reusable stride arrays, growing
+    /// them before any cycle is dispatched so that completions always see the current ones.
+    private int collectAsyncCycles(CycleSegment cycleSegment) {
+        int count = 0;
+        while (!cycleSegment.isExhausted()) {
+            long cycle = cycleSegment.nextCycle();
+            if (cycle < 0) {
+                break;
+            }
+            if (count == asyncCycles.length) {
+                asyncCycles = Arrays.copyOf(asyncCycles, Math.max(stride, count * 2));
+            }
+            asyncCycles[count++] = cycle;
+        }
+        if (asyncCodes.length != asyncCycles.length) {
+            asyncCodes = new int[asyncCycles.length];
+        }
+        return count;
+    }
+
+    /// The in-flight window, sized by the limit in effect at the start of the stride. Since
+    /// the window is drained after every stride, it can be replaced whenever the limit changes.
+    private Semaphore inFlightWindow(int limit) {
+        if (inFlight == null || inFlightLimit != limit) {
+            inFlightLimit = limit;
+            inFlight = new Semaphore(limit);
+        }
+        return inFlight;
+    }
+
+    /// Wait until every cycle this motor has dispatched asynchronously has completed.
+    private void awaitInFlight() {
+        if (inFlight == null) {
+            return;
+        }
+        try {
+            inFlight.acquire(inFlightLimit);
+            inFlight.release(inFlightLimit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("interrupted while waiting for async cycles in motor " + slotId, e);
+        }
+    }
+
+    private void rethrowAsyncFailure() {
+        Throwable error = asyncFailure.get();
+        if (error instanceof RuntimeException re) {
+            throw re;
+        } else if (error instanceof Error err) {
+            throw err;
+        } else if (error != null) {
+            throw new RuntimeException(error);
+        }
+    }
+
+    /// The in-flight limit for open-loop dispatch. Open-loop ops do not wait for earlier ones,
+    /// so this is only a safety bound; `async=N` lowers or raises it.
+    private int openLoopDepth() {
+        return (asyncDepth > 0) ? asyncDepth : OPEN_LOOP_DEFAULT_MAX_IN_FLIGHT;
+    }
+
+    private Executor asyncExecutor() {
+        if (asyncExecutor == null) {
+            asyncExecutor = Executors.newVirtualThreadPerTaskExecutor();
         }
+        return asyncExecutor;
     }
 
     @Override
@@ -265,5 +510,8 @@ public class StrideMotor<D> implements Motor<D>, ActivityDefObserver {
         ActivityDefObserver.apply(activityDef, input, null, action, output);
         this.strideRateLimiter = activity.getStrideLimiter();
         this.cycleRateLimiter = activity.getCycleLimiter();
+        this.asyncDepth = activity.getAsyncDepth();
+        this.openLoop = activity.isOpenLoop();
+        this.stride = activityDef.getParams().getOptionalInteger("stride").orElse(1);
     }
 }
@@ -34,9 +34,16 @@ import io.nosqlbench.engine.api.activityapi.errorhandling.modular.NBErrorHandler
 import io.nosqlbench.engine.api.activityapi.planning.OpSequence;
 import io.nosqlbench.nb.api.engine.activityimpl.ActivityDef;
 import io.nosqlbench.nb.api.errors.ResultVerificationError;
+import io.nosqlbench.virtdata.core.bindings.BindingColumns;
+import io.nosqlbench.virtdata.library.basics.core.threadstate.SharedState;
+import io.nosqlbench.virtdata.library.basics.core.threadstate.StateSlots;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -53,6 +60,8 @@ public class StandardAction implements StrideAction, ActivityDefObserver {
     private final Timer resultSuccessTimer;
     private final Timer resultTimer;
     private final Timer bindTimer;
+    /// Times the up-front evaluation of a stride's bindings; null unless `stride_bindings=true`.
+    private final Timer strideBindTimer;
     private final NBErrorHandler errorHandler;
     private final OpSequence<OpDispenser<? extends CycleOp<?>>> opsequence;
     private final int maxTries;
@@ -60,12 +69,18 @@ public class StandardAction implements StrideAction, ActivityDefObserver {
     private final Activity activity;
     /// Stride-scoped shell for flow contexts and per-cycle scratch.
     private final StrideContext strideContext;
+    /// Whether to evaluate bindings for a whole stride before running its cycles.
+    private final boolean strideBindings;
+    /// Variables saved and loaded by stateful binding functions, such as `Save` and `Load`,
+    /// which belong to this action rather than to whichever thread happens to run it.
+    private final StateSlots bindingState = new StateSlots();
 
     public StandardAction(Activity activity, int slot) {
         this.activity = activity;
         this.opsequence = activity.getOpSequence();
         this.maxTries = activity.getMaxTries();
         bindTimer = activity.getInstrumentation().getOrCreateBindTimer();
+        strideBindTimer = activity.getInstrumentation().getStrideBindTimerOrNull();
         executeTimer = activity.getInstrumentation().getOrCreateExecuteTimer();
         triesHistogram = activity.getInstrumentation().getOrCreateTriesHistogram();
         resultTimer = activity.getInstrumentation().getOrCreateResultTimer();
@@ -74,6 +89,7 @@ public class StandardAction implements StrideAction, ActivityDefObserver {
         verifierTimer = activity.getInstrumentation().getOrCreateVerifierTimer();
         long stride = activity.getParams().getOptionalLong("stride").orElse(1L);
         this.strideContext = new StrideContext(stride, 16, 4);
+        this.strideBindings = activity.getParams().getOptionalBoolean("stride_bindings").orElse(false);
         // Set a space name resolver based on dispenser metadata if needed; fallback is per-cycle error context
     }
 
@@ -83,42 +99,11 @@ public class StandardAction implements StrideAction, ActivityDefObserver {
         OpDispenser<? extends CycleOp<?>> dispenser = null;
         CycleOp op = null;
 
-        OpFlowContext flowContext;
         try (Timer.Context ct = bindTimer.time()) {
-            flowContext = strideContext.beginCycle(cycle); // clear flow-scoped context for this cycle slot
-            strideContext.setSpaceNameResolver(null);
-            strideContext.setSpaceIndexResolver(null);
             dispenser = opsequence.apply(cycle);
-            if (dispenser instanceof BaseOpDispenser<?, ?> baseDisp) {
-                strideContext.setSpaceNameResolver(baseDisp.getSpaceNameFunction());
-                strideContext.setSpaceIndexResolver(baseDisp.getSpaceIndexFunction());
-            }
-            var indexResolver = strideContext.getSpaceIndexResolver();
-            if (indexResolver != null) {
-                strideContext.setCurrentSpaceIndex(indexResolver.applyAsInt(cycle));
-            }
-            // Resolve and stash space name once per cycle for diagnostics/inject paths
-            var nameResolver = strideContext.getSpaceNameResolver();
-            if (nameResolver != null) {
-                strideContext.setCurrentSpaceName(nameResolver.apply(cycle));
-            } else {
-                try {
-                    strideContext.setCurrentSpaceName(dispenser.getErrorContextForCycle(cycle).getOrDefault("space_name", "0"));
-                } catch (Exception ignored) {
-                    strideContext.setCurrentSpaceName("0");
-                }
-            }
-            op = dispenser.getOp(cycle);
-            if (op instanceof FlowContextAwareOp aware) {
-                aware.setFlowContext(flowContext, strideContext.getCurrentSpaceIndex());
-            }
+            op = bindOp(dispenser, cycle, strideContext.beginCycle(cycle));
         } catch (Exception e) {
-            RuntimeException bindingError =  new RuntimeException(
-                "while binding request in cycle " + cycle + " for op template named '" + (
-                    dispenser != null ? dispenser.getOpName() : "NULL") + "': " + e.getMessage(), e
-            );
-            bindingError = dispenser.modifyExceptionMessage(bindingError, cycle);
-            throw bindingError;
+            throw bindingError(dispenser, cycle, e);
         }
 
         int code = 0;
@@ -136,31 +121,7 @@ public class StandardAction implements StrideAction, ActivityDefObserver {
                     try (Timer.Context ct = executeTimer.time()) {
                         result = op.apply(cycle);
                     }
-
-                    try (Timer.Context ignored = verifierTimer.time()) {
-                        CycleFunction<Boolean> verifier = dispenser.getVerifier();
-                        if (verifier != null) {
-                            try {
-                                verifier.setVariable("result", result);
-                                verifier.setVariable("cycle", cycle);
-                                Boolean isGood = verifier.apply(cycle);
-                                if (!isGood) {
-                                    throw new ResultVerificationError(
-                                        "result verification failed",
-                                        maxTries - tries,
-                                        verifier.getExpressionDetails()
-                                    );
-                                }
-                            } catch (Exception e) {
-                                throw new ResultVerificationError(
-                                    e,
-                                    maxTries - tries,
-                                    verifier.getExpressionDetails()
-                                );
-                            }
-                        }
-                    }
-
+                    verify(dispenser, result, cycle, tries);
                 } catch (Exception e) {
                     error = dispenser.modifyExceptionMessage(e,cycle);
                 } finally {
@@ -182,31 +143,302 @@ public class StandardAction implements StrideAction, ActivityDefObserver {
             }
             triesHistogram.update(tries);
 
-            if (op instanceof OpGenerator) {
-                logger.trace(() -> "GEN OP for cycle(" + cycle + ")");
-                op = ((OpGenerator) op).getNextOp();
-                if (op instanceof FlowContextAwareOp aware) {
-                    aware.setFlowContext(strideContext.getCurrentFlowContext(), strideContext.getCurrentSpaceIndex());
+            op = nextOp(op, cycle, strideContext.getCurrentFlowContext(), strideContext.getCurrentSpaceIndex());
+        }
+
+        return code;
+    }
+
+    /// Run a cycle without blocking on ops which implement [AsyncCycleOp]. Binding happens on
+    /// the calling thread, as with [#runCycle(long)]. Execution, verification, retries and timer
+    /// updates then happen from the completion of each op's stage, and the returned stage
+    /// completes with the same result code that [#runCycle(long)] would have returned.
+    ///
+    /// Ops which are not async, including any generated ops which are not async, are run on
+    /// the given sync op executor. An executor which runs tasks inline keeps them on whichever
+    /// thread reaches them, while a virtual-thread-per-task executor lets them run without
+    /// holding up the caller. The returned stage completes exceptionally when binding fails or
+    /// when the error handler rejects an error, which are the same cases in which
+    /// [#runCycle(long)] throws.
+    ///
+    /// The completion of an async op's stage is handed to the given completion executor before
+    /// anything else is done with it, so verification, error handling, retries and generated
+    /// ops run on a thread owned by the caller rather than on the driver's IO thread which
+    /// completed the stage. Verifiers and error handlers may block there without stalling the
+    /// driver.
+    ///
+    /// Callers must not start a new stride on this action until every stage returned for the
+    /// current stride has completed, since per-cycle flow contexts are stride-scoped.
+    public CompletionStage<Integer> runCycleAsync(long cycle, Executor syncOpExecutor, Executor completionExecutor) {
+        OpDispenser<? extends CycleOp<?>> dispenser = null;
+        CycleOp<?> op;
+        OpFlowContext flowContext;
+        int spaceIndex;
+
+        try (Timer.Context ct = bindTimer.time()) {
+            dispenser = opsequence.apply(cycle);
+            op = bindOp(dispenser, cycle, strideContext.beginCycle(cycle));
+            flowContext = strideContext.getCurrentFlowContext();
+            spaceIndex = strideContext.getCurrentSpaceIndex();
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(bindingError(dispenser, cycle, e));
+        }
+
+        CompletableFuture<Integer> done = new CompletableFuture<>();
+        new AsyncCycle(dispenser, cycle, flowContext, spaceIndex, syncOpExecutor, completionExecutor, done).attempt(op, 1, 0);
+        return done;
+    }
+
+    /// Completion-driven equivalent of the try loop in [#runCycle(long)] for a single cycle.
+    /// Each attempt is started either by the caller or by the completion of the previous one,
+    /// so no thread waits on the op while it is in flight.
+    private final class AsyncCycle {
+        private final OpDispenser<? extends CycleOp<?>> dispenser;
+        private final long cycle;
+        private final OpFlowContext flowContext;
+        private final int spaceIndex;
+        private final Executor syncOpExecutor;
+        private final Executor completionExecutor;
+        private final CompletableFuture<Integer> done;
+
+        private AsyncCycle(
+            OpDispenser<? extends CycleOp<?>> dispenser,
+            long cycle,
+            OpFlowContext flowContext,
+            int spaceIndex,
+            Executor syncOpExecutor,
+            Executor completionExecutor,
+            CompletableFuture<Integer> done
+        ) {
+            this.dispenser = dispenser;
+            this.cycle = cycle;
+            this.flowContext = flowContext;
+            this.spaceIndex = spaceIndex;
+            this.syncOpExecutor = syncOpExecutor;
+            this.completionExecutor = completionExecutor;
+            this.done = done;
+        }
+
+        private void attempt(CycleOp<?> op, int tries, int code) {
+            if (op == null) {
+                done.complete(code);
+                return;
+            }
+            try {
+                if (op instanceof AsyncCycleOp<?> asyncOp) {
+                    long startedAt = System.nanoTime();
+                    dispenser.onStart(cycle);
+                    CompletionStage<?> stage;
+                    try {
+                        stage = asyncOp.applyAsync(cycle);
+                    } catch (Exception e) {
+                        stage = CompletableFuture.failedFuture(e);
+                    }
+                    stage.whenCompleteAsync((result, error) -> completed(op, tries, code, startedAt, result, error), completionExecutor);
+                } else {
+                    syncOpExecutor.execute(() -> applySync(op, tries, code));
                 }
-            } else {
-                op = null;
+            } catch (Throwable t) {
+                done.completeExceptionally(t);
             }
         }
 
-        return code;
+        private void applySync(CycleOp<?> op, int tries, int code) {
+            try {
+                long startedAt = System.nanoTime();
+                dispenser.onStart(cycle);
+                Object result = null;
+                Throwable error = null;
+                try {
+                    result = op.apply(cycle);
+                } catch (Exception e) {
+                    error = e;
+                }
+                completed(op, tries, code, startedAt, result, error);
+            } catch (Throwable t) {
+                done.completeExceptionally(t);
+            }
+        }
+
+        private void completed(CycleOp<?> op, int tries, int code, long startedAt, Object result, Throwable error) {
+            try {
+                executeTimer.update(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                if (error instanceof CompletionException ce && ce.getCause() != null) {
+                    error = ce.getCause();
+                }
+                if (error == null) {
+                    try {
+                        verify(dispenser, result, cycle, tries);
+                    } catch (Exception e) {
+                        error = e;
+                    }
+                }
+                if (error instanceof Exception e) {
+                    error = dispenser.modifyExceptionMessage(e, cycle);
+                }
+
+                long nanos = System.nanoTime() - startedAt;
+                resultTimer.update(nanos, TimeUnit.NANOSECONDS);
+                if (error == null) {
+                    resultSuccessTimer.update(nanos, TimeUnit.NANOSECONDS);
+                    dispenser.onSuccess(cycle, nanos);
+                    triesHistogram.update(tries);
+                    attempt(nextOp(op, cycle, flowContext, spaceIndex), 1, code);
+                } else {
+                    ErrorDetail detail = errorHandler.handleError(error, cycle, nanos);
+                    dispenser.onError(cycle, nanos, error);
+                    if (detail.isRetryable() && tries < maxTries) {
+                        attempt(op, tries + 1, detail.resultCode);
+                    } else {
+                        triesHistogram.update(tries);
+                        attempt(nextOp(op, cycle, flowContext, spaceIndex), 1, detail.resultCode);
+                    }
+                }
+            } catch (Throwable t) {
+                done.completeExceptionally(t);
+            }
+        }
+    }
+
+    /// Resolve per-cycle stride state and synthesize the op for this cycle from its dispenser,
+    /// on the flow context which was begun for this cycle.
+    private CycleOp<?> bindOp(OpDispenser<? extends CycleOp<?>> dispenser, long cycle, OpFlowContext flowContext) {
+        strideContext.setSpaceNameResolver(null);
+        strideContext.setSpaceIndexResolver(null);
+        if (dispenser instanceof BaseOpDispenser<?, ?> baseDisp) {
+            strideContext.setSpaceNameResolver(baseDisp.getSpaceNameFunction());
+            strideContext.setSpaceIndexResolver(baseDisp.getSpaceIndexFunction());
+        }
+        var indexResolver = strideContext.getSpaceIndexResolver();
+        if (indexResolver != null) {
+            strideContext.setCurrentSpaceIndex(indexResolver.applyAsInt(cycle));
+        }
+        // Resolve and stash space name once per cycle for diagnostics/inject paths
+        var nameResolver = strideContext.getSpaceNameResolver();
+        if (nameResolver != null) {
+            strideContext.setCurrentSpaceName(nameResolver.apply(cycle));
+        } else {
+            try {
+                strideContext.setCurrentSpaceName(dispenser.getErrorContextForCycle(cycle).getOrDefault("space_name", "0"));
+            } catch (Exception ignored) {
+                strideContext.setCurrentSpaceName("0");
+            }
+        }
+        BindingColumns columns = strideContext.columnsFor(dispenser);
+        CycleOp<?> op = (columns != null) ? dispenser.getOp(cycle, columns) : dispenser.getOp(cycle);
+        if (op instanceof FlowContextAwareOp aware) {
+            aware.setFlowContext(flowContext, strideContext.getCurrentSpaceIndex());
+        }
+        return op;
+    }
+
+    private RuntimeException bindingError(OpDispenser<? extends CycleOp<?>> dispenser, long cycle, Exception e) {
+        RuntimeException bindingError =  new RuntimeException(
+            "while binding request in cycle " + cycle + " for op template named '" + (
+                dispenser != null ? dispenser.getOpName() : "NULL") + "': " + e.getMessage(), e
+        );
+        bindingError = dispenser.modifyExceptionMessage(bindingError, cycle);
+        return bindingError;
+    }
+
+    /// Apply the dispenser's verifier, if any, throwing [ResultVerificationError] when it fails.
+    private void verify(OpDispenser<? extends CycleOp<?>> dispenser, Object result, long cycle, int tries) {
+        try (Timer.Context ignored = verifierTimer.time()) {
+            CycleFunction<Boolean> verifier = dispenser.getVerifier();
+            if (verifier != null) {
+                try {
+                    Boolean isGood = verifier.apply(cycle, result);
+                    if (!isGood) {
+                        throw new ResultVerificationError(
+                            "result verification failed",
+                            maxTries - tries,
+                            verifier.getExpressionDetails()
+                        );
+                    }
+                } catch (Exception e) {
+                    throw new ResultVerificationError(
+                        e,
+                        maxTries - tries,
+                        verifier.getExpressionDetails()
+                    );
+                }
+            }
+        }
+    }
+
+    /// Get the next generated op, if any, wiring it to the flow context of its originating cycle.
+    private CycleOp<?> nextOp(CycleOp<?> op, long cycle, OpFlowContext flowContext, int spaceIndex) {
+        CycleOp<?> next = null;
+        if (op instanceof OpGenerator generator) {
+            logger.trace(() -> "GEN OP for cycle(" + cycle + ")");
+            next = generator.getNextOp();
+            if (next instanceof FlowContextAwareOp aware) {
+                aware.setFlowContext(flowContext, spaceIndex);
+            }
+        }
+        return next;
     }
 
     @Override
     public int runStride(CycleSegment segment) {
         // reset stride-local buffers before starting
         resetStrideBuffers();
+        return runStride(segment, CycleListener.NONE);
+    }
+
+    @Override
+    public int runStride(CycleSegment segment, CycleListener listener) {
+        return strideBindings ? runStrideWithColumns(segment, listener) : StrideAction.super.runStride(segment, listener);
+    }
+
+    /// The scope in which this action's binding state is bound, so that stateful binding
+    /// functions, such as `Save` and `Load`, see the same variables for every cycle of this
+    /// action no matter which carrier or virtual thread runs it. Motors run their whole loop
+    /// within it, binding it once per motor thread. Cycles and strides which are run outside
+    /// of it use the variables of the current thread instead.
+    public ScopedValue.Carrier bindingScope() {
+        return ScopedValue.where(SharedState.ACTION_STATE, bindingState);
+    }
+
+    /// Run a stride with its bindings evaluated up front, as enabled by `stride_bindings=true`.
+    ///
+    /// ```
+    /// cycles ──► dispenser per cycle ──► columns per dispenser ──► fill ──► runCycle per cycle
+    /// ```
+    ///
+    /// Dispensers which provide [OpDispenser#newStrideColumns(int)] read their values from the
+    /// filled columns, and all others bind per cycle as usual. Since each binding function is
+    /// evaluated over the whole stride before any op runs, functions which share state between
+    /// bindings, such as saving and loading binding variables, see a different order of
+    /// calls than they would per cycle. If a fill fails, its error is raised again by the
+    /// ordinary per-cycle path, where the error handler sees it. The fill is timed once per
+    /// stride by `bind_stride`, so that `bind` keeps one sample per cycle.
+    private int runStrideWithColumns(CycleSegment segment, CycleListener listener) {
+        int count = strideContext.collectCycles(segment);
+        long[] cycles = strideContext.strideCycles();
+        long fillStart = System.nanoTime();
+        try {
+            for (int i = 0; i < count; i++) {
+                strideContext.addStrideCycle(opsequence.apply(cycles[i]), cycles[i]);
+            }
+            strideContext.fillStrideColumns();
+        } catch (Exception e) {
+            logger.debug(() -> "evaluating stride bindings failed, binding per cycle instead: " + e);
+            strideContext.clearStrideColumns();
+        } finally {
+            if (strideBindTimer != null) {
+                strideBindTimer.update(System.nanoTime() - fillStart, TimeUnit.NANOSECONDS);
+            }
+        }
         int code = 0;
-        while (!segment.isExhausted()) {
-            long cyclenum = segment.nextCycle();
-            if (cyclenum < 0) {
-                break;
+        try {
+            for (int i = 0; i < count; i++) {
+                listener.beforeCycle();
+                code = runCycle(cycles[i]);
+                listener.afterCycle(cycles[i], code);
             }
-            code = runCycle(cyclenum);
+        } finally {
+            strideContext.clearStrideColumns();
         }
         return code;
     }
@@ -16,9 +16,16 @@
 
 package io.nosqlbench.engine.api.activityimpl.uniform.actions;
 
+import io.nosqlbench.adapters.api.activityimpl.OpDispenser;
 import io.nosqlbench.adapters.api.activityimpl.flow.OpFlowContext;
 import io.nosqlbench.adapters.api.activityimpl.flow.OpFlowState;
 import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.CycleResultSegmentBuffer;
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.CycleSegment;
+import io.nosqlbench.virtdata.core.bindings.BindingColumns;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
 
 /// Per-action stride-scoped state holder (sync path).
 ///
@@ -26,12 +33,15 @@ import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.CycleResult
 /// - Owns per-slot flow contexts (ordinal-array backed)
 /// - Tracks last cycle for the current flow slot and optional per-cycle space index/name (per-cycle only)
 /// - Holds a reusable result buffer sized to the stride
+/// - Optionally holds per-dispenser binding columns, filled once per stride
 /// - Provides a stride-reset entry point via {@link #beginCycle(long)} to clear per-slot state
 ///
 /// Lifecycle:
 /// 1) Constructed once per action with stride length and initial capacities
 /// 2) {@link #beginCycle(long)} invoked per cycle to clear the flow slot and return its context
 /// 3) {@link #resultBuffer()} reused per stride; caller should {@link #resetResultBuffer()} at stride start
+/// 4) When stride bindings are enabled, {@link #collectCycles(CycleSegment)}, {@link #addStrideCycle},
+///    {@link #fillStrideColumns()} at stride start, and {@link #clearStrideColumns()} at stride end
 final class StrideContext {
 
     private final OpFlowState flowState;
@@ -43,6 +53,28 @@ final class StrideContext {
     private java.util.function.LongToIntFunction spaceIndexResolver;
     private final CycleResultSegmentBuffer resultBuffer;
     private final int strideLength;
+    private long[] strideCycles;
+    private final Map<OpDispenser<?>, DispenserColumns> strideColumns = new IdentityHashMap<>();
+    private boolean strideColumnsFilled;
+
+    /// The binding columns of one dispenser, with the cycles of the current stride that it serves.
+    private static final class DispenserColumns {
+        private final BindingColumns columns;
+        private long[] cycles;
+        private int count;
+
+        private DispenserColumns(BindingColumns columns, int capacity) {
+            this.columns = columns;
+            this.cycles = new long[columns != null ? capacity : 0];
+        }
+
+        private void add(long cycle) {
+            if (count == cycles.length) {
+                cycles = Arrays.copyOf(cycles, Math.max(1, count * 2));
+            }
+            cycles[count++] = cycle;
+        }
+    }
 
     StrideContext(long strideLength, int initialOrdinalCapacity, int initialSpaceCapacity) {
         this.flowState = new OpFlowState(strideLength, initialOrdinalCapacity, initialSpaceCapacity);
@@ -112,4 +144,71 @@ final class StrideContext {
     void resetResultBuffer() {
         resultBuffer.reset();
     }
+
+    /// Take every remaining cycle of the segment into a reusable array.
+    /// @return the number of cycles taken, which are then available from {@link #strideCycles()}
+    int collectCycles(CycleSegment segment) {
+        if (strideCycles == null) {
+            strideCycles = new long[strideLength];
+        }
+        int count = 0;
+        while (!segment.isExhausted()) {
+            long cycle = segment.nextCycle();
+            if (cycle < 0) {
+                break;
+            }
+            if (count == strideCycles.length) {
+                strideCycles = Arrays.copyOf(strideCycles, count * 2);
+            }
+            strideCycles[count++] = cycle;
+        }
+        return count;
+    }
+
+    long[] strideCycles() {
+        return strideCycles;
+    }
+
+    /// Note that the dispenser will synthesize an op for this cycle in the current stride.
+    /// Cycles must be added in ascending order.
+    void addStrideCycle(OpDispenser<?> dispenser, long cycle) {
+        DispenserColumns entry = strideColumns.get(dispenser);
+        if (entry == null) {
+            entry = new DispenserColumns(dispenser.newStrideColumns(strideLength), strideLength);
+            strideColumns.put(dispenser, entry);
+        }
+        if (entry.columns != null) {
+            entry.add(cycle);
+        }
+    }
+
+    /// Evaluate the bindings of every dispenser over the cycles added for it in this stride.
+    void fillStrideColumns() {
+        strideColumnsFilled = true;
+        for (DispenserColumns entry : strideColumns.values()) {
+            if (entry.columns != null && entry.count > 0) {
+                entry.columns.fill(entry.cycles, entry.count);
+            }
+        }
+    }
+
+    /// @return the filled columns for this dispenser, or null if there are none for this stride
+    BindingColumns columnsFor(OpDispenser<?> dispenser) {
+        if (!strideColumnsFilled) {
+            return null;
+        }
+        DispenserColumns entry = strideColumns.get(dispenser);
+        return entry != null && entry.count > 0 ? entry.columns : null;
+    }
+
+    /// Release the values of the current stride, keeping the columns for the next one.
+    void clearStrideColumns() {
+        strideColumnsFilled = false;
+        for (DispenserColumns entry : strideColumns.values()) {
+            if (entry.columns != null) {
+                entry.columns.clear();
+            }
+            entry.count = 0;
+        }
+    }
 }
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2022-2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityapi.cyclelog.inputs.cyclelog;
+
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.CycleResult;
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.CycleResultsSegment;
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.CycleSegment;
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results_rle.CycleLogV2Format;
+import io.nosqlbench.engine.api.activityapi.cyclelog.outputs.cyclelog.CycleLogImporterUtility;
+import io.nosqlbench.engine.api.activityapi.cyclelog.outputs.cyclelog.CycleLogOutput;
+import io.nosqlbench.engine.api.activityapi.cyclelog.outputs.cyclelog.CycleLogV2Output;
+import io.nosqlbench.nb.api.labels.NBLabeledElement;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Tag("unit")
+public class CycleLogV2InputTest {
+
+    private static final int CYCLES = 1000;
+
+    @TempDir
+    Path tempDir;
+
+    private static int resultOf(long cycle) {
+        return (int) ((cycle / 7) % 3);
+    }
+
+    private File writeV2(String name, int extentSize) throws Exception {
+        File file = tempDir.resolve(name).toFile();
+        CycleLogV2Output out = new CycleLogV2Output(file, extentSize);
+        for (long cycle = 0; cycle < CYCLES; cycle++) {
+            out.onCycleResult(cycle, resultOf(cycle));
+        }
+        out.close();
+        return file;
+    }
+
+    @Test
+    public void testRoundTripsSpansThroughCompressedBlocks() throws Exception {
+        File file = writeV2("roundtrip.cyclelog", 4);
+        assertThat(CycleLogV2Format.isV2(file.toPath())).isTrue();
+
+        List<Long> cycles = new ArrayList<>();
+        try (CycleLogV2Input input = new CycleLogV2Input(file.toPath(), NBLabeledElement.EMPTY)) {
+            assertThat(input.getBlockCount()).isEqualTo((CYCLES / 7 + 1 + 3) / 4);
+            for (CycleResultsSegment segment : input) {
+                for (CycleResult result : segment) {
+                    assertThat(result.getResult()).isEqualTo(resultOf(result.getCycle()));
+                    cycles.add(result.getCycle());
+                }
+            }
+        }
+        assertThat(cycles).hasSize(CYCLES);
+        assertThat(cycles).isSorted();
+    }
+
+    @Test
+    public void testConcurrentReadersTakeEveryCycleOnce() throws Exception {
+        File file = writeV2("concurrent.cyclelog", 8);
+        ConcurrentLinkedQueue<Long> taken = new ConcurrentLinkedQueue<>();
+        try (CycleLogV2Input input = new CycleLogV2Input(file.toPath(), NBLabeledElement.EMPTY)) {
+            List<Thread> readers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                readers.add(Thread.ofPlatform().start(() -> {
+                    CycleSegment segment;
+                    while ((segment = input.getInputSegment(10)) != null) {
+                        while (!segment.isExhausted()) {
+                            taken.add(segment.nextCycle());
+                        }
+                    }
+                }));
+            }
+            for (Thread reader : readers) {
+                reader.join();
+            }
+        }
+        assertThat(taken).hasSize(CYCLES);
+        assertThat(taken).doesNotHaveDuplicates();
+    }
+
+    @Test
+    public void testFilterSkipsUnwantedResults() throws Exception {
+        File file = writeV2("filtered.cyclelog", 2);
+        List<Long> taken = new ArrayList<>();
+        try (CycleLogV2Input input = new CycleLogV2Input(file.toPath(), NBLabeledElement.EMPTY)) {
+            input.setFilter(r -> r.getResult() == 2);
+            CycleSegment segment;
+            while ((segment = input.getInputSegment(5)) != null) {
+                while (!segment.isExhausted()) {
+                    taken.add(segment.nextCycle());
+                }
+            }
+        }
+        assertThat(taken).isNotEmpty();
+        assertThat(taken).allMatch(cycle -> resultOf(cycle) == 2);
+        assertThat(taken).hasSize((int) LongStream.range(0, CYCLES).filter(c -> resultOf(c) == 2).count());
+    }
+
+    @Test
+    public void testFilterKeepsBlocksWithNegativeResults() throws Exception {
+        File file = tempDir.resolve("negative.cyclelog").toFile();
+        CycleLogV2Output out = new CycleLogV2Output(file, 1);
+        for (long cycle = 0; cycle < 10; cycle++) {
+            out.onCycleResult(cycle, 1);
+        }
+        for (long cycle = 10; cycle < 15; cycle++) {
+            out.onCycleResult(cycle, -3);
+        }
+        out.close();
+
+        List<Long> taken = new ArrayList<>();
+        try (CycleLogV2Input input = new CycleLogV2Input(file.toPath(), NBLabeledElement.EMPTY)) {
+            input.setFilter(r -> r.getResult() == -3);
+            CycleSegment segment;
+            while ((segment = input.getInputSegment(5)) != null) {
+                while (!segment.isExhausted()) {
+                    taken.add(segment.nextCycle());
+                }
+            }
+        }
+        assertThat(taken).containsExactly(10L, 11L, 12L, 13L, 14L);
+    }
+
+    @Test
+    public void testBlockFilterOnlySkipsBlocksWithoutPassingResults() {
+        CycleLogV2Format.Block positive = new CycleLogV2Format.Block(0, 10, 0, 0, 1, 1L << 1, 0L);
+        CycleLogV2Format.Block negative = new CycleLogV2Format.Block(10, 15, 0, 0, 1, -1L, -1L);
+        assertThat(positive.mayPass(r -> r.getResult() == -3)).isFalse();
+        assertThat(positive.mayPass(r -> r.getResult() == 1)).isTrue();
+        assertThat(negative.mayPass(r -> r.getResult() == -3)).isTrue();
+    }
+
+    @Test
+    public void testRejectsResultsOutsideByteRange() throws Exception {
+        CycleLogV2Output out = new CycleLogV2Output(tempDir.resolve("range.cyclelog").toFile(), 4);
+        assertThatThrownBy(() -> out.onCycleResult(0, 128)).isInstanceOf(RuntimeException.class);
+        assertThatThrownBy(() -> out.onCycleResult(0, -129)).isInstanceOf(RuntimeException.class);
+        out.close();
+    }
+
+    @Test
+    public void testImporterConvertsBetweenVersions() throws Exception {
+        File v1 = tempDir.resolve("original.cyclelog").toFile();
+        CycleLogOutput out = new CycleLogOutput(v1, 16);
+        for (long cycle = 0; cycle < CYCLES; cycle++) {
+            out.onCycleResult(cycle, resultOf(cycle));
+        }
+        out.close();
+        File v2 = tempDir.resolve("converted.cyclelog").toFile();
+        File back = tempDir.resolve("back.cyclelog").toFile();
+
+        CycleLogImporterUtility.main(new String[]{v1.getPath(), v2.getPath(), "v2"});
+        assertThat(CycleLogV2Format.isV2(v2.toPath())).isTrue();
+        CycleLogImporterUtility.main(new String[]{v2.getPath(), back.getPath(), "v1"});
+        assertThat(CycleLogV2Format.isV2(back.toPath())).isFalse();
+        assertThat(back).hasSameBinaryContentAs(v1);
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2022-2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityapi.cyclelog.outputs;
+
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.CycleResultSegmentBuffer;
+import io.nosqlbench.engine.api.activityapi.cyclelog.inputs.cyclelog.CanFilterResultValue;
+import io.nosqlbench.engine.api.activityapi.output.Output;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Tag("unit")
+public class SortedMergeResultBufferTest {
+
+    private static class Recorder implements Output {
+        private final List<Long> cycles = new ArrayList<>();
+        private final List<Integer> results = new ArrayList<>();
+        private boolean closed;
+
+        @Override
+        public boolean onCycleResult(long completedCycle, int result) {
+            cycles.add(completedCycle);
+            results.add(result);
+            return true;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    @Test
+    public void testMergesStridesOfConcurrentMotorsInOrder() throws Exception {
+        Recorder recorder = new Recorder();
+        int motors = 4;
+        int stride = 10;
+        long cycles = 20_000L;
+        // room for every stride in each lane, so no lane fills while another is still empty
+        SortedMergeResultBuffer buffer = new SortedMergeResultBuffer(recorder, (int) (cycles / stride));
+        AtomicLong nextCycle = new AtomicLong();
+        List<Thread> threads = new ArrayList<>();
+        for (int slot = 0; slot < motors; slot++) {
+            Output lane = buffer.lane(slot);
+            threads.add(Thread.ofPlatform().start(() -> {
+                CycleResultSegmentBuffer segment = new CycleResultSegmentBuffer(stride);
+                long start;
+                while ((start = nextCycle.getAndAdd(stride)) < cycles) {
+                    segment.reset();
+                    for (long cycle = start + stride - 1; cycle >= start; cycle--) {
+                        segment.append(cycle, (int) (cycle % 3));
+                    }
+                    lane.onCycleResultSegment(segment.toReader());
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        buffer.close();
+
+        assertThat(recorder.closed).isTrue();
+        assertThat(recorder.cycles).hasSize((int) cycles);
+        for (int i = 0; i < cycles; i++) {
+            assertThat(recorder.cycles.get(i)).isEqualTo(i);
+            assertThat(recorder.results.get(i)).isEqualTo(i % 3);
+        }
+    }
+
+    @Test
+    public void testHoldsRunsUntilEveryLaneHasOne() throws Exception {
+        Recorder recorder = new Recorder();
+        SortedMergeResultBuffer buffer = new SortedMergeResultBuffer(recorder, 8);
+        Output first = buffer.lane(0);
+        Output second = buffer.lane(1);
+        first.onCycleResult(3L, 0);
+        first.onCycleResult(4L, 0);
+        Thread.sleep(50);
+        assertThat(recorder.cycles).isEmpty();
+
+        second.onCycleResult(1L, 0);
+        buffer.close();
+        assertThat(recorder.cycles).containsExactly(1L, 3L, 4L);
+    }
+
+    @Test
+    public void testFullLaneDoesNotWaitForAnIdleLane() throws Exception {
+        Recorder recorder = new Recorder();
+        SortedMergeResultBuffer buffer = new SortedMergeResultBuffer(recorder, 2);
+        Output busy = buffer.lane(0);
+        buffer.lane(1);
+        for (long cycle = 0; cycle < 100; cycle++) {
+            busy.onCycleResult(cycle, 0);
+        }
+        buffer.close();
+        assertThat(recorder.cycles).hasSize(100);
+        assertThat(recorder.cycles).isSorted();
+    }
+
+    @Test
+    public void testFiltersResultsBeforeBuffering() throws Exception {
+        Recorder recorder = new Recorder();
+        SortedMergeResultBuffer buffer = new SortedMergeResultBuffer(recorder, 2);
+        Output lane = buffer.lane(7);
+        ((CanFilterResultValue) lane).setFilter(r -> r.getResult() != 1);
+        CycleResultSegmentBuffer segment = new CycleResultSegmentBuffer(4);
+        segment.append(12L, 1);
+        segment.append(10L, 0);
+        segment.append(11L, 2);
+        segment.append(13L, 1);
+        lane.onCycleResultSegment(segment.toReader());
+        buffer.close();
+
+        assertThat(recorder.cycles).containsExactly(10L, 11L);
+        assertThat(recorder.results).containsExactly(0, 2);
+    }
+
+    @Test
+    public void testSameSlotSharesOneLane() throws Exception {
+        Recorder recorder = new Recorder();
+        SortedMergeResultBuffer buffer = new SortedMergeResultBuffer(recorder, 2);
+        assertThat(buffer.lane(3)).isSameAs(buffer.lane(3));
+        buffer.close();
+    }
+
+    @Test
+    public void testLaneRejectsASecondConcurrentWriter() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> passed = new CopyOnWriteArrayList<>();
+        Output blocking = new Output() {
+            @Override
+            public boolean onCycleResult(long completedCycle, int result) {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                passed.add(completedCycle);
+                return true;
+            }
+        };
+        SortedMergeResultBuffer buffer = new SortedMergeResultBuffer(blocking, 1);
+        Output lane = buffer.lane(0);
+        Thread owner = Thread.ofPlatform().start(() -> {
+            for (long cycle = 0; cycle < 3; cycle++) {
+                lane.onCycleResult(cycle, 0);
+            }
+        });
+        entered.await();
+        Thread.sleep(50);
+        while (owner.getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(1);
+        }
+
+        assertThatThrownBy(() -> lane.onCycleResult(3L, 0))
+            .as("the owner is still waiting for room in the lane")
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("more than one thread");
+
+        release.countDown();
+        owner.join();
+        buffer.close();
+        assertThat(passed).containsExactly(0L, 1L, 2L);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2024 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityapi.ratelimits;
+
+import io.nosqlbench.engine.api.activityapi.simrate.GcraRate;
+import io.nosqlbench.engine.api.activityapi.simrate.RateLimiter;
+import io.nosqlbench.engine.api.activityapi.simrate.RateLimiters;
+import io.nosqlbench.engine.api.activityapi.simrate.SimRateSpec;
+import io.nosqlbench.nb.api.components.core.NBComponent;
+import io.nosqlbench.nb.api.config.standard.TestComponent;
+import io.nosqlbench.nb.api.labels.NBLabels;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+public class GcraRateTest {
+
+    private final NBComponent parent = new TestComponent("rltest", "gcra");
+
+    @Test
+    public void testAlgorithmSelectsImplementation() {
+        RateLimiter rl = RateLimiters.create(parent, new SimRateSpec("1000,gcra"), NBLabels.forKV("test", "select"));
+        assertThat(rl).isInstanceOf(GcraRate.class);
+    }
+
+    @Test
+    public void testRateIsHeldAcrossThreads() throws InterruptedException {
+        double rate = 20_000.0d;
+        GcraRate rl = new GcraRate(parent, new SimRateSpec(rate, 1.1d), NBLabels.forKV("test", "rate"));
+        LongAdder ops = new LongAdder();
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(Thread.ofVirtual().start(() -> {
+                while (running.get()) {
+                    rl.block();
+                    ops.increment();
+                }
+            }));
+        }
+        long start = System.nanoTime();
+        Thread.sleep(500);
+        running.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000d;
+        double observed = ops.sum() / seconds;
+        assertThat(observed).isBetween(rate * 0.8d, rate * 1.2d);
+    }
+
+    @Test
+    public void testWaitTimeAccruesWhenCallersAreSlow() throws InterruptedException {
+        GcraRate rl = new GcraRate(parent, new SimRateSpec(1000.0d, 1.1d), NBLabels.forKV("test", "wait"));
+        rl.block();
+        Thread.sleep(100);
+        assertThat(rl.getWaitTimeDuration().toMillis()).isGreaterThanOrEqualTo(50L);
+    }
+
+    @Test
+    public void testWaitTimeGaugeIsCumulativeAndLagIsSeparate() throws InterruptedException {
+        GcraRate rl = new GcraRate(parent, new SimRateSpec(1000.0d, 1.1d), NBLabels.forKV("test", "gauges"));
+        rl.block();
+        Thread.sleep(100);
+        long delay = rl.block();
+        assertThat(delay).isGreaterThanOrEqualTo(50_000_000L);
+        rl.block();
+
+        double waittime = rl.find().gauge("name=strides_waittime").getValue();
+        assertThat(waittime).isGreaterThanOrEqualTo((double) delay);
+        assertThat(rl.find().gauge("name=strides_lag").getValue()).isGreaterThanOrEqualTo(0.0d);
+
+        rl.block();
+        assertThat(rl.find().gauge("name=strides_waittime").getValue()).isGreaterThanOrEqualTo(waittime);
+    }
+
+    @Test
+    public void testBurstRatioLimitsCatchUp() throws InterruptedException {
+        GcraRate rl = new GcraRate(parent, new SimRateSpec(10_000.0d, 1.5d), NBLabels.forKV("test", "burst"));
+        Thread.sleep(200);
+        long start = System.nanoTime();
+        for (int i = 0; i < 1500; i++) {
+            rl.block();
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000d;
+        // 1500 ops at no more than 15000 ops/s takes at least 0.1s, even with 2000 ops of backlog
+        assertThat(seconds).isGreaterThanOrEqualTo(0.09d);
+    }
+}
@@ -77,4 +77,14 @@ public class SimRateSpecTest {
                 ));
 
     }
+
+    @Test
+    public void testAlgorithmSelection() {
+        assertThat(new SimRateSpec("12345").getAlgorithm()).isEqualTo(SimRateSpec.Algorithm.simrate);
+        assertThat(new SimRateSpec("12345,1.2,gcra"))
+                .isEqualTo(new SimRateSpec(
+                        12345.0d, 1.2d, SimRateSpec.Verb.start, SimRateSpec.Scope.activity, SimRateSpec.Algorithm.gcra
+                ));
+        assertThat(new SimRateSpec("12345,gcra,thread").getScope()).isEqualTo(SimRateSpec.Scope.thread);
+    }
 }
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2024 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityimpl.input;
+
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.CycleSegment;
+import io.nosqlbench.engine.api.activityapi.input.Input;
+import io.nosqlbench.nb.api.config.standard.TestComponent;
+import io.nosqlbench.nb.api.engine.activityimpl.ActivityDef;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+public class ChunkedInputTest {
+
+    @Test
+    public void testThatNoCyclesAndNoRecyclesMeansZero() {
+        ChunkedInput input = new ChunkedInput(new TestComponent("testing", "chunkedinput"), ActivityDef.parseActivityDef("alias=foo;cycles=0;recycles=0"), 4);
+        assertThat(input.getInputSegment(1)).isNull();
+    }
+
+    @Test
+    public void testEmptyIntervalShouldNotProvideValues() {
+        ChunkedInput input = new ChunkedInput(new TestComponent("testing", "chunkedinput"), ActivityDef.parseActivityDef("alias=foo;cycles=23..23"), 4);
+        assertThat(input.getInputSegment(1)).isNull();
+    }
+
+    @Test
+    public void testThatRadixStackingIsAccurate() {
+        int intendedCycles = 40;
+        int intendedRecycles = 4;
+        int stride = 10;
+
+        ChunkedInput input = new ChunkedInput(new TestComponent("testing", "chunkedinput"), ActivityDef.parseActivityDef("alias=foo;cycles=" + intendedCycles + ";recycles=" + intendedRecycles), 3);
+        CycleSegment segment = null;
+        for (int nextRecycle = 0; nextRecycle < intendedRecycles; nextRecycle++) {
+            for (int nextCycle = 0; nextCycle < intendedCycles; nextCycle += stride) {
+                segment = input.getInputSegment(stride);
+                assertThat(segment.nextCycle()).isEqualTo(nextCycle);
+                assertThat(segment.nextRecycle()).isEqualTo(nextRecycle);
+            }
+        }
+        assertThat(input.getInputSegment(stride)).isNull();
+    }
+
+    @Test
+    public void testThatCycleAndRecycleOffsetsWork() {
+        ChunkedInput input = new ChunkedInput(new TestComponent("testing", "chunkedinput"), ActivityDef.parseActivityDef("alias=foo;cycles=310..330;recycles=37..39"), 8);
+        assertThat(input.getInputSegment(10).nextCycle()).isEqualTo(310L);
+        CycleSegment segment = input.getInputSegment(10);
+        assertThat(segment.nextCycle()).isEqualTo(320L);
+        assertThat(segment.nextRecycle()).isEqualTo(37L);
+        segment = input.getInputSegment(10);
+        assertThat(segment.nextCycle()).isEqualTo(310L);
+        assertThat(segment.nextRecycle()).isEqualTo(38L);
+        assertThat(input.getInputSegment(10).nextCycle()).isEqualTo(320L);
+        assertThat(input.getInputSegment(10)).isNull();
+    }
+
+    @Test
+    public void testThatPartialStridesAreSkippedLikeAtomicInput() {
+        String def = "alias=foo;cycles=3..25;recycles=3";
+        AtomicInput atomic = new AtomicInput(new TestComponent("testing", "atomicinput"), ActivityDef.parseActivityDef(def));
+        ChunkedInput chunked = new ChunkedInput(new TestComponent("testing", "chunkedinput"), ActivityDef.parseActivityDef(def), 2);
+        assertThat(drain(chunked, 4)).containsExactlyElementsOf(drain(atomic, 4));
+    }
+
+    @Test
+    public void testThatSegmentsAreReusedPerThread() {
+        ChunkedInput input = new ChunkedInput(new TestComponent("testing", "chunkedinput"), ActivityDef.parseActivityDef("alias=foo;cycles=100"), 4);
+        CycleSegment first = input.getInputSegment(5);
+        CycleSegment second = input.getInputSegment(5);
+        assertThat(second).isSameAs(first);
+        assertThat(second.nextCycle()).isEqualTo(5L);
+    }
+
+    @Test
+    public void testThatIdleThreadsStealTheTail() throws Exception {
+        ChunkedInput input = new ChunkedInput(new TestComponent("testing", "chunkedinput"), ActivityDef.parseActivityDef("alias=foo;cycles=1000"), 1000);
+        CycleSegment first = input.getInputSegment(1);
+        assertThat(first.nextCycle()).isEqualTo(0L);
+
+        try (ExecutorService thief = Executors.newSingleThreadExecutor()) {
+            List<String> stolen = thief.submit(() -> drain(input, 1)).get();
+            assertThat(stolen).hasSize(999);
+        }
+        assertThat(input.getInputSegment(1)).isNull();
+    }
+
+    @Test
+    public void testThatConcurrentMotorsCoverEveryCycleExactlyOnce() throws Exception {
+        String def = "alias=foo;cycles=7..10007;recycles=2..5";
+        int stride = 7;
+        AtomicInput atomic = new AtomicInput(new TestComponent("testing", "atomicinput"), ActivityDef.parseActivityDef(def));
+        List<String> expected = drain(atomic, stride);
+
+        ChunkedInput chunked = new ChunkedInput(new TestComponent("testing", "chunkedinput"), ActivityDef.parseActivityDef(def), 16);
+        ConcurrentLinkedQueue<String> seen = new ConcurrentLinkedQueue<>();
+        int threads = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    seen.addAll(drain(chunked, stride));
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        assertThat(seen).containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    private static List<String> drain(Input input, int stride) {
+        List<String> cycles = new ArrayList<>();
+        CycleSegment segment;
+        while ((segment = input.getInputSegment(stride)) != null) {
+            long recycle = segment.nextRecycle();
+            while (!segment.isExhausted()) {
+                cycles.add(recycle + ":" + segment.nextCycle());
+            }
+        }
+        return cycles;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2024 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityimpl.motor;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+public class OpenLoopScheduleTest {
+
+    @Test
+    public void testIntendedStartIsAFunctionOfCycle() {
+        OpenLoopSchedule schedule = new OpenLoopSchedule(1_000L, 100L, 250.0d);
+        assertThat(schedule.intendedStart(100L)).isEqualTo(1_000L);
+        assertThat(schedule.intendedStart(104L)).isEqualTo(2_000L);
+        assertThat(schedule.cycleAt(2_000L)).isEqualTo(104L);
+    }
+
+    @Test
+    public void testReanchoringIsContinuous() {
+        OpenLoopSchedule slow = new OpenLoopSchedule(0L, 0L, 1_000.0d);
+        long now = 50_000L;
+        OpenLoopSchedule fast = new OpenLoopSchedule(now, slow.cycleAt(now), 100.0d);
+        assertThat(fast.intendedStart(50L)).isEqualTo(slow.intendedStart(50L));
+        assertThat(fast.intendedStart(60L)).isEqualTo(now + 1_000L);
+    }
+
+    @Test
+    public void testAwaitDoesNotReturnEarly() {
+        long start = System.nanoTime();
+        OpenLoopSchedule schedule = new OpenLoopSchedule(start, 0L, 1_000_000.0d);
+        long intended = schedule.awaitIntendedStart(20L);
+        assertThat(intended).isEqualTo(start + 20_000_000L);
+        assertThat(System.nanoTime()).isGreaterThanOrEqualTo(intended);
+    }
+
+    @Test
+    public void testAwaitReturnsImmediatelyWhenLate() {
+        OpenLoopSchedule schedule = new OpenLoopSchedule(System.nanoTime() - 1_000_000_000L, 0L, 1_000.0d);
+        long before = System.nanoTime();
+        schedule.awaitIntendedStart(1L);
+        assertThat(System.nanoTime() - before).isLessThan(500_000_000L);
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2024 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityimpl.motor;
+
+import io.nosqlbench.adapters.api.activityimpl.uniform.flowtypes.AsyncCycleOp;
+import io.nosqlbench.engine.api.activityapi.core.RunState;
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.CycleArray;
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.CycleResult;
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.CycleResultsSegment;
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.CycleSegment;
+import io.nosqlbench.engine.api.activityapi.cyclelog.inputs.cyclelog.CycleLogV2Input;
+import io.nosqlbench.engine.api.activityapi.cyclelog.outputs.SortedMergeResultBuffer;
+import io.nosqlbench.engine.api.activityapi.cyclelog.outputs.cyclelog.CycleLogV2Output;
+import io.nosqlbench.engine.api.activityapi.input.Input;
+import io.nosqlbench.engine.api.activityapi.output.Output;
+import io.nosqlbench.engine.api.activityimpl.uniform.actions.ScriptedActivity;
+import io.nosqlbench.engine.api.activityimpl.uniform.actions.ScriptedDispenser;
+import io.nosqlbench.engine.api.activityimpl.uniform.actions.StandardAction;
+import io.nosqlbench.nb.api.engine.activityimpl.ActivityDef;
+import io.nosqlbench.nb.api.labels.NBLabeledElement;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+public class StrideMotorAsyncTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testStrideIsOutputInOrderOnceAllItsCyclesComplete() throws Exception {
+        CompletableFuture<Long> held = new CompletableFuture<>();
+        Set<Long> dispatched = ConcurrentHashMap.newKeySet();
+        ScriptedDispenser dispenser = new ScriptedDispenser(
+            cycle -> (AsyncCycleOp<Long>) value -> {
+                dispatched.add(value);
+                return (value == 0L) ? held : CompletableFuture.completedFuture(value);
+            },
+            null);
+        ScriptedActivity activity = new ScriptedActivity(
+            ActivityDef.parseActivityDef("alias=stride_window;stride=3;async=4"), dispenser);
+        SegmentListInput input = new SegmentListInput(new long[]{0L, 1L, 2L}, new long[]{3L, 4L, 5L});
+        RecordingOutput output = new RecordingOutput();
+        StrideMotor<?> motor = new StrideMotor<>(activity, 0L, input, new StandardAction(activity, 0), output);
+
+        Thread runner = Thread.ofVirtual().name("stride-motor").start(motor);
+        awaitCondition(() -> dispatched.size() == 3);
+        Thread.sleep(50);
+
+        assertThat(held).as("cycle 0 of the first stride is still pending").isNotDone();
+        assertThat(dispatched).as("the next stride waits for the pending cycle")
+            .containsExactlyInAnyOrder(0L, 1L, 2L);
+        assertThat(output.cycles).as("no results of an incomplete stride reach the output").isEmpty();
+
+        held.complete(0L);
+        runner.join(TimeUnit.SECONDS.toMillis(10));
+
+        assertThat(runner.isAlive()).isFalse();
+        assertThat(motor.getState().get()).isEqualTo(RunState.Finished);
+        assertThat(output.cycles).containsExactly(0L, 1L, 2L, 3L, 4L, 5L);
+        assertThat(output.threads).as("results reach the output from the motor thread only")
+            .containsOnly("stride-motor");
+    }
+
+    @Test
+    public void testAsyncMotorsWriteEveryCycleToCyclelogInOrder() throws Exception {
+        int stride = 10;
+        int strides = 40;
+        ScriptedDispenser dispenser = new ScriptedDispenser(
+            cycle -> (AsyncCycleOp<Long>) value -> CompletableFuture.supplyAsync(
+                () -> value, CompletableFuture.delayedExecutor((value * 7919L) % 3L, TimeUnit.MILLISECONDS)),
+            null);
+        ScriptedActivity activity = new ScriptedActivity(
+            ActivityDef.parseActivityDef("alias=async_cyclelog;stride=" + stride + ";async=4"), dispenser);
+        long[][] segments = new long[strides][];
+        for (int i = 0; i < strides; i++) {
+            segments[i] = LongStream.range((long) i * stride, (long) (i + 1) * stride).toArray();
+        }
+        SegmentListInput input = new SegmentListInput(segments);
+        Path file = tempDir.resolve("async.cyclelog");
+        // room for every stride in each lane, so that the order does not depend on timing
+        SortedMergeResultBuffer merge = new SortedMergeResultBuffer(new CycleLogV2Output(file.toFile(), 4), strides);
+
+        List<Thread> runners = new ArrayList<>();
+        for (int slot = 0; slot < 2; slot++) {
+            StrideMotor<?> motor = new StrideMotor<>(
+                activity, slot, input, new StandardAction(activity, slot), merge.lane(slot));
+            runners.add(Thread.ofVirtual().name("stride-motor-" + slot).start(motor));
+        }
+        for (Thread runner : runners) {
+            runner.join(TimeUnit.SECONDS.toMillis(10));
+            assertThat(runner.isAlive()).isFalse();
+        }
+        merge.close();
+
+        List<Long> cycles = new ArrayList<>();
+        try (CycleLogV2Input log = new CycleLogV2Input(file, NBLabeledElement.EMPTY)) {
+            for (CycleResultsSegment segment : log) {
+                for (CycleResult result : segment) {
+                    assertThat(result.getResult()).isEqualTo(0);
+                    cycles.add(result.getCycle());
+                }
+            }
+        }
+        assertThat(cycles).containsExactlyElementsOf(
+            LongStream.range(0, (long) stride * strides).boxed().toList());
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition was not met in time").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    /// Returns the given segments in order, then null to mark the end of input.
+    private static final class SegmentListInput implements Input {
+        private final Queue<long[]> segments = new ConcurrentLinkedQueue<>();
+
+        private SegmentListInput(long[]... segments) {
+            this.segments.addAll(List.of(segments));
+        }
+
+        @Override
+        public CycleSegment getInputSegment(int segmentLength) {
+            long[] cycles = segments.poll();
+            return (cycles != null) ? new CycleArray.ArraySegment(cycles, 0L) : null;
+        }
+    }
+
+    /// Records results in the order they arrive, and the threads which delivered them.
+    private static final class RecordingOutput implements Output {
+        private final Queue<Long> cycles = new ConcurrentLinkedQueue<>();
+        private final Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public boolean onCycleResult(long completedCycle, int result) {
+            threads.add(Thread.currentThread().getName());
+            cycles.add(completedCycle);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2024 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityimpl.uniform.actions;
+
+import io.nosqlbench.adapters.api.activityimpl.OpDispenser;
+import io.nosqlbench.adapters.api.activityimpl.uniform.flowtypes.CycleOp;
+import io.nosqlbench.engine.api.activityapi.core.Activity;
+import io.nosqlbench.engine.api.activityapi.planning.OpSequence;
+import io.nosqlbench.nb.api.config.standard.TestComponent;
+import io.nosqlbench.nb.api.engine.activityimpl.ActivityDef;
+
+import java.util.List;
+import java.util.function.Function;
+
+/// An activity without a driver adapter, whose op sequence selects the same dispenser for
+/// every cycle, so that [StandardAction] and the motors can be run against scripted ops.
+public class ScriptedActivity extends Activity {
+
+    private final OpSequence<OpDispenser<? extends CycleOp<?>>> sequence;
+
+    public ScriptedActivity(ActivityDef activityDef, OpDispenser<? extends CycleOp<?>> dispenser) {
+        super(new TestComponent("test", activityDef.getAlias()), activityDef);
+        this.sequence = new SingleOpSequence<>(dispenser);
+    }
+
+    @Override
+    public OpSequence<OpDispenser<? extends CycleOp<?>>> getOpSequence() {
+        return sequence;
+    }
+
+    private record SingleOpSequence<T>(T op) implements OpSequence<T> {
+        @Override
+        public T apply(long selector) {
+            return op;
+        }
+
+        @Override
+        public List<T> getOps() {
+            return List.of(op);
+        }
+
+        @Override
+        public int[] getSequence() {
+            return new int[]{0};
+        }
+
+        @Override
+        public <U> OpSequence<U> transform(Function<T, U> func) {
+            return new SingleOpSequence<>(func.apply(op));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2024 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityimpl.uniform.actions;
+
+import io.nosqlbench.adapters.api.activityimpl.OpDispenser;
+import io.nosqlbench.adapters.api.activityimpl.uniform.flowtypes.CycleOp;
+import io.nosqlbench.adapters.api.evalctx.CycleFunction;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+
+/// A dispenser which makes its ops with the given function and counts the lifecycle calls
+/// made to it, for tests of [StandardAction] and the motors.
+public class ScriptedDispenser implements OpDispenser<CycleOp<?>> {
+
+    private final LongFunction<CycleOp<?>> ops;
+    private final CycleFunction<Boolean> verifier;
+    private final AtomicInteger starts = new AtomicInteger();
+    private final AtomicInteger successes = new AtomicInteger();
+    private final AtomicInteger errors = new AtomicInteger();
+
+    /// @param verifier the verifier for every op, or null for none
+    public ScriptedDispenser(LongFunction<CycleOp<?>> ops, CycleFunction<Boolean> verifier) {
+        this.ops = ops;
+        this.verifier = verifier;
+    }
+
+    @Override
+    public CycleOp<?> getOp(long cycle) {
+        return ops.apply(cycle);
+    }
+
+    @Override
+    public CycleOp<?> apply(long cycle) {
+        return getOp(cycle);
+    }
+
+    @Override
+    public CycleFunction<Boolean> getVerifier() {
+        return verifier;
+    }
+
+    @Override
+    public String getOpName() {
+        return "scripted";
+    }
+
+    @Override
+    public Map<String, String> getErrorContextForCycle(long cycleValue) {
+        return Map.of("space_name", "0");
+    }
+
+    @Override
+    public RuntimeException modifyExceptionMessage(Exception error, long cycleValue) {
+        return (error instanceof RuntimeException runtime) ? runtime : new RuntimeException(error);
+    }
+
+    @Override
+    public void onStart(long cycleValue) {
+        starts.incrementAndGet();
+    }
+
+    @Override
+    public void onSuccess(long cycleValue, long nanoTime) {
+        successes.incrementAndGet();
+    }
+
+    @Override
+    public void onError(long cycleValue, long resultNanos, Throwable t) {
+        errors.incrementAndGet();
+    }
+
+    public int starts() {
+        return starts.get();
+    }
+
+    public int successes() {
+        return successes.get();
+    }
+
+    public int errors() {
+        return errors.get();
+    }
+}
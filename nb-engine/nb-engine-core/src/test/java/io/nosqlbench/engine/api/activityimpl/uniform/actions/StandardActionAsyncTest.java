@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2024 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityimpl.uniform.actions;
+
+import io.nosqlbench.adapters.api.activityimpl.uniform.flowtypes.AsyncCycleOp;
+import io.nosqlbench.adapters.api.activityimpl.uniform.flowtypes.CycleOp;
+import io.nosqlbench.adapters.api.activityimpl.uniform.flowtypes.OpGenerator;
+import io.nosqlbench.adapters.api.evalctx.CycleFunction;
+import io.nosqlbench.nb.api.engine.activityimpl.ActivityDef;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Tag("unit")
+public class StandardActionAsyncTest {
+
+    private static final Executor INLINE = Runnable::run;
+
+    private ExecutorService driverIo;
+    private ExecutorService completions;
+
+    @BeforeEach
+    public void setUp() {
+        driverIo = Executors.newFixedThreadPool(2, r -> new Thread(r, "driver-io"));
+        completions = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        driverIo.shutdownNow();
+        completions.close();
+    }
+
+    @Test
+    public void testRetryAfterFailedAttempt() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        ScriptedDispenser dispenser = new ScriptedDispenser(
+            cycle -> (AsyncCycleOp<String>) value -> (attempts.incrementAndGet() % 2 == 1)
+                ? CompletableFuture.failedFuture(new TransientTestError("attempt " + attempts.get()))
+                : CompletableFuture.supplyAsync(() -> "ok", driverIo),
+            null);
+        StandardAction action = new StandardAction(
+            new ScriptedActivity(activityDef("async_retry", "TransientTestError:retry"), dispenser), 0);
+
+        int code = action.runCycleAsync(7L, INLINE, completions).toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+        assertThat(attempts.get()).isEqualTo(2);
+        assertThat(dispenser.starts()).isEqualTo(2);
+        assertThat(dispenser.errors()).isEqualTo(1);
+        assertThat(dispenser.successes()).isEqualTo(1);
+        assertThat(action.runCycle(7L)).as("the sync path gives the same code for the same attempts").isEqualTo(code);
+    }
+
+    @Test
+    public void testErrorHandlerResultCode() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        ScriptedDispenser dispenser = new ScriptedDispenser(
+            cycle -> (AsyncCycleOp<String>) value -> {
+                attempts.incrementAndGet();
+                return CompletableFuture.supplyAsync(() -> {
+                    throw new FatalTestError("always");
+                }, driverIo);
+            },
+            null);
+        StandardAction action = new StandardAction(
+            new ScriptedActivity(activityDef("async_code", "FatalTestError:42"), dispenser), 0);
+
+        int code = action.runCycleAsync(3L, INLINE, completions).toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+        assertThat(code).isEqualTo(42);
+        assertThat(attempts.get()).as("errors which are not retryable are not retried").isEqualTo(1);
+        assertThat(dispenser.errors()).isEqualTo(1);
+        assertThat(dispenser.successes()).isZero();
+    }
+
+    @Test
+    public void testErrorHandlerStopFailsTheCycle() {
+        ScriptedDispenser dispenser = new ScriptedDispenser(
+            cycle -> (AsyncCycleOp<String>) value -> CompletableFuture.failedFuture(new FatalTestError("stop")),
+            null);
+        StandardAction action = new StandardAction(
+            new ScriptedActivity(activityDef("async_stop", "FatalTestError:stop"), dispenser), 0);
+
+        CompletionStage<Integer> stage = action.runCycleAsync(5L, INLINE, completions);
+
+        assertThatThrownBy(() -> stage.toCompletableFuture().get(10, TimeUnit.SECONDS))
+            .hasRootCauseInstanceOf(FatalTestError.class);
+    }
+
+    @Test
+    public void testExactlyOneResultPerCycle() throws Exception {
+        Map<Long, AtomicInteger> attemptsByCycle = new ConcurrentHashMap<>();
+        ScriptedDispenser dispenser = new ScriptedDispenser(
+            cycle -> (AsyncCycleOp<Long>) value -> {
+                int attempt = attemptsByCycle.computeIfAbsent(value, c -> new AtomicInteger()).incrementAndGet();
+                return (value % 2 == 1 && attempt == 1)
+                    ? CompletableFuture.supplyAsync(() -> {
+                        throw new TransientTestError("first attempt of " + value);
+                    }, driverIo)
+                    : CompletableFuture.supplyAsync(() -> value, driverIo);
+            },
+            null);
+        ScriptedActivity activity = new ScriptedActivity(activityDef("async_once", "TransientTestError:retry"), dispenser);
+        StandardAction action = new StandardAction(activity, 0);
+
+        int cycles = 500;
+        Map<Long, AtomicInteger> results = new ConcurrentHashMap<>();
+        List<CompletableFuture<Integer>> stages = new ArrayList<>();
+        for (long cycle = 0; cycle < cycles; cycle++) {
+            long recorded = cycle;
+            CompletableFuture<Integer> stage = action.runCycleAsync(cycle, INLINE, completions).toCompletableFuture();
+            stage.whenComplete((code, error) -> results.computeIfAbsent(recorded, c -> new AtomicInteger()).incrementAndGet());
+            stages.add(stage);
+        }
+        CompletableFuture.allOf(stages.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+
+        assertThat(results).hasSize(cycles);
+        assertThat(results.values()).allSatisfy(count -> assertThat(count.get()).isEqualTo(1));
+        assertThat(dispenser.successes()).isEqualTo(cycles);
+        assertThat(dispenser.errors()).isEqualTo(cycles / 2);
+        assertThat(activity.getInstrumentation().getOrCreateTriesHistogram().getCount())
+            .as("one tries sample for each op").isEqualTo(cycles);
+    }
+
+    @Test
+    public void testNextOpAndVerifierChaining() throws Exception {
+        List<String> verified = new CopyOnWriteArrayList<>();
+        List<String> verifierThreads = new CopyOnWriteArrayList<>();
+        AtomicInteger secondAttempts = new AtomicInteger();
+        CycleFunction<Boolean> verifier = new RecordingVerifier((cycle, result) -> {
+            verified.add(String.valueOf(result));
+            verifierThreads.add(Thread.currentThread().getName());
+            return !("second".equals(result) && secondAttempts.get() == 1);
+        });
+        ScriptedDispenser dispenser = new ScriptedDispenser(
+            cycle -> new ChainedOp("first", new ChainedOp("second", null, secondAttempts), new AtomicInteger()),
+            verifier);
+        StandardAction action = new StandardAction(
+            new ScriptedActivity(activityDef("async_chain", "ResultVerificationError:retry"), dispenser), 0);
+
+        action.runCycleAsync(11L, INLINE, completions).toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+        assertThat(verified).containsExactly("first", "second", "second");
+        assertThat(secondAttempts.get()).as("a failed verification retries the generated op").isEqualTo(2);
+        assertThat(dispenser.successes()).isEqualTo(2);
+        assertThat(dispenser.errors()).isEqualTo(1);
+        assertThat(verifierThreads).as("verifiers run on the completion executor, not the driver's IO thread")
+            .doesNotContain("driver-io");
+    }
+
+    private static ActivityDef activityDef(String alias, String errors) {
+        ActivityDef activityDef = ActivityDef.parseActivityDef("alias=" + alias + ";maxtries=3");
+        activityDef.getParams().set("errors", errors);
+        return activityDef;
+    }
+
+    private final class ChainedOp implements AsyncCycleOp<String>, OpGenerator {
+        private final String result;
+        private final CycleOp<?> next;
+        private final AtomicInteger attempts;
+
+        private ChainedOp(String result, CycleOp<?> next, AtomicInteger attempts) {
+            this.result = result;
+            this.next = next;
+            this.attempts = attempts;
+        }
+
+        @Override
+        public CompletionStage<String> applyAsync(long value) {
+            attempts.incrementAndGet();
+            return CompletableFuture.supplyAsync(() -> result, driverIo);
+        }
+
+        @Override
+        public CycleOp<?> getNextOp() {
+            return next;
+        }
+    }
+
+    private interface VerifierBody {
+        boolean test(long cycle, Object result);
+    }
+
+    private record RecordingVerifier(VerifierBody body) implements CycleFunction<Boolean> {
+        @Override
+        public Boolean apply(long cycle, Object result) {
+            return body.test(cycle, result);
+        }
+
+        @Override
+        public Boolean apply(long value) {
+            throw new UnsupportedOperationException("verifiers are called with the op result");
+        }
+
+        @Override
+        public CycleFunction<Boolean> newInstance() {
+            return this;
+        }
+
+        @Override
+        public String getExpressionDetails() {
+            return "recording verifier";
+        }
+
+        @Override
+        public <V> void setVariable(String name, V value) {
+        }
+    }
+
+    private static final class TransientTestError extends RuntimeException {
+        private TransientTestError(String message) {
+            super(message);
+        }
+    }
+
+    private static final class FatalTestError extends RuntimeException {
+        private FatalTestError(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2024 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityimpl.uniform.actions;
+
+import io.nosqlbench.adapters.api.activityimpl.uniform.flowtypes.CycleOp;
+import io.nosqlbench.engine.api.activityapi.core.StrideAction;
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.CycleArray;
+import io.nosqlbench.nb.api.engine.activityimpl.ActivityDef;
+import io.nosqlbench.virtdata.core.bindings.BindingColumns;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+public class StandardActionStrideBindingsTest {
+
+    /// The motors run strides through `runStride(segment, listener)`, so that is the path
+    /// which must read from the stride columns when `stride_bindings=true`.
+    @Test
+    public void testMotorStridePathReadsFilledColumns() {
+        List<Object> columnValues = new ArrayList<>();
+        ScriptedDispenser dispenser = new ScriptedDispenser(cycle -> (CycleOp<Long>) value -> value, null) {
+            @Override
+            public BindingColumns newStrideColumns(int capacity) {
+                return new BindingColumns(List.of("value"), List.of((LongFunction<Long>) cycle -> cycle * 10L), capacity);
+            }
+
+            @Override
+            public CycleOp<?> getOp(long cycle, BindingColumns columns) {
+                int row = columns.rowOf(cycle);
+                columnValues.add(row < 0 ? null : columns.get(0, row));
+                return getOp(cycle);
+            }
+        };
+        StandardAction action = new StandardAction(new ScriptedActivity(
+            ActivityDef.parseActivityDef("alias=stride_columns;stride=4;stride_bindings=true"), dispenser), 0);
+
+        List<Long> completed = new ArrayList<>();
+        action.runStride(new CycleArray.ArraySegment(new long[]{3L, 4L, 5L, 6L}, 0L), new StrideAction.CycleListener() {
+            @Override
+            public void beforeCycle() {
+            }
+
+            @Override
+            public void afterCycle(long cycle, int result) {
+                completed.add(cycle);
+            }
+        });
+
+        assertThat(columnValues).containsExactly(30L, 40L, 50L, 60L);
+        assertThat(completed).containsExactly(3L, 4L, 5L, 6L);
+    }
+
+    @Test
+    public void testMotorStridePathBindsPerCycleWithoutStrideBindings() {
+        List<Object> columnValues = new ArrayList<>();
+        ScriptedDispenser dispenser = new ScriptedDispenser(cycle -> (CycleOp<Long>) value -> value, null) {
+            @Override
+            public BindingColumns newStrideColumns(int capacity) {
+                return new BindingColumns(List.of("value"), List.of((LongFunction<Long>) cycle -> cycle * 10L), capacity);
+            }
+
+            @Override
+            public CycleOp<?> getOp(long cycle, BindingColumns columns) {
+                columnValues.add(columns);
+                return getOp(cycle);
+            }
+        };
+        StandardAction action = new StandardAction(new ScriptedActivity(
+            ActivityDef.parseActivityDef("alias=stride_cycles;stride=4"), dispenser), 0);
+
+        action.runStride(new CycleArray.ArraySegment(new long[]{0L, 1L, 2L, 3L}, 0L), StrideAction.CycleListener.NONE);
+
+        assertThat(columnValues).isEmpty();
+    }
+}
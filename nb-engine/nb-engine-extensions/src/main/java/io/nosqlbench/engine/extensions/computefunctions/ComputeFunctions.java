@@ -21,7 +21,6 @@ import io.nosqlbench.nb.api.components.core.NBComponent;
 
 import java.util.Arrays;
 import java.util.DoubleSummaryStatistics;
-import java.util.HashSet;
 
 /**
  * <P>A collection of compute functions related to vector search relevancy.
@@ -52,8 +51,8 @@ public class ComputeFunctions extends NBBaseComponent {
    found among the first k retrieved items (actual).</P>
 
    <P>This method asserts that both the ground truth and the actual results have at least k items.
-   It then truncates both arrays to the first k items, preserving retrieved order. Finally, it
-   uses the two-pointer method to count the number of matches between the two arrays.</P>
+   It then counts the matches between the first k items of each with
+   {@link Intersections#countFirst}, which neither sorts nor copies the arrays for small k.</P>
 
    @param ground_truth
    int array of indices
@@ -71,34 +70,31 @@ public class ComputeFunctions extends NBBaseComponent {
     if (actual.length < k) {
       throw new RuntimeException("result size " + actual.length + " is less than k=" + k);
     }
-    long[] a=Arrays.copyOfRange(actual,0,k);
-    long[] b=Arrays.copyOfRange(ground_truth,0,k);
-
-    Arrays.sort(a);
-    Arrays.sort(b);
-    int intersection = Intersections.count(a, b);
+    int intersection = Intersections.countFirst(actual, ground_truth, k);
 
     return (double) intersection / (double) k;
   }
 
+    /**
+     <P>Calculates precision, the proportion of the actual results which are relevant, with
+     {@link Intersections#countAll}. Neither array is sorted or otherwise modified.</P>
+     */
     public static double precision(long[] relevant, long[] actual) {
-        Arrays.sort(relevant);
-        Arrays.sort(actual);
-        long[] intersection = Intersections.find(relevant, actual);
-        return (double) intersection.length / (double) actual.length;
+        int intersection = Intersections.countAll(actual, actual.length, relevant);
+        return (double) intersection / (double) actual.length;
     }
 
+    /**
+     <P>Calculates precision@k, the proportion of the first k actual results which are relevant,
+     counting them against every relevant item with {@link Intersections#countAll}. Neither array
+     is sorted or otherwise modified.</P>
+
+     <P>A result with fewer than k items is still measured, with each missing item counted as
+     one which is not relevant, so that short results lower precision rather than failing.</P>
+     */
     public static double precision(long[] relevant, long[] actual, int k) {
-        if (relevant.length < actual.length) {
-            throw new RuntimeException("Result indices greater than ground truth size, invalid precision computation: " +
-                "index count=" + actual.length + ", ground truth=" + relevant.length + ", limit=" + k);
-        }
-        relevant = Arrays.copyOfRange(relevant,0,relevant.length);
-        actual = Arrays.copyOfRange(actual, 0, relevant.length);
-        Arrays.sort(relevant);
-        Arrays.sort(actual);
-        long[] intersection = Intersections.find(relevant, actual);
-        return (double) intersection.length / (double) actual.length;
+        int intersection = Intersections.countAll(actual, Math.min(k, actual.length), relevant);
+        return (double) intersection / (double) k;
     }
 
   /**
@@ -106,8 +102,8 @@ public class ComputeFunctions extends NBBaseComponent {
    found among the first k retrieved items (actual).</P>
 
    <P>This method asserts that both the ground truth and the actual results have at least k items.
-   It then truncates both arrays to the first k items, preserving retrieved order. Finally, it
-   uses the two-pointer method to count the number of matches between the two arrays.</P>
+   It then counts the matches between the first k items of each with
+   {@link Intersections#countFirst}, which neither sorts nor copies the arrays for small k.</P>
 
    @param ground_truth
    int array of indices
@@ -125,34 +121,31 @@ public class ComputeFunctions extends NBBaseComponent {
     if (actual.length < k) {
       throw new RuntimeException("result size " + actual.length + " is less than k=" + k);
     }
-    int[] a=Arrays.copyOfRange(ground_truth,0,k);
-    int[] b=Arrays.copyOfRange(actual,0,k);
-
-    Arrays.sort(a);
-    Arrays.sort(b);
-    int common_indices = Intersections.count(a, b);
+    int common_indices = Intersections.countFirst(ground_truth, actual, k);
 
     return (double) common_indices / (double) k;
   }
 
+    /**
+     <P>Calculates precision, the proportion of the actual results which are relevant, with
+     {@link Intersections#countAll}. Neither array is sorted or otherwise modified.</P>
+     */
     public static double precision(int[] relevant, int[] actual) {
-        Arrays.sort(relevant);
-        Arrays.sort(actual);
-        int intersection = Intersections.count(relevant, actual);
+        int intersection = Intersections.countAll(actual, actual.length, relevant);
         return (double) intersection / (double) actual.length;
     }
 
+    /**
+     <P>Calculates precision@k, the proportion of the first k actual results which are relevant,
+     counting them against every relevant item with {@link Intersections#countAll}. Neither array
+     is sorted or otherwise modified.</P>
+
+     <P>A result with fewer than k items is still measured, with each missing item counted as
+     one which is not relevant, so that short results lower precision rather than failing.</P>
+     */
     public static double precision(int[] relevant, int[] actual, int k) {
-        if (relevant.length < actual.length) {
-            throw new RuntimeException("Result indices greater than ground truth size, invalid precision computation: " +
-                "index count=" + actual.length + ", ground truth=" + relevant.length + ", limit=" + k);
-        }
-        relevant = Arrays.copyOfRange(relevant,0,relevant.length);
-        actual = Arrays.copyOfRange(actual, 0, relevant.length);
-        Arrays.sort(relevant);
-        Arrays.sort(actual);
-        int intersection = Intersections.count(relevant, actual);
-        return (double) intersection / (double) actual.length;
+        int intersection = Intersections.countAll(actual, Math.min(k, actual.length), relevant);
+        return (double) intersection / (double) k;
     }
 
 
@@ -216,15 +209,11 @@ public class ComputeFunctions extends NBBaseComponent {
     public static double average_precision(int[] relevant, int[] actual, int k) {
         relevant = Arrays.copyOfRange(relevant,0,k);
         int maxK = Math.min(k,actual.length);
-        relevant = Arrays.copyOfRange(relevant,0,k);
-        HashSet<Integer> relevantSet = new HashSet<>(relevant.length);
-        for (Integer i : relevant) {
-            relevantSet.add(i);
-        }
+        Arrays.sort(relevant);
         int relevantCount=0;
         DoubleSummaryStatistics stats = new DoubleSummaryStatistics();
         for (int i = 0; i < maxK; i++) {
-            if (relevantSet.contains(actual[i])){
+            if (Arrays.binarySearch(relevant, actual[i]) >= 0){
                 relevantCount++;
                 double precisionAtIdx = (double) relevantCount / (i+1);
                 stats.accept(precisionAtIdx);
@@ -239,15 +228,11 @@ public class ComputeFunctions extends NBBaseComponent {
     public static double average_precision(long[] relevant, long[] actual, int k) {
         relevant = Arrays.copyOfRange(relevant,0,k);
         int maxK = Math.min(k,actual.length);
-        relevant = Arrays.copyOfRange(relevant,0,k);
-        HashSet<Long> refset = new HashSet<>(relevant.length);
-        for (Long i : relevant) {
-            refset.add(i);
-        }
+        Arrays.sort(relevant);
         int relevantCount=0;
         DoubleSummaryStatistics stats = new DoubleSummaryStatistics();
         for (int i = 0; i < maxK; i++) {
-            if (refset.contains(actual[i])){
+            if (Arrays.binarySearch(relevant, actual[i]) >= 0){
                 relevantCount++;
                 double precisionAtIdx = (double) relevantCount / (i+1);
                 stats.accept(precisionAtIdx);
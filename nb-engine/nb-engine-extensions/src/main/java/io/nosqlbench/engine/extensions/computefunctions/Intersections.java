@@ -46,10 +46,19 @@ public class Intersections {
         return -1;
     }
 
+    /**
+     * Arrays with no more than this many values to compare are intersected by comparing every
+     * pair of values, which needs no sorted copies. Above this, the quadratic number of
+     * comparisons costs more than sorting.
+     */
+    public static final int ALL_PAIRS_LIMIT = 16;
+
   /**
    Use the two-pointer method to count the number of matches between the two arrays.
    This method requires that the values be sorted in ascending order already,
    with no duplicate values.
+   The pointers are advanced by comparison results rather than by branches, since
+   whether the next value comes from one array or the other can not be predicted.
    * @param a
    * a set of integers
    * @param b
@@ -63,15 +72,9 @@ public class Intersections {
     while (a_index < a.length && b_index < b.length) {
       a_element = a[a_index];
       b_element = b[b_index];
-      if (a_element == b_element) {
-        ++matches;
-        a_index++;
-        b_index++;
-      } else if (b_element < a_element) {
-        b_index++;
-      } else { // a_element < b_element
-        a_index++;
-      }
+      matches += (a_element == b_element) ? 1 : 0;
+      a_index += (a_element <= b_element) ? 1 : 0;
+      b_index += (b_element <= a_element) ? 1 : 0;
     }
     return matches;
   }
@@ -80,6 +83,8 @@ public class Intersections {
    Use the two-pointer method to count the number of matches between the two arrays.
    This method requires that the values be sorted in ascending order already,
    with no duplicate values.
+   The pointers are advanced by comparison results rather than by branches, since
+   whether the next value comes from one array or the other can not be predicted.
    * @param a
    * a set of integers
    * @param b
@@ -93,57 +98,155 @@ public class Intersections {
     while (a_index < a.length && b_index < b.length) {
       a_element = a[a_index];
       b_element = b[b_index];
-      if (a_element == b_element) {
-        ++matches;
-        a_index++;
-        b_index++;
-      } else if (b_element < a_element) {
-        b_index++;
-      } else { // a_element < b_element
-        a_index++;
-      }
+      matches += (a_element == b_element) ? 1 : 0;
+      a_index += (a_element <= b_element) ? 1 : 0;
+      b_index += (b_element <= a_element) ? 1 : 0;
     }
     return matches;
   }
 
+    /**
+     * Count the values which are among both the first k values of a and the first k values of b.
+     * The arrays may be in any order, as results are ranked, and neither is modified. Both must
+     * have at least k values, with no duplicates among the first k.
+     * <P>Up to {@link #ALL_PAIRS_LIMIT} values, every pair is compared in place. Above that,
+     * sorted copies of both prefixes are counted with {@link #count(int[], int[])}.</P>
+     */
+    public static int countFirst(int[] a, int[] b, int k) {
+        int matches = 0;
+        if (k <= ALL_PAIRS_LIMIT) {
+            for (int a_index = 0; a_index < k; a_index++) {
+                int a_element = a[a_index];
+                boolean found = false;
+                for (int b_index = 0; b_index < k; b_index++) {
+                    found |= (a_element == b[b_index]);
+                }
+                matches += found ? 1 : 0;
+            }
+        } else {
+            int[] sortedA = Arrays.copyOfRange(a, 0, k);
+            int[] sortedB = Arrays.copyOfRange(b, 0, k);
+            Arrays.sort(sortedA);
+            Arrays.sort(sortedB);
+            matches = count(sortedA, sortedB);
+        }
+        return matches;
+    }
+
+    /**
+     * Count the values which are among both the first k values of a and the first k values of b.
+     * The arrays may be in any order, as results are ranked, and neither is modified. Both must
+     * have at least k values, with no duplicates among the first k.
+     * <P>Up to {@link #ALL_PAIRS_LIMIT} values, every pair is compared in place. Above that,
+     * sorted copies of both prefixes are counted with {@link #count(long[], long[])}.</P>
+     */
+    public static int countFirst(long[] a, long[] b, int k) {
+        int matches = 0;
+        if (k <= ALL_PAIRS_LIMIT) {
+            for (int a_index = 0; a_index < k; a_index++) {
+                long a_element = a[a_index];
+                boolean found = false;
+                for (int b_index = 0; b_index < k; b_index++) {
+                    found |= (a_element == b[b_index]);
+                }
+                matches += found ? 1 : 0;
+            }
+        } else {
+            long[] sortedA = Arrays.copyOfRange(a, 0, k);
+            long[] sortedB = Arrays.copyOfRange(b, 0, k);
+            Arrays.sort(sortedA);
+            Arrays.sort(sortedB);
+            matches = count(sortedA, sortedB);
+        }
+        return matches;
+    }
+
+    /**
+     * Count the values among the first {@code aLength} of {@code a} which are anywhere in {@code b}.
+     * The arrays may differ in length and be in any order. Neither array is modified, and neither
+     * may have duplicate values.
+     * <P>When neither side has more than {@link #ALL_PAIRS_LIMIT} values, every pair is compared
+     * in place. Above that, sorted copies of both are counted with {@link #count(int[], int[])}.</P>
+     */
+    public static int countAll(int[] a, int aLength, int[] b) {
+        int matches = 0;
+        if (Math.max(aLength, b.length) <= ALL_PAIRS_LIMIT) {
+            for (int i = 0; i < aLength; i++) {
+                int a_element = a[i];
+                boolean found = false;
+                for (int b_element : b) {
+                    found |= (a_element == b_element);
+                }
+                matches += found ? 1 : 0;
+            }
+        } else {
+            int[] sortedA = Arrays.copyOf(a, aLength);
+            int[] sortedB = b.clone();
+            Arrays.sort(sortedA);
+            Arrays.sort(sortedB);
+            matches = count(sortedA, sortedB);
+        }
+        return matches;
+    }
+
+    /**
+     * Count the values among the first {@code aLength} of {@code a} which are anywhere in {@code b}.
+     * The arrays may differ in length and be in any order. Neither array is modified, and neither
+     * may have duplicate values.
+     * <P>When neither side has more than {@link #ALL_PAIRS_LIMIT} values, every pair is compared
+     * in place. Above that, sorted copies of both are counted with {@link #count(long[], long[])}.</P>
+     */
+    public static int countAll(long[] a, int aLength, long[] b) {
+        int matches = 0;
+        if (Math.max(aLength, b.length) <= ALL_PAIRS_LIMIT) {
+            for (int i = 0; i < aLength; i++) {
+                long a_element = a[i];
+                boolean found = false;
+                for (long b_element : b) {
+                    found |= (a_element == b_element);
+                }
+                matches += found ? 1 : 0;
+            }
+        } else {
+            long[] sortedA = Arrays.copyOf(a, aLength);
+            long[] sortedB = b.clone();
+            Arrays.sort(sortedA);
+            Arrays.sort(sortedB);
+            matches = count(sortedA, sortedB);
+        }
+        return matches;
+    }
+
     public static int[] find(int[] a, int[] b) {
         int[] result = new int[b.length];
-        int a_index = 0, b_index = 0, acc_index = -1;
+        int a_index = 0, b_index = 0, acc_index = 0;
         int a_element, b_element;
         while (a_index < a.length && b_index < b.length) {
             a_element = a[a_index];
             b_element = b[b_index];
-            if (a_element == b_element) {
-                result[++acc_index] = a_element;
-                a_index++;
-                b_index++;
-            } else if (b_element < a_element) {
-                b_index++;
-            } else {
-                a_index++;
-            }
+            // acc_index never passes b_index, so this write is always in bounds
+            result[acc_index] = a_element;
+            acc_index += (a_element == b_element) ? 1 : 0;
+            a_index += (a_element <= b_element) ? 1 : 0;
+            b_index += (b_element <= a_element) ? 1 : 0;
         }
-        return Arrays.copyOfRange(result, 0, acc_index + 1);
+        return Arrays.copyOfRange(result, 0, acc_index);
     }
 
     public static long[] find(long[] reference, long[] sample) {
         long[] result = new long[sample.length];
-        int a_index = 0, b_index = 0, acc_index = -1;
+        int a_index = 0, b_index = 0, acc_index = 0;
         long a_element, b_element;
         while (a_index < reference.length && b_index < sample.length) {
             a_element = reference[a_index];
             b_element = sample[b_index];
-            if (a_element == b_element) {
-                result[++acc_index] = a_element;
-                a_index++;
-                b_index++;
-            } else if (b_element < a_element) {
-                b_index++;
-            } else {
-                a_index++;
-            }
+            // acc_index never passes b_index, so this write is always in bounds
+            result[acc_index] = a_element;
+            acc_index += (a_element == b_element) ? 1 : 0;
+            a_index += (a_element <= b_element) ? 1 : 0;
+            b_index += (b_element <= a_element) ? 1 : 0;
         }
-        return Arrays.copyOfRange(result, 0, acc_index + 1);
+        return Arrays.copyOfRange(result, 0, acc_index);
     }
 
 }
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.nosqlbench.engine.extensions.computefunctions;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/// Cost of the relevancy computations made for each vector query at k=10, 100 and 1000,
+/// comparing [Intersections#countFirst] and the current [ComputeFunctions] with the sorted
+/// copies, branching two-pointer merge and boxed hash set they used before.
+///
+/// Each query has neighbor ids drawn from a range of ten million, with about 90% of the true
+/// neighbors returned, in a shuffled rank order. A small pool of queries is cycled through so
+/// that branch history does not learn a single input.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Threads(1)
+public class IntersectionsJmhBench {
+
+    private static final int QUERIES = 64;
+
+    @State(Scope.Thread)
+    public static class Queries {
+        @Param({"10", "100", "1000"})
+        public int k;
+
+        public final int[][] relevant = new int[QUERIES][];
+        public final int[][] actual = new int[QUERIES][];
+        private int next;
+
+        @Setup
+        public void setup() {
+            SplittableRandom random = new SplittableRandom(42L);
+            for (int q = 0; q < QUERIES; q++) {
+                int[] truth = random.ints(0, 10_000_000).distinct().limit(k).toArray();
+                int[] found = truth.clone();
+                for (int i = 0; i < k; i++) {
+                    if (random.nextInt(10) == 0) {
+                        found[i] = 10_000_000 + random.nextInt(10_000_000);
+                    }
+                }
+                for (int i = k - 1; i > 0; i--) {
+                    int j = random.nextInt(i + 1);
+                    int swap = found[i];
+                    found[i] = found[j];
+                    found[j] = swap;
+                }
+                relevant[q] = truth;
+                actual[q] = found;
+            }
+        }
+
+        int nextQuery() {
+            next = (next + 1) & (QUERIES - 1);
+            return next;
+        }
+    }
+
+    @Benchmark
+    public int countFirst(Queries queries) {
+        int q = queries.nextQuery();
+        return Intersections.countFirst(queries.relevant[q], queries.actual[q], queries.k);
+    }
+
+    @Benchmark
+    public int countFirstLegacy(Queries queries) {
+        int q = queries.nextQuery();
+        int[] a = Arrays.copyOfRange(queries.relevant[q], 0, queries.k);
+        int[] b = Arrays.copyOfRange(queries.actual[q], 0, queries.k);
+        Arrays.sort(a);
+        Arrays.sort(b);
+        return branchingCount(a, b);
+    }
+
+    @Benchmark
+    public double recall(Queries queries) {
+        int q = queries.nextQuery();
+        return ComputeFunctions.recall(queries.relevant[q], queries.actual[q], queries.k);
+    }
+
+    @Benchmark
+    public double averagePrecision(Queries queries) {
+        int q = queries.nextQuery();
+        return ComputeFunctions.average_precision(queries.relevant[q], queries.actual[q], queries.k);
+    }
+
+    @Benchmark
+    public double averagePrecisionLegacy(Queries queries) {
+        int q = queries.nextQuery();
+        int[] relevant = queries.relevant[q];
+        int[] actual = queries.actual[q];
+        HashSet<Integer> relevantSet = new HashSet<>(relevant.length);
+        for (Integer i : relevant) {
+            relevantSet.add(i);
+        }
+        int relevantCount = 0;
+        double sum = 0.0d;
+        for (int i = 0; i < queries.k; i++) {
+            if (relevantSet.contains(actual[i])) {
+                relevantCount++;
+                sum += (double) relevantCount / (i + 1);
+            }
+        }
+        return relevantCount == 0 ? 0.0d : sum / relevantCount;
+    }
+
+    private static int branchingCount(int[] a, int[] b) {
+        int a_index = 0, b_index = 0, matches = 0;
+        while (a_index < a.length && b_index < b.length) {
+            if (a[a_index] == b[b_index]) {
+                ++matches;
+                a_index++;
+                b_index++;
+            } else if (b[b_index] < a[a_index]) {
+                b_index++;
+            } else {
+                a_index++;
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.nosqlbench.engine.extensions.computefunctions;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+class IntersectionsTest {
+
+    @Test
+    public void testCountFirstMatchesSortedCountOnBothPaths() {
+        SplittableRandom random = new SplittableRandom(7L);
+        for (int k : new int[]{1, 5, Intersections.ALL_PAIRS_LIMIT, Intersections.ALL_PAIRS_LIMIT + 1, 100}) {
+            for (int trial = 0; trial < 50; trial++) {
+                int[] a = random.ints(0, k * 3).distinct().limit(k).toArray();
+                int[] b = random.ints(0, k * 3).distinct().limit(k).toArray();
+                int[] sortedA = a.clone();
+                int[] sortedB = b.clone();
+                Arrays.sort(sortedA);
+                Arrays.sort(sortedB);
+                int expected = Intersections.count(sortedA, sortedB);
+
+                int[] unsortedA = a.clone();
+                assertThat(Intersections.countFirst(a, b, k)).as("k=" + k).isEqualTo(expected);
+                assertThat(a).as("countFirst must not reorder its input").isEqualTo(unsortedA);
+
+                long[] longA = Arrays.stream(a).asLongStream().toArray();
+                long[] longB = Arrays.stream(b).asLongStream().toArray();
+                assertThat(Intersections.countFirst(longA, longB, k)).as("k=" + k).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    public void testCountFirstOnlyConsidersThePrefix() {
+        int[] a = {1, 2, 3, 4, 5, 6};
+        int[] b = {3, 1, 9, 2, 5, 4};
+        assertThat(Intersections.countFirst(a, b, 3)).isEqualTo(2);
+        assertThat(Intersections.countFirst(a, b, 6)).isEqualTo(5);
+    }
+
+    @Test
+    public void testCountAllMatchesSortedCountOnBothPaths() {
+        SplittableRandom random = new SplittableRandom(11L);
+        for (int size : new int[]{1, 5, Intersections.ALL_PAIRS_LIMIT, Intersections.ALL_PAIRS_LIMIT + 1, 100}) {
+            for (int trial = 0; trial < 50; trial++) {
+                int[] a = random.ints(0, size * 3).distinct().limit(size).toArray();
+                int[] b = random.ints(0, size * 3).distinct().limit(Math.max(1, size / 2)).toArray();
+                int[] sortedA = a.clone();
+                int[] sortedB = b.clone();
+                Arrays.sort(sortedA);
+                Arrays.sort(sortedB);
+                int expected = Intersections.count(sortedA, sortedB);
+
+                int[] unsortedA = a.clone();
+                int[] unsortedB = b.clone();
+                assertThat(Intersections.countAll(a, a.length, b)).as("size=" + size).isEqualTo(expected);
+                assertThat(a).as("countAll must not reorder its input").isEqualTo(unsortedA);
+                assertThat(b).as("countAll must not reorder its input").isEqualTo(unsortedB);
+
+                long[] longA = Arrays.stream(a).asLongStream().toArray();
+                long[] longB = Arrays.stream(b).asLongStream().toArray();
+                assertThat(Intersections.countAll(longA, longA.length, longB)).as("size=" + size).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    public void testPrecisionAtKCountsTheFirstKWithoutSorting() {
+        int[] relevant = {8, 6, 2, 0, 4, 1, 3, 5};
+        int[] actual = {6, 9, 2, 7, 8, 1, 3, 5};
+        int[] relevantBefore = relevant.clone();
+        int[] actualBefore = actual.clone();
+
+        assertThat(ComputeFunctions.precision(relevant, actual, 3)).isEqualTo(2.0d / 3.0d);
+        assertThat(ComputeFunctions.precision(relevant, actual, 8)).isEqualTo(6.0d / 8.0d);
+        assertThat(relevant).isEqualTo(relevantBefore);
+        assertThat(actual).isEqualTo(actualBefore);
+
+        long[] longRelevant = Arrays.stream(relevant).asLongStream().toArray();
+        long[] longActual = Arrays.stream(actual).asLongStream().toArray();
+        long[] longActualBefore = longActual.clone();
+        assertThat(ComputeFunctions.precision(longRelevant, longActual, 3)).isEqualTo(2.0d / 3.0d);
+        assertThat(longActual).isEqualTo(longActualBefore);
+    }
+
+    @Test
+    public void testCountAllOnlyCountsThePrefixOfTheFirstArray() {
+        SplittableRandom random = new SplittableRandom(13L);
+        for (int size : new int[]{4, Intersections.ALL_PAIRS_LIMIT, Intersections.ALL_PAIRS_LIMIT * 2, 100}) {
+            int[] a = random.ints(0, size * 3).distinct().limit(size).toArray();
+            int[] b = random.ints(0, size * 3).distinct().limit(size).toArray();
+            for (int prefix : new int[]{0, 1, size / 2, size}) {
+                int[] sortedPrefix = Arrays.copyOf(a, prefix);
+                int[] sortedB = b.clone();
+                Arrays.sort(sortedPrefix);
+                Arrays.sort(sortedB);
+                assertThat(Intersections.countAll(a, prefix, b)).as("size=" + size + ", prefix=" + prefix)
+                    .isEqualTo(Intersections.count(sortedPrefix, sortedB));
+            }
+        }
+    }
+
+    @Test
+    public void testPrecisionAtKDiffersFromRecallAtK() {
+        int[] relevant = {1, 2, 3, 4, 5, 6};
+        int[] actual = {5, 6, 1, 9, 2, 3};
+
+        // every one of the first 3 results is relevant, but only 1 of the first 3 relevant items was found
+        assertThat(ComputeFunctions.precision(relevant, actual, 3)).isEqualTo(1.0d);
+        assertThat(ComputeFunctions.recall(relevant, actual, 3)).isEqualTo(1.0d / 3.0d);
+        assertThat(ComputeFunctions.F1(relevant, actual, 3)).isEqualTo(0.5d);
+
+        long[] longRelevant = Arrays.stream(relevant).asLongStream().toArray();
+        long[] longActual = Arrays.stream(actual).asLongStream().toArray();
+        assertThat(ComputeFunctions.precision(longRelevant, longActual, 3)).isEqualTo(1.0d);
+        assertThat(ComputeFunctions.recall(longRelevant, longActual, 3)).isEqualTo(1.0d / 3.0d);
+    }
+
+    @Test
+    public void testPrecisionAtKCountsMissingResultsAsNotRelevant() {
+        int[] relevant = {1, 2, 3, 4, 5, 6};
+        int[] shortResult = {5, 9};
+        assertThat(ComputeFunctions.precision(relevant, shortResult, 4)).isEqualTo(0.25d);
+        assertThat(ComputeFunctions.precision(new long[]{1L, 2L, 3L}, new long[]{2L}, 3)).isEqualTo(1.0d / 3.0d);
+    }
+
+    @Test
+    public void testPrecisionDoesNotSortTheCallersArrays() {
+        int[] relevant = {8, 6, 2, 0, 4};
+        int[] actual = {3, 2, 1, 0, 4};
+        int[] relevantBefore = relevant.clone();
+        int[] actualBefore = actual.clone();
+
+        assertThat(ComputeFunctions.precision(relevant, actual)).isEqualTo(0.6d);
+        assertThat(relevant).isEqualTo(relevantBefore);
+        assertThat(actual).isEqualTo(actualBefore);
+
+        long[] longRelevant = Arrays.stream(relevant).asLongStream().toArray();
+        long[] longActual = Arrays.stream(actual).asLongStream().toArray();
+        long[] longRelevantBefore = longRelevant.clone();
+        long[] longActualBefore = longActual.clone();
+        assertThat(ComputeFunctions.precision(longRelevant, longActual)).isEqualTo(0.6d);
+        assertThat(longRelevant).isEqualTo(longRelevantBefore);
+        assertThat(longActual).isEqualTo(longActualBefore);
+    }
+
+    @Test
+    public void testFind() {
+        assertThat(Intersections.find(new int[]{1, 3, 5, 7, 9}, new int[]{2, 3, 4, 9, 11})).containsExactly(3, 9);
+        assertThat(Intersections.find(new long[]{1, 3, 5}, new long[]{1, 3, 5})).containsExactly(1L, 3L, 5L);
+        assertThat(Intersections.find(new int[]{1, 2}, new int[]{3, 4})).isEmpty();
+    }
+}
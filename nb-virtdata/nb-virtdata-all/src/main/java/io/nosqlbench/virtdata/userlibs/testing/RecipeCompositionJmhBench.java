@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.userlibs.testing;
+
+import io.nosqlbench.virtdata.core.bindings.DataMapper;
+import io.nosqlbench.virtdata.core.bindings.DataMapperFunctionMapper;
+import io.nosqlbench.virtdata.core.bindings.ResolvedFunction;
+import io.nosqlbench.virtdata.core.bindings.VirtDataComposer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/// Cost of evaluating every binding of a bundled workload once, with the recipe chains composed
+/// from nested lambdas or compiled into one class per recipe. All recipes of a workload are
+/// called from the same loop, as op synthesis calls them, so the composed lambdas see the
+/// receiver mix they would see in a real activity.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Threads(1)
+public class RecipeCompositionJmhBench {
+
+    /// The multi-function bindings of cql_keyvalue and cql_iot, with their template defaults.
+    public static final Map<String, List<String>> WORKLOAD_RECIPES = Map.of(
+        "cql_keyvalue", List.of(
+            "Mod(1000000000); ToString() -> String",
+            "Hash(); Mod(1000000000); ToString() -> String",
+            "Uniform(0,1000000000)->int; ToString() -> String",
+            "Hash(); Uniform(0,1000000000)->int; ToString() -> String"
+        ),
+        "cql_iot", List.of(
+            "Mod(10000); ToHashedUUID() -> java.util.UUID",
+            "Mul(100L); Div(10000L); ToJavaInstant();",
+            "Mul(100L); Div(10000L); Mul(1000L)",
+            "Normal(0.0,5.0); Add(100.0) -> double",
+            "Div(10000);Mod(100); ToHashedUUID() -> java.util.UUID"
+        )
+    );
+
+    @State(Scope.Thread)
+    public static class BenchState {
+        @Param({"cql_keyvalue", "cql_iot"})
+        public String workload;
+
+        public DataMapper<?>[] composed;
+        public DataMapper<?>[] compiled;
+        public long cycle;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            this.composed = mappers(WORKLOAD_RECIPES.get(workload), false);
+            this.compiled = mappers(WORKLOAD_RECIPES.get(workload), true);
+        }
+
+        private static DataMapper<?>[] mappers(List<String> recipes, boolean compile) {
+            VirtDataComposer composer = new VirtDataComposer().compileRecipes(compile);
+            DataMapper<?>[] mappers = new DataMapper<?>[recipes.size()];
+            for (int i = 0; i < mappers.length; i++) {
+                ResolvedFunction resolved = composer.resolveFunctionFlow(recipes.get(i)).orElseThrow();
+                mappers[i] = DataMapperFunctionMapper.map(resolved.getFunctionObject());
+            }
+            return mappers;
+        }
+    }
+
+    @Benchmark
+    public void composedRecipes(BenchState s, Blackhole bh) {
+        long cycle = s.cycle++;
+        for (DataMapper<?> mapper : s.composed) {
+            bh.consume(mapper.apply(cycle));
+        }
+    }
+
+    @Benchmark
+    public void compiledRecipes(BenchState s, Blackhole bh) {
+        long cycle = s.cycle++;
+        for (DataMapper<?> mapper : s.compiled) {
+            bh.consume(mapper.apply(cycle));
+        }
+    }
+}
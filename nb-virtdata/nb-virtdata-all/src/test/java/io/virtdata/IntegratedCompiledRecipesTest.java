@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.virtdata;
+
+import io.nosqlbench.virtdata.core.bindings.DataMapper;
+import io.nosqlbench.virtdata.core.bindings.DataMapperFunctionMapper;
+import io.nosqlbench.virtdata.core.bindings.VirtDataComposer;
+import io.nosqlbench.virtdata.userlibs.testing.RecipeCompositionJmhBench;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+public class IntegratedCompiledRecipesTest {
+
+    @Test
+    public void testCompiledRecipesMatchComposedRecipes() {
+        VirtDataComposer composing = new VirtDataComposer().compileRecipes(false);
+        VirtDataComposer compiling = new VirtDataComposer().compileRecipes(true);
+        for (List<String> recipes : RecipeCompositionJmhBench.WORKLOAD_RECIPES.values()) {
+            for (String recipe : recipes) {
+                Object composedFunction = composing.resolveFunctionFlow(recipe).orElseThrow().getFunctionObject();
+                Object compiledFunction = compiling.resolveFunctionFlow(recipe).orElseThrow().getFunctionObject();
+                DataMapper<Object> composed = DataMapperFunctionMapper.map(composedFunction);
+                DataMapper<Object> compiled = DataMapperFunctionMapper.map(compiledFunction);
+                for (long cycle = 0; cycle < 1000; cycle++) {
+                    assertThat(compiled.get(cycle)).as(recipe + " at cycle " + cycle).isEqualTo(composed.get(cycle));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testHashModToStringIsCompiled() {
+        Object function = new VirtDataComposer().compileRecipes(true)
+            .resolveFunctionFlow("Hash(); Mod(1000000); ToString() -> String").orElseThrow().getFunctionObject();
+        assertThat(function.toString()).startsWith("compiled[");
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.api.bindings;
+
+import java.util.function.LongToDoubleFunction;
+
+/// A long to double function which can also evaluate many inputs in one call, such as the
+/// cycles of one stride, so that its inner loop runs over primitive arrays without a call per
+/// value. [io.nosqlbench.virtdata.core.bindings.BindingColumns] uses this when a binding is
+/// one of these functions.
+public interface LongToDoubleBatchFunction extends LongToDoubleFunction {
+
+    /// Evaluate the function for each of the first `count` inputs, writing each result to the
+    /// same index of `into`, as [#applyAsDouble(long)] would compute it. This is not named
+    /// `apply…`, since function types are found by looking for the method which is.
+    void fillDoubles(long[] inputs, int count, double[] into);
+}
@@ -19,25 +19,44 @@ package io.nosqlbench.virtdata.api.processors;
 import javax.annotation.processing.*;
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
 import javax.tools.Diagnostic;
 import javax.tools.StandardLocation;
 import java.io.Writer;
-import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
 
 import static io.nosqlbench.virtdata.api.processors.ProcessorClassNames.PerThreadMapper;
 import static io.nosqlbench.virtdata.api.processors.ProcessorClassNames.ThreadSafeMapper;
 
 /**
  * This annotation processor is responsible for finding all annotated functions and adding
- * them to the manifest file for the current project.
+ * them to the function index for the current project.
  * Specifically, any class annotated as {@link io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper}
- * or {@link io.nosqlbench.virtdata.api.annotations.PerThreadMapper} are recorded in
+ * or {@link io.nosqlbench.virtdata.api.annotations.PerThreadMapper} is recorded in
  * <pre>classes/META-INF/functions</pre>
  *
  * This operates slightly differently than the service loader facility. The point is to
- * enumerate candidate functions without requiring them to have a no-args constructor.
+ * enumerate candidate functions without requiring them to have a no-args constructor, and
+ * without loading them. Each line describes one function class, with tab separated fields:
+ * <pre>binary class name, apply input type, apply output type, constructor...</pre>
+ * where each constructor is its comma separated parameter types, with a trailing
+ * <pre>...</pre> on a varargs parameter. All types are erased binary names, as accepted by
+ * {@link org.apache.commons.lang3.ClassUtils#getClass(String)}.
+ * The index is read by {@link io.nosqlbench.virtdata.core.bindings.VirtDataFunctionIndex}.
  */
 @SupportedOptions({"title"})
 @SupportedSourceVersion(SourceVersion.RELEASE_25)
@@ -47,42 +66,119 @@ import static io.nosqlbench.virtdata.api.processors.ProcessorClassNames.ThreadSa
 })
 public class FunctionManifestProcessor extends AbstractProcessor {
 
+    public final static String INDEX_RESOURCE = "META-INF/functions";
+
     private Filer filer;
     private Messager messenger;
-    private Writer writer;
+    private Elements elementUtils;
+    private Types typeUtils;
+    private final Set<String> lines = new TreeSet<>();
+    private final List<Element> originatingElements = new ArrayList<>();
 
     @Override
     public synchronized void init(ProcessingEnvironment processingEnv) {
         super.init(processingEnv);
         this.filer = processingEnv.getFiler();
         this.messenger = processingEnv.getMessager();
+        this.elementUtils = processingEnv.getElementUtils();
+        this.typeUtils = processingEnv.getTypeUtils();
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
 
         try {
-            if (writer==null) {
-                writer = filer.createResource(StandardLocation.CLASS_OUTPUT, "", "META-INF/functions")
-                        .openWriter();
-            }
-            for (String annotationType : this.getSupportedAnnotationTypes()) {
-                Class<? extends Annotation> annotationClass =
-                        (Class<? extends Annotation>) Class.forName(annotationType);
-                Set<? extends Element> tsms = roundEnv.getElementsAnnotatedWith(annotationClass);
-                if (tsms.size() > 0) {
-                    for (Element e : tsms) {
-                        writer.write(((TypeElement) e).getQualifiedName() + "\n");
+            List<Element> functions = new ArrayList<>();
+            functions.addAll(roundEnv.getElementsAnnotatedWith(io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper.class));
+            functions.addAll(roundEnv.getElementsAnnotatedWith(io.nosqlbench.virtdata.api.annotations.PerThreadMapper.class));
+
+            for (Element e : functions) {
+                TypeElement type = (TypeElement) e;
+                // Functions are found by the simple name of a top-level class, as with the doc models
+                if (type.getNestingKind() != NestingKind.TOP_LEVEL) {
+                    continue;
+                }
+                ExecutableElement apply = findApplyMethod(type);
+                if (apply == null || apply.getParameters().isEmpty()) {
+                    messenger.printMessage(Diagnostic.Kind.WARNING, "Unable to index input and output types for " + type, e);
+                    continue;
+                }
+                StringBuilder line = new StringBuilder();
+                line.append(elementUtils.getBinaryName(type))
+                        .append('\t').append(typeName(apply.getParameters().get(0).asType()))
+                        .append('\t').append(typeName(apply.getReturnType()));
+                for (Element member : type.getEnclosedElements()) {
+                    if (member.getKind() == ElementKind.CONSTRUCTOR) {
+                        ExecutableElement ctor = (ExecutableElement) member;
+                        List<? extends VariableElement> parameters = ctor.getParameters();
+                        line.append('\t');
+                        for (int i = 0; i < parameters.size(); i++) {
+                            if (i > 0) {
+                                line.append(',');
+                            }
+                            TypeMirror parameterType = parameters.get(i).asType();
+                            if (ctor.isVarArgs() && i == parameters.size() - 1) {
+                                line.append(typeName(((ArrayType) parameterType).getComponentType())).append("...");
+                            } else {
+                                line.append(typeName(parameterType));
+                            }
+                        }
                     }
                 }
+                lines.add(line.toString());
+                originatingElements.add(e);
             }
 
-            writer.close();
+            if (roundEnv.processingOver() && !lines.isEmpty()) {
+                try (Writer writer = filer.createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE,
+                        originatingElements.toArray(new Element[0])).openWriter()) {
+                    for (String line : lines) {
+                        writer.write(line + "\n");
+                    }
+                }
+            }
 
         } catch (Exception e) {
             messenger.printMessage(Diagnostic.Kind.ERROR, e.toString());
         }
         return false;
     }
+
+    /**
+     * Find the first functional method, searching the class and then its superclasses. As with
+     * the runtime resolver, this is a public instance method whose name starts with "apply",
+     * and which is not a default method, so that helpers such as a private or static
+     * <pre>applyModifiers(...)</pre> are not mistaken for it. Bridge methods are only made by
+     * the compiler, so they never appear here.
+     */
+    private ExecutableElement findApplyMethod(TypeElement type) {
+        TypeElement current = type;
+        while (current != null) {
+            for (Element element : current.getEnclosedElements()) {
+                if (element.getKind() == ElementKind.METHOD
+                        && element.getSimpleName().toString().startsWith("apply")
+                        && element.getModifiers().contains(Modifier.PUBLIC)
+                        && !element.getModifiers().contains(Modifier.STATIC)
+                        && !element.getModifiers().contains(Modifier.DEFAULT)) {
+                    return (ExecutableElement) element;
+                }
+            }
+            TypeMirror superclass = current.getSuperclass();
+            current = superclass.getKind() == TypeKind.DECLARED
+                    ? (TypeElement) ((DeclaredType) superclass).asElement()
+                    : null;
+        }
+        return null;
+    }
+
+    private String typeName(TypeMirror type) {
+        TypeMirror erased = typeUtils.erasure(type);
+        if (erased.getKind() == TypeKind.ARRAY) {
+            return typeName(((ArrayType) erased).getComponentType()) + "[]";
+        }
+        if (erased.getKind() == TypeKind.DECLARED) {
+            return elementUtils.getBinaryName((TypeElement) ((DeclaredType) erased).asElement()).toString();
+        }
+        return erased.toString();
+    }
 }
@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.core.bindings;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongFunction;
+
+/// The values of a set of binding functions over a batch of inputs, such as the cycles of one
+/// stride, stored as one column per binding and one row per input.
+///
+/// ```
+///            row 0     row 1     row 2   …
+///  inputs  │ 1000    │ 1003    │ 1006    │
+///  col 0   │ long[]  │         │         │   DataMapper.OfLong, OfInt
+///  col 1   │ double[]│         │         │   DataMapper.OfDouble
+///  col 2   │ Object[]│         │         │   anything else
+/// ```
+///
+/// Each function is evaluated over the whole batch in one loop before any op is synthesized, so
+/// the call is made from one site many times in a row, and primitive results are stored
+/// without boxing. Readers then take values by column and row.
+///
+/// A set of columns belongs to one thread, typically one action, and is refilled for each batch.
+public final class BindingColumns {
+
+    private enum Kind {
+        LONG,
+        INT,
+        DOUBLE,
+        OBJECT
+    }
+
+    private final String[] names;
+    private final LongFunction<?>[] functions;
+    private final Kind[] kinds;
+    private final long[][] longs;
+    private final double[][] doubles;
+    private final Object[][] objects;
+    private long[] inputs;
+    private int rows;
+    private int cursor;
+
+    /// @param names the name of each column
+    /// @param functions the binding function for each column, in the same order as the names
+    /// @param capacity the number of rows to allocate for, which should be the stride
+    public BindingColumns(List<String> names, List<? extends LongFunction<?>> functions, int capacity) {
+        if (names.size() != functions.size()) {
+            throw new IllegalArgumentException(
+                "There must be one name for each binding function, but there were " + names.size()
+                    + " names and " + functions.size() + " functions.");
+        }
+        int size = Math.max(1, capacity);
+        this.names = names.toArray(new String[0]);
+        this.functions = functions.toArray(new LongFunction<?>[0]);
+        this.kinds = new Kind[this.functions.length];
+        this.longs = new long[this.functions.length][];
+        this.doubles = new double[this.functions.length][];
+        this.objects = new Object[this.functions.length][];
+        this.inputs = new long[size];
+        for (int i = 0; i < this.functions.length; i++) {
+            LongFunction<?> function = this.functions[i];
+            if (function instanceof DataMapper.OfLong) {
+                kinds[i] = Kind.LONG;
+                longs[i] = new long[size];
+            } else if (function instanceof DataMapper.OfInt) {
+                kinds[i] = Kind.INT;
+                longs[i] = new long[size];
+            } else if (function instanceof DataMapper.OfDouble) {
+                kinds[i] = Kind.DOUBLE;
+                doubles[i] = new double[size];
+            } else {
+                kinds[i] = Kind.OBJECT;
+                objects[i] = new Object[size];
+            }
+        }
+    }
+
+    /// Evaluate every column for the given inputs, which must be in ascending order.
+    public void fill(long[] batch, int count) {
+        ensureCapacity(count);
+        System.arraycopy(batch, 0, inputs, 0, count);
+        fillRows(count);
+    }
+
+    /// Evaluate every column for `count` consecutive inputs, starting at `firstInput`.
+    public void fill(long firstInput, int count) {
+        ensureCapacity(count);
+        for (int row = 0; row < count; row++) {
+            inputs[row] = firstInput + row;
+        }
+        fillRows(count);
+    }
+
+    private void fillRows(int count) {
+        for (int column = 0; column < functions.length; column++) {
+            switch (kinds[column]) {
+                case LONG -> {
+                    DataMapper.OfLong f = (DataMapper.OfLong) functions[column];
+                    long[] values = longs[column];
+                    for (int row = 0; row < count; row++) {
+                        values[row] = f.getLong(inputs[row]);
+                    }
+                }
+                case INT -> {
+                    DataMapper.OfInt f = (DataMapper.OfInt) functions[column];
+                    long[] values = longs[column];
+                    for (int row = 0; row < count; row++) {
+                        values[row] = f.getInt(inputs[row]);
+                    }
+                }
+                case DOUBLE -> {
+                    DataMapper.OfDouble f = (DataMapper.OfDouble) functions[column];
+                    f.getDoubles(inputs, count, doubles[column]);
+                }
+                case OBJECT -> {
+                    LongFunction<?> f = functions[column];
+                    Object[] values = objects[column];
+                    for (int row = 0; row < count; row++) {
+                        values[row] = f.apply(inputs[row]);
+                    }
+                    if (rows > count) {
+                        Arrays.fill(values, count, rows, null);
+                    }
+                }
+            }
+        }
+        this.rows = count;
+        this.cursor = 0;
+    }
+
+    /// Clear the rows, so that no input is covered until the next fill.
+    public void clear() {
+        for (Object[] values : objects) {
+            if (values != null) {
+                Arrays.fill(values, 0, rows, null);
+            }
+        }
+        this.rows = 0;
+        this.cursor = 0;
+    }
+
+    /// Find the row holding the values for the given input. Rows are usually read in order, so
+    /// this checks the row after the last one found before searching.
+    /// @return the row, or -1 if the input is not in the current batch
+    public int rowOf(long input) {
+        if (cursor < rows && inputs[cursor] == input) {
+            return cursor++;
+        }
+        int row = Arrays.binarySearch(inputs, 0, rows, input);
+        if (row < 0) {
+            return -1;
+        }
+        cursor = row + 1;
+        return row;
+    }
+
+    /// @return the column for the given name, or -1 if there is none
+    public int columnOf(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public int columns() {
+        return functions.length;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public String name(int column) {
+        return names[column];
+    }
+
+    public long input(int row) {
+        return inputs[row];
+    }
+
+    /// @return true if the column holds primitive long or int values
+    public boolean isLongColumn(int column) {
+        return kinds[column] == Kind.LONG || kinds[column] == Kind.INT;
+    }
+
+    /// @return true if the column holds primitive double values
+    public boolean isDoubleColumn(int column) {
+        return kinds[column] == Kind.DOUBLE;
+    }
+
+    public long getLong(int column, int row) {
+        long[] values = longs[column];
+        if (values == null) {
+            throw new IllegalStateException("Column '" + names[column] + "' does not hold long values.");
+        }
+        return values[row];
+    }
+
+    public double getDouble(int column, int row) {
+        double[] values = doubles[column];
+        if (values == null) {
+            throw new IllegalStateException("Column '" + names[column] + "' does not hold double values.");
+        }
+        return values[row];
+    }
+
+    /// @return the value as the binding function itself would return it, boxing primitive values
+    public Object get(int column, int row) {
+        return switch (kinds[column]) {
+            case LONG -> longs[column][row];
+            case INT -> (int) longs[column][row];
+            case DOUBLE -> doubles[column][row];
+            case OBJECT -> objects[column][row];
+        };
+    }
+
+    private void ensureCapacity(int count) {
+        if (count <= inputs.length) {
+            return;
+        }
+        inputs = new long[count];
+        for (int i = 0; i < functions.length; i++) {
+            switch (kinds[i]) {
+                case LONG, INT -> longs[i] = new long[count];
+                case DOUBLE -> doubles[i] = new double[count];
+                case OBJECT -> objects[i] = new Object[count];
+            }
+        }
+        rows = 0;
+    }
+}
@@ -25,4 +25,45 @@ public interface DataMapper<R> extends LongFunction<R> {
     default R apply(long value) {
         return get(value);
     }
+
+    /// A mapper which produces primitive long values, so that they can be read or stored without
+    /// boxing, as in [BindingColumns].
+    @FunctionalInterface
+    interface OfLong extends DataMapper<Long> {
+        long getLong(long input);
+
+        @Override
+        default Long get(long input) {
+            return getLong(input);
+        }
+    }
+
+    /// A mapper which produces primitive int values, which are boxed as [Integer] by [#get(long)].
+    @FunctionalInterface
+    interface OfInt extends DataMapper<Integer> {
+        int getInt(long input);
+
+        @Override
+        default Integer get(long input) {
+            return getInt(input);
+        }
+    }
+
+    /// A mapper which produces primitive double values.
+    @FunctionalInterface
+    interface OfDouble extends DataMapper<Double> {
+        double getDouble(long input);
+
+        /// Map each of the first `count` inputs into the same index of `into`.
+        default void getDoubles(long[] inputs, int count, double[] into) {
+            for (int i = 0; i < count; i++) {
+                into[i] = getDouble(inputs[i]);
+            }
+        }
+
+        @Override
+        default Double get(long input) {
+            return getDouble(input);
+        }
+    }
 }
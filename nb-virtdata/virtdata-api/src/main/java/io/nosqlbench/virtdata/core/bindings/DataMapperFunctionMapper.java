@@ -16,6 +16,8 @@
 
 package io.nosqlbench.virtdata.core.bindings;
 
+import io.nosqlbench.virtdata.api.bindings.LongToDoubleBatchFunction;
+
 import java.util.function.*;
 
 /**
@@ -79,15 +81,15 @@ public class DataMapperFunctionMapper {
     }
 
     public static DataMapper<Integer> map(DoubleToIntFunction f) {
-        return f::applyAsInt;
+        return (DataMapper.OfInt) f::applyAsInt;
     }
 
     public static DataMapper<Long> map(DoubleToLongFunction f) {
-        return f::applyAsLong;
+        return (DataMapper.OfLong) f::applyAsLong;
     }
 
     public static DataMapper<Double> map(DoubleUnaryOperator f) {
-        return f::applyAsDouble;
+        return (DataMapper.OfDouble) f::applyAsDouble;
     }
 
     public static <R> DataMapper<R> map(IntFunction<R> f) {
@@ -95,27 +97,40 @@ public class DataMapperFunctionMapper {
     }
 
     public static DataMapper<Long> map(IntToDoubleFunction f) {
-        return (long l) -> (long) f.applyAsDouble((int) l);
+        return (DataMapper.OfLong) (long l) -> (long) f.applyAsDouble((int) l);
     }
 
     public static DataMapper<Long> map(IntToLongFunction f) {
-        return (long l) -> f.applyAsLong((int) l);
+        return (DataMapper.OfLong) (long l) -> f.applyAsLong((int) l);
     }
 
     public static DataMapper<Integer> map(IntUnaryOperator f) {
-        return (long l) -> f.applyAsInt((int) l);
+        return (DataMapper.OfInt) (long l) -> f.applyAsInt((int) l);
     }
 
     public static DataMapper<Double> map(LongToDoubleFunction f) {
-        return f::applyAsDouble;
+        if (f instanceof LongToDoubleBatchFunction batch) {
+            return new DataMapper.OfDouble() {
+                @Override
+                public double getDouble(long input) {
+                    return batch.applyAsDouble(input);
+                }
+
+                @Override
+                public void getDoubles(long[] inputs, int count, double[] into) {
+                    batch.fillDoubles(inputs, count, into);
+                }
+            };
+        }
+        return (DataMapper.OfDouble) f::applyAsDouble;
     }
 
     public static DataMapper<Integer> map(LongToIntFunction f) {
-        return f::applyAsInt;
+        return (DataMapper.OfInt) f::applyAsInt;
     }
 
     public static DataMapper<Long> map(LongUnaryOperator f) {
-        return f::applyAsLong;
+        return (DataMapper.OfLong) f::applyAsLong;
     }
 
     public static <R> DataMapper<R> map(LongFunction<R> f) {
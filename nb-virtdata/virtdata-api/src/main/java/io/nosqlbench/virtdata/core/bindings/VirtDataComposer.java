@@ -16,6 +16,7 @@
 
 package io.nosqlbench.virtdata.core.bindings;
 
+import io.nosqlbench.virtdata.core.composers.CompiledFunctionChain;
 import io.nosqlbench.virtdata.core.composers.FunctionAssembly;
 import io.nosqlbench.virtdata.lang.ast.FunctionCall;
 import io.nosqlbench.virtdata.lang.ast.VirtDataFlow;
@@ -72,6 +73,7 @@ public class VirtDataComposer {
     private final VirtDataFunctionLibrary functionLibrary;
 
     private final Map<String, Object> customElements = new HashMap<>();
+    private boolean compileRecipes = CompiledFunctionChain.ENABLED;
 
     public VirtDataComposer(VirtDataFunctionLibrary functionLibrary) {
         this.functionLibrary = functionLibrary;
@@ -204,10 +206,21 @@ public class VirtDataComposer {
             return diagnostics.setResolvedFunction(flattenedFuncs.get(0));
         }
 
-        FunctionAssembly assembly = new FunctionAssembly();
-
         boolean isThreadSafe = true;
         diagnostics.trace("FUNCTION chain selected: (multi):\n" + this.summarize(flattenedFuncs, "  - "));
+
+        if (compileRecipes) {
+            Optional<Object> compiled = CompiledFunctionChain.compile(
+                flattenedFuncs.stream().map(ResolvedFunction::getFunctionObject).toList());
+            if (compiled.isPresent()) {
+                boolean compiledThreadSafe = flattenedFuncs.stream().allMatch(ResolvedFunction::isThreadSafe);
+                diagnostics.trace("FUNCTION resolution succeeded (compiled): '" + flow + "'");
+                return diagnostics.setResolvedFunction(
+                    new ResolvedFunction(compiled.get(), compiledThreadSafe, null, null, null, null));
+            }
+        }
+
+        FunctionAssembly assembly = new FunctionAssembly();
         for (ResolvedFunction resolvedFunction : flattenedFuncs) {
             try {
                 Object functionObject = resolvedFunction.getFunctionObject();
@@ -530,4 +543,14 @@ public class VirtDataComposer {
         this.customElements.putAll(config);
         return this;
     }
+
+    /**
+     * Choose whether function chains are compiled into a single class with
+     * {@link CompiledFunctionChain}, falling back to lambda composition for chains which can
+     * not be compiled. This defaults to the setting of {@link CompiledFunctionChain#ENABLED}.
+     */
+    public VirtDataComposer compileRecipes(boolean compileRecipes) {
+        this.compileRecipes = compileRecipes;
+        return this;
+    }
 }
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.core.bindings;
+
+import io.nosqlbench.virtdata.api.processors.FunctionManifestProcessor;
+import org.apache.commons.lang3.ClassUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/// The functions of every library on the class path, by simple name, as recorded at build
+/// time by [FunctionManifestProcessor] in each library's `META-INF/functions` resource.
+///
+/// The index lets the resolver go from a function name to the classes which implement it,
+/// and rule out those whose apply types or constructor arities can not match, without
+/// loading any function class or doc model. Only the remaining candidates are loaded and
+/// checked by reflection.
+///
+/// ```
+///  "Hash" ─► [ long→long   Hash()        ]
+///           [ long→int    Hash()        ] ─► Class.forName only for these
+///           [ long→String Hash(int)     ]
+/// ```
+public final class VirtDataFunctionIndex {
+    private final static Logger logger = LogManager.getLogger(VirtDataFunctionIndex.class);
+
+    public static final VirtDataFunctionIndex SHARED = load(VirtDataFunctionIndex.class.getClassLoader());
+
+    /// One indexed function class.
+    /// @param ctors the parameter types of each constructor, where a varargs parameter is
+    ///     recorded as its component type followed by `...`
+    public record Entry(String className, String inputType, String outputType, List<List<String>> ctors) {
+    }
+
+    private final Map<String, List<Entry>> entriesByName;
+    private final Map<String, Class<?>> types = new ConcurrentHashMap<>();
+
+    private VirtDataFunctionIndex(Map<String, List<Entry>> entriesByName) {
+        this.entriesByName = entriesByName;
+    }
+
+    public static VirtDataFunctionIndex load(ClassLoader classLoader) {
+        Map<String, List<Entry>> entries = new HashMap<>();
+        int resources = 0;
+        try {
+            Enumeration<URL> urls = classLoader.getResources(FunctionManifestProcessor.INDEX_RESOURCE);
+            while (urls.hasMoreElements()) {
+                URL url = urls.nextElement();
+                resources++;
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+                    for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                        addLine(entries, line);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Unable to read the virtdata function index, resolving functions without it: " + e);
+            entries.clear();
+        }
+        int indexed = resources;
+        logger.debug(() -> "indexed " + entries.size() + " virtdata function names from " + indexed + " libraries");
+        return new VirtDataFunctionIndex(entries);
+    }
+
+    /// Parse the given lines in the format written by [FunctionManifestProcessor].
+    public static VirtDataFunctionIndex parse(List<String> lines) {
+        Map<String, List<Entry>> entries = new HashMap<>();
+        for (String line : lines) {
+            addLine(entries, line);
+        }
+        return new VirtDataFunctionIndex(entries);
+    }
+
+    private static void addLine(Map<String, List<Entry>> entries, String line) {
+        String[] fields = line.split("\t", -1);
+        if (fields.length >= 3) {
+            List<List<String>> ctors = new ArrayList<>(fields.length - 3);
+            for (int i = 3; i < fields.length; i++) {
+                ctors.add(fields[i].isEmpty() ? List.of() : List.of(fields[i].split(",")));
+            }
+            String className = fields[0];
+            String simpleName = className.substring(className.lastIndexOf('.') + 1);
+            entries.computeIfAbsent(simpleName, n -> new ArrayList<>())
+                .add(new Entry(className, fields[1], fields[2], List.copyOf(ctors)));
+        } else if (!line.isBlank()) {
+            logger.warn("Ignoring malformed virtdata function index line: " + line);
+        }
+    }
+
+    /// @return true if no library on the class path had an index
+    public boolean isEmpty() {
+        return entriesByName.isEmpty();
+    }
+
+    /// @return every indexed class with the given simple name
+    public List<Entry> entries(String functionName) {
+        return entriesByName.getOrDefault(functionName, Collections.emptyList());
+    }
+
+    /// @return the names, in order, of the indexed classes with the given simple name whose
+    ///     apply types are compatible with the given ones, and which have a constructor taking
+    ///     the given number of arguments. A null type matches any type.
+    public List<String> candidates(String functionName, Class<?> inputType, Class<?> returnType, int arguments) {
+        List<String> names = new ArrayList<>();
+        for (Entry entry : entries(functionName)) {
+            Class<?> indexedInput = type(entry.inputType());
+            Class<?> indexedOutput = type(entry.outputType());
+            boolean inputMatches = inputType == null || indexedInput == null || indexedInput.isAssignableFrom(inputType);
+            boolean outputMatches = returnType == null || indexedOutput == null || returnType.isAssignableFrom(indexedOutput);
+            if (inputMatches && outputMatches && hasArity(entry, arguments)) {
+                names.add(entry.className());
+            }
+        }
+        return names.stream().sorted().distinct().toList();
+    }
+
+    private static boolean hasArity(Entry entry, int arguments) {
+        for (List<String> ctor : entry.ctors()) {
+            boolean varArgs = !ctor.isEmpty() && ctor.getLast().endsWith("...");
+            if (varArgs ? arguments >= ctor.size() - 1 : arguments == ctor.size()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /// @return the class for an indexed type name, or null if it can not be loaded here, in
+    ///     which case it does not narrow the candidates
+    private Class<?> type(String name) {
+        Class<?> type = types.get(name);
+        if (type == null) {
+            try {
+                type = ClassUtils.getClass(VirtDataFunctionIndex.class.getClassLoader(), name, false);
+            } catch (ClassNotFoundException | LinkageError e) {
+                type = Void.class;
+            }
+            types.put(name, type);
+        }
+        return type == Void.class ? null : type;
+    }
+
+    @Override
+    public String toString() {
+        return "VirtDataFunctionIndex{names=" + entriesByName.size() + '}';
+    }
+}
@@ -29,6 +29,7 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 public class VirtDataFunctionResolver {
@@ -36,6 +37,14 @@ public class VirtDataFunctionResolver {
     private final static MethodHandles.Lookup lookup = MethodHandles.publicLookup();
     private final VirtDataFunctionFinder virtDataFunctionFinder = new VirtDataFunctionFinder();
 
+    /// The constructors which match a function name, its input and output types and the types of
+    /// its arguments, in order of preference. Matching depends only on these classes, so each
+    /// distinct binding shape is resolved by reflection once per process.
+    private record ResolutionKey(Class<?> returnType, Class<?> inputType, String functionName, List<Class<?>> parameterTypes) {
+    }
+
+    private final static Map<ResolutionKey, List<Constructor<?>>> resolved = new ConcurrentHashMap<>();
+
     public List<ResolvedFunction> resolveFunctions(Class<?> returnType, Class<?> inputType, String functionName, Map<String,?> customParameters, Object... parameters) {
 
         // TODO: Make this look for both assignment compatible matches as well as exact assignment matches, and only
@@ -49,15 +58,60 @@ public class VirtDataFunctionResolver {
 
         List<ResolvedFunction> resolvedFunctions = new ArrayList<>();
 
-        List<Class<?>> matchingClasses = virtDataFunctionFinder.getFunctionNames()
+        // not computeIfAbsent, since loading a function class may resolve other functions
+        ResolutionKey key = new ResolutionKey(returnType, inputType, functionName, List.of(parameterTypes));
+        List<Constructor<?>> matchingConstructors = resolved.get(key);
+        if (matchingConstructors == null) {
+            matchingConstructors = findConstructors(returnType, inputType, functionName, parameterTypes, parameters);
+            resolved.putIfAbsent(key, matchingConstructors);
+        }
+
+        if (returnType != null && inputType != null && matchingConstructors.size() > 1) {
+            throw new RuntimeException(
+                    "found more than one (" + matchingConstructors.size() + ") matching constructor for " +
+                            "return type '" + returnType + "', " +
+                            "inputType '" + inputType + "', " +
+                            "function name '" + functionName + ", " +
+                            "and parameter types '" + Arrays.toString(parameters) + "', " +
+                            "ctors: " + matchingConstructors);
+
+        }
+
+        for (Constructor<?> ctor : matchingConstructors) {
+            try {
+                Class<?> ctorDClass = ctor.getDeclaringClass();
+                MethodType ctorMethodType = MethodType.methodType(void.class, ctor.getParameterTypes());
+                MethodHandle constructor = lookup.findConstructor(ctorDClass, ctorMethodType);
+                Object functionalInstance = constructor.invokeWithArguments(parameters);
+                if (functionalInstance instanceof NBMapConfigurable) {
+                    ((NBMapConfigurable)functionalInstance).applyConfig(customParameters);
+                }
+                boolean threadSafe = functionalInstance.getClass().getAnnotation(ThreadSafeMapper.class) != null;
+                resolvedFunctions.add(
+                        new ResolvedFunction(
+                                functionalInstance,
+                                threadSafe,
+                                parameterTypes,
+                                parameters,
+                                getInputClass(functionalInstance.getClass()),
+                                getOutputClass(functionalInstance.getClass())
+                        )
+                );
+            } catch (Throwable throwable) {
+                throw new RuntimeException(throwable);
+            }
+        }
+        return resolvedFunctions;
+    }
+
+    private List<Constructor<?>> findConstructors(Class<?> returnType, Class<?> inputType, String functionName, Class<?>[] parameterTypes, Object[] parameters) {
+        List<Class<?>> matchingClasses = candidateClassNames(returnType, inputType, functionName, parameters.length)
                 .stream()
-                .filter(s -> s.endsWith("." + functionName))
                 .map(this::maybeClassForName)
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
 
-        List<Constructor<?>> matchingConstructors = null;
-        matchingConstructors = matchingClasses.stream()
+        List<Constructor<?>> matchingConstructors = matchingClasses.stream()
                 .filter(c -> {
                     // This form for debugging
                     boolean isFunctional = isFunctionalInterface(c);
@@ -98,43 +152,25 @@ public class VirtDataFunctionResolver {
                 .collect(Collectors.toList());
 
         Collections.sort(matchingConstructors,new ArgsComparator(parameters));
+        return List.copyOf(matchingConstructors);
+    }
 
-        if (returnType != null && inputType != null && matchingConstructors.size() > 1) {
-            throw new RuntimeException(
-                    "found more than one (" + matchingConstructors.size() + ") matching constructor for " +
-                            "return type '" + returnType + "', " +
-                            "inputType '" + inputType + "', " +
-                            "function name '" + functionName + ", " +
-                            "and parameter types '" + Arrays.toString(parameters) + "', " +
-                            "ctors: " + matchingConstructors);
-
-        }
-
-        for (Constructor<?> ctor : matchingConstructors) {
-            try {
-                Class<?> ctorDClass = ctor.getDeclaringClass();
-                MethodType ctorMethodType = MethodType.methodType(void.class, ctor.getParameterTypes());
-                MethodHandle constructor = lookup.findConstructor(ctorDClass, ctorMethodType);
-                Object functionalInstance = constructor.invokeWithArguments(parameters);
-                if (functionalInstance instanceof NBMapConfigurable) {
-                    ((NBMapConfigurable)functionalInstance).applyConfig(customParameters);
-                }
-                boolean threadSafe = functionalInstance.getClass().getAnnotation(ThreadSafeMapper.class) != null;
-                resolvedFunctions.add(
-                        new ResolvedFunction(
-                                functionalInstance,
-                                threadSafe,
-                                parameterTypes,
-                                parameters,
-                                getInputClass(functionalInstance.getClass()),
-                                getOutputClass(functionalInstance.getClass())
-                        )
-                );
-            } catch (Throwable throwable) {
-                throw new RuntimeException(throwable);
+    /// Use the build-time function index when it has candidates for the name, and otherwise scan
+    /// the names of every documented function, as for a library built without the index. The
+    /// scan also covers names whose index entries all fail to match, so that an entry indexed
+    /// with the wrong types can not hide a function which would resolve by reflection.
+    private List<String> candidateClassNames(Class<?> returnType, Class<?> inputType, String functionName, int arguments) {
+        VirtDataFunctionIndex index = VirtDataFunctionIndex.SHARED;
+        if (!index.entries(functionName).isEmpty()) {
+            List<String> indexed = index.candidates(functionName, inputType, returnType, arguments);
+            if (!indexed.isEmpty()) {
+                return indexed;
             }
         }
-        return resolvedFunctions;
+        return virtDataFunctionFinder.getFunctionNames()
+                .stream()
+                .filter(s -> s.endsWith("." + functionName))
+                .collect(Collectors.toList());
     }
 
     private boolean isFunctionalInterface(Class<?> c) {
@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.core.composers;
+
+import io.nosqlbench.virtdata.core.bindings.FunctionType;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.classfile.ClassFile;
+import java.lang.classfile.CodeBuilder;
+import java.lang.classfile.TypeKind;
+import java.lang.constant.ClassDesc;
+import java.lang.constant.ConstantDescs;
+import java.lang.constant.DynamicConstantDesc;
+import java.lang.constant.MethodTypeDesc;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/// Compiles a resolved binding recipe, such as `Hash(); Mod(1000000); ToString()`, into one
+/// hidden class which calls each function of the chain in turn, as an alternative to nesting
+/// the lambdas of the [FunctionComposer] implementations.
+///
+/// Each lambda of a composer is shared by every recipe which makes the same pair of function
+/// types, so its call sites see many receiver classes and can not be inlined. A compiled recipe
+/// has call sites of its own, and loads each function from a class-data constant which the JIT
+/// treats as a constant receiver, so the whole chain can be inlined into one primitive path.
+///
+/// ```
+///  composed:  λ(λ(λ(Hash, Mod), ToString))   ── shared, megamorphic call sites
+///  compiled:  Recipe.apply(long l) {
+///               return ToString.apply(Mod.applyAsLong(Hash.applyAsLong(l)));
+///             }                              ── per recipe, constant receivers
+/// ```
+///
+/// Only conversions between links which the composers make without inspecting values are
+/// compiled: primitive widening and narrowing between long, int and double inputs as the
+/// composers do them, and boxing into a generic function. A chain which needs anything else,
+/// such as unboxing an object result into a primitive input, is left to [FunctionAssembly].
+///
+/// Compilation is opt in. The composer uses it when the `NB_VIRTDATA_COMPILE_RECIPES`
+/// environment variable is `true`, or when asked to with
+/// [io.nosqlbench.virtdata.core.bindings.VirtDataComposer#compileRecipes(boolean)].
+public final class CompiledFunctionChain {
+    private final static Logger logger = LogManager.getLogger(CompiledFunctionChain.class);
+
+    public static final String ENABLED_ENV = "NB_VIRTDATA_COMPILE_RECIPES";
+    public static final boolean ENABLED = Boolean.parseBoolean(System.getenv(ENABLED_ENV));
+
+    private static final ClassDesc RECIPE = ClassDesc.of(CompiledFunctionChain.class.getPackageName(), "CompiledRecipe");
+
+    private CompiledFunctionChain() {
+    }
+
+    private record Link(Class<?> functionClass, String methodName, MethodTypeDesc methodType, TypeKind input, TypeKind output) {
+    }
+
+    /// Compile the chain of function objects, in the order they are applied.
+    /// @return a function object of the same functional type as a [FunctionAssembly] of the same
+    ///     chain would produce, or empty if the chain has a link which can not be compiled
+    public static Optional<Object> compile(List<Object> functions) {
+        if (functions.isEmpty()) {
+            return Optional.empty();
+        }
+        List<Link> links = new ArrayList<>(functions.size());
+        try {
+            for (Object function : functions) {
+                links.add(linkFor(FunctionType.valueOf(function)));
+            }
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+        if (links.getFirst().input() != TypeKind.LONG) {
+            return Optional.empty();
+        }
+        for (int i = 1; i < links.size(); i++) {
+            if (!canConvert(links.get(i - 1).output(), links.get(i).input())) {
+                return Optional.empty();
+            }
+        }
+        Link outer = linkFor(chainType(links.getLast().output()));
+        String description = functions.stream()
+            .map(f -> f.getClass().getSimpleName())
+            .collect(Collectors.joining("; ", "compiled[", "]"));
+
+        try {
+            byte[] bytes = ClassFile.of().build(RECIPE, cb -> {
+                cb.withFlags(ClassFile.ACC_PUBLIC | ClassFile.ACC_FINAL | ClassFile.ACC_SUPER);
+                cb.withSuperclass(ConstantDescs.CD_Object);
+                cb.withInterfaceSymbols(desc(outer.functionClass()));
+                cb.withMethodBody(ConstantDescs.INIT_NAME, ConstantDescs.MTD_void, ClassFile.ACC_PUBLIC, code -> {
+                    code.aload(0);
+                    code.invokespecial(ConstantDescs.CD_Object, ConstantDescs.INIT_NAME, ConstantDescs.MTD_void);
+                    code.return_();
+                });
+                cb.withMethodBody(outer.methodName(), outer.methodType(), ClassFile.ACC_PUBLIC,
+                    code -> applyChain(code, links, outer.output()));
+                cb.withMethodBody("toString", MethodTypeDesc.of(ConstantDescs.CD_String), ClassFile.ACC_PUBLIC, code -> {
+                    code.ldc(description);
+                    code.areturn();
+                });
+            });
+            MethodHandles.Lookup recipe = MethodHandles.lookup()
+                .defineHiddenClassWithClassData(bytes, List.copyOf(functions), true);
+            Object compiled = recipe.findConstructor(recipe.lookupClass(), MethodType.methodType(void.class)).invoke();
+            return Optional.of(compiled);
+        } catch (Throwable t) {
+            logger.warn("Unable to compile function chain " + description + ", composing it instead: " + t);
+            return Optional.empty();
+        }
+    }
+
+    private static void applyChain(CodeBuilder code, List<Link> links, TypeKind returnKind) {
+        int slot = code.parameterSlot(0);
+        TypeKind kind = TypeKind.LONG;
+        for (int i = 0; i < links.size(); i++) {
+            Link link = links.get(i);
+            ClassDesc functionDesc = desc(link.functionClass());
+            code.ldc(DynamicConstantDesc.ofNamed(
+                ConstantDescs.BSM_CLASS_DATA_AT, ConstantDescs.DEFAULT_NAME, functionDesc, i));
+            code.loadLocal(kind, slot);
+            convert(code, kind, link.input());
+            code.invokeinterface(functionDesc, link.methodName(), link.methodType());
+            kind = link.output();
+            slot = code.allocateLocal(kind);
+            code.storeLocal(kind, slot);
+        }
+        code.loadLocal(kind, slot);
+        code.return_(returnKind);
+    }
+
+    /// The conversions here mirror those of the composers for the same pair of types.
+    private static boolean canConvert(TypeKind from, TypeKind to) {
+        return switch (from) {
+            case LONG, INT -> true;
+            case DOUBLE -> to == TypeKind.DOUBLE || to == TypeKind.REFERENCE;
+            case REFERENCE -> to == TypeKind.REFERENCE;
+            default -> false;
+        };
+    }
+
+    private static void convert(CodeBuilder code, TypeKind from, TypeKind to) {
+        if (from == to) {
+            return;
+        }
+        switch (from) {
+            case LONG -> {
+                switch (to) {
+                    case INT -> code.l2i();
+                    case DOUBLE -> code.l2d();
+                    case REFERENCE -> box(code, ConstantDescs.CD_Long, ConstantDescs.CD_long);
+                    default -> throw new IllegalStateException("no conversion from " + from + " to " + to);
+                }
+            }
+            case INT -> {
+                switch (to) {
+                    case LONG -> code.i2l();
+                    case DOUBLE -> code.i2d();
+                    case REFERENCE -> box(code, ConstantDescs.CD_Integer, ConstantDescs.CD_int);
+                    default -> throw new IllegalStateException("no conversion from " + from + " to " + to);
+                }
+            }
+            case DOUBLE -> {
+                if (to != TypeKind.REFERENCE) {
+                    throw new IllegalStateException("no conversion from " + from + " to " + to);
+                }
+                box(code, ConstantDescs.CD_Double, ConstantDescs.CD_double);
+            }
+            default -> throw new IllegalStateException("no conversion from " + from + " to " + to);
+        }
+    }
+
+    private static void box(CodeBuilder code, ClassDesc boxed, ClassDesc primitive) {
+        code.invokestatic(boxed, "valueOf", MethodTypeDesc.of(boxed, primitive));
+    }
+
+    /// The functional type of a chain which takes a long, as the composers would produce it.
+    private static FunctionType chainType(TypeKind output) {
+        return switch (output) {
+            case LONG -> FunctionType.long_long;
+            case INT -> FunctionType.long_int;
+            case DOUBLE -> FunctionType.long_double;
+            default -> FunctionType.long_T;
+        };
+    }
+
+    private static Link linkFor(FunctionType functionType) {
+        Class<?> functionClass = functionType.getFunctionClass();
+        Method method = null;
+        for (Method candidate : functionClass.getMethods()) {
+            if (Modifier.isAbstract(candidate.getModifiers())) {
+                method = candidate;
+            }
+        }
+        if (method == null) {
+            throw new IllegalStateException("No functional method found on " + functionClass);
+        }
+        MethodTypeDesc methodType = MethodType.methodType(method.getReturnType(), method.getParameterTypes())
+            .describeConstable().orElseThrow();
+        return new Link(
+            functionClass,
+            method.getName(),
+            methodType,
+            kindOf(functionType.getInputClass()),
+            kindOf(functionType.getReturnClass()));
+    }
+
+    private static TypeKind kindOf(Class<?> type) {
+        if (type == long.class) {
+            return TypeKind.LONG;
+        } else if (type == int.class) {
+            return TypeKind.INT;
+        } else if (type == double.class) {
+            return TypeKind.DOUBLE;
+        }
+        return TypeKind.REFERENCE;
+    }
+
+    private static ClassDesc desc(Class<?> type) {
+        return type.describeConstable().orElseThrow();
+    }
+}
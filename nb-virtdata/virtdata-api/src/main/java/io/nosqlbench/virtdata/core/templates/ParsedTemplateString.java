@@ -291,6 +291,18 @@ public class ParsedTemplateString {
         }
     }
 
+    /**
+     * Bind this template to its binding recipes for rendering, so that callers which can consume
+     * characters or bytes directly may use {@link StringCompositor#renderTo(long, RenderBuffer)}
+     * with a reusable {@link RenderBuffer} instead of producing a String per cycle.
+     *
+     * @param fconfig function configuration passed to binding construction
+     * @return a compositor for this template
+     */
+    public StringCompositor renderer(Map<String, Object> fconfig) {
+        return new StringCompositor(this, fconfig);
+    }
+
     public CapturePoints getCaptures() {
         return this.captures;
     }
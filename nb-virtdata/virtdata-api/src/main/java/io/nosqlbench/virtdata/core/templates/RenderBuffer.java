@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.core.templates;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+/// A reusable target for rendering string templates with
+/// [StringCompositor#renderTo(long, RenderBuffer)], so that a templated op body can be written
+/// out as characters or UTF-8 bytes without building a new [String] for every cycle.
+///
+/// A buffer belongs to one caller at a time, typically one stride slot of an activity, and its
+/// contents are only valid until it is next [reset][#reset()]. Its storage grows to fit the
+/// largest rendering seen and is then reused.
+public final class RenderBuffer implements CharSequence {
+
+    private char[] chars;
+    private int length;
+    private Object[] values = new Object[0];
+    private final CharsetEncoder utf8 = StandardCharsets.UTF_8.newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private ByteBuffer bytes = ByteBuffer.allocate(0);
+
+    public RenderBuffer(int initialCapacity) {
+        this.chars = new char[Math.max(16, initialCapacity)];
+    }
+
+    public RenderBuffer reset() {
+        this.length = 0;
+        return this;
+    }
+
+    public RenderBuffer append(CharSequence text) {
+        int n = text.length();
+        ensureCapacity(length + n);
+        if (text instanceof String s) {
+            s.getChars(0, n, chars, length);
+        } else {
+            for (int i = 0; i < n; i++) {
+                chars[length + i] = text.charAt(i);
+            }
+        }
+        length += n;
+        return this;
+    }
+
+    /// Append the decimal digits of the value, as [Long#toString(long)] would, without creating
+    /// a String.
+    public RenderBuffer append(long value) {
+        if (value == Long.MIN_VALUE) {
+            return append(Long.toString(value));
+        }
+        ensureCapacity(length + 20);
+        long remaining = value;
+        if (remaining < 0) {
+            chars[length++] = '-';
+            remaining = -remaining;
+        }
+        int start = length;
+        do {
+            chars[length++] = (char) ('0' + (remaining % 10));
+            remaining /= 10;
+        } while (remaining != 0);
+        for (int lo = start, hi = length - 1; lo < hi; lo++, hi--) {
+            char swap = chars[lo];
+            chars[lo] = chars[hi];
+            chars[hi] = swap;
+        }
+        return this;
+    }
+
+    /// Write the rendered characters to the writer without copying them into a String.
+    public void writeTo(Writer writer) throws IOException {
+        writer.write(chars, 0, length);
+    }
+
+    /// Encode the rendered characters as UTF-8.
+    /// @return a buffer holding the encoded bytes from position 0 to its limit, backed by an
+    ///     array and owned by this render buffer, so it is overwritten by the next call
+    public ByteBuffer utf8() {
+        CharBuffer source = CharBuffer.wrap(chars, 0, length);
+        if (bytes.capacity() < length) {
+            bytes = ByteBuffer.allocate(length + (length >> 3) + 16);
+        }
+        bytes.clear();
+        utf8.reset();
+        CoderResult result = utf8.encode(source, bytes, true);
+        while (result.isOverflow()) {
+            ByteBuffer larger = ByteBuffer.allocate(bytes.capacity() * 2);
+            bytes.flip();
+            larger.put(bytes);
+            bytes = larger;
+            result = utf8.encode(source, bytes, true);
+        }
+        utf8.flush(bytes);
+        bytes.flip();
+        return bytes;
+    }
+
+    /// Scratch space for the distinct binding values of one rendering.
+    Object[] values(int count) {
+        if (values.length < count) {
+            values = new Object[count];
+        }
+        return values;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > chars.length) {
+            chars = Arrays.copyOf(chars, Math.max(required, chars.length * 2));
+        }
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index " + index + " is out of bounds for length " + length);
+        }
+        return chars[index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        Objects.checkFromToIndex(start, end, length);
+        return new String(chars, start, end - start);
+    }
+
+    /// Copy the rendered characters into a new String. This is for diagnostics and for callers
+    /// which must retain the text; it defeats the purpose of rendering into a reusable buffer.
+    @Override
+    public String toString() {
+        return new String(chars, 0, length);
+    }
+}
@@ -16,9 +16,12 @@
 
 package io.nosqlbench.virtdata.core.templates;
 
+import io.nosqlbench.virtdata.core.bindings.BindingColumns;
 import io.nosqlbench.virtdata.core.bindings.DataMapper;
 import io.nosqlbench.virtdata.core.bindings.VirtData;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -39,6 +42,9 @@ public class StringCompositor implements LongFunction<String> {
     private final int bufsize;
 
     private final Function<Object, String> stringfunc;
+    private final boolean defaultStringFunc;
+
+    private static final Function<Object, String> DEFAULT_STRINGFUNC = s -> s != null ? s.toString() : "NULL";
 
     public StringCompositor(ParsedTemplateString template, Map<String, Object> fconfig, Function<Object, String> stringfunc) {
         Map<String, Integer> specs = new HashMap<>();
@@ -63,6 +69,7 @@ public class StringCompositor implements LongFunction<String> {
         }
         spans[spans.length - 1] = even_odd_spans[even_odd_spans.length - 1];
         this.stringfunc = stringfunc;
+        this.defaultStringFunc = (stringfunc == DEFAULT_STRINGFUNC);
 
         int minsize = 0;
         for (int i = 0; i < 100; i++) {
@@ -75,7 +82,7 @@ public class StringCompositor implements LongFunction<String> {
     }
 
     public StringCompositor(ParsedTemplateString template, Map<String, Object> fconfig) {
-        this(template, fconfig, s -> s != null ? s.toString() : "NULL");
+        this(template, fconfig, DEFAULT_STRINGFUNC);
     }
 
     @Override
@@ -93,4 +100,78 @@ public class StringCompositor implements LongFunction<String> {
         sb.append(spans[spans.length - 1]);
         return sb.toString();
     }
+
+    /**
+     * Render the template for the given input into a reusable buffer, appending to whatever it
+     * already holds. This produces the same characters as {@link #apply(long)}, but without the
+     * per-call builder, value array, and result String, and character sequence values are copied
+     * straight into the buffer.
+     *
+     * @param value a long input value
+     * @param buffer the buffer to append the rendered template to
+     */
+    public void renderTo(long value, RenderBuffer buffer) {
+        Object[] values = buffer.values(mappers.length);
+        for (int i = 0; i < mappers.length; i++) {
+            values[i] = mappers[i].apply(value);
+        }
+        for (int i = 0; i < LUT.length; i++) {
+            buffer.append(spans[i]);
+            Object object = values[LUT[i]];
+            if (defaultStringFunc && object instanceof CharSequence chars) {
+                buffer.append(chars);
+            } else {
+                buffer.append(stringfunc.apply(object));
+            }
+        }
+        buffer.append(spans[spans.length - 1]);
+        Arrays.fill(values, 0, mappers.length, null);
+    }
+
+    /**
+     * Create a column store for evaluating the distinct bindings of this template over a batch
+     * of inputs at once, for use with {@link #renderTo(long, BindingColumns, RenderBuffer)}.
+     *
+     * @param capacity the number of inputs in a typical batch, such as the stride
+     * @return new columns, which are filled by the caller for each batch
+     */
+    public BindingColumns newColumns(int capacity) {
+        List<String> names = new ArrayList<>(mappers.length);
+        for (int i = 0; i < mappers.length; i++) {
+            names.add(String.valueOf(i));
+        }
+        return new BindingColumns(names, List.of(mappers), capacity);
+    }
+
+    /**
+     * Render the template for the given input from values which were already evaluated into
+     * columns. Long and int values are written as digits without boxing them. If the columns do
+     * not hold the input, this renders as {@link #renderTo(long, RenderBuffer)} does.
+     *
+     * @param value a long input value
+     * @param columns columns from {@link #newColumns(int)} of this compositor
+     * @param buffer the buffer to append the rendered template to
+     */
+    public void renderTo(long value, BindingColumns columns, RenderBuffer buffer) {
+        int row = columns.rowOf(value);
+        if (row < 0) {
+            renderTo(value, buffer);
+            return;
+        }
+        for (int i = 0; i < LUT.length; i++) {
+            buffer.append(spans[i]);
+            int column = LUT[i];
+            if (defaultStringFunc && columns.isLongColumn(column)) {
+                buffer.append(columns.getLong(column, row));
+            } else {
+                Object object = columns.get(column, row);
+                if (defaultStringFunc && object instanceof CharSequence chars) {
+                    buffer.append(chars);
+                } else {
+                    buffer.append(stringfunc.apply(object));
+                }
+            }
+        }
+        buffer.append(spans[spans.length - 1]);
+    }
 }
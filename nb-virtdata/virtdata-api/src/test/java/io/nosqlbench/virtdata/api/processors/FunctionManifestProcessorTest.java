@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2022-2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.api.processors;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+public class FunctionManifestProcessorTest {
+
+    @TempDir
+    Path output;
+
+    @Test
+    public void testIndexesThePublicApplyMethodRatherThanHelpers() throws Exception {
+        String source = """
+            package sample;
+
+            import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
+            import java.util.function.LongToIntFunction;
+
+            @ThreadSafeMapper
+            public class WeightedSample implements LongToIntFunction {
+                private final int[] values;
+
+                public WeightedSample(String spec) {
+                    this.values = applyModifiers(new StringBuilder(spec), new String[0]);
+                }
+
+                private int[] applyModifiers(StringBuilder spec, String[] modifiers) {
+                    return new int[]{spec.length() + modifiers.length};
+                }
+
+                public static String applyDefaults(String spec) {
+                    return spec;
+                }
+
+                @Override
+                public int applyAsInt(long value) {
+                    return values[(int) (value % values.length)];
+                }
+            }
+            """;
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, null,
+            List.of("-d", output.toString(), "-classpath", System.getProperty("java.class.path")),
+            null, List.of(new StringSource("sample.WeightedSample", source)));
+        task.setProcessors(List.of(new FunctionManifestProcessor()));
+        assertThat(task.call()).isTrue();
+
+        List<String> lines = Files.readAllLines(output.resolve(FunctionManifestProcessor.INDEX_RESOURCE));
+        assertThat(lines).containsExactly("sample.WeightedSample\tlong\tint\tjava.lang.String");
+    }
+
+    private static final class StringSource extends SimpleJavaFileObject {
+        private final String source;
+
+        private StringSource(String className, String source) {
+            super(URI.create("string:///" + className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension),
+                JavaFileObject.Kind.SOURCE);
+            this.source = source;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return source;
+        }
+    }
+}
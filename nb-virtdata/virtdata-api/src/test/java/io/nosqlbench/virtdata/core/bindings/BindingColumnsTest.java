@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2022-2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.core.bindings;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.LongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Tag("unit")
+public class BindingColumnsTest {
+
+    private final List<LongFunction<?>> functions = List.of(
+        (DataMapper.OfLong) l -> l * 2,
+        (DataMapper.OfInt) l -> (int) (l % 7),
+        (DataMapper.OfDouble) l -> l / 4.0d,
+        (LongFunction<String>) l -> "v" + l
+    );
+
+    @Test
+    public void testFillsPrimitiveAndObjectColumns() {
+        BindingColumns columns = new BindingColumns(List.of("a", "b", "c", "d"), functions, 4);
+        columns.fill(new long[]{3L, 10L, 11L}, 3);
+
+        assertThat(columns.rows()).isEqualTo(3);
+        assertThat(columns.columnOf("c")).isEqualTo(2);
+        assertThat(columns.isLongColumn(0)).isTrue();
+        assertThat(columns.isLongColumn(1)).isTrue();
+        assertThat(columns.isDoubleColumn(2)).isTrue();
+        assertThat(columns.isLongColumn(3)).isFalse();
+
+        int row = columns.rowOf(10L);
+        assertThat(row).isEqualTo(1);
+        assertThat(columns.getLong(0, row)).isEqualTo(20L);
+        assertThat(columns.get(1, row)).isEqualTo(3);
+        assertThat(columns.getDouble(2, row)).isEqualTo(2.5d);
+        assertThat(columns.get(3, row)).isEqualTo("v10");
+        assertThatThrownBy(() -> columns.getLong(3, 0)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void testFindsRowsInAnyOrder() {
+        BindingColumns columns = new BindingColumns(List.of("a", "b", "c", "d"), functions, 2);
+        columns.fill(100L, 8);
+
+        assertThat(columns.rowOf(100L)).isEqualTo(0);
+        assertThat(columns.rowOf(101L)).isEqualTo(1);
+        assertThat(columns.rowOf(106L)).isEqualTo(6);
+        assertThat(columns.rowOf(102L)).isEqualTo(2);
+        assertThat(columns.rowOf(99L)).isEqualTo(-1);
+        assertThat(columns.rowOf(108L)).isEqualTo(-1);
+        for (long input = 100L; input < 108L; input++) {
+            int row = columns.rowOf(input);
+            assertThat(columns.get(3, row)).isEqualTo(functions.get(3).apply(input));
+            assertThat(columns.get(0, row)).isEqualTo(input * 2);
+        }
+
+        columns.clear();
+        assertThat(columns.rows()).isZero();
+        assertThat(columns.rowOf(100L)).isEqualTo(-1);
+    }
+}
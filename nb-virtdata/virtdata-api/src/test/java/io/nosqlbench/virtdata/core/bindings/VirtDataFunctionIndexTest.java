@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2022-2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.core.bindings;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+public class VirtDataFunctionIndexTest {
+
+    private final VirtDataFunctionIndex index = VirtDataFunctionIndex.parse(List.of(
+        "lib.a.Hash\tlong\tlong\t\tint",
+        "lib.b.Hash\tlong\tjava.lang.String\tint",
+        "lib.c.Hash\tjava.lang.Object\tint\t",
+        "lib.a.Join\tlong\tjava.lang.String\tjava.lang.String,java.lang.Object...",
+        "",
+        "malformed"
+    ));
+
+    @Test
+    public void testParsesEntriesBySimpleName() {
+        assertThat(index.isEmpty()).isFalse();
+        assertThat(index.entries("Hash")).hasSize(3);
+        assertThat(index.entries("Missing")).isEmpty();
+
+        VirtDataFunctionIndex.Entry hash = index.entries("Hash").getFirst();
+        assertThat(hash.className()).isEqualTo("lib.a.Hash");
+        assertThat(hash.ctors()).containsExactly(List.of(), List.of("int"));
+    }
+
+    @Test
+    public void testFiltersByApplyTypes() {
+        assertThat(index.candidates("Hash", long.class, null, 0))
+            .containsExactly("lib.a.Hash");
+        assertThat(index.candidates("Hash", long.class, String.class, 1))
+            .containsExactly("lib.b.Hash");
+        assertThat(index.candidates("Hash", String.class, null, 0))
+            .containsExactly("lib.c.Hash");
+        assertThat(index.candidates("Hash", null, null, 1))
+            .containsExactly("lib.a.Hash", "lib.b.Hash");
+    }
+
+    @Test
+    public void testFiltersByConstructorArity() {
+        assertThat(index.candidates("Hash", null, null, 2)).isEmpty();
+        assertThat(index.candidates("Join", long.class, String.class, 0)).isEmpty();
+        assertThat(index.candidates("Join", long.class, String.class, 1)).containsExactly("lib.a.Join");
+        assertThat(index.candidates("Join", long.class, String.class, 5)).containsExactly("lib.a.Join");
+    }
+
+    @Test
+    public void testUnknownTypesDoNotNarrowCandidates() {
+        VirtDataFunctionIndex unknown = VirtDataFunctionIndex.parse(List.of(
+            "lib.x.Thing\tlong\tno.such.Type\t"));
+        assertThat(unknown.candidates("Thing", long.class, String.class, 0))
+            .containsExactly("lib.x.Thing");
+    }
+}
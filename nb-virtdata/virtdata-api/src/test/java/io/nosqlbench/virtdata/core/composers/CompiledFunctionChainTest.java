@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.core.composers;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+public class CompiledFunctionChainTest {
+
+    @Test
+    public void testPrimitiveChainKeepsPrimitiveType() {
+        LongUnaryOperator times3 = l -> l * 3;
+        LongToIntFunction mod7 = l -> (int) (l % 7);
+        IntToDoubleFunction half = i -> i / 2.0d;
+        Optional<Object> compiled = CompiledFunctionChain.compile(List.of(times3, mod7, half));
+        assertThat(compiled).isPresent();
+        assertThat(compiled.get()).isInstanceOf(LongToDoubleFunction.class);
+        assertThat(((LongToDoubleFunction) compiled.get()).applyAsDouble(5L)).isEqualTo(0.5d);
+    }
+
+    @Test
+    public void testNarrowsAndBoxesLikeComposers() {
+        LongUnaryOperator big = l -> l + (1L << 32);
+        IntUnaryOperator identity = i -> i;
+        Function<Integer, String> describe = i -> i.getClass().getSimpleName() + ":" + i;
+        Optional<Object> compiled = CompiledFunctionChain.compile(List.of(big, identity, describe));
+        assertThat(compiled).isPresent();
+        assertThat(((LongFunction<?>) compiled.get()).apply(9L)).isEqualTo("Integer:9");
+
+        FunctionComposer<?> composed = new FunctionAssembly().andThen(big).andThen(identity).andThen(describe);
+        assertThat(((LongFunction<?>) composed.getFunctionObject()).apply(9L)).isEqualTo("Integer:9");
+    }
+
+    @Test
+    public void testObjectToPrimitiveIsLeftToComposers() {
+        LongFunction<Long> boxed = l -> l;
+        LongUnaryOperator plus1 = l -> l + 1;
+        assertThat(CompiledFunctionChain.compile(List.of(boxed, plus1))).isEmpty();
+    }
+
+    @Test
+    public void testDoubleToLongIsLeftToComposers() {
+        LongToDoubleFunction toDouble = l -> l * 1.5d;
+        LongUnaryOperator plus1 = l -> l + 1;
+        assertThat(CompiledFunctionChain.compile(List.of(toDouble, plus1))).isEmpty();
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2022-2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.core.templates;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+public class RenderBufferTest {
+
+    @Test
+    public void testGrowsAndResets() {
+        RenderBuffer buffer = new RenderBuffer(4);
+        String text = "x".repeat(100);
+        buffer.append(text).append(new StringBuilder("yz"));
+        assertThat(buffer.length()).isEqualTo(102);
+        assertThat(buffer.toString()).isEqualTo(text + "yz");
+        assertThat(buffer.subSequence(99, 102).toString()).isEqualTo("xyz");
+        buffer.reset().append("abc");
+        assertThat(buffer.toString()).isEqualTo("abc");
+    }
+
+    @Test
+    public void testEncodesUtf8() {
+        RenderBuffer buffer = new RenderBuffer(4);
+        String text = "naïve ☃ 😀 end";
+        buffer.append(text);
+        ByteBuffer bytes = buffer.utf8();
+        byte[] encoded = Arrays.copyOfRange(bytes.array(), 0, bytes.limit());
+        assertThat(encoded).isEqualTo(text.getBytes(StandardCharsets.UTF_8));
+
+        buffer.reset().append("ok");
+        ByteBuffer again = buffer.utf8();
+        assertThat(new String(again.array(), 0, again.limit(), StandardCharsets.UTF_8)).isEqualTo("ok");
+    }
+
+    @Test
+    public void testWritesWithoutString() throws Exception {
+        RenderBuffer buffer = new RenderBuffer(16).append("one ").append("two");
+        StringWriter writer = new StringWriter();
+        buffer.writeTo(writer);
+        assertThat(writer.toString()).isEqualTo("one two");
+    }
+
+    @Test
+    public void testRenderMatchesApply() {
+        StringCompositor compositor = new ParsedTemplateString("A literal template", Map.of()).renderer(Map.of());
+        RenderBuffer buffer = new RenderBuffer(16);
+        compositor.renderTo(3L, buffer);
+        assertThat(buffer.toString()).isEqualTo(compositor.apply(3L));
+    }
+}
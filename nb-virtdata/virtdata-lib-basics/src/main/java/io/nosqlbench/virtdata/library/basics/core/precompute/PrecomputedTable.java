@@ -0,0 +1,351 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.library.basics.core.precompute;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/// The values of a binding recipe for every input in `[0, size)`, computed once, written to a
+/// table file, and read back through a read-only memory mapping.
+///
+/// Table files are named by a hash of the recipe, the layout and the size, so every process on
+/// a host which uses the same recipe maps the same file and shares its pages in the page cache.
+/// Quoted arguments of the recipe which name files on the filesystem, such as the CSV file of a
+/// sampler, add the absolute path, size and modification time of each file to the hash, so a
+/// table is rebuilt when a file it was computed from changes.
+/// A table is written to a temporary file and then moved into place, so a reader never sees a
+/// partial table, and processes which race to build the same table produce identical files.
+///
+/// ```
+/// ┌───────────────────────────────────────────────┐
+/// │ header: magic, version, layout, size          │ 32 bytes
+/// ├───────────────────────────────────────────────┤
+/// │ LONGS:   size × long value                    │
+/// │ STRINGS: (size + 1) × long offset             │ offsets[i]..offsets[i+1] is value i
+/// │          UTF-8 bytes of every value, in order │
+/// └───────────────────────────────────────────────┘
+/// ```
+///
+/// All values are little-endian. Tables live in the directory named by the
+/// `NB_VIRTDATA_PRECOMPUTE_DIR` environment variable, or in `~/.nosqlbench/precompute`. The
+/// hash does not cover the implementation of the functions in a recipe, nor data which a recipe
+/// reads from anywhere other than a file named by one of its quoted arguments, such as bundled
+/// resources or remote content, so tables should be removed when a library upgrade or such
+/// data changes what a recipe produces.
+public final class PrecomputedTable {
+    private final static Logger logger = LogManager.getLogger(PrecomputedTable.class);
+
+    public static final String DIRECTORY_ENV = "NB_VIRTDATA_PRECOMPUTE_DIR";
+
+    private static final long MAGIC = 0x504d43455250424eL; // "NBPRECMP" when read little-endian
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int WRITE_BUFFER_BYTES = 1 << 16;
+    private static final ValueLayout.OfLong LE_LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfInt LE_INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    /// tables stay mapped for the life of the process; each is loaded once, outside of any lock
+    private static final ConcurrentHashMap<Path, CompletableFuture<PrecomputedTable>> MAPPED = new ConcurrentHashMap<>();
+    private static final Pattern QUOTED = Pattern.compile("'([^']*)'|\"([^\"]*)\"");
+
+    public enum Layout {
+        /// one fixed-width long per input
+        LONGS,
+        /// an offset index over the UTF-8 bytes of one string per input
+        STRINGS
+    }
+
+    private final Path path;
+    private final Layout layout;
+    private final long size;
+    private final long dataStart;
+    private final MemorySegment segment;
+
+    private PrecomputedTable(Path path, Layout layout, long size, MemorySegment segment) {
+        this.path = path;
+        this.layout = layout;
+        this.size = size;
+        this.segment = segment;
+        this.dataStart = HEADER_BYTES + (layout == Layout.STRINGS ? (size + 1) * Long.BYTES : 0L);
+    }
+
+    /// @return the configured table directory
+    public static Path directory() {
+        String configured = System.getenv(DIRECTORY_ENV);
+        if (configured != null && !configured.isBlank()) {
+            return Path.of(configured.trim());
+        }
+        return Path.of(System.getProperty("user.home"), ".nosqlbench", "precompute");
+    }
+
+    /// Map the table for the recipe, first building it from the function if no process has.
+    /// Callers which ask for the same table while it is being built wait for that build, while
+    /// other tables are built concurrently.
+    /// @param directory where table files are kept
+    /// @param layout how values are stored; [Layout#LONGS] requires the function to return numbers
+    /// @param recipe the recipe which the function was resolved from, which names the table
+    /// @param size the number of inputs, starting at 0, to compute values for
+    /// @param function the resolved recipe, which must not return null
+    public static PrecomputedTable open(Path directory, Layout layout, String recipe, long size, LongFunction<?> function) {
+        long maxSize = (Long.MAX_VALUE - HEADER_BYTES) / Long.BYTES - 1;
+        if (size <= 0 || size > maxSize) {
+            throw new IllegalArgumentException("A precomputed table must have between 1 and " + maxSize + " values, but " + size + " were requested.");
+        }
+        Path path = directory.resolve(fileName(layout, recipe, size)).toAbsolutePath().normalize();
+        CompletableFuture<PrecomputedTable> loading = new CompletableFuture<>();
+        CompletableFuture<PrecomputedTable> existing = MAPPED.putIfAbsent(path, loading);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw (e.getCause() instanceof RuntimeException cause) ? cause : e;
+            }
+        }
+        try {
+            PrecomputedTable table = load(path, layout, recipe, size, function);
+            loading.complete(table);
+            return table;
+        } catch (Throwable t) {
+            MAPPED.remove(path, loading);
+            loading.completeExceptionally(t);
+            throw t;
+        }
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /// @return true if the table holds a value for this input
+    public boolean contains(long input) {
+        return input >= 0 && input < size;
+    }
+
+    public long getLong(long input) {
+        return segment.get(LE_LONG, HEADER_BYTES + input * Long.BYTES);
+    }
+
+    public String getString(long input) {
+        long offset = HEADER_BYTES + input * Long.BYTES;
+        long start = segment.get(LE_LONG, offset);
+        int length = (int) (segment.get(LE_LONG, offset + Long.BYTES) - start);
+        byte[] bytes = new byte[length];
+        MemorySegment.copy(segment, ValueLayout.JAVA_BYTE, dataStart + start, bytes, 0, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String fileName(Layout layout, String recipe, long size) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((layout + "\n" + size + "\n" + recipe).getBytes(StandardCharsets.UTF_8));
+            for (Path file : referencedFiles(recipe)) {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                digest.update(("\n" + file + "\n" + attributes.size() + "\n" + attributes.lastModifiedTime().toMillis())
+                    .getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest()) + ".nbtable";
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read the files referenced by '" + recipe + "'", e);
+        }
+    }
+
+    /// @return the regular files named by quoted arguments of the recipe, in the order they appear
+    private static List<Path> referencedFiles(String recipe) {
+        List<Path> files = new ArrayList<>();
+        Matcher matcher = QUOTED.matcher(recipe);
+        while (matcher.find()) {
+            String argument = (matcher.group(1) != null) ? matcher.group(1) : matcher.group(2);
+            if (argument.isBlank()) {
+                continue;
+            }
+            try {
+                Path file = Path.of(argument).toAbsolutePath().normalize();
+                if (Files.isRegularFile(file)) {
+                    files.add(file);
+                }
+            } catch (InvalidPathException ignored) {
+                // not a file name
+            }
+        }
+        return files;
+    }
+
+    private static PrecomputedTable load(Path path, Layout layout, String recipe, long size, LongFunction<?> function) {
+        try {
+            if (Files.exists(path)) {
+                PrecomputedTable table = map(path, layout, size);
+                if (table != null) {
+                    logger.debug(() -> "mapped precomputed table " + path + " for '" + recipe + "'");
+                    return table;
+                }
+                logger.warn("Rebuilding precomputed table {} for '{}', which is not a valid table", path, recipe);
+            }
+            long startedAt = System.nanoTime();
+            build(path, layout, size, function);
+            logger.info("Precomputed {} values of '{}' into {} in {} ms",
+                size, recipe, path, (System.nanoTime() - startedAt) / 1_000_000L);
+            PrecomputedTable table = map(path, layout, size);
+            if (table == null) {
+                throw new IllegalStateException("Precomputed table " + path + " could not be read after it was written.");
+            }
+            return table;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to precompute '" + recipe + "' into " + path, e);
+        }
+    }
+
+    /// @return the mapped table, or null if the file is not a complete table of this layout and size
+    private static PrecomputedTable map(Path path, Layout layout, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                return null;
+            }
+            MemorySegment segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), Arena.ofAuto());
+            boolean valid = segment.get(LE_LONG, 0) == MAGIC
+                && segment.get(LE_INT, 8) == VERSION
+                && segment.get(LE_INT, 12) == layout.ordinal()
+                && segment.get(LE_LONG, 16) == size;
+            if (!valid) {
+                return null;
+            }
+            PrecomputedTable table = new PrecomputedTable(path, layout, size, segment);
+            long expected = layout == Layout.LONGS
+                ? table.dataStart + size * Long.BYTES
+                : table.dataStart + segment.get(LE_LONG, HEADER_BYTES + size * Long.BYTES);
+            return segment.byteSize() == expected ? table : null;
+        }
+    }
+
+    private static void build(Path path, Layout layout, long size, LongFunction<?> function) throws IOException {
+        Files.createDirectories(path.getParent());
+        Path partial = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".partial");
+        try {
+            try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN)
+                    .putLong(MAGIC).putInt(VERSION).putInt(layout.ordinal()).putLong(size).putLong(0L)
+                    .flip();
+                writeFully(channel, header, 0L);
+                switch (layout) {
+                    case LONGS -> writeLongs(channel, size, function);
+                    case STRINGS -> writeStrings(channel, size, function);
+                }
+                channel.force(false);
+            }
+            try {
+                Files.move(partial, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(partial, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+    }
+
+    private static void writeLongs(FileChannel channel, long size, LongFunction<?> function) throws IOException {
+        ByteBuffer values = ByteBuffer.allocate(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        long position = HEADER_BYTES;
+        for (long input = 0; input < size; input++) {
+            if (values.remaining() < Long.BYTES) {
+                position = writeFully(channel, values.flip(), position);
+                values.clear();
+            }
+            values.putLong(((Number) valueOf(function, input)).longValue());
+        }
+        writeFully(channel, values.flip(), position);
+    }
+
+    /// Offsets and values are written in one pass, each through its own buffer at its own
+    /// position in the file, so the values are computed only once.
+    private static void writeStrings(FileChannel channel, long size, LongFunction<?> function) throws IOException {
+        ByteBuffer offsets = ByteBuffer.allocate(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer values = ByteBuffer.allocate(WRITE_BUFFER_BYTES);
+        long offsetPosition = HEADER_BYTES;
+        long valuePosition = HEADER_BYTES + (size + 1) * Long.BYTES;
+        long offset = 0L;
+        offsets.putLong(offset);
+        for (long input = 0; input < size; input++) {
+            byte[] bytes = String.valueOf(valueOf(function, input)).getBytes(StandardCharsets.UTF_8);
+            if (values.remaining() < bytes.length) {
+                valuePosition = writeFully(channel, values.flip(), valuePosition);
+                values.clear();
+            }
+            if (bytes.length > values.capacity()) {
+                valuePosition = writeFully(channel, ByteBuffer.wrap(bytes), valuePosition);
+            } else {
+                values.put(bytes);
+            }
+            offset += bytes.length;
+            if (offsets.remaining() < Long.BYTES) {
+                offsetPosition = writeFully(channel, offsets.flip(), offsetPosition);
+                offsets.clear();
+            }
+            offsets.putLong(offset);
+        }
+        writeFully(channel, offsets.flip(), offsetPosition);
+        writeFully(channel, values.flip(), valuePosition);
+    }
+
+    private static Object valueOf(LongFunction<?> function, long input) {
+        Object value = function.apply(input);
+        if (value == null) {
+            throw new IllegalStateException("The function returned null for input " + input + ", which a precomputed table can not hold.");
+        }
+        return value;
+    }
+
+    /// @return the position after the written bytes
+    private static long writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        return position;
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.library.basics.core.stathelpers;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Arrays;
+
+/// An alias table for drawing one of `N` weighted outcomes in constant time, built with Vose's
+/// method from an array of weights. Every discrete alias sampler in this package draws from
+/// one of these, and maps the outcome index it returns to its own values.
+///
+/// The weights are scaled so that they average 1.0. Each under-full outcome is then paired
+/// with an over-full one which donates the rest of its slot, so that every slot holds at most
+/// two outcomes. A draw picks a slot from the integer part of `unit × N` and one of its two
+/// outcomes from the fractional part.
+///
+/// ```
+///  unit × N = 2.7    slot 2 │ divider 2.4 │ bottom 5 │ top 1 │
+///                    2.7 > 2.4 ──► top ──► outcome 1
+/// ```
+///
+/// Tables are stored as primitive arrays, or off-heap as 16-byte records of
+/// `(divider:double, bottom:int, top:int)` when they have at least as many outcomes as the
+/// `NB_VIRTDATA_ALIAS_OFFHEAP_ENTRIES` environment variable specifies, which is
+/// [#DEFAULT_OFF_HEAP_ENTRIES] when it is not set. Off-heap tables keep large vocabularies out
+/// of the collected heap, and are released when the table is no longer reachable.
+///
+/// A table is immutable once built and may be shared between threads.
+public final class AliasTable {
+    private final static Logger logger = LogManager.getLogger(AliasTable.class);
+
+    public static final String OFF_HEAP_ENV = "NB_VIRTDATA_ALIAS_OFFHEAP_ENTRIES";
+    public static final int DEFAULT_OFF_HEAP_ENTRIES = 1 << 20;
+    private static final int OFF_HEAP_ENTRIES = configuredOffHeapEntries();
+
+    private static final long RECORD_BYTES = Double.BYTES + Integer.BYTES + Integer.BYTES;
+    private static final long BOTTOM_OFFSET = Double.BYTES;
+    private static final long TOP_OFFSET = Double.BYTES + Integer.BYTES;
+
+    private final int size;
+    private final double slotCount;
+    private final double[] dividers;
+    private final int[] outcomes;
+    private final MemorySegment records;
+
+    /// @param weights the relative weight of each outcome, which need not sum to 1.0
+    /// @param offHeap whether to store the table off-heap, as [#offHeapFor(int)] suggests
+    public AliasTable(double[] weights, boolean offHeap) {
+        if (weights.length == 0) {
+            throw new IllegalArgumentException("An alias table needs at least one weighted outcome.");
+        }
+        this.size = weights.length;
+        this.slotCount = size;
+
+        double[] scaled = new double[size];
+        double sum = Arrays.stream(weights).sum();
+        for (int i = 0; i < size; i++) {
+            scaled[i] = (weights[i] / sum) * size;
+        }
+
+        // Both work lists are first-in first-out, so that tables come out the same as they did
+        // when they were built with linked lists, and each outcome is in at most one of them.
+        int[] small = new int[size];
+        int smallHead = 0, smallCount = 0;
+        int[] large = new int[size];
+        int largeHead = 0, largeCount = 0;
+        for (int i = 0; i < size; i++) {
+            if (scaled[i] < 1.0d) {
+                small[(smallHead + smallCount++) % size] = i;
+            } else {
+                large[(largeHead + largeCount++) % size] = i;
+            }
+        }
+
+        double[] slotDividers = new double[size];
+        int[] slotOutcomes = new int[size * 2];
+        int slot = 0;
+        while (smallCount > 0 && largeCount > 0) {
+            int l = small[smallHead];
+            smallHead = (smallHead + 1) % size;
+            smallCount--;
+            int g = large[largeHead];
+            largeHead = (largeHead + 1) % size;
+            largeCount--;
+            setSlot(slotDividers, slotOutcomes, slot++, l, g, scaled[l]);
+            scaled[g] = (scaled[g] + scaled[l]) - 1;
+            if (scaled[g] < 1.0d) {
+                small[(smallHead + smallCount++) % size] = g;
+            } else {
+                large[(largeHead + largeCount++) % size] = g;
+            }
+        }
+        while (largeCount > 0) {
+            int g = large[largeHead];
+            largeHead = (largeHead + 1) % size;
+            largeCount--;
+            setSlot(slotDividers, slotOutcomes, slot++, g, g, 1.0d);
+        }
+        while (smallCount > 0) {
+            int l = small[smallHead];
+            smallHead = (smallHead + 1) % size;
+            smallCount--;
+            setSlot(slotDividers, slotOutcomes, slot++, l, l, 1.0d);
+        }
+
+        if (offHeap) {
+            this.records = Arena.ofAuto().allocate(size * RECORD_BYTES, Double.BYTES);
+            for (int i = 0; i < size; i++) {
+                long offset = i * RECORD_BYTES;
+                records.set(ValueLayout.JAVA_DOUBLE, offset, slotDividers[i]);
+                records.set(ValueLayout.JAVA_INT, offset + BOTTOM_OFFSET, slotOutcomes[i << 1]);
+                records.set(ValueLayout.JAVA_INT, offset + TOP_OFFSET, slotOutcomes[(i << 1) + 1]);
+            }
+            this.dividers = null;
+            this.outcomes = null;
+        } else {
+            this.records = null;
+            this.dividers = slotDividers;
+            this.outcomes = slotOutcomes;
+        }
+    }
+
+    /// The divider of each slot is its bottom probability offset by the slot index, so that a
+    /// draw compares it with `unit × N` directly.
+    private static void setSlot(double[] dividers, int[] outcomes, int slot, int bottom, int top, double bottomProbability) {
+        dividers[slot] = slot + bottomProbability;
+        outcomes[slot << 1] = bottom;
+        outcomes[(slot << 1) + 1] = top;
+    }
+
+    /// @return true if a table of the given number of outcomes should be stored off-heap
+    public static boolean offHeapFor(int size) {
+        return size >= OFF_HEAP_ENTRIES;
+    }
+
+    private static int configuredOffHeapEntries() {
+        String configured = System.getenv(OFF_HEAP_ENV);
+        int entries = DEFAULT_OFF_HEAP_ENTRIES;
+        if (configured != null && !configured.isBlank()) {
+            try {
+                entries = Integer.parseInt(configured.trim());
+            } catch (NumberFormatException e) {
+                logger.warn("Ignoring {}={}, which is not a whole number of entries", OFF_HEAP_ENV, configured);
+            }
+        }
+        return entries > 0 ? entries : DEFAULT_OFF_HEAP_ENTRIES;
+    }
+
+    /// Draw an outcome.
+    /// @param unit a value in the unit interval `[0.0, 1.0)`
+    /// @return the index of the outcome in the weights which the table was built from
+    public int sample(double unit) {
+        double point = unit * slotCount;
+        int slot = (int) point;
+        if (records == null) {
+            return outcomes[point > dividers[slot] ? (slot << 1) + 1 : slot << 1];
+        }
+        long offset = slot * RECORD_BYTES;
+        double divider = records.get(ValueLayout.JAVA_DOUBLE, offset);
+        return records.get(ValueLayout.JAVA_INT, offset + (point > divider ? TOP_OFFSET : BOTTOM_OFFSET));
+    }
+
+    /// The divider of a slot, for comparisons such as [AliasTableJmhBench].
+    double divider(int slot) {
+        return records == null ? dividers[slot] : records.get(ValueLayout.JAVA_DOUBLE, slot * RECORD_BYTES);
+    }
+
+    /// The bottom or top outcome of a slot, for comparisons such as [AliasTableJmhBench].
+    int outcome(int slot, boolean top) {
+        if (records == null) {
+            return outcomes[top ? (slot << 1) + 1 : slot << 1];
+        }
+        return records.get(ValueLayout.JAVA_INT, slot * RECORD_BYTES + (top ? TOP_OFFSET : BOTTOM_OFFSET));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isOffHeap() {
+        return records != null;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.library.basics.core.stathelpers;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/// Cost of one weighted draw over 10, 10k and 1M categories with Zipf-like weights, comparing
+/// the heap and off-heap [AliasTable] with the big-endian [ByteBuffer] records the alias
+/// samplers used before it, and with a binary search of cumulative weights, which is how
+/// inverse-CDF samplers of enumerated distributions find their outcome.
+///
+/// Draws use a fixed set of random unit values, so that large tables are read at random as
+/// they would be with hashed cycles.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Threads(1)
+public class AliasTableJmhBench {
+
+    private static final int UNITS = 1 << 12;
+    private static final int LEGACY_RECORD = Double.BYTES + Integer.BYTES + Integer.BYTES;
+
+    @State(Scope.Benchmark)
+    public static class Tables {
+        @Param({"10", "10000", "1000000"})
+        public int categories;
+
+        public AliasTable heap;
+        public AliasTable offHeap;
+        public ByteBuffer legacy;
+        public double[] cumulative;
+        public final double[] units = new double[UNITS];
+
+        @Setup
+        public void setup() {
+            double[] weights = new double[categories];
+            for (int i = 0; i < categories; i++) {
+                weights[i] = 1.0d / (i + 1);
+            }
+            heap = new AliasTable(weights, false);
+            offHeap = new AliasTable(weights, true);
+
+            legacy = ByteBuffer.allocate(categories * LEGACY_RECORD);
+            for (int slot = 0; slot < categories; slot++) {
+                legacy.putDouble(heap.divider(slot));
+                legacy.putInt(heap.outcome(slot, false));
+                legacy.putInt(heap.outcome(slot, true));
+            }
+            legacy.flip();
+
+            cumulative = new double[categories];
+            double total = Arrays.stream(weights).sum();
+            double sum = 0.0d;
+            for (int i = 0; i < categories; i++) {
+                sum += weights[i] / total;
+                cumulative[i] = sum;
+            }
+
+            SplittableRandom random = new SplittableRandom(42L);
+            for (int i = 0; i < UNITS; i++) {
+                units[i] = random.nextDouble();
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        public int next;
+
+        public int next() {
+            return next++ & (UNITS - 1);
+        }
+    }
+
+    @Benchmark
+    public int heapAliasTable(Tables t, Cursor c) {
+        return t.heap.sample(t.units[c.next()]);
+    }
+
+    @Benchmark
+    public int offHeapAliasTable(Tables t, Cursor c) {
+        return t.offHeap.sample(t.units[c.next()]);
+    }
+
+    @Benchmark
+    public int legacyByteBufferRecords(Tables t, Cursor c) {
+        double point = t.units[c.next()] * t.categories;
+        int offset = (int) point * LEGACY_RECORD;
+        double divider = t.legacy.getDouble(offset);
+        return t.legacy.getInt(offset + (point > divider ? Double.BYTES + Integer.BYTES : Double.BYTES));
+    }
+
+    @Benchmark
+    public int cumulativeSearch(Tables t, Cursor c) {
+        int found = Arrays.binarySearch(t.cumulative, t.units[c.next()]);
+        return Math.min(found < 0 ? -found - 1 : found, t.categories - 1);
+    }
+}
@@ -20,8 +20,21 @@ import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * This provides common thread local instancing for sharing a thread local map across classes.
- * This is being described as a <em>Thread Local State Cache</em>.
+ * This provides the state which is shared between the stateful binding functions, like
+ * <code>Save</code> and <code>Load</code>, along with a global map of objects.
+ *
+ * <p>Variable names are resolved to integer slots once, when a function is initialized, and
+ * values are kept in the {@link StateSlots} of the current owner. When the engine evaluates
+ * bindings for an action, it binds the action's own slots to {@link #ACTION_STATE}, so that
+ * the variables belong to the action no matter which thread, virtual or not, it runs on.
+ * Callers outside of an action, such as tests and tools, get slots for the current thread,
+ * as with the former <em>Thread Local State Cache</em>.</p>
+ *
+ * <p>The table of shared slots is global and is never pruned, so it only holds names which
+ * functions resolve when they are initialized, such as <code>Save('foo')</code>. Its size is
+ * bounded by the binding recipes which are loaded. Names which are made per call, such as by
+ * <code>Save(NumberNameToString())</code>, are resolved by each owner with
+ * {@link StateSlots#slot(String)}, and only grow the slots of the owner which saves them.</p>
  */
 public class SharedState {
 
@@ -30,8 +43,23 @@ public class SharedState {
         thread
     }
 
-    // A thread-local map of objects by name
-    public static ThreadLocal<HashMap<String,Object>> tl_ObjectMap = ThreadLocal.withInitial(HashMap::new);
+    /**
+     * The variables of the action which is evaluating bindings, when one is bound.
+     */
+    public static final ScopedValue<StateSlots> ACTION_STATE = ScopedValue.newInstance();
+
+    // Variables for callers which have not bound ACTION_STATE
+    private static final ThreadLocal<StateSlots> tl_State = ThreadLocal.withInitial(StateSlots::new);
+
+    /**
+     * A map of the current variables by name, which reads and writes the same slots as
+     * {@link #state()}.
+     *
+     * @deprecated Variables are no longer kept in a map for each thread. Use {@link #state()}
+     * with a slot from {@link #slot(String)} instead.
+     */
+    @Deprecated
+    public static ThreadLocal<HashMap<String,Object>> tl_ObjectMap = ThreadLocal.withInitial(StateMapView::new);
 
     // A thread-local stack of objects by name
     public static ThreadLocal<Deque<Object>> tl_ObjectStack = ThreadLocal.withInitial(ArrayDeque::new);
@@ -40,18 +68,133 @@ public class SharedState {
     public static ConcurrentHashMap<String,Object> gl_ObjectMap =
             new ConcurrentHashMap<>();
 
+    // Slots by variable name, and names by slot. Names are published before their slots.
+    private static final ConcurrentHashMap<String,Integer> slots = new ConcurrentHashMap<>();
+    private static volatile String[] names = new String[16];
+    private static int slotCount;
+
+    /**
+     * @return the variables of the current action, or of the current thread if no action is bound
+     */
+    public static StateSlots state() {
+        return ACTION_STATE.isBound() ? ACTION_STATE.get() : tl_State.get();
+    }
+
+    /**
+     * Get the slot for a variable name, assigning the next one if the name is new. Slots are
+     * shared by every owner of {@link StateSlots} in the process, and are never released, so
+     * functions should only resolve constant names here, once, when they are initialized.
+     * Names which are made per call should be resolved with {@link StateSlots#slot(String)}.
+     */
+    public static int slot(String name) {
+        Integer slot = slots.get(name);
+        return (slot != null) ? slot : assign(name);
+    }
+
+    /**
+     * @return the slot for the name, or -1 if no function has used the name
+     */
+    public static int existingSlot(String name) {
+        Integer slot = slots.get(name);
+        return (slot != null) ? slot : -1;
+    }
+
+    public static String nameOf(int slot) {
+        return names[slot];
+    }
+
+    private static synchronized int assign(String name) {
+        Integer existing = slots.get(name);
+        if (existing != null) {
+            return existing;
+        }
+        int slot = slotCount++;
+        String[] current = names;
+        if (slot == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+        }
+        current[slot] = name;
+        names = current;
+        slots.put(name, slot);
+        return slot;
+    }
+
     public static <T> T put(Scope scope, String name, T value) {
         return switch(scope) {
             case process -> (T) gl_ObjectMap.put(name, value);
-            case thread -> (T) tl_ObjectMap.get().put(name, value);
+            case thread -> (T) state().asMap().put(name, value);
         };
     }
 
     public static <T> T get(Scope scope, String name) {
         return switch(scope) {
             case process -> (T) gl_ObjectMap.get(name);
-            case thread -> (T) tl_ObjectMap.get().get(name);
+            case thread -> (T) state().asMap().get(name);
         };
     }
 
+    // Backs the deprecated tl_ObjectMap with the slots of whichever owner is current at each call
+    private static final class StateMapView extends HashMap<String,Object> {
+
+        @Override
+        public Object get(Object key) {
+            return state().asMap().get(key);
+        }
+
+        @Override
+        public Object getOrDefault(Object key, Object defaultValue) {
+            return state().asMap().getOrDefault(key, defaultValue);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return state().asMap().containsKey(key);
+        }
+
+        @Override
+        public Object put(String key, Object value) {
+            return state().asMap().put(key, value);
+        }
+
+        @Override
+        public void putAll(Map<? extends String, ?> map) {
+            state().asMap().putAll(map);
+        }
+
+        @Override
+        public Object remove(Object key) {
+            return state().asMap().remove(key);
+        }
+
+        @Override
+        public void clear() {
+            state().clear();
+        }
+
+        @Override
+        public int size() {
+            return state().asMap().size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return state().asMap().isEmpty();
+        }
+
+        @Override
+        public Set<String> keySet() {
+            return state().asMap().keySet();
+        }
+
+        @Override
+        public Collection<Object> values() {
+            return state().asMap().values();
+        }
+
+        @Override
+        public Set<Map.Entry<String,Object>> entrySet() {
+            return state().asMap().entrySet();
+        }
+    }
+
 }
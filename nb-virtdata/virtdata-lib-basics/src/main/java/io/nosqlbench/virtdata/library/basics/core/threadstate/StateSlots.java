@@ -0,0 +1,369 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.library.basics.core.threadstate;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/// The variables of the stateful binding functions for one owner, such as one action, stored
+/// in lanes indexed by the slot of each variable name.
+///
+/// ```
+///  slot      0        1        2       …
+///  kind    │ LONG   │ OBJECT │ DOUBLE │
+///  longs   │ 42     │        │        │   long and int values
+///  doubles │        │        │ 0.5    │   double and float values
+///  objects │        │ "abc"  │        │   anything else
+/// ```
+///
+/// Names which functions resolve when they are initialized get shared slots from
+/// [SharedState#slot(String)], which are zero or more. Names which are only known per call,
+/// such as those made by a name function, are resolved with [#slot(String)], which gives names
+/// without a shared slot a local slot of this owner, numbered from -2 down. Local slots are
+/// kept in their own lanes, so names generated by one owner neither grow the shared table nor
+/// the lanes of any other owner. Slot -1 means no slot, and is never set.
+///
+/// Primitive values are stored without boxing. Each value keeps the kind it was saved as, so
+/// [#get(int)] returns the same boxed type that a map of objects would have held, and the typed
+/// getters fail in the same way that casting that object would.
+///
+/// A set of slots is not thread safe. It belongs to one owner, which evaluates its bindings on
+/// one thread at a time.
+public final class StateSlots {
+
+    private static final byte UNSET = 0;
+    private static final byte LONG = 1;
+    private static final byte INT = 2;
+    private static final byte DOUBLE = 3;
+    private static final byte FLOAT = 4;
+    private static final byte OBJECT = 5;
+
+    private final Lanes shared = new Lanes(16);
+    private final Lanes local = new Lanes(0);
+    private final Map<String, Integer> localSlots = new HashMap<>();
+    private String[] localNames = new String[0];
+    private Map<String, Object> view;
+
+    /// Get the slot for a variable name, which is its shared slot if it has one, and otherwise
+    /// a local slot of this owner, assigned if the name is new.
+    public int slot(String name) {
+        int slot = existingSlot(name);
+        return (slot != -1) ? slot : assignLocal(name);
+    }
+
+    /// @return the shared or local slot for the name, or -1 if it has neither
+    public int existingSlot(String name) {
+        int slot = SharedState.existingSlot(name);
+        if (slot >= 0) {
+            return slot;
+        }
+        Integer localSlot = localSlots.get(name);
+        return (localSlot != null) ? localSlot : -1;
+    }
+
+    public String nameOf(int slot) {
+        return (slot >= 0) ? SharedState.nameOf(slot) : localNames[-slot - 2];
+    }
+
+    public boolean isSet(int slot) {
+        return lanes(slot).isSet(index(slot));
+    }
+
+    public void putLong(int slot, long value) {
+        Lanes lanes = lanes(slot);
+        int index = lanes.ensureCapacity(index(slot));
+        lanes.kinds[index] = LONG;
+        lanes.longs[index] = value;
+        lanes.objects[index] = null;
+    }
+
+    public void putInt(int slot, int value) {
+        Lanes lanes = lanes(slot);
+        int index = lanes.ensureCapacity(index(slot));
+        lanes.kinds[index] = INT;
+        lanes.longs[index] = value;
+        lanes.objects[index] = null;
+    }
+
+    public void putDouble(int slot, double value) {
+        Lanes lanes = lanes(slot);
+        int index = lanes.ensureCapacity(index(slot));
+        lanes.kinds[index] = DOUBLE;
+        lanes.doubles[index] = value;
+        lanes.objects[index] = null;
+    }
+
+    public void putFloat(int slot, float value) {
+        Lanes lanes = lanes(slot);
+        int index = lanes.ensureCapacity(index(slot));
+        lanes.kinds[index] = FLOAT;
+        lanes.doubles[index] = value;
+        lanes.objects[index] = null;
+    }
+
+    public void put(int slot, Object value) {
+        Lanes lanes = lanes(slot);
+        int index = lanes.ensureCapacity(index(slot));
+        lanes.kinds[index] = OBJECT;
+        lanes.objects[index] = value;
+    }
+
+    /// @return the value as it was saved, boxing primitive values, or null if the slot is unset
+    public Object get(int slot) {
+        return lanes(slot).get(index(slot));
+    }
+
+    public Object getOrDefault(int slot, Object defaultValue) {
+        return isSet(slot) ? get(slot) : defaultValue;
+    }
+
+    public long getLong(int slot, long defaultValue) {
+        Lanes lanes = lanes(slot);
+        int index = index(slot);
+        if (lanes.kindOf(index) == LONG) {
+            return lanes.longs[index];
+        }
+        return lanes.isSet(index) ? (Long) lanes.get(index) : defaultValue;
+    }
+
+    public int getInt(int slot, int defaultValue) {
+        Lanes lanes = lanes(slot);
+        int index = index(slot);
+        if (lanes.kindOf(index) == INT) {
+            return (int) lanes.longs[index];
+        }
+        return lanes.isSet(index) ? (Integer) lanes.get(index) : defaultValue;
+    }
+
+    public double getDouble(int slot, double defaultValue) {
+        Lanes lanes = lanes(slot);
+        int index = index(slot);
+        if (lanes.kindOf(index) == DOUBLE) {
+            return lanes.doubles[index];
+        }
+        return lanes.isSet(index) ? (Double) lanes.get(index) : defaultValue;
+    }
+
+    public float getFloat(int slot, float defaultValue) {
+        Lanes lanes = lanes(slot);
+        int index = index(slot);
+        if (lanes.kindOf(index) == FLOAT) {
+            return (float) lanes.doubles[index];
+        }
+        return lanes.isSet(index) ? (Float) lanes.get(index) : defaultValue;
+    }
+
+    public void remove(int slot) {
+        Lanes lanes = lanes(slot);
+        int index = index(slot);
+        if (lanes.isSet(index)) {
+            lanes.kinds[index] = UNSET;
+            lanes.objects[index] = null;
+        }
+    }
+
+    /// Unset every variable. Local slots stay assigned to their names.
+    public void clear() {
+        shared.clear();
+        local.clear();
+    }
+
+    /// A view of the set variables by name, for callers which need a map, such as expression
+    /// evaluators. Writes to the view are written to the slots.
+    public Map<String, Object> asMap() {
+        if (view == null) {
+            view = new SlotMap();
+        }
+        return view;
+    }
+
+    private int assignLocal(String name) {
+        int index = localSlots.size();
+        if (index == localNames.length) {
+            localNames = Arrays.copyOf(localNames, Math.max(16, localNames.length * 2));
+        }
+        localNames[index] = name;
+        int slot = -index - 2;
+        localSlots.put(name, slot);
+        return slot;
+    }
+
+    private Lanes lanes(int slot) {
+        return (slot >= 0) ? shared : local;
+    }
+
+    private static int index(int slot) {
+        return (slot >= 0) ? slot : -slot - 2;
+    }
+
+    /// The ordinal of a slot when iterating the shared lanes and then the local lanes.
+    private int slotAt(int ordinal) {
+        return (ordinal < shared.kinds.length) ? ordinal : -(ordinal - shared.kinds.length) - 2;
+    }
+
+    private static final class Lanes {
+        private byte[] kinds;
+        private long[] longs;
+        private double[] doubles;
+        private Object[] objects;
+
+        private Lanes(int capacity) {
+            kinds = new byte[capacity];
+            longs = new long[capacity];
+            doubles = new double[capacity];
+            objects = new Object[capacity];
+        }
+
+        private byte kindOf(int index) {
+            return (index >= 0 && index < kinds.length) ? kinds[index] : UNSET;
+        }
+
+        private boolean isSet(int index) {
+            return kindOf(index) != UNSET;
+        }
+
+        private Object get(int index) {
+            return switch (kindOf(index)) {
+                case LONG -> longs[index];
+                case INT -> (int) longs[index];
+                case DOUBLE -> doubles[index];
+                case FLOAT -> (float) doubles[index];
+                case OBJECT -> objects[index];
+                default -> null;
+            };
+        }
+
+        private int ensureCapacity(int index) {
+            if (index >= kinds.length) {
+                int capacity = Math.max(index + 1, kinds.length * 2);
+                kinds = Arrays.copyOf(kinds, capacity);
+                longs = Arrays.copyOf(longs, capacity);
+                doubles = Arrays.copyOf(doubles, capacity);
+                objects = Arrays.copyOf(objects, capacity);
+            }
+            return index;
+        }
+
+        private void clear() {
+            Arrays.fill(kinds, UNSET);
+            Arrays.fill(objects, null);
+        }
+    }
+
+    private final class SlotMap extends AbstractMap<String, Object> {
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String name && isSet(existingSlot(name));
+        }
+
+        @Override
+        public Object get(Object key) {
+            return key instanceof String name ? StateSlots.this.get(existingSlot(name)) : null;
+        }
+
+        @Override
+        public Object put(String key, Object value) {
+            int slot = slot(key);
+            Object previous = StateSlots.this.get(slot);
+            StateSlots.this.put(slot, value);
+            return previous;
+        }
+
+        @Override
+        public Object remove(Object key) {
+            if (!(key instanceof String name)) {
+                return null;
+            }
+            int slot = existingSlot(name);
+            Object previous = StateSlots.this.get(slot);
+            StateSlots.this.remove(slot);
+            return previous;
+        }
+
+        @Override
+        public void clear() {
+            StateSlots.this.clear();
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    return new Iterator<>() {
+                        private int next = advance(0);
+                        private int last = -1;
+
+                        private int advance(int from) {
+                            int ordinal = from;
+                            while (ordinal < ordinals() && !isSet(slotAt(ordinal))) {
+                                ordinal++;
+                            }
+                            return ordinal;
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < ordinals();
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            last = slotAt(next);
+                            next = advance(next + 1);
+                            return new SimpleImmutableEntry<>(nameOf(last), StateSlots.this.get(last));
+                        }
+
+                        @Override
+                        public void remove() {
+                            if (last == -1) {
+                                throw new IllegalStateException();
+                            }
+                            StateSlots.this.remove(last);
+                            last = -1;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    int size = 0;
+                    for (int ordinal = 0; ordinal < ordinals(); ordinal++) {
+                        if (isSet(slotAt(ordinal))) {
+                            size++;
+                        }
+                    }
+                    return size;
+                }
+            };
+        }
+
+        private int ordinals() {
+            return shared.kinds.length + local.kinds.length;
+        }
+    }
+}
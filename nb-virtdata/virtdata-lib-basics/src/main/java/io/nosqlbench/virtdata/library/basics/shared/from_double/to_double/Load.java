@@ -21,8 +21,8 @@ import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.Example;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 import io.nosqlbench.virtdata.library.basics.core.threadstate.SharedState;
+import io.nosqlbench.virtdata.library.basics.core.threadstate.StateSlots;
 
-import java.util.HashMap;
 import java.util.function.DoubleUnaryOperator;
 import java.util.function.Function;
 
@@ -31,6 +31,7 @@ import java.util.function.Function;
 public class Load implements DoubleUnaryOperator {
 
     private final String name;
+    private final int slot;
     private final Function<Object,Object> nameFunc;
     private final double defaultValue;
 
@@ -38,6 +39,7 @@ public class Load implements DoubleUnaryOperator {
     @Example({"Load('foo')","for the current thread, load a double value from the named variable"})
     public Load(String name) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc =null;
         this.defaultValue=0.0D;
     }
@@ -46,6 +48,7 @@ public class Load implements DoubleUnaryOperator {
             "value if it is not yet defined."})
     public Load(String name, double defaultValue) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc =null;
         this.defaultValue=defaultValue;
     }
@@ -54,6 +57,7 @@ public class Load implements DoubleUnaryOperator {
             "name is provided by a function."})
     public Load(Function<Object,Object> nameFunc) {
         this.name = null;
+        this.slot = -1;
         this.nameFunc =nameFunc;
         this.defaultValue=0.0D;
     }
@@ -62,15 +66,15 @@ public class Load implements DoubleUnaryOperator {
             "name is provided by a function, or the default value if the named value is not yet defined."})
     public Load(Function<Object,Object> nameFunc, double defaultValue) {
         this.name = null;
+        this.slot = -1;
         this.nameFunc =nameFunc;
         this.defaultValue=defaultValue;
     }
 
     @Override
     public double applyAsDouble(double operand) {
-        String varname = nameFunc !=null ? String.valueOf(nameFunc.apply(operand)) : name;
-        HashMap<String, Object> map = SharedState.tl_ObjectMap.get();
-        Object o = map.getOrDefault(varname, defaultValue);
-        return (double) o;
+        StateSlots state = SharedState.state();
+        int slot = (nameFunc!=null) ? state.existingSlot(String.valueOf(nameFunc.apply(operand))) : this.slot;
+        return state.getDouble(slot, defaultValue);
     }
 }
@@ -21,6 +21,7 @@ import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.Example;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 import io.nosqlbench.virtdata.library.basics.core.threadstate.SharedState;
+import io.nosqlbench.virtdata.library.basics.core.threadstate.StateSlots;
 
 import java.util.function.DoubleUnaryOperator;
 import java.util.function.Function;
@@ -30,11 +31,13 @@ import java.util.function.Function;
 public class Save implements DoubleUnaryOperator {
 
     private final String name;
+    private final int slot;
     private final Function<Object,Object> nameFunc;
 
     @Example({"Save('foo')","for the current thread, save the current double value to the named variable."})
     public Save(String name) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
     }
 
@@ -42,13 +45,15 @@ public class Save implements DoubleUnaryOperator {
             ", where the variable name is provided by a function."})
     public Save(Function<Object,Object> nameFunc) {
         this.name = null;
+        this.slot = -1;
         this.nameFunc=nameFunc;
     }
 
     @Override
     public double applyAsDouble(double operand) {
-        String varname = (nameFunc!=null) ? String.valueOf(nameFunc.apply(operand)) : name;
-        SharedState.tl_ObjectMap.get().put(varname, operand);
+        StateSlots state = SharedState.state();
+        int slot = (nameFunc!=null) ? state.slot(String.valueOf(nameFunc.apply(operand))) : this.slot;
+        state.putDouble(slot, operand);
         return operand;
     }
 }
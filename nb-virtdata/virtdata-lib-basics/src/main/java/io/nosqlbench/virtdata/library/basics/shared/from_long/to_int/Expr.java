@@ -24,7 +24,7 @@ import io.nosqlbench.virtdata.library.basics.core.threadstate.SharedState;
 import org.mvel2.MVEL;
 
 import java.io.Serializable;
-import java.util.HashMap;
+import java.util.Map;
 import java.util.function.LongToIntFunction;
 
 /**
@@ -54,7 +54,7 @@ public class Expr implements LongToIntFunction {
 
     @Override
     public int applyAsInt(long value) {
-        HashMap<String, Object> map = SharedState.tl_ObjectMap.get();
+        Map<String, Object> map = SharedState.state().asMap();
         map.put("cycle",value);
         int result = MVEL.executeExpression(compiledExpr, map, int.class);
         return result;
@@ -22,7 +22,6 @@ import io.nosqlbench.virtdata.api.annotations.Example;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 import io.nosqlbench.virtdata.murmur.Murmur3F;
 
-import java.nio.ByteBuffer;
 import java.util.function.LongUnaryOperator;
 
 /**
@@ -40,16 +39,8 @@ public class Hash implements LongUnaryOperator {
     public Hash() {
     }
 
-    private final transient ThreadLocal<Murmur3F> murmur3f_TL = ThreadLocal.withInitial(Murmur3F::new);
-
     @Override
     public long applyAsLong(long value) {
-        ByteBuffer bb = ByteBuffer.allocate(Long.BYTES);
-        Murmur3F murmur3f = murmur3f_TL.get();
-        murmur3f.reset();
-        bb.putLong(0,value);
-        murmur3f.update(bb.array(),0,Long.BYTES);
-        long result= Math.abs(murmur3f.getValue());
-        return result;
+        return Math.abs(Murmur3F.hashLongBE(value, 0));
     }
 }
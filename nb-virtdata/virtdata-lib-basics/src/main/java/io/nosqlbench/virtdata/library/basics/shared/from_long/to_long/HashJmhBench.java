@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.library.basics.shared.from_long.to_long;
+
+import io.nosqlbench.virtdata.murmur.Murmur3F;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/// Cost of one [Hash] call, comparing the stateless [Murmur3F#hashLongBE] kernel the Hash family
+/// now uses with the thread-local hasher and per-call buffer it replaced. Run with `-prof gc` to
+/// see bytes/op alongside ns/op; the kernel should report zero allocation.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Threads(1)
+public class HashJmhBench {
+
+    @State(Scope.Benchmark)
+    public static class BenchState {
+        public final Hash hash = new Hash();
+        public final ThreadLocal<Murmur3F> murmur3f_TL = ThreadLocal.withInitial(Murmur3F::new);
+    }
+
+    @State(Scope.Thread)
+    public static class CycleState {
+        public long cycle;
+    }
+
+    @Benchmark
+    public long statelessKernel(BenchState s, CycleState c) {
+        return s.hash.applyAsLong(c.cycle++);
+    }
+
+    @Benchmark
+    public long threadLocalHasher(BenchState s, CycleState c) {
+        ByteBuffer bb = ByteBuffer.allocate(Long.BYTES);
+        Murmur3F murmur3f = s.murmur3f_TL.get();
+        murmur3f.reset();
+        bb.putLong(0, c.cycle++);
+        murmur3f.update(bb.array(), 0, Long.BYTES);
+        return Math.abs(murmur3f.getValue());
+    }
+}
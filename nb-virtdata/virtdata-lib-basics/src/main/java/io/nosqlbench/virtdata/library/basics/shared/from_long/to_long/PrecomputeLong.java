@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.library.basics.shared.from_long.to_long;
+
+import io.nosqlbench.virtdata.api.annotations.Categories;
+import io.nosqlbench.virtdata.api.annotations.Category;
+import io.nosqlbench.virtdata.api.annotations.Example;
+import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
+import io.nosqlbench.virtdata.core.bindings.VirtData;
+import io.nosqlbench.virtdata.library.basics.core.precompute.PrecomputedTable;
+
+import java.util.function.LongUnaryOperator;
+
+/// Serve the long values of another recipe from a precomputed, memory-mapped table of
+/// fixed-width values.
+///
+/// This is the numeric form of
+/// [io.nosqlbench.virtdata.library.basics.shared.from_long.to_string.Precompute]. The recipe
+/// is evaluated once for every input in `[0, size)`, and inputs outside the range are passed
+/// to the recipe itself.
+@ThreadSafeMapper
+@Categories({Category.general})
+public class PrecomputeLong implements LongUnaryOperator {
+
+    private final LongUnaryOperator function;
+    private final PrecomputedTable table;
+
+    @Example({"PrecomputeLong('HashInterval(0L, 1000000L)', 10000000L)", "a table of ten million hashed values"})
+    public PrecomputeLong(String recipe, long size) {
+        this.function = VirtData.getFunction(recipe, LongUnaryOperator.class);
+        this.table = PrecomputedTable.open(PrecomputedTable.directory(), PrecomputedTable.Layout.LONGS, recipe, size, function::applyAsLong);
+    }
+
+    @Override
+    public long applyAsLong(long operand) {
+        if (table.contains(operand)) {
+            return table.getLong(operand);
+        }
+        return function.applyAsLong(operand);
+    }
+}
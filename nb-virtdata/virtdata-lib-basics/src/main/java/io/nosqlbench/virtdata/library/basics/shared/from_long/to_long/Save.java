@@ -21,6 +21,7 @@ import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.Example;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 import io.nosqlbench.virtdata.library.basics.core.threadstate.SharedState;
+import io.nosqlbench.virtdata.library.basics.core.threadstate.StateSlots;
 
 import java.util.function.Function;
 import java.util.function.LongUnaryOperator;
@@ -30,24 +31,28 @@ import java.util.function.LongUnaryOperator;
 public class Save implements LongUnaryOperator {
 
     private final String name;
+    private final int slot;
     private final Function<Object,Object> nameFunc;
 
     @Example({"Save('foo')","save the current long value to the name 'foo' in this thread"})
     public Save(String name) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc =null;
     }
 
     @Example({"Save(NumberNameToString())","save the current long value to the name generated by the function given."})
     public Save(Function<Object,Object> nameFunc) {
         this.name=null;
+        this.slot = -1;
         this.nameFunc =nameFunc;
     }
 
     @Override
     public long applyAsLong(long operand) {
-        String varname = (nameFunc !=null) ? String.valueOf(nameFunc.apply(operand)) : name;
-        SharedState.tl_ObjectMap.get().put(varname,operand);
+        StateSlots state = SharedState.state();
+        int slot = (nameFunc!=null) ? state.slot(String.valueOf(nameFunc.apply(operand))) : this.slot;
+        state.putLong(slot, operand);
         return operand;
     }
 }
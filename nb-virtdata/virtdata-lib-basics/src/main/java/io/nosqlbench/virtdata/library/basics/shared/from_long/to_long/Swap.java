@@ -21,8 +21,8 @@ import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.Example;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 import io.nosqlbench.virtdata.library.basics.core.threadstate.SharedState;
+import io.nosqlbench.virtdata.library.basics.core.threadstate.StateSlots;
 
-import java.util.HashMap;
 import java.util.function.LongFunction;
 import java.util.function.LongUnaryOperator;
 
@@ -31,12 +31,14 @@ import java.util.function.LongUnaryOperator;
 public class Swap implements LongUnaryOperator {
 
     private final String name;
+    private final int slot;
     private final LongFunction<String> nameGen;
     private final long defaultValue;
 
     @Example({"Swap('foo')","for the current thread, swap the input value with the named variable and returned the named variable."})
     public Swap(String name) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameGen=null;
         this.defaultValue=0L;
     }
@@ -45,6 +47,7 @@ public class Swap implements LongUnaryOperator {
             ",or the default value if the named variable is not defined."})
     public Swap(String name, long defaultValue) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameGen=null;
         this.defaultValue=defaultValue;
     }
@@ -53,6 +56,7 @@ public class Swap implements LongUnaryOperator {
             ", where the variable name is generated by the provided function."})
     public Swap(LongFunction<String> nameFunc) {
         this.name=null;
+        this.slot = -1;
         this.nameGen=nameFunc;
         defaultValue=0L;
     }
@@ -62,17 +66,18 @@ public class Swap implements LongUnaryOperator {
             ", or the default value if the named variable is not defined."})
     public Swap(LongFunction<String> nameFunc, long defaultValue) {
         this.name=null;
+        this.slot = -1;
         this.nameGen=nameFunc;
         this.defaultValue=defaultValue;
     }
 
     @Override
     public long applyAsLong(long input) {
-        HashMap<String, Object> map = SharedState.tl_ObjectMap.get();
-        String varname=(nameGen!=null) ? nameGen.apply(input) : name;
+        StateSlots state = SharedState.state();
+        int slot = (nameGen!=null) ? state.slot(nameGen.apply(input)) : this.slot;
 
-        long output = map.containsKey(varname) ? (long) map.get(varname) : defaultValue;
-        map.put(varname,input);
+        long output = state.getLong(slot, defaultValue);
+        state.putLong(slot, input);
 
         return output;
     }
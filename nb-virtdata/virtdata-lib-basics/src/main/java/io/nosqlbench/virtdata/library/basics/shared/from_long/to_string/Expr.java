@@ -24,7 +24,6 @@ import io.nosqlbench.virtdata.library.basics.core.threadstate.SharedState;
 import org.mvel2.MVEL;
 
 import java.io.Serializable;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.LongFunction;
@@ -44,7 +43,7 @@ public class Expr implements LongFunction<String> {
     @Override
     public String apply(long operand) {
         ConcurrentHashMap<String, Object> gl_map = SharedState.gl_ObjectMap;
-        HashMap<String, Object> map = SharedState.tl_ObjectMap.get();
+        Map<String, Object> map = SharedState.state().asMap();
 
         // merge gl into tl, for duplicates use the value from tl
         for (Map.Entry<String, Object> stringObjectEntry : gl_map.entrySet()) {
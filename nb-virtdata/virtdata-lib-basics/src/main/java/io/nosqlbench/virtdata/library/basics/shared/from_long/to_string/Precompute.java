@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.library.basics.shared.from_long.to_string;
+
+import io.nosqlbench.virtdata.api.annotations.Categories;
+import io.nosqlbench.virtdata.api.annotations.Category;
+import io.nosqlbench.virtdata.api.annotations.Example;
+import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
+import io.nosqlbench.virtdata.core.bindings.VirtData;
+import io.nosqlbench.virtdata.library.basics.core.precompute.PrecomputedTable;
+
+import java.util.function.LongFunction;
+
+/// Serve the string values of another recipe from a precomputed, memory-mapped table.
+///
+/// The recipe is evaluated once for every input in `[0, size)`, and the results are kept in a
+/// table file named by a hash of the recipe, so later runs, and other processes on the same
+/// host, read the values from the shared mapping instead of computing them. This suits
+/// deterministic recipes which are expensive per call, such as weighted or CSV-backed
+/// samplers and name generators. Inputs outside the range are passed to the recipe itself,
+/// so the values are the same as the recipe's for every input.
+///
+/// The recipe must not return null. See [PrecomputedTable] for where tables are kept.
+@ThreadSafeMapper
+@Categories({Category.general})
+public class Precompute implements LongFunction<String> {
+
+    private final LongFunction<?> function;
+    private final PrecomputedTable table;
+
+    @Example({"Precompute('FullNames()', 10000000L)", "names for the first ten million cycles, read from a shared table"})
+    @Example({"Precompute(\"Hash(); WeightedStrings('a:1;b:2')\", 1000000L)", "a table of one million weighted samples"})
+    public Precompute(String recipe, long size) {
+        this.function = VirtData.getFunction(recipe, LongFunction.class);
+        this.table = PrecomputedTable.open(PrecomputedTable.directory(), PrecomputedTable.Layout.STRINGS, recipe, size, function);
+    }
+
+    @Override
+    public String apply(long value) {
+        if (table.contains(value)) {
+            return table.getString(value);
+        }
+        return String.valueOf(function.apply(value));
+    }
+}
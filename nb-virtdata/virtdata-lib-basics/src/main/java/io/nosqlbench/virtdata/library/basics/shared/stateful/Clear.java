@@ -21,22 +21,22 @@ import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.Example;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 import io.nosqlbench.virtdata.library.basics.core.threadstate.SharedState;
+import io.nosqlbench.virtdata.library.basics.core.threadstate.StateSlots;
 
-import java.util.HashMap;
 import java.util.function.Function;
 
 @ThreadSafeMapper
 @Categories({Category.state})
 public class Clear implements Function<Object,Object> {
 
-    private final String[] names;
+    private final int[] slots;
 
     /**
      * Clear all named entries from the per-thread map.
      */
     @Example({"Clear()","clear all thread-local variables"})
     public Clear() {
-        this.names=null;
+        this.slots=null;
     }
 
     /**
@@ -46,18 +46,21 @@ public class Clear implements Function<Object,Object> {
     @Example({"Clear('foo')","clear the thread-local variable 'foo'"})
     @Example({"Clear('foo','bar')","clear the thread-local variables 'foo' and 'bar'"})
     public Clear(String... names) {
-        this.names = names;
+        this.slots = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            this.slots[i] = SharedState.slot(names[i]);
+        }
     }
 
     @Override
     public Object apply(Object operand) {
-        HashMap<String, Object> map = SharedState.tl_ObjectMap.get();
-        if (names==null) {
-            map.clear();
+        StateSlots state = SharedState.state();
+        if (slots==null) {
+            state.clear();
             return operand;
         }
-        for (String name : names) {
-            map.remove(name);
+        for (int slot : slots) {
+            state.remove(slot);
         }
 
         return operand;
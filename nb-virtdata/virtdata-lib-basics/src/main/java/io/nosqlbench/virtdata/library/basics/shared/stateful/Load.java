@@ -21,8 +21,8 @@ import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.Example;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 import io.nosqlbench.virtdata.library.basics.core.threadstate.SharedState;
+import io.nosqlbench.virtdata.library.basics.core.threadstate.StateSlots;
 
-import java.util.HashMap;
 import java.util.function.Function;
 
 @ThreadSafeMapper
@@ -30,12 +30,14 @@ import java.util.function.Function;
 public class Load implements Function<Object,Object> {
 
     private final String name;
+    private final int slot;
     private final Function<Object,Object> nameFunc;
     private final Object defaultValue;
 
     @Example({"Load('foo')","for the current thread, load an Object value from the named variable"})
     public Load(String name) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
         this.defaultValue=null;
     }
@@ -43,6 +45,7 @@ public class Load implements Function<Object,Object> {
     @Example({"Load(NumberNameToString())","for the current thread, load an Object value from the named variable, where the variable name is returned by the provided function"})
     public Load(Function<Object,Object> nameFunc) {
         this.name = null;
+        this.slot = -1;
         this.nameFunc = nameFunc;
         this.defaultValue=null;
     }
@@ -51,6 +54,7 @@ public class Load implements Function<Object,Object> {
             "or the default value if the variable is not yet defined."})
     public Load(String name, Object defaultValue) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
         this.defaultValue=defaultValue;
     }
@@ -60,15 +64,16 @@ public class Load implements Function<Object,Object> {
             "default value if the variable is not yet defined."})
     public Load(Function<Object,Object> nameFunc, Object defaultValue) {
         this.name = null;
+        this.slot = -1;
         this.nameFunc = nameFunc;
         this.defaultValue = defaultValue;
     }
 
     @Override
     public Object apply(Object o) {
-        String varname = (nameFunc!=null) ? String.valueOf(nameFunc.apply(o)) : name;
-        HashMap<String, Object> map = SharedState.tl_ObjectMap.get();
-        Object output = map.getOrDefault(varname,defaultValue);
+        StateSlots state = SharedState.state();
+        int slot = (nameFunc!=null) ? state.existingSlot(String.valueOf(nameFunc.apply(o))) : this.slot;
+        Object output = state.getOrDefault(slot, defaultValue);
         return output;
     }
 
@@ -21,8 +21,8 @@ import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.Example;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 import io.nosqlbench.virtdata.library.basics.core.threadstate.SharedState;
+import io.nosqlbench.virtdata.library.basics.core.threadstate.StateSlots;
 
-import java.util.HashMap;
 import java.util.function.Function;
 
 @Categories(Category.state)
@@ -30,12 +30,14 @@ import java.util.function.Function;
 public class LoadDouble implements Function<Object,Double> {
 
     private final String name;
+    private final int slot;
     private final Function<Object,Object> nameFunc;
     private final double defaultValue;
 
     @Example({"LoadDouble('foo')","for the current thread, load a double value from the named variable."})
     public LoadDouble(String name) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
         this.defaultValue=0.0D;
     }
@@ -44,6 +46,7 @@ public class LoadDouble implements Function<Object,Double> {
             "or the default value if the named variable is not defined."})
     public LoadDouble(String name, double defaultValue) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
         this.defaultValue=defaultValue;
     }
@@ -52,6 +55,7 @@ public class LoadDouble implements Function<Object,Double> {
             "where the variable name is provided by a function."})
     public LoadDouble(Function<Object,Object> nameFunc) {
         this.name=null;
+        this.slot = -1;
         this.nameFunc = nameFunc;
         this.defaultValue=0.0D;
     }
@@ -61,15 +65,15 @@ public class LoadDouble implements Function<Object,Double> {
             "variable is not defined."})
     public LoadDouble(Function<Object,Object> nameFunc, double defaultValue) {
         this.name=null;
+        this.slot = -1;
         this.nameFunc = nameFunc;
         this.defaultValue=defaultValue;
     }
 
     @Override
     public Double apply(Object o) {
-        HashMap<String, Object> map = SharedState.tl_ObjectMap.get();
-        String varname=(nameFunc!=null) ? String.valueOf(nameFunc.apply(o)) : name;
-        Object value = map.getOrDefault(varname, defaultValue);
-        return (Double) value;
+        StateSlots state = SharedState.state();
+        int slot = (nameFunc!=null) ? state.existingSlot(String.valueOf(nameFunc.apply(o))) : this.slot;
+        return state.getDouble(slot, defaultValue);
     }
 }
@@ -21,8 +21,8 @@ import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.Example;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 import io.nosqlbench.virtdata.library.basics.core.threadstate.SharedState;
+import io.nosqlbench.virtdata.library.basics.core.threadstate.StateSlots;
 
-import java.util.HashMap;
 import java.util.function.Function;
 
 /**
@@ -35,6 +35,7 @@ import java.util.function.Function;
 public class LoadFloat implements Function<Object,Float> {
 
     private final String name;
+    private final int slot;
     private final Function<Object,Object> nameFunc;
     private final float defaultValue;
 
@@ -42,6 +43,7 @@ public class LoadFloat implements Function<Object,Float> {
     @Example({"LoadFloat('foo')","for the current thread, load a float value from the named variable."})
     public LoadFloat(String name) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
         this.defaultValue = 0.0F;
     }
@@ -50,6 +52,7 @@ public class LoadFloat implements Function<Object,Float> {
             "or the default value if the named variable is not defined."})
     public LoadFloat(String name, float defaultValue) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
         this.defaultValue = defaultValue;
     }
@@ -58,6 +61,7 @@ public class LoadFloat implements Function<Object,Float> {
             "where the variable name is provided by a function."})
     public LoadFloat(Function<Object,Object> nameFunc) {
         this.name=null;
+        this.slot = -1;
         this.nameFunc = nameFunc;
         this.defaultValue = 0.0F;
     }
@@ -67,15 +71,15 @@ public class LoadFloat implements Function<Object,Float> {
             "variable is not defined."})
     public LoadFloat(Function<Object,Object> nameFunc, float defaultValue) {
         this.name=null;
+        this.slot = -1;
         this.nameFunc = nameFunc;
         this.defaultValue = defaultValue;
     }
 
     @Override
     public Float apply(Object o) {
-        String varname=(nameFunc!=null) ? String.valueOf(nameFunc.apply(o)) : name;
-        HashMap<String, Object> map = SharedState.tl_ObjectMap.get();
-        Object value = map.getOrDefault(varname,defaultValue);
-        return (Float) value;
+        StateSlots state = SharedState.state();
+        int slot = (nameFunc!=null) ? state.existingSlot(String.valueOf(nameFunc.apply(o))) : this.slot;
+        return state.getFloat(slot, defaultValue);
     }
 }
@@ -21,8 +21,8 @@ import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.Example;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 import io.nosqlbench.virtdata.library.basics.core.threadstate.SharedState;
+import io.nosqlbench.virtdata.library.basics.core.threadstate.StateSlots;
 
-import java.util.HashMap;
 import java.util.function.Function;
 
 /**
@@ -35,12 +35,14 @@ import java.util.function.Function;
 public class LoadInteger implements Function<Object,Integer> {
 
     private final String name;
+    private final int slot;
     private final Function<Object,Object> nameFunc;
     private final int defaultValue;
 
     @Example({"LoadInteger('foo')","for the current thread, load an integer value from the named variable."})
     public LoadInteger(String name) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
         this.defaultValue=0;
     }
@@ -49,6 +51,7 @@ public class LoadInteger implements Function<Object,Integer> {
             " or the default value if the named variable is not defined."})
     public LoadInteger(String name, int defaultValue) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
         this.defaultValue = defaultValue;
     }
@@ -57,6 +60,7 @@ public class LoadInteger implements Function<Object,Integer> {
             "where the variable name is provided by a function."})
     public LoadInteger(Function<Object,Object> nameFunc) {
         this.name=null;
+        this.slot = -1;
         this.nameFunc = nameFunc;
         defaultValue = 0;
     }
@@ -66,15 +70,15 @@ public class LoadInteger implements Function<Object,Integer> {
             "variable is not defined."})
     public LoadInteger(Function<Object,Object> nameFunc, int defaultValue) {
         this.name=null;
+        this.slot = -1;
         this.nameFunc = nameFunc;
         this.defaultValue = defaultValue;
     }
 
     @Override
     public Integer apply(Object o) {
-        HashMap<String, Object> map = SharedState.tl_ObjectMap.get();
-        String varname=(nameFunc!=null) ? String.valueOf(nameFunc.apply(o)) : name;
-        Object value = map.getOrDefault(varname, defaultValue);
-        return (Integer) value;
+        StateSlots state = SharedState.state();
+        int slot = (nameFunc!=null) ? state.existingSlot(String.valueOf(nameFunc.apply(o))) : this.slot;
+        return state.getInt(slot, defaultValue);
     }
 }
@@ -21,8 +21,8 @@ import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.Example;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 import io.nosqlbench.virtdata.library.basics.core.threadstate.SharedState;
+import io.nosqlbench.virtdata.library.basics.core.threadstate.StateSlots;
 
-import java.util.HashMap;
 import java.util.function.Function;
 
 /**
@@ -35,12 +35,14 @@ import java.util.function.Function;
 public class LoadLong implements Function<Object,Long> {
 
     private final String name;
+    private final int slot;
     private final Function<Object,Object> nameFunc;
     private final long defaultValue;
 
     @Example({"LoadLong('foo',42L)","for the current thread, load a long value from the named variable."})
     public LoadLong(String name) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
         this.defaultValue=0L;
     }
@@ -49,6 +51,7 @@ public class LoadLong implements Function<Object,Long> {
             " or the default value if the named variable is not defined."})
     public LoadLong(String name, long defaultValue) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
         this.defaultValue=defaultValue;
     }
@@ -57,6 +60,7 @@ public class LoadLong implements Function<Object,Long> {
             "where the variable name is provided by a function."})
     public LoadLong(Function<Object,Object> nameFunc) {
         this.name=null;
+        this.slot = -1;
         this.nameFunc = nameFunc;
         this.defaultValue=0L;
     }
@@ -66,15 +70,15 @@ public class LoadLong implements Function<Object,Long> {
             "variable is not defined."})
     public LoadLong(Function<Object,Object> nameFunc, long defaultValue) {
         this.name=null;
+        this.slot = -1;
         this.nameFunc = nameFunc;
         this.defaultValue=defaultValue;
     }
 
     @Override
     public Long apply(Object o) {
-        String varname=(nameFunc!=null) ? String.valueOf(nameFunc.apply(o)) : name;
-        HashMap<String, Object> map = SharedState.tl_ObjectMap.get();
-        Object value = map.getOrDefault(varname,defaultValue);
-        return (Long) value;
+        StateSlots state = SharedState.state();
+        int slot = (nameFunc!=null) ? state.existingSlot(String.valueOf(nameFunc.apply(o))) : this.slot;
+        return state.getLong(slot, defaultValue);
     }
 }
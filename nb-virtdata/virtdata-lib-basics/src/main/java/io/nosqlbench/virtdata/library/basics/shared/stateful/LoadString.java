@@ -21,8 +21,8 @@ import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.Example;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 import io.nosqlbench.virtdata.library.basics.core.threadstate.SharedState;
+import io.nosqlbench.virtdata.library.basics.core.threadstate.StateSlots;
 
-import java.util.HashMap;
 import java.util.function.Function;
 
 @Categories(Category.state)
@@ -30,12 +30,14 @@ import java.util.function.Function;
 public class LoadString implements Function<Object,String> {
 
     private final String name;
+    private final int slot;
     private final Function<Object,Object> nameFunc;
     private final String defaultValue;
 
     @Example({"LoadString('foo','examplevalue')","for the current thread, load a String value from the named variable."})
     public LoadString(String name) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
         this.defaultValue="";
     }
@@ -44,6 +46,7 @@ public class LoadString implements Function<Object,String> {
             " or the default value if the named variable is not defined."})
     public LoadString(String name, String defaultValue) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
         this.defaultValue=defaultValue;
     }
@@ -52,6 +55,7 @@ public class LoadString implements Function<Object,String> {
             " or the default value if the named variable is not defined."})
     public LoadString(Function<Object,Object> nameFunc) {
         this.name=null;
+        this.slot = -1;
         this.nameFunc = nameFunc;
         this.defaultValue="";
     }
@@ -61,15 +65,16 @@ public class LoadString implements Function<Object,String> {
             "variable is not defined."})
     public LoadString(Function<Object,Object> nameFunc, String defaultValue) {
         this.name=null;
+        this.slot = -1;
         this.nameFunc = nameFunc;
         this.defaultValue=defaultValue;
     }
 
     @Override
     public String apply(Object o) {
-        String varname=(nameFunc!=null) ? String.valueOf(nameFunc.apply(o)) : name;
-        HashMap<String, Object> map = SharedState.tl_ObjectMap.get();
-        Object value = map.getOrDefault(varname,defaultValue);
+        StateSlots state = SharedState.state();
+        int slot = (nameFunc!=null) ? state.existingSlot(String.valueOf(nameFunc.apply(o))) : this.slot;
+        Object value = state.getOrDefault(slot, defaultValue);
         return (String) value;
     }
 }
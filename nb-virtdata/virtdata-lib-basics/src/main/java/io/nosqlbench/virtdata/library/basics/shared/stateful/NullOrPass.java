@@ -34,6 +34,7 @@ import java.util.function.Function;
 public class NullOrPass implements Function<Object, Object> {
 
     private final String varname;
+    private final int slot;
     private final double ratio;
     private final HashRange rangefunc = new HashRange(0.0D, 1.0D);
 
@@ -43,12 +44,13 @@ public class NullOrPass implements Function<Object, Object> {
         }
         this.ratio = ratio;
         this.varname = varname;
+        this.slot = SharedState.slot(varname);
     }
 
     @Override
     public Object apply(Object o) {
         long basis;
-        Object o1 = SharedState.tl_ObjectMap.get().get(varname);
+        Object o1 = SharedState.state().get(slot);
         if (o1 instanceof Long) {
             basis = (Long) o1;
         } else {
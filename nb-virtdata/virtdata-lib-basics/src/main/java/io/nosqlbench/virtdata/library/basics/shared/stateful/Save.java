@@ -21,8 +21,8 @@ import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.Example;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 import io.nosqlbench.virtdata.library.basics.core.threadstate.SharedState;
+import io.nosqlbench.virtdata.library.basics.core.threadstate.StateSlots;
 
-import java.util.HashMap;
 import java.util.function.Function;
 
 /**
@@ -34,11 +34,13 @@ import java.util.function.Function;
 public class Save implements Function<Object,Object> {
 
     private final String name;
+    private final int slot;
     private final Function<Object,Object> nameFunc;
 
     @Example({"Save('foo')","for the current thread, save the input object value to the named variable"})
     public Save(String name) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
     }
 
@@ -46,15 +48,16 @@ public class Save implements Function<Object,Object> {
             "where the variable name is provided by a function."})
     public Save(Function<Object,Object> nameFunc) {
         this.name = null;
+        this.slot = -1;
         this.nameFunc = nameFunc;
     }
 
     @Override
     public Object apply(Object o) {
 
-        HashMap<String, Object> map = SharedState.tl_ObjectMap.get();
-        String varname = (nameFunc!=null) ? String.valueOf(nameFunc.apply(o)) : name;
-        map.put(varname,o);
+        StateSlots state = SharedState.state();
+        int slot = (nameFunc!=null) ? state.slot(String.valueOf(nameFunc.apply(o))) : this.slot;
+        state.put(slot, o);
         return o;
     }
 
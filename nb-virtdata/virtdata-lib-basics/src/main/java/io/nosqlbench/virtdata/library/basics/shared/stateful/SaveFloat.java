@@ -21,8 +21,8 @@ import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.Example;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 import io.nosqlbench.virtdata.library.basics.core.threadstate.SharedState;
+import io.nosqlbench.virtdata.library.basics.core.threadstate.StateSlots;
 
-import java.util.HashMap;
 import java.util.function.Function;
 import java.util.function.UnaryOperator;
 
@@ -31,11 +31,13 @@ import java.util.function.UnaryOperator;
 public class SaveFloat implements UnaryOperator<Float> {
 
     private final String name;
+    private final int slot;
     private final Function<Object,Object> nameFunc;
 
     @Example({"SaveFloat('foo')","save the current float value to a named variable in this thread."})
     public SaveFloat(String name) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
     }
 
@@ -43,14 +45,15 @@ public class SaveFloat implements UnaryOperator<Float> {
             ", where the variable name is provided by a function."})
     public SaveFloat(Function<Object,Object> nameFunc) {
         this.name=null;
+        this.slot = -1;
         this.nameFunc = nameFunc;
     }
 
     @Override
     public Float apply(Float operand) {
-        HashMap<String, Object> map = SharedState.tl_ObjectMap.get();
-        String varname=(nameFunc!=null) ? String.valueOf(nameFunc.apply(operand)) : name;
-        map.put(varname,operand);
+        StateSlots state = SharedState.state();
+        int slot = (nameFunc!=null) ? state.slot(String.valueOf(nameFunc.apply(operand))) : this.slot;
+        state.put(slot, operand);
         return operand;
     }
 }
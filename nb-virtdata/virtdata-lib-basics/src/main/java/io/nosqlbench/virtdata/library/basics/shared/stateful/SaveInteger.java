@@ -21,6 +21,7 @@ import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.Example;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 import io.nosqlbench.virtdata.library.basics.core.threadstate.SharedState;
+import io.nosqlbench.virtdata.library.basics.core.threadstate.StateSlots;
 
 import java.util.function.Function;
 import java.util.function.IntUnaryOperator;
@@ -37,11 +38,13 @@ import java.util.function.IntUnaryOperator;
 public class SaveInteger implements IntUnaryOperator {
 
     private final String name;
+    private final int slot;
     private final Function<Object,Object> nameFunc;
 
     @Example({"SaveInteger('foo')","save the current integer value to a named variable in this thread."})
     public SaveInteger(String name) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
     }
 
@@ -49,13 +52,15 @@ public class SaveInteger implements IntUnaryOperator {
             ", where the variable name is provided by a function."})
     public SaveInteger(Function<Object,Object> nameFunc) {
         this.name=null;
+        this.slot = -1;
         this.nameFunc = nameFunc;
     }
 
     @Override
     public int applyAsInt(int operand) {
-        String varname=(nameFunc!=null) ? String.valueOf(nameFunc.apply(operand)) : name;
-        SharedState.tl_ObjectMap.get().put(varname, operand);
+        StateSlots state = SharedState.state();
+        int slot = (nameFunc!=null) ? state.slot(String.valueOf(nameFunc.apply(operand))) : this.slot;
+        state.putInt(slot, operand);
         return operand;
     }
 }
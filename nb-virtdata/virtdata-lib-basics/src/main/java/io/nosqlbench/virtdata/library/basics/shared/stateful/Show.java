@@ -21,8 +21,8 @@ import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.Example;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 import io.nosqlbench.virtdata.library.basics.core.threadstate.SharedState;
+import io.nosqlbench.virtdata.library.basics.core.threadstate.StateSlots;
 
-import java.util.HashMap;
 import java.util.function.Function;
 
 /**
@@ -33,33 +33,39 @@ import java.util.function.Function;
 public class Show implements Function<Object,String> {
 
     private final String[] names;
+    private final int[] slots;
     private final transient ThreadLocal<StringBuilder> tl_sb = ThreadLocal.withInitial(StringBuilder::new);
 
     @Example({"Show()","Show all values in a json-like format"})
     public Show() {
         names=null;
+        slots=null;
     }
 
     @Example({"Show('foo')","Show only the 'foo' value in a json-like format"})
     @Example({"Show('foo','bar')","Show the 'foo' and 'bar' values in a json-like format"})
     public Show(String... names) {
         this.names = names;
+        this.slots = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            this.slots[i] = SharedState.slot(names[i]);
+        }
     }
 
     @Override
     public String apply(Object o) {
-        HashMap<String, Object> map = SharedState.tl_ObjectMap.get();
+        StateSlots state = SharedState.state();
         if (names==null) {
-            return map.toString();
+            return state.asMap().toString();
         }
 
         StringBuilder sb = tl_sb.get();
         sb.setLength(0);
         sb.append("{");
 
-        for (String name : names) {
-            sb.append(name).append("=");
-            Object val = map.get(name);
+        for (int i = 0; i < names.length; i++) {
+            sb.append(names[i]).append("=");
+            Object val = state.get(slots[i]);
             sb.append(val==null ? "NULL" : val.toString());
             sb.append(",");
         }
@@ -21,8 +21,8 @@ import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.Example;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 import io.nosqlbench.virtdata.library.basics.core.threadstate.SharedState;
+import io.nosqlbench.virtdata.library.basics.core.threadstate.StateSlots;
 
-import java.util.HashMap;
 import java.util.function.Function;
 
 /**
@@ -36,6 +36,7 @@ import java.util.function.Function;
 public class Swap implements Function<Object,Object> {
 
     private final String name;
+    private final int slot;
     private final Function<Object,Object> nameFunc;
     private final Object defaultValue;
 
@@ -43,6 +44,7 @@ public class Swap implements Function<Object,Object> {
             ", swap the input value with the named variable and returned the named variable"})
     public Swap(String name) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
         this.defaultValue=null;
     }
@@ -52,6 +54,7 @@ public class Swap implements Function<Object,Object> {
             ", or return the default value if the named value is not defined."})
     public Swap(String name, Object defaultValue) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
         this.defaultValue=defaultValue;
     }
@@ -62,6 +65,7 @@ public class Swap implements Function<Object,Object> {
     public Swap(Function<Object,Object> nameFunc) {
         this.nameFunc = nameFunc;
         this.name = null;
+        this.slot = -1;
         this.defaultValue=null;
     }
 
@@ -72,16 +76,17 @@ public class Swap implements Function<Object,Object> {
     public Swap(Function<Object,Object> nameFunc, Object defaultValue) {
         this.nameFunc = nameFunc;
         this.name = null;
+        this.slot = -1;
         this.defaultValue = defaultValue;
     }
 
     @Override
     public Object apply(Object o) {
-        HashMap<String, Object> map = SharedState.tl_ObjectMap.get();
-        String varname=(nameFunc!=null) ? String.valueOf(nameFunc.apply(o)) : name;
+        StateSlots state = SharedState.state();
+        int slot = (nameFunc!=null) ? state.slot(String.valueOf(nameFunc.apply(o))) : this.slot;
 
-        Object output = map.get(varname);
-        map.put(name,o);
+        Object output = state.get(slot);
+        state.put(slot, o);
         return (output!=null) ? output : defaultValue;
     }
 
@@ -21,8 +21,8 @@ import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.Example;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 import io.nosqlbench.virtdata.library.basics.core.threadstate.SharedState;
+import io.nosqlbench.virtdata.library.basics.core.threadstate.StateSlots;
 
-import java.util.HashMap;
 import java.util.function.LongFunction;
 
 /**
@@ -35,12 +35,14 @@ import java.util.function.LongFunction;
 public class Load implements LongFunction<Object> {
 
     private final String name;
+    private final int slot;
     private final LongFunction<Object> nameFunc;
     private final Object defaultValue;
 
     @Example({"Load('foo')","for the current thread, load an Object value from the named variable"})
     public Load(String name) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
         this.defaultValue=null;
     }
@@ -48,6 +50,7 @@ public class Load implements LongFunction<Object> {
     @Example({"Load(NumberNameToString())","for the current thread, load an Object value from the named variable, where the variable name is returned by the provided function"})
     public Load(LongFunction<Object> nameFunc) {
         this.name = null;
+        this.slot = -1;
         this.nameFunc = nameFunc;
         this.defaultValue=null;
     }
@@ -56,6 +59,7 @@ public class Load implements LongFunction<Object> {
             "or the default value if the variable is not yet defined."})
     public Load(String name, Object defaultValue) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
         this.defaultValue=defaultValue;
     }
@@ -65,15 +69,16 @@ public class Load implements LongFunction<Object> {
             "default value if the variable is not yet defined."})
     public Load(LongFunction<Object> nameFunc, Object defaultValue) {
         this.name = null;
+        this.slot = -1;
         this.nameFunc = nameFunc;
         this.defaultValue = defaultValue;
     }
 
     @Override
     public Object apply(long value) {
-        String varname = (nameFunc!=null) ? String.valueOf(nameFunc.apply(value)) : name;
-        HashMap<String, Object> map = SharedState.tl_ObjectMap.get();
-        Object output = map.getOrDefault(varname,defaultValue);
+        StateSlots state = SharedState.state();
+        int slot = (nameFunc!=null) ? state.existingSlot(String.valueOf(nameFunc.apply(value))) : this.slot;
+        Object output = state.getOrDefault(slot, defaultValue);
         return output;
     }
 }
@@ -21,8 +21,8 @@ import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.Example;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 import io.nosqlbench.virtdata.library.basics.core.threadstate.SharedState;
+import io.nosqlbench.virtdata.library.basics.core.threadstate.StateSlots;
 
-import java.util.HashMap;
 import java.util.function.LongFunction;
 import java.util.function.LongToDoubleFunction;
 
@@ -36,12 +36,14 @@ import java.util.function.LongToDoubleFunction;
 public class LoadDouble implements LongToDoubleFunction {
 
     private final String name;
+    private final int slot;
     private final LongFunction<Object> nameFunc;
     private final double defaultValue;
 
     @Example({"LoadDouble('foo')","for the current thread, load a double value from the named variable."})
     public LoadDouble(String name) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
         this.defaultValue=0.0D;
     }
@@ -50,6 +52,7 @@ public class LoadDouble implements LongToDoubleFunction {
             "or the default value if the named variable is not defined."})
     public LoadDouble(String name, double defaultValue) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
         this.defaultValue=defaultValue;
     }
@@ -58,6 +61,7 @@ public class LoadDouble implements LongToDoubleFunction {
             "where the variable name is provided by a function."})
     public LoadDouble(LongFunction<Object> nameFunc) {
         this.name=null;
+        this.slot = -1;
         this.nameFunc = nameFunc;
         this.defaultValue=0.0D;
     }
@@ -67,15 +71,15 @@ public class LoadDouble implements LongToDoubleFunction {
             "variable is not defined."})
     public LoadDouble(LongFunction<Object> nameFunc, double defaultValue) {
         this.name=null;
+        this.slot = -1;
         this.nameFunc = nameFunc;
         this.defaultValue=defaultValue;
     }
 
     @Override
     public double applyAsDouble(long value) {
-        HashMap<String, Object> map = SharedState.tl_ObjectMap.get();
-        String varname=(nameFunc!=null) ? String.valueOf(nameFunc.apply(value)) : name;
-        Object loaded = map.getOrDefault(varname, defaultValue);
-        return (Double) loaded;
+        StateSlots state = SharedState.state();
+        int slot = (nameFunc!=null) ? state.existingSlot(String.valueOf(nameFunc.apply(value))) : this.slot;
+        return state.getDouble(slot, defaultValue);
     }
 }
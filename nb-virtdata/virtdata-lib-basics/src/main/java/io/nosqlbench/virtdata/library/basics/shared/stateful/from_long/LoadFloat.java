@@ -21,8 +21,8 @@ import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.Example;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 import io.nosqlbench.virtdata.library.basics.core.threadstate.SharedState;
+import io.nosqlbench.virtdata.library.basics.core.threadstate.StateSlots;
 
-import java.util.HashMap;
 import java.util.function.LongFunction;
 
 @Categories(Category.state)
@@ -30,6 +30,7 @@ import java.util.function.LongFunction;
 public class LoadFloat implements LongFunction<Float> {
 
     private final String name;
+    private final int slot;
     private final LongFunction<Object> nameFunc;
     private final float defaultValue;
 
@@ -37,6 +38,7 @@ public class LoadFloat implements LongFunction<Float> {
     @Example({"LoadFloat('foo')","for the current thread, load a float value from the named variable."})
     public LoadFloat(String name) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
         this.defaultValue = 0.0F;
     }
@@ -45,6 +47,7 @@ public class LoadFloat implements LongFunction<Float> {
             "or the default value if the named variable is not defined."})
     public LoadFloat(String name, float defaultValue) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
         this.defaultValue = defaultValue;
     }
@@ -53,6 +56,7 @@ public class LoadFloat implements LongFunction<Float> {
             "where the variable name is provided by a function."})
     public LoadFloat(LongFunction<Object> nameFunc) {
         this.name=null;
+        this.slot = -1;
         this.nameFunc = nameFunc;
         this.defaultValue = 0.0F;
     }
@@ -62,15 +66,15 @@ public class LoadFloat implements LongFunction<Float> {
             "variable is not defined."})
     public LoadFloat(LongFunction<Object> nameFunc, float defaultValue) {
         this.name=null;
+        this.slot = -1;
         this.nameFunc = nameFunc;
         this.defaultValue = defaultValue;
     }
 
     @Override
     public Float apply(long value) {
-        String varname=(nameFunc!=null) ? String.valueOf(nameFunc.apply(value)) : name;
-        HashMap<String, Object> map = SharedState.tl_ObjectMap.get();
-        Object loaded = map.getOrDefault(varname,defaultValue);
-        return (Float) loaded;
+        StateSlots state = SharedState.state();
+        int slot = (nameFunc!=null) ? state.existingSlot(String.valueOf(nameFunc.apply(value))) : this.slot;
+        return state.getFloat(slot, defaultValue);
     }
 }
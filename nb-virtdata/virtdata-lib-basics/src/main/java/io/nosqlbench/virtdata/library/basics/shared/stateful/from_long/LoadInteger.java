@@ -21,8 +21,8 @@ import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.Example;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 import io.nosqlbench.virtdata.library.basics.core.threadstate.SharedState;
+import io.nosqlbench.virtdata.library.basics.core.threadstate.StateSlots;
 
-import java.util.HashMap;
 import java.util.function.LongFunction;
 import java.util.function.LongToIntFunction;
 
@@ -31,12 +31,14 @@ import java.util.function.LongToIntFunction;
 public class LoadInteger implements LongToIntFunction {
 
     private final String name;
+    private final int slot;
     private final LongFunction<Object> nameFunc;
     private final int defaultValue;
 
     @Example({"LoadInteger('foo')","for the current thread, load an integer value from the named variable."})
     public LoadInteger(String name) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
         this.defaultValue=0;
     }
@@ -45,6 +47,7 @@ public class LoadInteger implements LongToIntFunction {
             " or the default value if the named variable is not defined."})
     public LoadInteger(String name, int defaultValue) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
         this.defaultValue = defaultValue;
     }
@@ -53,6 +56,7 @@ public class LoadInteger implements LongToIntFunction {
             "where the variable name is provided by a function."})
     public LoadInteger(LongFunction<Object> nameFunc) {
         this.name=null;
+        this.slot = -1;
         this.nameFunc = nameFunc;
         defaultValue = 0;
     }
@@ -62,15 +66,15 @@ public class LoadInteger implements LongToIntFunction {
             "variable is not defined."})
     public LoadInteger(LongFunction<Object> nameFunc, int defaultValue) {
         this.name=null;
+        this.slot = -1;
         this.nameFunc = nameFunc;
         this.defaultValue = defaultValue;
     }
 
     @Override
     public int applyAsInt(long value) {
-        HashMap<String, Object> map = SharedState.tl_ObjectMap.get();
-        String varname=(nameFunc!=null) ? String.valueOf(nameFunc.apply(value)) : name;
-        Object loaded = map.getOrDefault(varname, defaultValue);
-        return (Integer) loaded;
+        StateSlots state = SharedState.state();
+        int slot = (nameFunc!=null) ? state.existingSlot(String.valueOf(nameFunc.apply(value))) : this.slot;
+        return state.getInt(slot, defaultValue);
     }
 }
@@ -21,8 +21,8 @@ import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.Example;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 import io.nosqlbench.virtdata.library.basics.core.threadstate.SharedState;
+import io.nosqlbench.virtdata.library.basics.core.threadstate.StateSlots;
 
-import java.util.HashMap;
 import java.util.function.LongFunction;
 import java.util.function.LongUnaryOperator;
 
@@ -31,12 +31,14 @@ import java.util.function.LongUnaryOperator;
 public class LoadLong implements LongUnaryOperator {
 
     private final String name;
+    private final int slot;
     private final LongFunction<Object> nameFunc;
     private final long defaultValue;
 
     @Example({"LoadLong('foo',42L)","for the current thread, load a long value from the named variable."})
     public LoadLong(String name) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
         this.defaultValue=0L;
     }
@@ -45,6 +47,7 @@ public class LoadLong implements LongUnaryOperator {
             " or the default value if the named variable is not defined."})
     public LoadLong(String name, long defaultValue) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
         this.defaultValue=defaultValue;
     }
@@ -53,6 +56,7 @@ public class LoadLong implements LongUnaryOperator {
             "where the variable name is provided by a function."})
     public LoadLong(LongFunction<Object> nameFunc) {
         this.name=null;
+        this.slot = -1;
         this.nameFunc = nameFunc;
         this.defaultValue=0L;
     }
@@ -62,15 +66,15 @@ public class LoadLong implements LongUnaryOperator {
             "variable is not defined."})
     public LoadLong(LongFunction<Object> nameFunc, long defaultValue) {
         this.name=null;
+        this.slot = -1;
         this.nameFunc = nameFunc;
         this.defaultValue=defaultValue;
     }
 
     @Override
     public long applyAsLong(long operand) {
-        String varname=(nameFunc!=null) ? String.valueOf(nameFunc.apply(operand)) : name;
-        HashMap<String, Object> map = SharedState.tl_ObjectMap.get();
-        Object loaded = map.getOrDefault(varname,defaultValue);
-        return (Long) loaded;
+        StateSlots state = SharedState.state();
+        int slot = (nameFunc!=null) ? state.existingSlot(String.valueOf(nameFunc.apply(operand))) : this.slot;
+        return state.getLong(slot, defaultValue);
     }
 }
@@ -21,8 +21,8 @@ import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.Example;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 import io.nosqlbench.virtdata.library.basics.core.threadstate.SharedState;
+import io.nosqlbench.virtdata.library.basics.core.threadstate.StateSlots;
 
-import java.util.HashMap;
 import java.util.function.LongFunction;
 
 /**
@@ -35,12 +35,14 @@ import java.util.function.LongFunction;
 public class LoadString implements LongFunction<String> {
 
     private final String name;
+    private final int slot;
     private final LongFunction<Object> nameFunc;
     private final String defaultValue;
 
     @Example({"LoadString('foo','examplevalue')","for the current thread, load a String value from the named variable."})
     public LoadString(String name) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
         this.defaultValue="";
     }
@@ -49,6 +51,7 @@ public class LoadString implements LongFunction<String> {
             " or the default value if the named variable is not defined."})
     public LoadString(String name, String defaultValue) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
         this.defaultValue=defaultValue;
     }
@@ -57,6 +60,7 @@ public class LoadString implements LongFunction<String> {
             " or the default value if the named variable is not defined."})
     public LoadString(LongFunction<Object> nameFunc) {
         this.name=null;
+        this.slot = -1;
         this.nameFunc = nameFunc;
         this.defaultValue="";
     }
@@ -66,15 +70,16 @@ public class LoadString implements LongFunction<String> {
             "variable is not defined."})
     public LoadString(LongFunction<Object> nameFunc, String defaultValue) {
         this.name=null;
+        this.slot = -1;
         this.nameFunc = nameFunc;
         this.defaultValue=defaultValue;
     }
 
     @Override
     public String apply(long value) {
-        String varname=(nameFunc!=null) ? String.valueOf(nameFunc.apply(value)) : name;
-        HashMap<String, Object> map = SharedState.tl_ObjectMap.get();
-        Object loaded = map.getOrDefault(varname,defaultValue);
+        StateSlots state = SharedState.state();
+        int slot = (nameFunc!=null) ? state.existingSlot(String.valueOf(nameFunc.apply(value))) : this.slot;
+        Object loaded = state.getOrDefault(slot, defaultValue);
         return (String) loaded;
     }
 }
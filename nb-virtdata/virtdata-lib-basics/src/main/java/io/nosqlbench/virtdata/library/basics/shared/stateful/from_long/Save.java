@@ -21,8 +21,8 @@ import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.Example;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 import io.nosqlbench.virtdata.library.basics.core.threadstate.SharedState;
+import io.nosqlbench.virtdata.library.basics.core.threadstate.StateSlots;
 
-import java.util.HashMap;
 import java.util.function.LongFunction;
 import java.util.function.LongUnaryOperator;
 
@@ -31,11 +31,13 @@ import java.util.function.LongUnaryOperator;
 public class Save implements LongUnaryOperator {
 
     private final String name;
+    private final int slot;
     private final LongFunction<Object> nameFunc;
 
     @Example({"Save('foo')","for the current thread, save the input object value to the named variable"})
     public Save(String name) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
     }
 
@@ -43,14 +45,15 @@ public class Save implements LongUnaryOperator {
             "where the variable name is provided by a function."})
     public Save(LongFunction<Object> nameFunc) {
         this.name = null;
+        this.slot = -1;
         this.nameFunc = nameFunc;
     }
 
     @Override
     public long applyAsLong(long operand) {
-        HashMap<String, Object> map = SharedState.tl_ObjectMap.get();
-        String varname = (nameFunc!=null) ? String.valueOf(nameFunc.apply(operand)) : name;
-        map.put(varname,operand);
+        StateSlots state = SharedState.state();
+        int slot = (nameFunc!=null) ? state.slot(String.valueOf(nameFunc.apply(operand))) : this.slot;
+        state.putLong(slot, operand);
         return operand;
     }
 }
@@ -21,8 +21,8 @@ import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.Example;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 import io.nosqlbench.virtdata.library.basics.core.threadstate.SharedState;
+import io.nosqlbench.virtdata.library.basics.core.threadstate.StateSlots;
 
-import java.util.HashMap;
 import java.util.function.LongFunction;
 import java.util.function.LongToDoubleFunction;
 
@@ -38,11 +38,13 @@ import java.util.function.LongToDoubleFunction;
 public class SaveDouble implements LongToDoubleFunction {
 
     private final String name;
+    private final int slot;
     private final LongFunction<Object> nameFunc;
 
     @Example({"Save('foo')","save the current double value to the name 'foo' in this thread"})
     public SaveDouble(String name) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
     }
 
@@ -50,14 +52,15 @@ public class SaveDouble implements LongToDoubleFunction {
             ", where the variable name is provided by a function."})
     public SaveDouble(LongFunction<Object> nameFunc) {
         this.name=null;
+        this.slot = -1;
         this.nameFunc = nameFunc;
     }
 
     @Override
     public double applyAsDouble(long value) {
-        HashMap<String, Object> map = SharedState.tl_ObjectMap.get();
-        String varname=(nameFunc!=null) ? String.valueOf(nameFunc.apply(value)) : name;
-        map.put(varname,value);
+        StateSlots state = SharedState.state();
+        int slot = (nameFunc!=null) ? state.slot(String.valueOf(nameFunc.apply(value))) : this.slot;
+        state.putLong(slot, value);
         return value;
     }
 }
@@ -21,8 +21,8 @@ import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.Example;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 import io.nosqlbench.virtdata.library.basics.core.threadstate.SharedState;
+import io.nosqlbench.virtdata.library.basics.core.threadstate.StateSlots;
 
-import java.util.HashMap;
 import java.util.function.LongFunction;
 
 /**
@@ -37,11 +37,13 @@ import java.util.function.LongFunction;
 public class SaveFloat implements LongFunction<Float> {
 
     private final String name;
+    private final int slot;
     private final LongFunction<Object> nameFunc;
 
     @Example({"SaveFloat('foo')","save the current float value to a named variable in this thread."})
     public SaveFloat(String name) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
     }
 
@@ -49,14 +51,15 @@ public class SaveFloat implements LongFunction<Float> {
             ", where the variable name is provided by a function."})
     public SaveFloat(LongFunction<Object> nameFunc) {
         this.name=null;
+        this.slot = -1;
         this.nameFunc = nameFunc;
     }
 
     @Override
     public Float apply(long value) {
-        HashMap<String, Object> map = SharedState.tl_ObjectMap.get();
-        String varname=(nameFunc!=null) ? String.valueOf(nameFunc.apply(value)) : name;
-        map.put(varname,value);
+        StateSlots state = SharedState.state();
+        int slot = (nameFunc!=null) ? state.slot(String.valueOf(nameFunc.apply(value))) : this.slot;
+        state.putLong(slot, value);
         return (float) value;
     }
 }
@@ -21,6 +21,7 @@ import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.Example;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 import io.nosqlbench.virtdata.library.basics.core.threadstate.SharedState;
+import io.nosqlbench.virtdata.library.basics.core.threadstate.StateSlots;
 
 import java.util.function.LongFunction;
 import java.util.function.LongToIntFunction;
@@ -30,11 +31,13 @@ import java.util.function.LongToIntFunction;
 public class SaveInteger implements LongToIntFunction {
 
     private final String name;
+    private final int slot;
     private final LongFunction<Object> nameFunc;
 
     @Example({"SaveInteger('foo')","save the current integer value to a named variable in this thread."})
     public SaveInteger(String name) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
     }
 
@@ -42,13 +45,15 @@ public class SaveInteger implements LongToIntFunction {
             ", where the variable name is provided by a function."})
     public SaveInteger(LongFunction<Object> nameFunc) {
         this.name=null;
+        this.slot = -1;
         this.nameFunc = nameFunc;
     }
 
     @Override
     public int applyAsInt(long value) {
-        String varname=(nameFunc!=null) ? String.valueOf(nameFunc.apply(value)) : name;
-        SharedState.tl_ObjectMap.get().put(varname, value);
+        StateSlots state = SharedState.state();
+        int slot = (nameFunc!=null) ? state.slot(String.valueOf(nameFunc.apply(value))) : this.slot;
+        state.putLong(slot, value);
         return (int) value;
     }
 }
@@ -21,6 +21,7 @@ import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.Example;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 import io.nosqlbench.virtdata.library.basics.core.threadstate.SharedState;
+import io.nosqlbench.virtdata.library.basics.core.threadstate.StateSlots;
 
 import java.util.function.Function;
 import java.util.function.LongUnaryOperator;
@@ -30,11 +31,13 @@ import java.util.function.LongUnaryOperator;
 public class SaveLong implements LongUnaryOperator {
 
     private final String name;
+    private final int slot;
     private final Function<Object,Object> nameFunc;
 
     @Example({"SaveLong('foo')","save the current long value to a named variable in this thread."})
     public SaveLong(String name) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
     }
 
@@ -42,13 +45,15 @@ public class SaveLong implements LongUnaryOperator {
             ", where the variable name is provided by a function."})
     public SaveLong(Function<Object,Object> nameFunc) {
         this.name=null;
+        this.slot = -1;
         this.nameFunc = nameFunc;
     }
 
     @Override
     public long applyAsLong(long operand) {
-        String varname=(nameFunc!=null) ? String.valueOf(nameFunc.apply(operand)) : name;
-        SharedState.tl_ObjectMap.get().put(varname, operand);
+        StateSlots state = SharedState.state();
+        int slot = (nameFunc!=null) ? state.slot(String.valueOf(nameFunc.apply(operand))) : this.slot;
+        state.putLong(slot, operand);
         return operand;
     }
 }
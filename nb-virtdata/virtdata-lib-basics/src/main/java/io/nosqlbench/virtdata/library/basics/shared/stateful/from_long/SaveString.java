@@ -21,8 +21,8 @@ import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.Example;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 import io.nosqlbench.virtdata.library.basics.core.threadstate.SharedState;
+import io.nosqlbench.virtdata.library.basics.core.threadstate.StateSlots;
 
-import java.util.HashMap;
 import java.util.function.LongFunction;
 
 @Categories(Category.state)
@@ -30,11 +30,13 @@ import java.util.function.LongFunction;
 public class SaveString implements LongFunction<String> {
 
     private final String name;
+    private final int slot;
     private final LongFunction<Object> nameFunc;
 
     @Example({"SaveString('foo')","save the current String value to a named variable in this thread."})
     public SaveString(String name) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
     }
 
@@ -42,14 +44,15 @@ public class SaveString implements LongFunction<String> {
             ", where the variable name is provided by a function."})
     public SaveString(LongFunction<Object> nameFunc) {
         this.name=null;
+        this.slot = -1;
         this.nameFunc = nameFunc;
     }
 
     @Override
     public String apply(long value) {
-        HashMap<String, Object> map = SharedState.tl_ObjectMap.get();
-        String varname=(nameFunc!=null) ? String.valueOf(nameFunc.apply(value)) : name;
-        map.put(varname,value);
+        StateSlots state = SharedState.state();
+        int slot = (nameFunc!=null) ? state.slot(String.valueOf(nameFunc.apply(value))) : this.slot;
+        state.putLong(slot, value);
         return String.valueOf(value);
     }
 }
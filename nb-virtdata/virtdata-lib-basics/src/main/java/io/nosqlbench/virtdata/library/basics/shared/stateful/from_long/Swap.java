@@ -21,8 +21,8 @@ import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.Example;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 import io.nosqlbench.virtdata.library.basics.core.threadstate.SharedState;
+import io.nosqlbench.virtdata.library.basics.core.threadstate.StateSlots;
 
-import java.util.HashMap;
 import java.util.function.LongFunction;
 
 @ThreadSafeMapper
@@ -30,6 +30,7 @@ import java.util.function.LongFunction;
 public class Swap implements LongFunction<Object> {
 
     private final String name;
+    private final int slot;
     private final LongFunction<Object> nameFunc;
     private final Object defaultValue;
 
@@ -37,6 +38,7 @@ public class Swap implements LongFunction<Object> {
             ", swap the input value with the named variable and returned the named variable"})
     public Swap(String name) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
         this.defaultValue=null;
     }
@@ -46,6 +48,7 @@ public class Swap implements LongFunction<Object> {
             ", or return the default value if the named value is not defined."})
     public Swap(String name, Object defaultValue) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
         this.defaultValue=defaultValue;
     }
@@ -56,6 +59,7 @@ public class Swap implements LongFunction<Object> {
     public Swap(LongFunction<Object> nameFunc) {
         this.nameFunc = nameFunc;
         this.name = null;
+        this.slot = -1;
         this.defaultValue=null;
     }
 
@@ -66,16 +70,17 @@ public class Swap implements LongFunction<Object> {
     public Swap(LongFunction<Object> nameFunc, Object defaultValue) {
         this.nameFunc = nameFunc;
         this.name = null;
+        this.slot = -1;
         this.defaultValue = defaultValue;
     }
 
     @Override
     public Object apply(long value) {
-        HashMap<String, Object> map = SharedState.tl_ObjectMap.get();
-        String varname=(nameFunc!=null) ? String.valueOf(nameFunc.apply(value)) : name;
+        StateSlots state = SharedState.state();
+        int slot = (nameFunc!=null) ? state.slot(String.valueOf(nameFunc.apply(value))) : this.slot;
 
-        Object output = map.get(varname);
-        map.put(name,value);
+        Object output = state.get(slot);
+        state.putLong(slot, value);
         return (output!=null) ? output : defaultValue;
     }
 }
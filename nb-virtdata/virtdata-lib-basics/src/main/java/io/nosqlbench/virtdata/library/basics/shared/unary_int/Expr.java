@@ -24,7 +24,7 @@ import io.nosqlbench.virtdata.library.basics.core.threadstate.SharedState;
 import org.mvel2.MVEL;
 
 import java.io.Serializable;
-import java.util.HashMap;
+import java.util.Map;
 import java.util.function.IntUnaryOperator;
 
 @ThreadSafeMapper
@@ -41,7 +41,7 @@ public class Expr implements IntUnaryOperator {
 
     @Override
     public int applyAsInt(int operand) {
-        HashMap<String, Object> map = SharedState.tl_ObjectMap.get();
+        Map<String, Object> map = SharedState.state().asMap();
         map.put("cycle",operand);
         int result = MVEL.executeExpression(compiledExpr, map, int.class);
         return result;
@@ -21,8 +21,8 @@ import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.Example;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 import io.nosqlbench.virtdata.library.basics.core.threadstate.SharedState;
+import io.nosqlbench.virtdata.library.basics.core.threadstate.StateSlots;
 
-import java.util.HashMap;
 import java.util.function.Function;
 import java.util.function.IntUnaryOperator;
 
@@ -31,6 +31,7 @@ import java.util.function.IntUnaryOperator;
 public class Load implements IntUnaryOperator {
 
     private final String name;
+    private final int slot;
     private final Function<Object,Object> nameFunc;
     private final int defaultValue;
 
@@ -38,6 +39,7 @@ public class Load implements IntUnaryOperator {
     @Example({"Load('foo')","for the current thread, load an int value from the named variable"})
     public Load(String name) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc =null;
         this.defaultValue=0;
     }
@@ -45,6 +47,7 @@ public class Load implements IntUnaryOperator {
     @Example({"Load('foo',42)","for the current thread, load an int value from the named variable, or return the default value if it is undefined."})
     public Load(String name, int defaultValue) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc =null;
         this.defaultValue=defaultValue;
     }
@@ -52,6 +55,7 @@ public class Load implements IntUnaryOperator {
     @Example({"Load(NumberNameToString())","for the current thread, load an int value from the named variable, where the variable name is provided by a function."})
     public Load(Function<Object,Object> nameFunc) {
         this.name = null;
+        this.slot = -1;
         this.nameFunc =nameFunc;
         this.defaultValue=0;
     }
@@ -59,6 +63,7 @@ public class Load implements IntUnaryOperator {
     @Example({"Load(NumberNameToString(),42)","for the current thread, load an int value from the named variable, where the variable name is provided by a function, or the default value if the named variable is undefined."})
     public Load(Function<Object,Object> nameFunc, int defaultValue) {
         this.name = null;
+        this.slot = -1;
         this.nameFunc =nameFunc;
         this.defaultValue=defaultValue;
     }
@@ -66,10 +71,9 @@ public class Load implements IntUnaryOperator {
 
     @Override
     public int applyAsInt(int operand) {
-        HashMap<String, Object> map = SharedState.tl_ObjectMap.get();
-        String varname = nameFunc !=null ? String.valueOf(nameFunc.apply(operand)) : name;
-        Object o = map.getOrDefault(varname,defaultValue);
-        return (int) o;
+        StateSlots state = SharedState.state();
+        int slot = (nameFunc!=null) ? state.existingSlot(String.valueOf(nameFunc.apply(operand))) : this.slot;
+        return state.getInt(slot, defaultValue);
     }
 
 }
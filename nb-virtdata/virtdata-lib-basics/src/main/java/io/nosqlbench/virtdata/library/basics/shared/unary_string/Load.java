@@ -21,8 +21,8 @@ import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.Example;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 import io.nosqlbench.virtdata.library.basics.core.threadstate.SharedState;
+import io.nosqlbench.virtdata.library.basics.core.threadstate.StateSlots;
 
-import java.util.HashMap;
 import java.util.function.Function;
 
 @Categories(Category.state)
@@ -30,6 +30,7 @@ import java.util.function.Function;
 public class Load implements Function<String,String> {
 
     private final String name;
+    private final int slot;
     private final Function<Object,Object> nameFunc;
     private final String defaultValue;
 
@@ -37,6 +38,7 @@ public class Load implements Function<String,String> {
     @Example({"Load('foo')","for the current thread, load a String value from the named variable"})
     public Load(String name) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc = null;
         this.defaultValue=null;
     }
@@ -44,6 +46,7 @@ public class Load implements Function<String,String> {
     @Example({"Load('foo','track05')","for the current thread, load a String value from the named variable, or teh default value if the variable is not yet defined."})
     public Load(String name, String defaultvalue) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc = null;
         this.defaultValue=defaultvalue;
     }
@@ -51,6 +54,7 @@ public class Load implements Function<String,String> {
     @Example({"Load(NumberNameToString())","for the current thread, load a String value from the named variable, where the variable name is provided by a function"})
     public Load(Function<Object,Object> nameFunc) {
         this.name = null;
+        this.slot = -1;
         this.nameFunc = nameFunc;
         this.defaultValue=null;
     }
@@ -58,15 +62,16 @@ public class Load implements Function<String,String> {
     @Example({"Load(NumberNameToString(),'track05')","for the current thread, load a String value from the named variable, where the variable name is provided by a function, or the default value if the variable is not yet defined."})
     public Load(Function<Object,Object> nameFunc, String defaultValue) {
         this.name = null;
+        this.slot = -1;
         this.nameFunc = nameFunc;
         this.defaultValue=defaultValue;
     }
 
     @Override
     public String apply(String s) {
-        String varname = nameFunc !=null ? String.valueOf(nameFunc.apply(s)) : name;
-        HashMap<String, Object> map = SharedState.tl_ObjectMap.get();
-        Object output = map.getOrDefault(varname,defaultValue);
+        StateSlots state = SharedState.state();
+        int slot = (nameFunc!=null) ? state.existingSlot(String.valueOf(nameFunc.apply(s))) : this.slot;
+        Object output = state.getOrDefault(slot, defaultValue);
         return (String) output;
     }
 
@@ -21,6 +21,7 @@ import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.Example;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 import io.nosqlbench.virtdata.library.basics.core.threadstate.SharedState;
+import io.nosqlbench.virtdata.library.basics.core.threadstate.StateSlots;
 
 import java.util.function.Function;
 
@@ -29,11 +30,13 @@ import java.util.function.Function;
 public class Save implements Function<String,String> {
 
     private final String name;
+    private final int slot;
     private final Function<Object,Object> nameFunc;
 
     @Example({"Save('foo')","save the current String value to the name 'foo' in this thread"})
     public Save(String name) {
         this.name = name;
+        this.slot = SharedState.slot(name);
         this.nameFunc=null;
     }
 
@@ -41,12 +44,15 @@ public class Save implements Function<String,String> {
             " this thread, where the variable name is provided by a function"})
     public Save(Function<Object,Object> nameFunc) {
         this.name = null;
+        this.slot = -1;
         this.nameFunc=nameFunc;
     }
 
     @Override
     public String apply(String s) {
-        SharedState.tl_ObjectMap.get().put(name,s);
+        StateSlots state = SharedState.state();
+        int slot = (nameFunc!=null) ? state.slot(String.valueOf(nameFunc.apply(s))) : this.slot;
+        state.put(slot, s);
         return s;
     }
 
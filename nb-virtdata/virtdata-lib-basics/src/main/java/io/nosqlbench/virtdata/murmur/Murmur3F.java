@@ -242,7 +242,39 @@ public class Murmur3F implements Checksum128 {
         }
     }
 
-    private long fmix64(long k) {
+    /**
+     * Hash a single long without any hasher state or allocation. The result is bit-identical to
+     * {@link #getValue()} after {@link #reset()} and {@link #update(byte[], int, int)} with the eight
+     * big-endian bytes of the value, on an instance created with the same seed. This is the hot path
+     * of the Hash family of binding functions, so it is safe to call from any number of threads.
+     *
+     * @param value The value to hash, as if written with {@link java.nio.ByteBuffer#putLong(int, long)}
+     * @param seed The seed, as given to {@link #Murmur3F(int)}
+     * @return The lower 64 bits of the 128 bit hash
+     */
+    public static long hashLongBE(long value, int seed) {
+        long h1 = seed & 0xffffffffL;
+        long h2 = h1;
+
+        // eight bytes leave a single partial k1 block, read little-endian
+        long k1 = Long.reverseBytes(value) * C1;
+        k1 = Long.rotateLeft(k1, 31);
+        k1 *= C2;
+        h1 ^= k1;
+
+        h1 ^= Long.BYTES;
+        h2 ^= Long.BYTES;
+
+        h1 += h2;
+        h2 += h1;
+
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+
+        return h1 + h2;
+    }
+
+    private static long fmix64(long k) {
         k ^= k >>> 33;
         k *= 0xff51afd7ed558ccdL;
         k ^= k >>> 33;
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.library.basics.core.precompute;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Tag("unit")
+public class PrecomputedTableTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testStringsRoundTrip() {
+        LongFunction<String> names = l -> (l % 3 == 0 ? "☃" : "name-") + l + "x".repeat((int) (l % 17));
+        PrecomputedTable table = PrecomputedTable.open(directory, PrecomputedTable.Layout.STRINGS, "names", 5000, names);
+
+        assertThat(table.contains(0L)).isTrue();
+        assertThat(table.contains(5000L)).isFalse();
+        for (long input = 0; input < 5000; input++) {
+            assertThat(table.getString(input)).isEqualTo(names.apply(input));
+        }
+    }
+
+    @Test
+    public void testLongsRoundTrip() {
+        PrecomputedTable table = PrecomputedTable.open(directory, PrecomputedTable.Layout.LONGS, "longs", 20000, l -> l * 31L - 7L);
+        for (long input = 0; input < 20000; input++) {
+            assertThat(table.getLong(input)).isEqualTo(input * 31L - 7L);
+        }
+    }
+
+    @Test
+    public void testComputesEachTableOnce() throws Exception {
+        AtomicLong calls = new AtomicLong();
+        LongFunction<String> counted = l -> {
+            calls.incrementAndGet();
+            return String.valueOf(l);
+        };
+        PrecomputedTable first = PrecomputedTable.open(directory, PrecomputedTable.Layout.STRINGS, "counted", 100, counted);
+        PrecomputedTable second = PrecomputedTable.open(directory, PrecomputedTable.Layout.STRINGS, "counted", 100, counted);
+        assertThat(second).isSameAs(first);
+        assertThat(calls.get()).isEqualTo(100L);
+
+        PrecomputedTable larger = PrecomputedTable.open(directory, PrecomputedTable.Layout.STRINGS, "counted", 200, counted);
+        assertThat(larger.path()).isNotEqualTo(first.path());
+        assertThat(calls.get()).isEqualTo(300L);
+        try (var files = Files.list(directory)) {
+            assertThat(files.map(Path::toString)).allMatch(name -> name.endsWith(".nbtable"));
+        }
+    }
+
+    @Test
+    public void testBuildsOtherTablesWhileOneIsBuilding() throws Exception {
+        CountDownLatch building = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        LongFunction<String> held = l -> {
+            building.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            return String.valueOf(l);
+        };
+        CompletableFuture<PrecomputedTable> slow = new CompletableFuture<>();
+        Thread.ofVirtual().start(() -> {
+            try {
+                slow.complete(PrecomputedTable.open(directory, PrecomputedTable.Layout.STRINGS, "held", 10, held));
+            } catch (Throwable t) {
+                slow.completeExceptionally(t);
+            }
+        });
+        assertThat(building.await(10, TimeUnit.SECONDS)).isTrue();
+
+        PrecomputedTable other = PrecomputedTable.open(directory, PrecomputedTable.Layout.LONGS, "while-held", 10, l -> l);
+        assertThat(other.getLong(9L)).isEqualTo(9L);
+        assertThat(slow).isNotDone();
+
+        release.countDown();
+        assertThat(slow.get(10, TimeUnit.SECONDS).getString(9L)).isEqualTo("9");
+    }
+
+    @Test
+    public void testReferencedFilesNameTheTable() throws Exception {
+        Path data = directory.resolve("data.csv");
+        Files.writeString(data, "a,1\n");
+        String recipe = "CSVSampler('name','weight','" + data + "')";
+        PrecomputedTable before = PrecomputedTable.open(directory, PrecomputedTable.Layout.LONGS, recipe, 10, l -> l);
+
+        Files.writeString(data, "a,1\nb,2\n");
+        PrecomputedTable after = PrecomputedTable.open(directory, PrecomputedTable.Layout.LONGS, recipe, 10, l -> l);
+        assertThat(after.path()).isNotEqualTo(before.path());
+    }
+
+    @Test
+    public void testRejectsNullValues() {
+        assertThatThrownBy(() -> PrecomputedTable.open(directory, PrecomputedTable.Layout.STRINGS, "nulls", 10, l -> null))
+            .isInstanceOf(IllegalStateException.class);
+    }
+}
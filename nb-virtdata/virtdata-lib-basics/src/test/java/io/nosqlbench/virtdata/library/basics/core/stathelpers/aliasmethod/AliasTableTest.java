@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.library.basics.core.stathelpers.aliasmethod;
+
+import io.nosqlbench.virtdata.library.basics.core.stathelpers.AliasTable;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+@Tag("unit")
+public class AliasTableTest {
+
+    @Test
+    public void testDrawsFollowWeights() {
+        double[] weights = {1.0d, 2.0d, 3.0d, 4.0d};
+        AliasTable table = new AliasTable(weights, false);
+        int[] counts = new int[weights.length];
+        int draws = 1_000_000;
+        for (int i = 0; i < draws; i++) {
+            counts[table.sample((double) i / draws)]++;
+        }
+        for (int i = 0; i < weights.length; i++) {
+            assertThat((double) counts[i] / draws).isCloseTo(weights[i] / 10.0d, within(0.0001d));
+        }
+    }
+
+    @Test
+    public void testOffHeapTableDrawsAsHeapTable() {
+        SplittableRandom random = new SplittableRandom(7L);
+        double[] weights = new double[10_000];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = random.nextDouble() * 100.0d;
+        }
+        AliasTable heap = new AliasTable(weights, false);
+        AliasTable offHeap = new AliasTable(weights, true);
+        assertThat(heap.isOffHeap()).isFalse();
+        assertThat(offHeap.isOffHeap()).isTrue();
+        for (int i = 0; i < 100_000; i++) {
+            double unit = random.nextDouble();
+            assertThat(offHeap.sample(unit)).isEqualTo(heap.sample(unit));
+        }
+    }
+
+    @Test
+    public void testSingleOutcome() {
+        AliasTable table = new AliasTable(new double[]{0.5d}, false);
+        assertThat(table.size()).isEqualTo(1);
+        assertThat(table.sample(0.0d)).isZero();
+        assertThat(table.sample(0.999d)).isZero();
+    }
+
+    @Test
+    public void testNoOutcomes() {
+        assertThatThrownBy(() -> new AliasTable(new double[0], false))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
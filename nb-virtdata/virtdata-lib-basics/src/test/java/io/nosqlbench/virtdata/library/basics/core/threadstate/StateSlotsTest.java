@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.library.basics.core.threadstate;
+
+import io.nosqlbench.virtdata.library.basics.shared.from_long.to_long.Load;
+import io.nosqlbench.virtdata.library.basics.shared.from_long.to_long.Save;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Tag("unit")
+public class StateSlotsTest {
+
+    @Test
+    public void testSlotsAreStablePerName() {
+        int first = SharedState.slot("slots-stable");
+        assertThat(SharedState.slot("slots-stable")).isEqualTo(first);
+        assertThat(SharedState.existingSlot("slots-stable")).isEqualTo(first);
+        assertThat(SharedState.nameOf(first)).isEqualTo("slots-stable");
+        assertThat(SharedState.existingSlot("slots-never-assigned")).isEqualTo(-1);
+    }
+
+    @Test
+    public void testValuesKeepTheirSavedType() {
+        StateSlots state = new StateSlots();
+        int l = SharedState.slot("slots-long");
+        int i = SharedState.slot("slots-int");
+        int d = SharedState.slot("slots-double");
+        int f = SharedState.slot("slots-float");
+        int o = SharedState.slot("slots-object");
+        state.putLong(l, 42L);
+        state.putInt(i, 7);
+        state.putDouble(d, 0.5d);
+        state.putFloat(f, 1.5f);
+        state.put(o, "abc");
+
+        assertThat(state.get(l)).isEqualTo(42L);
+        assertThat(state.get(i)).isEqualTo(7);
+        assertThat(state.get(d)).isEqualTo(0.5d);
+        assertThat(state.get(f)).isEqualTo(1.5f);
+        assertThat(state.get(o)).isEqualTo("abc");
+        assertThat(state.getLong(l, 0L)).isEqualTo(42L);
+        assertThat(state.getInt(i, 0)).isEqualTo(7);
+        assertThat(state.getDouble(d, 0.0d)).isEqualTo(0.5d);
+        assertThat(state.getFloat(f, 0.0f)).isEqualTo(1.5f);
+
+        state.put(l, 43L);
+        assertThat(state.getLong(l, 0L)).isEqualTo(43L);
+        assertThatThrownBy(() -> state.getInt(l, 0)).isInstanceOf(ClassCastException.class);
+    }
+
+    @Test
+    public void testDefaultsAndRemoval() {
+        StateSlots state = new StateSlots();
+        int slot = SharedState.slot("slots-default");
+        assertThat(state.isSet(slot)).isFalse();
+        assertThat(state.getLong(slot, 3L)).isEqualTo(3L);
+        assertThat(state.getOrDefault(slot, "none")).isEqualTo("none");
+        assertThat(state.getOrDefault(-1, "none")).isEqualTo("none");
+
+        state.putLong(slot, 5L);
+        assertThat(state.isSet(slot)).isTrue();
+        state.remove(slot);
+        assertThat(state.getLong(slot, 3L)).isEqualTo(3L);
+
+        state.putLong(slot, 5L);
+        state.clear();
+        assertThat(state.isSet(slot)).isFalse();
+    }
+
+    @Test
+    public void testNamedLoadDoesNotAssignSlots() {
+        Load load = new Load(o -> "slots-named-" + o, 9L);
+        assertThat(load.applyAsLong(3L)).isEqualTo(9L);
+        assertThat(SharedState.existingSlot("slots-named-3")).isEqualTo(-1);
+
+        new Save(o -> "slots-named-" + o).applyAsLong(3L);
+        assertThat(SharedState.existingSlot("slots-named-3")).isEqualTo(-1);
+        assertThat(SharedState.state().existingSlot("slots-named-3")).isLessThan(-1);
+        assertThat(load.applyAsLong(3L)).isEqualTo(3L);
+    }
+
+    @Test
+    public void testGeneratedNamesOnlyGrowTheirOwnersSlots() {
+        StateSlots owner = new StateSlots();
+        StateSlots other = new StateSlots();
+        int shared = SharedState.slot("slots-local-shared");
+        for (long i = 0; i < 1000; i++) {
+            owner.putLong(owner.slot("slots-local-" + i), i);
+        }
+        owner.putLong(owner.slot("slots-local-shared"), 5L);
+
+        assertThat(SharedState.existingSlot("slots-local-999")).isEqualTo(-1);
+        assertThat(owner.getLong(owner.existingSlot("slots-local-999"), -1L)).isEqualTo(999L);
+        assertThat(owner.nameOf(owner.existingSlot("slots-local-999"))).isEqualTo("slots-local-999");
+        assertThat(owner.existingSlot("slots-local-shared")).isEqualTo(shared);
+        assertThat(owner.getLong(shared, -1L)).isEqualTo(5L);
+        assertThat(owner.asMap()).hasSize(1001).containsEntry("slots-local-7", 7L);
+        assertThat(other.existingSlot("slots-local-7")).isEqualTo(-1);
+        assertThat(other.asMap()).isEmpty();
+
+        owner.clear();
+        assertThat(owner.asMap()).isEmpty();
+        assertThat(owner.isSet(owner.existingSlot("slots-local-7"))).isFalse();
+    }
+
+    @Test
+    public void testMapViewReadsAndWritesSlots() {
+        StateSlots state = new StateSlots();
+        Map<String, Object> map = state.asMap();
+        state.putLong(SharedState.slot("slots-map-a"), 1L);
+        map.put("slots-map-b", "two");
+
+        assertThat(map).containsEntry("slots-map-a", 1L).containsEntry("slots-map-b", "two").hasSize(2);
+        assertThat(state.get(state.existingSlot("slots-map-b"))).isEqualTo("two");
+        assertThat(map.get("slots-never-assigned")).isNull();
+
+        map.remove("slots-map-a");
+        assertThat(state.isSet(SharedState.slot("slots-map-a"))).isFalse();
+        assertThat(map).containsOnlyKeys("slots-map-b");
+    }
+
+    @Test
+    public void testStateIsPerThreadOutsideOfAnAction() throws InterruptedException {
+        int slot = SharedState.slot("slots-thread");
+        SharedState.state().putLong(slot, 1L);
+        long[] seen = new long[1];
+        Thread other = Thread.ofVirtual().start(() -> seen[0] = SharedState.state().getLong(slot, -1L));
+        other.join();
+        assertThat(seen[0]).isEqualTo(-1L);
+        assertThat(SharedState.state().getLong(slot, -1L)).isEqualTo(1L);
+    }
+
+    @Test
+    public void testBoundActionStateReplacesThreadState() {
+        int slot = SharedState.slot("slots-action");
+        StateSlots action = new StateSlots();
+        SharedState.state().putLong(slot, 1L);
+        ScopedValue.where(SharedState.ACTION_STATE, action).run(() -> SharedState.state().putLong(slot, 2L));
+        assertThat(action.getLong(slot, -1L)).isEqualTo(2L);
+        assertThat(SharedState.state().getLong(slot, -1L)).isEqualTo(1L);
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testDeprecatedObjectMapUsesTheCurrentSlots() {
+        SharedState.tl_ObjectMap.get().put("slots-legacy", 12L);
+        assertThat(SharedState.state().get(SharedState.state().existingSlot("slots-legacy"))).isEqualTo(12L);
+
+        StateSlots action = new StateSlots();
+        ScopedValue.where(SharedState.ACTION_STATE, action).run(() -> {
+            assertThat(SharedState.tl_ObjectMap.get().get("slots-legacy")).isNull();
+            SharedState.tl_ObjectMap.get().put("slots-legacy", 13L);
+        });
+        assertThat(action.asMap()).containsEntry("slots-legacy", 13L);
+        assertThat(SharedState.tl_ObjectMap.get()).containsEntry("slots-legacy", 12L);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.library.basics.shared.templates;
+
+import io.nosqlbench.virtdata.core.bindings.BindingColumns;
+import io.nosqlbench.virtdata.core.templates.ParsedTemplateString;
+import io.nosqlbench.virtdata.core.templates.RenderBuffer;
+import io.nosqlbench.virtdata.core.templates.StringCompositor;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Renders strides the way {@code stride_bindings=true} does: each stride's bindings are filled
+ * into columns once, and then each cycle is rendered from them into the reused buffer of its
+ * stride slot. Every cycle must render exactly as it would when its bindings are evaluated on
+ * their own.
+ */
+@Tag("unit")
+public class StringCompositorStrideColumnsTest {
+
+    private static final long[][] STRIDES = {
+        {0L, 1L, 2L, 3L},
+        {17L, 4L, 99L, 5L},
+        {1_000_000L, 1_000_001L}
+    };
+
+    @Test
+    public void testStrideColumnsRenderAsPerCycleBindings() {
+        ParsedTemplateString template = new ParsedTemplateString(
+            "id={id} name={name} bucket={bucket} ratio={ratio} again={id};",
+            Map.of(
+                "id", "Identity()",
+                "name", "NumberNameToString()",
+                "bucket", "HashRange(0L,1000L)",
+                "ratio", "HashRange(0.0d,1.0d)"
+            )
+        );
+        StringCompositor compositor = new StringCompositor(template, Map.of());
+        BindingColumns columns = compositor.newColumns(4);
+        RenderBuffer strideSlot = new RenderBuffer(16);
+        RenderBuffer perCycle = new RenderBuffer(16);
+
+        for (long[] stride : STRIDES) {
+            columns.fill(stride, stride.length);
+            for (long cycle : stride) {
+                compositor.renderTo(cycle, columns, strideSlot.reset());
+                compositor.renderTo(cycle, perCycle.reset());
+                assertThat(strideSlot.toString()).as("cycle " + cycle)
+                    .isEqualTo(perCycle.toString())
+                    .isEqualTo(compositor.apply(cycle));
+            }
+            columns.clear();
+        }
+    }
+
+    @Test
+    public void testCyclesOutsideTheStrideRenderPerCycle() {
+        ParsedTemplateString template = new ParsedTemplateString(
+            "[{name}:{id}]",
+            Map.of("id", "Identity()", "name", "NumberNameToString()")
+        );
+        StringCompositor compositor = new StringCompositor(template, Map.of());
+        BindingColumns columns = compositor.newColumns(2);
+        columns.fill(new long[]{10L, 11L}, 2);
+
+        RenderBuffer buffer = new RenderBuffer(16);
+        compositor.renderTo(12L, columns, buffer);
+        assertThat(buffer.toString()).isEqualTo(compositor.apply(12L)).endsWith(":12]");
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.murmur;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+public class Murmur3FTest {
+
+    @Test
+    public void testStaticLongHashMatchesStreamingHash() {
+        SplittableRandom random = new SplittableRandom(42L);
+        ByteBuffer bb = ByteBuffer.allocate(Long.BYTES);
+        for (int i = 0; i < 100_000; i++) {
+            long value = i < 1000 ? i - 500L : random.nextLong();
+            int seed = (i % 3 == 0) ? 0 : random.nextInt();
+
+            Murmur3F murmur3F = new Murmur3F(seed);
+            bb.putLong(0, value);
+            murmur3F.update(bb.array(), 0, Long.BYTES);
+
+            assertThat(Murmur3F.hashLongBE(value, seed)).isEqualTo(murmur3F.getValue());
+        }
+        assertThat(Murmur3F.hashLongBE(Long.MIN_VALUE, Integer.MIN_VALUE))
+            .isEqualTo(streamingHash(Long.MIN_VALUE, Integer.MIN_VALUE));
+    }
+
+    private long streamingHash(long value, int seed) {
+        Murmur3F murmur3F = new Murmur3F(seed);
+        murmur3F.updateLongBE(value);
+        return murmur3F.getValue();
+    }
+}
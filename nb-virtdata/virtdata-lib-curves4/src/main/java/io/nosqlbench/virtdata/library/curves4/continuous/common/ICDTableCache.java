@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.library.curves4.continuous.common;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Supplier;
+
+/// Interpolation tables of inverse cumulative distributions, shared by every interpolating
+/// sampler which would build the same table, so that the same `Normal(0.0,1.0)` in fifty
+/// bindings computes its table once.
+///
+/// A table is keyed by the sampler type which builds it, the
+/// [parameters][RealDistributionICDSource#parameterKey()] of its distribution, and the
+/// resolution, clamping and finite settings it is built with. Sources without a parameter key
+/// build their own table each time, as they did before tables were shared.
+///
+/// Tables are shared between threads and samplers, so callers must not modify them.
+public final class ICDTableCache {
+
+    private record Key(Class<?> sampler, List<Object> distribution, int resolution,
+                       boolean clamp, double clampMin, double clampMax, boolean finite) {
+    }
+
+    private static final ConcurrentHashMap<Key, double[]> TABLES = new ConcurrentHashMap<>();
+
+    private ICDTableCache() {
+    }
+
+    /// @param sampler the type of sampler which builds the table, since samplers may lay out
+    ///     tables differently
+    /// @param builder builds the table when no equal one has been built
+    public static double[] table(Class<?> sampler, DoubleUnaryOperator icdSource, int resolution,
+                                 boolean clamp, double clampMin, double clampMax, boolean finite,
+                                 Supplier<double[]> builder) {
+        List<Object> parameters = (icdSource instanceof RealDistributionICDSource source) ? source.parameterKey() : null;
+        return (parameters == null) ? builder.get()
+            : TABLES.computeIfAbsent(
+                new Key(sampler, parameters, resolution, clamp, clampMin, clampMax, finite),
+                key -> builder.get());
+    }
+
+    /// @return the number of shared tables
+    public static int size() {
+        return TABLES.size();
+    }
+}
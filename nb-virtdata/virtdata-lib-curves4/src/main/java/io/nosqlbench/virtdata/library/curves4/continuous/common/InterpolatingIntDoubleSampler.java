@@ -40,7 +40,14 @@ public class InterpolatingIntDoubleSampler implements IntToDoubleFunction{
         if (hash) {
             this.hash = new Hash();
         }
-        double[] computed = precompute(resolution);
+        double[] padded = ICDTableCache.table(
+            InterpolatingIntDoubleSampler.class, icdSource, resolution, clamp, clampMin, clampMax, finite,
+            () -> pad(precompute(resolution), finite));
+        this.scaleToIntRanged = (1.0d/(double)Integer.MAX_VALUE) * ((padded.length-2));
+        this.lut = padded;
+    }
+
+    private static double[] pad(double[] computed, boolean finite) {
         if (finite) {
             while (computed.length>0 && Double.isInfinite(computed[0])) {
                 computed = Arrays.copyOfRange(computed,1,computed.length-1);
@@ -51,8 +58,7 @@ public class InterpolatingIntDoubleSampler implements IntToDoubleFunction{
         }
         double[] padded = new double[computed.length+1];
         System.arraycopy(computed,0,padded,0,computed.length);
-        this.scaleToIntRanged = (1.0d/(double)Integer.MAX_VALUE) * ((padded.length-2));
-        this.lut = padded;
+        return padded;
     }
 
     private double[] precompute(int resolution) {
@@ -16,11 +16,11 @@
 
 package io.nosqlbench.virtdata.library.curves4.continuous.common;
 
+import io.nosqlbench.virtdata.api.bindings.LongToDoubleBatchFunction;
 import io.nosqlbench.virtdata.library.curves4.discrete.common.ThreadSafeHash;
 
 import java.util.Arrays;
 import java.util.function.DoubleUnaryOperator;
-import java.util.function.LongToDoubleFunction;
 
 /**
  * See {@link io.nosqlbench.virtdata.library.basics.shared.from_long.to_double.Interpolate} for
@@ -35,8 +35,11 @@ import java.util.function.LongToDoubleFunction;
  *     <LI>+1 LUT padding for U=1.0</LI>
  *     <LI>Uniform LERP code in main function</LI>
  * </UL>>
+ *
+ * The LUT is shared through {@link ICDTableCache} with every other sampler of the same distribution and
+ * settings, and {@link #fillDoubles(long[], int, double[])} samples many inputs in one pass over it.
  */
-public class InterpolatingLongDoubleSampler implements LongToDoubleFunction {
+public class InterpolatingLongDoubleSampler implements LongToDoubleBatchFunction {
 
     private static final double MAX_LONG_AS_DOUBLE = Long.MAX_VALUE;
 
@@ -62,13 +65,19 @@ public class InterpolatingLongDoubleSampler implements LongToDoubleFunction {
         this.finite = finite;
         this.clampMin=clampMin;
         this.clampMax=clampMax;
-        double[] computed = precompute(resolution);
-        double[] padded = new double[computed.length+1];
-        System.arraycopy(computed,0,padded,0,computed.length);
+        double[] padded = ICDTableCache.table(
+            InterpolatingLongDoubleSampler.class, icdSource, resolution, clamp, clampMin, clampMax, finite,
+            () -> pad(precompute(resolution)));
         this.scaleToLong = (1.0d / (double) Long.MAX_VALUE) * (padded.length-2);
         this.lut = padded;
     }
 
+    private static double[] pad(double[] computed) {
+        double[] padded = new double[computed.length+1];
+        System.arraycopy(computed,0,padded,0,computed.length);
+        return padded;
+    }
+
     private double[] precompute(int resolution) {
         double[] precomputed = new double[resolution];
         for (int s = 0; s < resolution; s++) { // not a ranging error
@@ -100,4 +109,19 @@ public class InterpolatingLongDoubleSampler implements LongToDoubleFunction {
         double sample = (lut[leftidx]* (1.0d-fractional)) + (lut[leftidx+1] * fractional);
         return sample;
     }
+
+    /**
+     * The same LERP as {@link #applyAsDouble(long)}, as one loop over primitive arrays.
+     */
+    @Override
+    public void fillDoubles(long[] inputs, int count, double[] into) {
+        double[] table = lut;
+        for (int i = 0; i < count; i++) {
+            long input = (hash != null) ? hash.applyAsLong(inputs[i]) : inputs[i];
+            double samplePoint = scaleToLong * input;
+            int leftidx = (int) samplePoint;
+            double fractional = samplePoint - leftidx;
+            into[i] = (table[leftidx] * (1.0d - fractional)) + (table[leftidx + 1] * fractional);
+        }
+    }
 }
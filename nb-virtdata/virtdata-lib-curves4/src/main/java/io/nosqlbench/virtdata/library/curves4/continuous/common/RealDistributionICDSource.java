@@ -18,18 +18,63 @@ package io.nosqlbench.virtdata.library.curves4.continuous.common;
 
 import org.apache.commons.statistics.distribution.ContinuousDistribution;
 
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
 import java.util.function.DoubleUnaryOperator;
 
 public class RealDistributionICDSource implements DoubleUnaryOperator {
 
+    private static final String PARAMETERIZED_PACKAGE = "org.apache.commons.statistics.distribution";
+
     private final ContinuousDistribution realDistribution;
+    private final List<Object> parameterKey;
 
     public RealDistributionICDSource(ContinuousDistribution realDistribution) {
         this.realDistribution = realDistribution;
+        this.parameterKey = parameterKeyOf(realDistribution);
     }
 
     @Override
     public double applyAsDouble(double operand) {
         return realDistribution.inverseCumulativeProbability(operand);
     }
+
+    /// The type of the distribution and the values of its public numeric accessors, which for
+    /// the distributions of commons-statistics include every parameter, so that two sources with
+    /// equal keys have the same inverse cumulative distribution.
+    /// @return the key, or null for other distributions, such as those defined by a list of
+    ///     values, which can not be told apart by their accessors
+    public List<Object> parameterKey() {
+        return parameterKey;
+    }
+
+    private static List<Object> parameterKeyOf(ContinuousDistribution distribution) {
+        Class<?> type = distribution.getClass();
+        if (!type.getPackageName().equals(PARAMETERIZED_PACKAGE) || !Modifier.isPublic(type.getModifiers())) {
+            return null;
+        }
+        List<Object> key = new ArrayList<>();
+        key.add(type.getName());
+        Method[] accessors = type.getMethods();
+        Arrays.sort(accessors, Comparator.comparing(Method::getName));
+        try {
+            for (Method accessor : accessors) {
+                Class<?> returned = accessor.getReturnType();
+                if (accessor.getParameterCount() == 0
+                    && !Modifier.isStatic(accessor.getModifiers())
+                    && (accessor.getName().startsWith("get") || accessor.getName().startsWith("is"))
+                    && (returned == double.class || returned == int.class || returned == long.class || returned == boolean.class)) {
+                    key.add(accessor.getName());
+                    key.add(accessor.invoke(distribution));
+                }
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+        return List.copyOf(key);
+    }
 }
@@ -16,6 +16,7 @@
 
 package io.nosqlbench.virtdata.library.curves4.continuous.long_double;
 
+import io.nosqlbench.virtdata.api.bindings.LongToDoubleBatchFunction;
 import io.nosqlbench.virtdata.library.curves4.continuous.common.InterpolatingLongDoubleSampler;
 import io.nosqlbench.virtdata.library.curves4.continuous.common.RealDistributionICDSource;
 import io.nosqlbench.virtdata.library.curves4.continuous.common.RealLongDoubleSampler;
@@ -77,7 +78,7 @@ import java.util.function.LongToDoubleFunction;
 
 /**
  */
-public class LongToDoubleContinuousCurve implements LongToDoubleFunction {
+public class LongToDoubleContinuousCurve implements LongToDoubleBatchFunction {
 
     private final ContinuousDistribution distribution;
     private final LongToDoubleFunction function;
@@ -148,4 +149,15 @@ public class LongToDoubleContinuousCurve implements LongToDoubleFunction {
     public double applyAsDouble(long value) {
         return function.applyAsDouble(value);
     }
+
+    @Override
+    public void fillDoubles(long[] inputs, int count, double[] into) {
+        if (function instanceof LongToDoubleBatchFunction batch) {
+            batch.fillDoubles(inputs, count, into);
+        } else {
+            for (int i = 0; i < count; i++) {
+                into[i] = function.applyAsDouble(inputs[i]);
+            }
+        }
+    }
 }
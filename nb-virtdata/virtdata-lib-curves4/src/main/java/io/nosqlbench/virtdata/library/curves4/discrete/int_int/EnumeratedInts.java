@@ -58,7 +58,7 @@ import org.apache.commons.math4.legacy.distribution.EnumeratedIntegerDistributio
  * }</pre>
  *
  * The values here which are not multiples of 10 are not specified, yet the appear. For some testing, this is
- * helpful as a fuzzer, but for more precise step-value sampling, see {@link AliasSampler}
+ * helpful as a fuzzer, but for more precise step-value sampling, see {@link io.nosqlbench.virtdata.library.basics.shared.distributions.WeightedInts}
  */
 @ThreadSafeMapper
 @Categories({Category.distributions})
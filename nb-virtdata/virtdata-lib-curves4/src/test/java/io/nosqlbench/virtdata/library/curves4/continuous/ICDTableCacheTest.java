@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.library.curves4.continuous;
+
+import io.nosqlbench.virtdata.library.curves4.continuous.common.ICDTableCache;
+import io.nosqlbench.virtdata.library.curves4.continuous.common.RealDistributionICDSource;
+import io.nosqlbench.virtdata.library.curves4.continuous.long_double.Enumerated;
+import io.nosqlbench.virtdata.library.curves4.continuous.long_double.Normal;
+import io.nosqlbench.virtdata.library.curves4.continuous.long_double.Triangular;
+import org.apache.commons.statistics.distribution.NormalDistribution;
+import org.apache.commons.statistics.distribution.TriangularDistribution;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+public class ICDTableCacheTest {
+
+    @Test
+    public void testParameterKeysNameEveryParameter() {
+        assertThat(new RealDistributionICDSource(NormalDistribution.of(0.0d, 1.0d)).parameterKey())
+            .isEqualTo(new RealDistributionICDSource(NormalDistribution.of(0.0d, 1.0d)).parameterKey());
+        assertThat(new RealDistributionICDSource(NormalDistribution.of(0.0d, 1.0d)).parameterKey())
+            .isNotEqualTo(new RealDistributionICDSource(NormalDistribution.of(0.0d, 2.0d)).parameterKey());
+        assertThat(new RealDistributionICDSource(TriangularDistribution.of(0.0d, 1.0d, 4.0d)).parameterKey())
+            .isNotEqualTo(new RealDistributionICDSource(TriangularDistribution.of(0.0d, 2.0d, 4.0d)).parameterKey());
+    }
+
+    @Test
+    public void testEqualCurvesShareOneTable() {
+        new Normal(17.0d, 3.0d);
+        int tables = ICDTableCache.size();
+        Normal first = new Normal(17.0d, 3.0d);
+        Normal second = new Normal(17.0d, 3.0d);
+        assertThat(ICDTableCache.size()).isEqualTo(tables);
+        for (long cycle = 0; cycle < 1000; cycle++) {
+            assertThat(second.applyAsDouble(cycle)).isEqualTo(first.applyAsDouble(cycle));
+        }
+
+        new Normal(17.0d, 4.0d);
+        new Normal(17.0d, 3.0d, "noclamp");
+        assertThat(ICDTableCache.size()).isEqualTo(tables + 2);
+    }
+
+    @Test
+    public void testValueListsAreNotShared() {
+        int tables = ICDTableCache.size();
+        Enumerated low = new Enumerated("1 2 3");
+        Enumerated high = new Enumerated("7 8 9");
+        assertThat(ICDTableCache.size()).isEqualTo(tables);
+        assertThat(low.applyAsDouble(5L)).isLessThan(high.applyAsDouble(5L));
+    }
+
+    @Test
+    public void testBatchMatchesSingleSamples() {
+        Triangular curve = new Triangular(0.0d, 2.0d, 10.0d);
+        long[] cycles = new long[257];
+        for (int i = 0; i < cycles.length; i++) {
+            cycles[i] = 1000L + (i * 3L);
+        }
+        double[] batch = new double[cycles.length];
+        curve.fillDoubles(cycles, 200, batch);
+        for (int i = 0; i < 200; i++) {
+            assertThat(batch[i]).isEqualTo(curve.applyAsDouble(cycles[i]));
+        }
+        assertThat(batch[200]).isZero();
+    }
+}
@@ -23,10 +23,13 @@ import io.jhdf.api.Group;
 import io.jhdf.api.Node;
 import io.nosqlbench.nb.api.nbio.NBIO;
 import io.nosqlbench.virtdata.library.hdf5.helpers.HdfAttributesProcessor;
+import io.nosqlbench.virtdata.library.hdf5.helpers.HdfBlockCache;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.lang.reflect.Array;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Abstract base class for reading data from HDF5 files.
@@ -38,7 +41,13 @@ public abstract class AbstractHdfFileToVectorType implements HdfAttributesProces
     protected final String datasetName;        // Name/path of the dataset
     protected final int[] dims;                // Dimensions of the dataset
     protected String dataType;                 // Data type of the dataset
+    private final HdfBlockCache blockCache = HdfBlockCache.SHARED;
+    private final String cacheSource;          // Identifies this dataset's blocks in the shared cache
+    private final long rowBytes;               // Estimated decoded size of one row
+    private final int blockRows;               // Rows decoded together as one cached block
+    private final AtomicLong lastBlock = new AtomicLong(-2L);
     protected final static Logger logger = LogManager.getLogger(AbstractHdfFileToVectorType.class);
+    private final static long TARGET_BLOCK_BYTES = 1024L * 1024L;
 
     /**
      * Constructs a new instance for reading data from an HDF5 file.
@@ -51,29 +60,102 @@ public abstract class AbstractHdfFileToVectorType implements HdfAttributesProces
         this.datasetName = datasetName;
         dataset = hdfFile.getDatasetByPath(datasetName);
         dims = dataset.getDimensions();
+        cacheSource = hdfFile.getFile().getAbsolutePath() + "#" + datasetName;
+        rowBytes = Math.max(1L, dataset.getSizeInBytes() / Math.max(1, dims[0]));
+        blockRows = (int) Math.max(1L, Math.min(dims[0], TARGET_BLOCK_BYTES / rowBytes));
         processAttributes(hdfFile);
         this.dataType = (dataType == null) ? dataset.getJavaType().getSimpleName().toLowerCase() : dataType;
     }
 
     /**
      * Retrieves data from the dataset at a specific position.
-     * For multi-dimensional datasets, returns a slice of data.
+     * For multi-dimensional datasets, returns a slice of data holding the single row at that position.
+     * For one-dimensional datasets, returns a one-element array of the dataset's type holding the
+     * single element at that position, so callers which index it by cycle read that element.
+     * <p>
+     * Rows are decoded a block at a time through the shared {@link HdfBlockCache}, so neighbouring rows
+     * do not re-read and re-decompress the same HDF5 chunks. When a caller moves on to the next block
+     * in sequence, the block after it is read ahead in the background.
      *
      * @param l The position to read from
      * @return The data at the specified position
      */
     protected Object getDataFrom(long l) {
-        long[] sliceOffset = new long[dims.length];
-        sliceOffset[0] = (l % dims[0]);
-        int[] sliceDimensions = new int[dims.length];
-        // We always want to read a single value
-        sliceDimensions[0] = 1;
         if (dims.length > 1) {
-            sliceDimensions[1] = dims[1];
-            return dataset.getData(sliceOffset, sliceDimensions);
+            long row = l % dims[0];
+            long block = row / blockRows;
+            long previous = lastBlock.getAndSet(block);
+            if (previous == block - 1 && (block + 1) * blockRows < dims[0]) {
+                blockCache.prefetch(blockKey(block + 1), blockWeight(block + 1), () -> readBlock(block + 1));
+            }
+            Object rows = blockCache.get(blockKey(block), blockWeight(block), () -> readBlock(block));
+            return singleRow(rows, (int) (row - block * blockRows));
         } else {
-            return dataset.getData();
+            Object elements = blockCache.get(blockKey(0), dataset.getSizeInBytes(), dataset::getData);
+            return singleElement(elements, (int) (l % dims[0]));
+        }
+    }
+
+    private HdfBlockCache.BlockKey blockKey(long block) {
+        return new HdfBlockCache.BlockKey(cacheSource, block);
+    }
+
+    private int rowsIn(long block) {
+        return (int) Math.min(blockRows, dims[0] - block * blockRows);
+    }
+
+    private long blockWeight(long block) {
+        return rowsIn(block) * rowBytes;
+    }
+
+    private Object readBlock(long block) {
+        long[] sliceOffset = new long[dims.length];
+        sliceOffset[0] = block * blockRows;
+        int[] sliceDimensions = dims.clone();
+        sliceDimensions[0] = rowsIn(block);
+        return dataset.getData(sliceOffset, sliceDimensions);
+    }
+
+    /**
+     * Copy one row out of a cached block into the same single-row shape a one-row slice would have,
+     * so that callers are free to keep or modify what they are given.
+     */
+    private static Object singleRow(Object rows, int index) {
+        Object copy = copyOf(Array.get(rows, index));
+        Object slice = Array.newInstance(copy.getClass(), 1);
+        Array.set(slice, 0, copy);
+        return slice;
+    }
+
+    /**
+     * Copy one element out of a cached one-dimensional dataset into a one-element array of the same
+     * type. Elements which are arrays themselves, such as variable-length rows, are copied too.
+     */
+    private static Object singleElement(Object elements, int index) {
+        Object slice = Array.newInstance(elements.getClass().getComponentType(), 1);
+        Object element = Array.get(elements, index);
+        Array.set(slice, 0, (element != null && element.getClass().isArray()) ? copyOf(element) : element);
+        return slice;
+    }
+
+    /**
+     * Deep copy of a cached array, including any nested arrays, so that changes made by a caller
+     * never reach the cache.
+     */
+    private static Object copyOf(Object cached) {
+        int length = Array.getLength(cached);
+        Class<?> componentType = cached.getClass().getComponentType();
+        Object copy = Array.newInstance(componentType, length);
+        System.arraycopy(cached, 0, copy, 0, length);
+        if (!componentType.isPrimitive()) {
+            Object[] elements = (Object[]) copy;
+            for (int i = 0; i < length; i++) {
+                if (elements[i] != null && elements[i].getClass().isArray()) {
+                    elements[i] = copyOf(elements[i]);
+                }
+            }
         }
+        return copy;
     }
 
     /**
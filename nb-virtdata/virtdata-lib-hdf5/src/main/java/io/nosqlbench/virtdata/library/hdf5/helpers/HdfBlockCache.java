@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.library.hdf5.helpers;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/// A least-recently-used cache of decoded HDF5 blocks, bounded by an estimate of their size in
+/// bytes and shared by every thread and every HDF5 binding function in the process.
+///
+/// A block is whatever a caller decodes in one `Dataset.getData` call, typically a run of
+/// consecutive rows. Decoding happens outside the cache lock, and concurrent requests for a
+/// block which is still being decoded wait for that one decode rather than starting their own.
+///
+/// ```
+///  get(key) ──► hit ───────────────────────────────► decoded block
+///          └──► miss ─► loader (caller thread) ─────► decoded block
+///  prefetch(key) ─────► loader (virtual thread) ──► resident for a later hit
+/// ```
+///
+/// The capacity of [#SHARED] is taken from the `NB_HDF5_BLOCK_CACHE_MB` environment variable,
+/// and is [#DEFAULT_CAPACITY_MB] when that is not set.
+public final class HdfBlockCache {
+    private final static Logger logger = LogManager.getLogger(HdfBlockCache.class);
+
+    public static final String CAPACITY_ENV = "NB_HDF5_BLOCK_CACHE_MB";
+    public static final long DEFAULT_CAPACITY_MB = 256L;
+    public static final HdfBlockCache SHARED = new HdfBlockCache(configuredCapacityMb() * 1024L * 1024L);
+
+    public record BlockKey(String source, long block) {
+    }
+
+    /// Cumulative counters since the cache was created, along with its current resident size.
+    public record Stats(long hits, long misses, long readAheads, long evictions, long residentBytes) {
+        public double hitRatio() {
+            long requests = hits + misses;
+            return requests == 0 ? 0.0d : (double) hits / requests;
+        }
+    }
+
+    private record Entry(CompletableFuture<Object> block, long weight) {
+    }
+
+    private final long capacityBytes;
+    private final LinkedHashMap<BlockKey, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long residentBytes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder readAheads = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public HdfBlockCache(long capacityBytes) {
+        if (capacityBytes <= 0) {
+            throw new IllegalArgumentException("HDF5 block cache capacity must be positive, but was " + capacityBytes);
+        }
+        this.capacityBytes = capacityBytes;
+    }
+
+    private static long configuredCapacityMb() {
+        String configured = System.getenv(CAPACITY_ENV);
+        long capacityMb = DEFAULT_CAPACITY_MB;
+        if (configured != null && !configured.isBlank()) {
+            try {
+                capacityMb = Long.parseLong(configured.trim());
+            } catch (NumberFormatException e) {
+                logger.warn("Ignoring {}={}, which is not a whole number of MB", CAPACITY_ENV, configured);
+            }
+        }
+        return capacityMb > 0 ? capacityMb : DEFAULT_CAPACITY_MB;
+    }
+
+    /// Return the decoded block for the given key, decoding it on the calling thread if it is
+    /// neither resident nor already being decoded.
+    /// @param weight the estimated size of the decoded block in bytes
+    public Object get(BlockKey key, long weight, Supplier<Object> loader) {
+        CompletableFuture<Object> block;
+        boolean load;
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            load = (entry == null);
+            if (load) {
+                misses.increment();
+                entry = admit(key, weight);
+            } else {
+                hits.increment();
+            }
+            block = entry.block();
+        }
+        if (load) {
+            decode(key, block, loader);
+        }
+        try {
+            return block.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    /// Start decoding the given block in the background, unless it is resident or already
+    /// being decoded.
+    public void prefetch(BlockKey key, long weight, Supplier<Object> loader) {
+        CompletableFuture<Object> block = null;
+        synchronized (entries) {
+            if (!entries.containsKey(key)) {
+                readAheads.increment();
+                block = admit(key, weight).block();
+            }
+        }
+        if (block != null) {
+            CompletableFuture<Object> pending = block;
+            Thread.ofVirtual().name("hdf5-readahead").start(() -> decode(key, pending, loader));
+        }
+    }
+
+    public Stats stats() {
+        synchronized (entries) {
+            return new Stats(hits.sum(), misses.sum(), readAheads.sum(), evictions.sum(), residentBytes);
+        }
+    }
+
+    private Entry admit(BlockKey key, long weight) {
+        Entry entry = new Entry(new CompletableFuture<>(), weight);
+        entries.put(key, entry);
+        residentBytes += weight;
+        Iterator<Map.Entry<BlockKey, Entry>> eldest = entries.entrySet().iterator();
+        while (residentBytes > capacityBytes && entries.size() > 1) {
+            Map.Entry<BlockKey, Entry> evicted = eldest.next();
+            eldest.remove();
+            residentBytes -= evicted.getValue().weight();
+            evictions.increment();
+        }
+        return entry;
+    }
+
+    private void decode(BlockKey key, CompletableFuture<Object> block, Supplier<Object> loader) {
+        try {
+            block.complete(loader.get());
+        } catch (RuntimeException e) {
+            synchronized (entries) {
+                Entry entry = entries.get(key);
+                if (entry != null && entry.block() == block) {
+                    entries.remove(key);
+                    residentBytes -= entry.weight();
+                }
+            }
+            block.completeExceptionally(e);
+        }
+    }
+}
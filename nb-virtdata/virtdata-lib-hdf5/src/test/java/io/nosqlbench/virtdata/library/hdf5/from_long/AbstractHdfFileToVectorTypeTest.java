@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.library.hdf5.from_long;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("unit")
+public class AbstractHdfFileToVectorTypeTest {
+
+    @Test
+    public void testOneDimensionalDataIsAnIndependentCopy() {
+        AbstractHdfFileToVectorType reader = new AbstractHdfFileToVectorType(
+            "src/test/resources/hdf5_test_strings.h5",
+            "/strings") {
+        };
+
+        String[] first = (String[]) reader.getDataFrom(0);
+        assert (first[0].equals("String 1"));
+        first[0] = "changed";
+        String[] again = (String[]) reader.getDataFrom(0);
+        assert (again[0].equals("String 1"));
+        assert (again != first);
+    }
+
+    @Test
+    public void testOneDimensionalDataHoldsOnlyTheIndexedElement() {
+        AbstractHdfFileToVectorType reader = new AbstractHdfFileToVectorType(
+            "src/test/resources/hdf5_test_strings.h5",
+            "/strings") {
+        };
+
+        String[] third = (String[]) reader.getDataFrom(2);
+        assert (third.length == 1);
+        assert (third[0].equals("String 3"));
+        String[] wrapped = (String[]) reader.getDataFrom(6);
+        assert (wrapped.length == 1);
+        assert (wrapped[0].equals("String 3"));
+    }
+}
@@ -43,4 +43,17 @@ public class HdfFileToArrayTest {
             }
         }
     }
+
+    @Test
+    public void testRowsFromCachedBlockAreIndependentCopies() {
+        HdfFileToFloatArray hdfFileToVector = new HdfFileToFloatArray(
+            "src/test/resources/h5ex_t_float.h5",
+            "/DS1");
+
+        float[] first = hdfFileToVector.apply(1);
+        first[0] = -1.0f;
+        float[] again = hdfFileToVector.apply(1);
+        assert (again[0] == 2.0f);
+        assert (hdfFileToVector.apply(5)[0] == hdfFileToVector.apply(1)[0]);
+    }
 }
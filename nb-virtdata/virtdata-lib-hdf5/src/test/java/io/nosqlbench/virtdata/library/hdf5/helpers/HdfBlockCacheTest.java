@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.library.hdf5.helpers;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Tag("unit")
+public class HdfBlockCacheTest {
+
+    @Test
+    public void testLeastRecentlyUsedBlocksAreEvictedBySize() {
+        HdfBlockCache cache = new HdfBlockCache(300L);
+        AtomicInteger loads = new AtomicInteger();
+
+        for (long block : new long[]{0, 1, 2, 0, 3, 0, 1}) {
+            Object decoded = cache.get(new HdfBlockCache.BlockKey("test", block), 100L, () -> {
+                loads.incrementAndGet();
+                return "block-" + block;
+            });
+            assertThat(decoded).isEqualTo("block-" + block);
+        }
+
+        // 0,1,2 miss; 0 hits; 3 misses and evicts 1; 0 hits; 1 misses again and evicts 2
+        HdfBlockCache.Stats stats = cache.stats();
+        assertThat(loads.get()).isEqualTo(5);
+        assertThat(stats.misses()).isEqualTo(5);
+        assertThat(stats.hits()).isEqualTo(2);
+        assertThat(stats.evictions()).isEqualTo(2);
+        assertThat(stats.residentBytes()).isEqualTo(300L);
+    }
+
+    @Test
+    public void testPrefetchedBlockIsServedAsHit() {
+        HdfBlockCache cache = new HdfBlockCache(1000L);
+        HdfBlockCache.BlockKey key = new HdfBlockCache.BlockKey("test", 7);
+
+        cache.prefetch(key, 10L, () -> "prefetched");
+        cache.prefetch(key, 10L, () -> "again");
+        Object decoded = cache.get(key, 10L, () -> "loaded");
+
+        assertThat(decoded).isEqualTo("prefetched");
+        assertThat(cache.stats().readAheads()).isEqualTo(1);
+        assertThat(cache.stats().hits()).isEqualTo(1);
+        assertThat(cache.stats().misses()).isZero();
+    }
+
+    @Test
+    public void testFailedDecodeIsNotCached() {
+        HdfBlockCache cache = new HdfBlockCache(1000L);
+        HdfBlockCache.BlockKey key = new HdfBlockCache.BlockKey("test", 0);
+
+        assertThatThrownBy(() -> cache.get(key, 10L, () -> {
+            throw new IllegalStateException("corrupt chunk");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.get(key, 10L, () -> "recovered")).isEqualTo("recovered");
+        assertThat(cache.stats().residentBytes()).isEqualTo(10L);
+    }
+}
@@ -23,39 +23,45 @@ import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 
 import java.io.IOException;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-import java.nio.channels.AsynchronousFileChannel;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.LongFunction;
 
+/**
+ * Reads bvec files, converting each unsigned byte component to a float, using the input to specify the record number.
+ * The file is memory-mapped once and shared by all readers of the same path, so records are read directly from the
+ * mapping with no intermediate buffers.
+ */
 @Categories({Category.readers, Category.conversion})
 @ThreadSafeMapper
 public class BVecToFloatReader implements LongFunction<float[]>, AutoCloseable {
 
-    private final AsynchronousFileChannel fileChannel;
+    private final MappedXvecFile file;
+    private final AtomicBoolean closed = new AtomicBoolean();
     private final int dimension;
     private final long vectorSize;
     private final long totalVectors;
 
     public BVecToFloatReader(String filePath) throws IOException {
-        this.fileChannel = AsynchronousFileChannel.open(Path.of(filePath), StandardOpenOption.READ);
+        this(filePath, false);
+    }
 
-        // Read the first dimension (4 bytes, little-endian)
-        ByteBuffer dimBuffer = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
-        try {
-            fileChannel.read(dimBuffer, 0).get();
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+    /**
+     * @param prefetch If true, page the file into memory in the background so that early reads
+     *                 do not pay for cold page faults. Only useful when the file fits in memory.
+     */
+    public BVecToFloatReader(String filePath, boolean prefetch) throws IOException {
+        this.file = MappedXvecFile.open(Path.of(filePath), prefetch);
+        if (file.size() < Integer.BYTES) {
+            file.close();
+            throw new IOException("The bvec file '" + filePath + "' is too small to contain a record");
         }
-        dimBuffer.flip();
-        this.dimension = dimBuffer.getInt();
+
+        // Read the first dimension (4 bytes, little-endian)
+        this.dimension = file.intAt(0);
 
         this.vectorSize = 4L + dimension; // 4 bytes for dimension + d bytes for uint8 vector
-        long fileSize = fileChannel.size();
-        this.totalVectors = fileSize / vectorSize;
+        this.totalVectors = file.size() / vectorSize;
     }
 
     public float[] apply(long index) {
@@ -64,31 +70,21 @@ public class BVecToFloatReader implements LongFunction<float[]>, AutoCloseable {
         }
 
         long offset = index * vectorSize;
-        ByteBuffer buffer = ByteBuffer.allocate((int) vectorSize).order(ByteOrder.LITTLE_ENDIAN);
-
-        try {
-            fileChannel.read(buffer, offset).get();  // Wait for async read to complete
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Failed to read vector at index " + index, e);
-        }
-
-        buffer.flip();
-        int dim = buffer.getInt();
+        int dim = file.intAt(offset);
 
         if (dim != dimension) {
             throw new IllegalStateException("Inconsistent dimension at vector index " + index);
         }
 
         float[] vector = new float[dimension];
-        for (int i = 0; i < dimension; i++) {
-            vector[i] = buffer.get() & 0xFF; // convert unsigned byte to float
-        }
-
+        file.readUnsignedBytes(offset + Integer.BYTES, vector); // convert unsigned byte to float
         return vector;
     }
 
     @Override
-    public void close() throws Exception {
-        this.fileChannel.close();
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            file.close();
+        }
     }
 }
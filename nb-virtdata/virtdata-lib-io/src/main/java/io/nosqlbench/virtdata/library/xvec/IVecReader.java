@@ -24,12 +24,8 @@ import io.nosqlbench.virtdata.api.annotations.Example;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 
 import java.io.IOException;
-import java.nio.ByteBuffer;
-import java.nio.channels.FileChannel;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.LongFunction;
 
 /**
@@ -37,6 +33,8 @@ import java.util.function.LongFunction;
  * This is used for testing with generated KNN test data which is uniform in dimensions and neighborhood size.
  * While it is possible to specify different dimensioned vectors per record, this is not supported, since this
  * function honors the pure-function behavior of other NB binding functions. This requires uniform record structure for random access.
+ * The file is memory-mapped once and shared by all readers of the same path, so records are copied directly from the
+ * mapping with no per-thread file handles or intermediate buffers.
  */
 @ThreadSafeMapper
 @Categories(Category.readers)
@@ -47,6 +45,8 @@ public class IVecReader implements LongFunction<int[]>, AutoCloseable {
     private final long filesize;
     private final Path path;
     private final int reclim;
+    private final MappedXvecFile file;
+    private final AtomicBoolean closed = new AtomicBoolean();
 
     /**
      * Read the ivec file, determining the record size from the first record.
@@ -59,20 +59,33 @@ public class IVecReader implements LongFunction<int[]>, AutoCloseable {
 
     @Example({"IvecReader('testfile.ivec', 46, 12)","Create a reader for int vectors, asserting 46 dimensions and limit total records to 12."})
     public IVecReader(String pathname, int expectedDimensions, int recordLimit) {
+        this(pathname, expectedDimensions, recordLimit, false);
+    }
+
+    /**
+     * Read the ivec file from a shared read-only memory mapping.
+     * @param prefetch If true, page the file into memory in the background so that early reads
+     *                 do not pay for cold page faults. Only useful when the file fits in memory.
+     */
+    @Example({"IvecReader('testfile.ivec', 0, 0, true)","Create a reader for int vectors, warming the whole file into memory in the background."})
+    public IVecReader(String pathname, int expectedDimensions, int recordLimit, boolean prefetch) {
         Content<?> src = NBIO.fs().search(pathname).one();
         this.path = src.asPath();
 
         try {
-            FileChannel initChannel = FileChannel.open(this.path, StandardOpenOption.READ);
-            this.filesize = initChannel.size();
+            this.file = MappedXvecFile.open(this.path, prefetch);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        try {
+            this.filesize = file.size();
+            if (filesize < Integer.BYTES) {
+                throw new RuntimeException("The ivec file '" + pathname + "' is too small to contain a record");
+            }
 
             // Read dimensions from the first 4 bytes
-            ByteBuffer headerBuffer = ByteBuffer.allocate(Integer.BYTES);
-            initChannel.position(0);
-            initChannel.read(headerBuffer);
-            headerBuffer.flip();
-            this.dimensions = Integer.reverseBytes(headerBuffer.getInt());
-            initChannel.close();
+            this.dimensions = file.intAt(0);
 
             if(expectedDimensions > 0 && expectedDimensions != dimensions) {
                 throw new RuntimeException("Invalid dimensions specified for '" + pathname +
@@ -98,30 +111,10 @@ public class IVecReader implements LongFunction<int[]>, AutoCloseable {
                 throw new RuntimeException("The filesize (" + filesize +
                     ") for '" + pathname + "' must be a multiple of the reclen (" + reclen + ")");
             }
-
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
-    }
-
-    // Use a thread-local to store the file channel without closing it between calls
-    private static final ThreadLocal<Map<Path, FileChannel>> THREAD_CHANNELS =
-        ThreadLocal.withInitial(() -> new HashMap<>());
-
-    private FileChannel getOrCreateChannel() throws IOException {
-        // Get the thread-local map of channels
-        Map<Path, FileChannel> channelMap = THREAD_CHANNELS.get();
-
-        // Try to get an existing channel for this path
-        FileChannel channel = channelMap.get(path);
-
-        // Create a new channel if needed
-        if (channel == null || !channel.isOpen()) {
-            channel = FileChannel.open(path, StandardOpenOption.READ);
-            channelMap.put(path, channel);
+        } catch (RuntimeException e) {
+            file.close();
+            throw e;
         }
-
-        return channel;
     }
 
     @Override
@@ -129,46 +122,21 @@ public class IVecReader implements LongFunction<int[]>, AutoCloseable {
         int recordIdx = (int) (value % reclim);
         long recpos = (long)recordIdx * reclen;
 
-        try {
-            FileChannel channel = getOrCreateChannel();
-            ByteBuffer headerBuffer = ByteBuffer.allocate(Integer.BYTES);
-            ByteBuffer vectorBuffer = ByteBuffer.allocate(dimensions * Integer.BYTES);
-
-            // Read record dimensions
-            headerBuffer.clear();
-            channel.position(recpos);
-            channel.read(headerBuffer);
-            headerBuffer.flip();
-            int recdim = Integer.reverseBytes(headerBuffer.getInt());
-
-            if(recdim != dimensions) {
-                throw new RuntimeException("dimensions are not uniform for ivec file '" +
-                    this.path + "', found dim " + recdim + " at record " + value);
-            }
-
-            // Read vector data
-            vectorBuffer.clear();
-            channel.read(vectorBuffer);
-            vectorBuffer.flip();
-
-            int[] data = new int[dimensions];
-            for (int i = 0; i < dimensions; i++) {
-                data[i] = Integer.reverseBytes(vectorBuffer.getInt());
-            }
-            return data;
-
-        } catch (IOException e) {
-            throw new RuntimeException("Error reading from file: " + e.getMessage(), e);
+        int recdim = file.intAt(recpos);
+        if(recdim != dimensions) {
+            throw new RuntimeException("dimensions are not uniform for ivec file '" +
+                this.path + "', found dim " + recdim + " at record " + value);
         }
+
+        int[] data = new int[dimensions];
+        file.readInts(recpos + Integer.BYTES, data);
+        return data;
     }
 
     @Override
-    public void close() throws Exception {
-        // Close and remove channel for this path
-        Map<Path, FileChannel> channelMap = THREAD_CHANNELS.get();
-        FileChannel channel = channelMap.remove(path);
-        if (channel != null && channel.isOpen()) {
-            channel.close();
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            file.close();
         }
     }
 
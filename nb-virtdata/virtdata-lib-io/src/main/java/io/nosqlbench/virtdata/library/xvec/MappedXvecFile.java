@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.library.xvec;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/// A read-only memory mapping of a whole xvec file, shared by every reader of the same path.
+///
+/// The file is mapped once as a single [MemorySegment], so files larger than 2GB need no
+/// windowing, and records are copied straight from the page cache into the caller's array with
+/// no intermediate buffer and no per-thread file handles. All xvec formats store their values
+/// little-endian, which the unaligned layouts here account for on any platform.
+///
+/// ```
+/// record ┌──────────┬──────────────────────────────┐
+///        │ dim:int  │ dim × (float | int | uint8)  │
+///        └──────────┴──────────────────────────────┘
+/// ```
+///
+/// Mappings are reference counted: each [#open] must be paired with one [#close], and the file
+/// is unmapped when the last reader of it is closed.
+final class MappedXvecFile implements AutoCloseable {
+
+    static final ValueLayout.OfInt LE_INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    static final ValueLayout.OfFloat LE_FLOAT = ValueLayout.JAVA_FLOAT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    private static final long PAGE_SIZE = 4096L;
+
+    /// guarded by itself, along with the reference counts of its values
+    private static final Map<Path, MappedXvecFile> MAPPED = new HashMap<>();
+
+    private final Path path;
+    private final Arena arena;
+    private final MemorySegment segment;
+    private int references;
+    private Thread prefetcher;
+    private volatile boolean closing;
+    private volatile byte touched;
+
+    private MappedXvecFile(Path path) throws IOException {
+        this.path = path;
+        this.arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            this.segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    /// Map the file at the given path, or share the existing mapping of it.
+    /// @param prefetch if true, start paging the whole file into memory in the background,
+    ///     so that a benchmark does not pay for cold page faults during its measured phase.
+    ///     This is the portable equivalent of `madvise(MADV_WILLNEED)`, and is only worth
+    ///     asking for when the file fits comfortably in physical memory.
+    static MappedXvecFile open(Path path, boolean prefetch) throws IOException {
+        Path key = path.toAbsolutePath().normalize();
+        synchronized (MAPPED) {
+            MappedXvecFile file = MAPPED.get(key);
+            if (file == null) {
+                file = new MappedXvecFile(key);
+                MAPPED.put(key, file);
+            }
+            file.references++;
+            if (prefetch && file.prefetcher == null) {
+                MappedXvecFile warming = file;
+                file.prefetcher = Thread.ofVirtual()
+                    .name("xvec-prefetch-" + key.getFileName())
+                    .start(warming::touchPages);
+            }
+            return file;
+        }
+    }
+
+    /// Touch one byte of every page rather than calling [MemorySegment#load()], so that closing
+    /// the last reader can stop the warmup between pages instead of waiting for the whole file.
+    private void touchPages() {
+        long size = segment.byteSize();
+        byte sink = 0;
+        for (long offset = 0; offset < size && !closing; offset += PAGE_SIZE) {
+            sink ^= segment.get(ValueLayout.JAVA_BYTE, offset);
+        }
+        this.touched = sink;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    long size() {
+        return segment.byteSize();
+    }
+
+    int intAt(long offset) {
+        return segment.get(LE_INT, offset);
+    }
+
+    void readFloats(long offset, float[] into) {
+        MemorySegment.copy(segment, LE_FLOAT, offset, into, 0, into.length);
+    }
+
+    void readInts(long offset, int[] into) {
+        MemorySegment.copy(segment, LE_INT, offset, into, 0, into.length);
+    }
+
+    void readUnsignedBytes(long offset, float[] into) {
+        for (int i = 0; i < into.length; i++) {
+            into[i] = segment.get(ValueLayout.JAVA_BYTE, offset + i) & 0xFF;
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (MAPPED) {
+            if (--references == 0) {
+                MAPPED.remove(path);
+                closing = true;
+                if (prefetcher != null) {
+                    try {
+                        prefetcher.join();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                arena.close();
+            }
+        }
+    }
+}
@@ -19,6 +19,7 @@ package io.nosqlbench.virtdata.library.xvec;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -31,6 +32,7 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
@@ -83,6 +85,22 @@ public class FVecReaderTest {
         }
     }
 
+    @Test
+    public void testSharedMappingOutlivesEarlierReaders(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("shared.fvec");
+        writeFVecFile(file, 3, 5);
+
+        FVecReader first = new FVecReader(file.toString());
+        FVecReader second = new FVecReader(file.toString(), 3, 4, true);
+        assertThat(first.apply(2)).containsExactly(2.0f, 2.0f, 2.0f);
+
+        first.close();
+        first.close();
+        assertThat(second.apply(3)).containsExactly(3.0f, 3.0f, 3.0f);
+        assertThat(second.apply(4)).containsExactly(0.0f, 0.0f, 0.0f);
+        second.close();
+    }
+
     private void writeFVecFile(Path filePath, int dimensions, int recordCount) throws IOException {
         byte[] data = generateTestFVecData(dimensions, recordCount);
         Files.write(filePath, data);